@@ -0,0 +1,67 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Servidor SMTP mínimo que aceita e descarta todas as mensagens, usado nas execuções de
+ * treino do CDS e nos benchmarks de inicialização (o cadastro de usuário exige o envio do e-mail).
+ *
+ * <p>Uso: <code>java scripts/SmtpSink.java [porta]</code> (padrão 2525).</p>
+ */
+public class SmtpSink {
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 2525;
+        try (ServerSocket server = new ServerSocket(port)) {
+            while (true) {
+                Socket socket = server.accept();
+                new Thread(() -> session(socket)).start();
+            }
+        }
+    }
+
+    private static void session(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+            reply(out, "220 smtp-sink");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-smtp-sink\r\n250 AUTH PLAIN");
+                    case "AUTH" -> {
+                        if (line.trim().split("\\s+").length < 3) {
+                            reply(out, "334 ");
+                            in.readLine();
+                        }
+                        reply(out, "235 ok");
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 fim com <CRLF>.<CRLF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // descarta o conteúdo da mensagem
+                        }
+                        reply(out, "250 ok");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 bye");
+                        return;
+                    }
+                    default -> reply(out, "250 ok");
+                }
+            }
+        } catch (IOException e) {
+            // conexão encerrada pelo cliente
+        }
+    }
+
+    private static void reply(PrintWriter out, String message) {
+        out.print(message + "\r\n");
+        out.flush();
+    }
+}
@@ -0,0 +1,20 @@
+#!/usr/bin/env bash
+# Cadastra o usuário de teste (se ainda não existir) e faz login.
+# Sai com 0 somente se o login responder 200.
+#
+# Variáveis: PORT (padrão 10041), LOGIN_EMAIL (padrão startup@ex.com), LOGIN_PASSWORD (padrão Senha@123).
+set -uo pipefail
+
+PORT="${PORT:-10041}"
+LOGIN_EMAIL="${LOGIN_EMAIL:-startup@ex.com}"
+LOGIN_PASSWORD="${LOGIN_PASSWORD:-Senha@123}"
+BASE_URL="http://localhost:${PORT}"
+
+# 400 (e-mail já cadastrado) também serve: o usuário existe
+curl -s -o /dev/null -X POST "${BASE_URL}/user/api/v1/save" \
+  -H 'Content-Type: application/json' \
+  -d "{\"username\":\"startup\",\"email\":\"${LOGIN_EMAIL}\",\"password\":\"${LOGIN_PASSWORD}\",\"enabled\":true}"
+
+curl -sf -o /dev/null -X POST "${BASE_URL}/auth/login" \
+  -H 'Content-Type: application/json' \
+  -d "{\"email\":\"${LOGIN_EMAIL}\",\"password\":\"${LOGIN_PASSWORD}\"}"
@@ -0,0 +1,70 @@
+#!/usr/bin/env bash
+# Mede o tempo até a aplicação ficar pronta e o RSS do processo do User Service.
+#
+# Uso:
+#   scripts/startup-footprint.sh java -jar target/UserService-0.1.jar
+#   scripts/startup-footprint.sh java -Dspring.aot.enabled=true -jar target/UserService-0.1.jar
+#   scripts/startup-footprint.sh target/user-service
+#   READY=login scripts/startup-footprint.sh java -XX:SharedArchiveFile=app.jsa -jar app.jar
+#
+# Variáveis: PORT (padrão 10041), READY (jwks = primeira resposta HTTP, padrão; login = primeiro
+# login bem-sucedido, ver first-login.sh), TIMEOUT em segundos (padrão 120).
+# Com READY=login o SMTP da aplicação aponta para o SmtpSink.java (porta MAIL_PORT, padrão 2525,
+# executado com SINK_JAVA, padrão java), iniciado antes da medição. O processo recebe SIGTERM ao
+# final e o script aguarda o seu término (necessário para gravar arquivos CDS com -XX:ArchiveClassesAtExit).
+set -euo pipefail
+
+PORT="${PORT:-10041}"
+READY="${READY:-jwks}"
+TIMEOUT="${TIMEOUT:-120}"
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+
+if [ "$#" -eq 0 ]; then
+  sed -n '2,15p' "$0"
+  exit 1
+fi
+
+case "$READY" in
+  jwks)
+    label="primeira resposta"
+    extra_args=()
+    ready() { curl -sf -o /dev/null "http://localhost:${PORT}/.well-known/jwks.json"; }
+    ;;
+  login)
+    label="primeiro login"
+    MAIL_PORT="${MAIL_PORT:-2525}"
+    extra_args=(--spring.mail.host=localhost --spring.mail.port="$MAIL_PORT"
+                --spring.mail.properties.mail.smtp.starttls.enable=false)
+    ready() { PORT="$PORT" "${SCRIPT_DIR}/first-login.sh"; }
+    "${SINK_JAVA:-java}" "${SCRIPT_DIR}/SmtpSink.java" "$MAIL_PORT" > /tmp/smtp-sink.log 2>&1 &
+    sink_pid=$!
+    until (exec 3<>"/dev/tcp/localhost/${MAIL_PORT}") 2>/dev/null; do
+      kill -0 "$sink_pid" 2>/dev/null || { echo "SmtpSink não iniciou; ver /tmp/smtp-sink.log" >&2; exit 1; }
+      sleep 0.1
+    done
+    ;;
+  *)
+    echo "READY inválido: ${READY} (use jwks ou login)" >&2
+    exit 1
+    ;;
+esac
+
+start=$(date +%s%N)
+"$@" --server.port="$PORT" "${extra_args[@]}" > /tmp/startup-footprint.log 2>&1 &
+pid=$!
+trap 'kill "$pid" ${sink_pid:-} 2>/dev/null || true; wait "$pid" 2>/dev/null || true' EXIT
+
+deadline=$((SECONDS + TIMEOUT))
+until ready; do
+  if ! kill -0 "$pid" 2>/dev/null || [ "$SECONDS" -ge "$deadline" ]; then
+    echo "Aplicação não ficou pronta; ver /tmp/startup-footprint.log" >&2
+    exit 1
+  fi
+  sleep 0.05
+done
+ready_at=$(date +%s%N)
+
+rss_kb=$(awk '/^VmRSS/ {print $2}' "/proc/${pid}/status")
+hwm_kb=$(awk '/^VmHWM/ {print $2}' "/proc/${pid}/status")
+printf '%s: %d ms | RSS: %d MB | pico RSS: %d MB\n' \
+  "$label" $(((ready_at - start) / 1000000)) $((rss_kb / 1024)) $((hwm_kb / 1024))
@@ -2,12 +2,21 @@ package vmtecnologia.com.br.UserService;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class UserServiceApplication {
 
+	/**
+	 * Quantidade máxima de etapas de inicialização mantidas em memória
+	 * (ver <code>/actuator/startup</code> e <code>/actuator/startupreport</code>).
+	 */
+	static final int STARTUP_STEPS_CAPACITY = 10_000;
+
 	public static void main(String[] args) {
-		SpringApplication.run(UserServiceApplication.class, args);
+		SpringApplication application = new SpringApplication(UserServiceApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS_CAPACITY));
+		application.run(args);
 	}
 
 }
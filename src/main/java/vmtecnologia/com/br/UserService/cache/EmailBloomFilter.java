@@ -0,0 +1,83 @@
+package vmtecnologia.com.br.UserService.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vmtecnologia.com.br.UserService.repository.UserRepository;
+
+import java.util.stream.Stream;
+
+/**
+ * Filtro de Bloom em memória com os e-mails cadastrados, usado para evitar a
+ * consulta de unicidade na criação de usuários quando o e-mail certamente é novo.
+ *
+ * <p>É carregado a partir do banco quando a aplicação fica pronta e mantido nas
+ * criações e exclusões feitas pelo {@link vmtecnologia.com.br.UserService.service.UserService}.
+ * Até a carga terminar, todo e-mail é tratado como "possivelmente cadastrado".</p>
+ *
+ * <p>Dimensionado por <code>app.user.email-filter.expected-insertions</code> e
+ * <code>app.user.email-filter.false-positive-rate</code>.</p>
+ */
+@Slf4j
+@Component
+public class EmailBloomFilter {
+
+    private final ScalableCountingBloomFilter filter;
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTx;
+    private volatile boolean loaded;
+
+    public EmailBloomFilter(@Value("${app.user.email-filter.expected-insertions}") int expectedInsertions,
+                            @Value("${app.user.email-filter.false-positive-rate}") double falsePositiveRate,
+                            UserRepository userRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.filter = new ScalableCountingBloomFilter(expectedInsertions, falsePositiveRate);
+        this.userRepository = userRepository;
+        this.readOnlyTx = new TransactionTemplate(transactionManager);
+        this.readOnlyTx.setReadOnly(true);
+    }
+
+    /**
+     * Carrega todos os e-mails cadastrados no filtro.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        long total = readOnlyTx.execute(status -> {
+            try (Stream<String> emails = userRepository.streamAllEmails()) {
+                return emails.mapToLong(email -> {
+                    filter.add(email);
+                    return 1L;
+                }).sum();
+            }
+        });
+        loaded = true;
+        log.info("load() -> Filtro de e-mails carregado com {} registros em {} ms.", total, System.currentTimeMillis() - start);
+    }
+
+    /**
+     * @param email e-mail a verificar
+     * @return <code>false</code> somente se o e-mail certamente não está cadastrado
+     */
+    public boolean mightContain(String email) {
+        return !loaded || filter.mightContain(email);
+    }
+
+    /**
+     * @param email e-mail recém-cadastrado
+     */
+    public void add(String email) {
+        filter.add(email);
+    }
+
+    /**
+     * @param email e-mail de usuário removido
+     */
+    public void remove(String email) {
+        filter.remove(email);
+    }
+}
@@ -0,0 +1,179 @@
+package vmtecnologia.com.br.UserService.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Filtro de Bloom com contadores (permite remoção) e crescimento em camadas.
+ *
+ * <p>Cada camada usa contadores de 4 bits empacotados em um <code>byte[]</code>.
+ * Quando a camada atual atinge sua capacidade, uma nova camada com o dobro da
+ * capacidade e metade da taxa de falso positivo é criada, mantendo a taxa
+ * global próxima da configurada à medida que o conjunto cresce.</p>
+ *
+ * <p>Garantias: <code>mightContain</code> nunca retorna <code>false</code> para um
+ * elemento adicionado e não removido, exceto em corridas entre escrita e leitura
+ * ou em remoções de elementos que nunca foram adicionados. Quem usa o filtro deve,
+ * portanto, tratar um "não contém" como otimização e manter outra garantia final
+ * (por exemplo, uma constraint única no banco).</p>
+ */
+public final class ScalableCountingBloomFilter {
+
+    private static final int MAX_COUNT = 0x0F;
+    private static final double GROWTH_FPP_RATIO = 0.5;
+
+    private final List<Layer> layers = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param initialCapacity   quantidade esperada de elementos na primeira camada
+     * @param falsePositiveRate taxa de falso positivo desejada (entre 0 e 1)
+     */
+    public ScalableCountingBloomFilter(int initialCapacity, double falsePositiveRate) {
+        if (initialCapacity <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("parâmetros do filtro de Bloom inválidos");
+        }
+        layers.add(new Layer(initialCapacity, falsePositiveRate * (1 - GROWTH_FPP_RATIO)));
+    }
+
+    /**
+     * Indica se o elemento pode estar no conjunto.
+     *
+     * @param value elemento consultado
+     * @return <code>false</code> se o elemento certamente não foi adicionado
+     */
+    public boolean mightContain(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (Layer layer : layers) {
+            if (layer.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adiciona o elemento à camada mais recente, criando uma nova se ela estiver cheia.
+     *
+     * @param value elemento a adicionar
+     */
+    public synchronized void add(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        Layer current = layers.get(layers.size() - 1);
+        if (current.count >= current.capacity) {
+            current = new Layer(current.capacity * 2, current.falsePositiveRate * GROWTH_FPP_RATIO);
+            layers.add(current);
+        }
+        current.add(h1, h2);
+    }
+
+    /**
+     * Remove o elemento da camada mais recente que possivelmente o contém.
+     *
+     * @param value elemento a remover
+     */
+    public synchronized void remove(String value) {
+        long h1 = hash(value);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (int i = layers.size() - 1; i >= 0; i--) {
+            Layer layer = layers.get(i);
+            if (layer.mightContain(h1, h2)) {
+                layer.remove(h1, h2);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return quantidade de camadas atualmente alocadas
+     */
+    public int layerCount() {
+        return layers.size();
+    }
+
+    private static long hash(String value) {
+        // FNV-1a 64 sobre os chars, seguido de finalização do MurmurHash3
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private static final class Layer {
+
+        private final int capacity;
+        private final double falsePositiveRate;
+        private final int size;
+        private final int hashes;
+        private final byte[] counters;
+        private int count;
+
+        private Layer(int capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            double ln2 = Math.log(2);
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+            this.size = (int) Math.min(Integer.MAX_VALUE - 1, Math.max(64, bits));
+            this.hashes = Math.max(1, (int) Math.round((double) size / capacity * ln2));
+            this.counters = new byte[(size + 1) / 2];
+        }
+
+        private boolean mightContain(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                if (get(index(h1, h2, i)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void add(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                int idx = index(h1, h2, i);
+                int c = get(idx);
+                if (c < MAX_COUNT) {
+                    set(idx, c + 1);
+                }
+            }
+            count++;
+        }
+
+        private void remove(long h1, long h2) {
+            for (int i = 0; i < hashes; i++) {
+                int idx = index(h1, h2, i);
+                int c = get(idx);
+                // contadores saturados não são decrementados para não gerar falsos negativos
+                if (c > 0 && c < MAX_COUNT) {
+                    set(idx, c - 1);
+                }
+            }
+            count = Math.max(0, count - 1);
+        }
+
+        private int index(long h1, long h2, int i) {
+            return (int) Long.remainderUnsigned(h1 + i * h2, size);
+        }
+
+        private int get(int idx) {
+            return (counters[idx >>> 1] >>> ((idx & 1) << 2)) & MAX_COUNT;
+        }
+
+        private void set(int idx, int value) {
+            int shift = (idx & 1) << 2;
+            int b = counters[idx >>> 1] & ~(MAX_COUNT << shift);
+            counters[idx >>> 1] = (byte) (b | (value << shift));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package vmtecnologia.com.br.UserService.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Cache negativo de e-mails que não correspondem a nenhum usuário habilitado.
+ *
+ * <p>Usado no login para responder tentativas contra e-mails inexistentes sem
+ * consultar o banco. As entradas expiram após <code>app.login.unknown-email-cache.ttl</code>
+ * milissegundos e o total é limitado por <code>app.login.unknown-email-cache.max-entries</code>.
+ * O cache é um Caffeine com expiração após a escrita e limite de tamanho: cada inserção e
+ * descarte custa O(1), mesmo com o cache cheio sob uma rajada de e-mails inexistentes, e as
+ * novas falhas continuam sendo registradas.</p>
+ *
+ * <p>As chaves são o e-mail exatamente como consultado, espelhando a comparação
+ * feita pela consulta no banco.</p>
+ */
+@Component
+public class UnknownEmailCache {
+
+    private final Cache<String, Boolean> entries;
+
+    @Autowired
+    public UnknownEmailCache(@Value("${app.login.unknown-email-cache.ttl}") long ttlMillis,
+                             @Value("${app.login.unknown-email-cache.max-entries}") int maxEntries) {
+        this(ttlMillis, maxEntries, Ticker.systemTicker(), ForkJoinPool.commonPool());
+    }
+
+    UnknownEmailCache(long ttlMillis, int maxEntries, Ticker ticker, Executor executor) {
+        this.entries = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .maximumSize(maxEntries)
+                .ticker(ticker)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Indica se o e-mail foi consultado recentemente e não existia.
+     *
+     * @param email e-mail informado no login
+     * @return <code>true</code> se há uma entrada válida (não expirada) para o e-mail
+     */
+    public boolean isKnownMissing(String email) {
+        return Boolean.TRUE.equals(entries.getIfPresent(email));
+    }
+
+    /**
+     * Registra que o e-mail não corresponde a um usuário habilitado.
+     *
+     * @param email e-mail consultado sem resultado
+     */
+    public void markMissing(String email) {
+        entries.put(email, Boolean.TRUE);
+    }
+
+    /**
+     * Remove o e-mail do cache, pois passou a ser válido (criação ou habilitação).
+     *
+     * <p>Dentro de uma transação, a remoção é repetida após o commit para que um
+     * login concorrente não volte a marcar o e-mail como inexistente antes de a
+     * alteração ficar visível.</p>
+     *
+     * @param email e-mail que passou a existir/estar habilitado
+     */
+    public void invalidate(String email) {
+        entries.invalidate(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.invalidate(email);
+                }
+            });
+        }
+    }
+
+    /**
+     * Esvazia o cache, pois um número indeterminado de e-mails passou a ser válido
+     * (habilitação em lote). Dentro de uma transação, repete a limpeza após o commit.
+     */
+    public void invalidateAll() {
+        entries.invalidateAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.invalidateAll();
+                }
+            });
+        }
+    }
+
+    /**
+     * @return quantidade aproximada de e-mails em cache, após aplicar expirações e descartes pendentes
+     */
+    long size() {
+        entries.cleanUp();
+        return entries.estimatedSize();
+    }
+}
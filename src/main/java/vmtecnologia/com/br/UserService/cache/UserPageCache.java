@@ -0,0 +1,159 @@
+package vmtecnologia.com.br.UserService.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache das páginas de <code>findAllUsers</code>: para cada combinação de filtros, página e
+ * tamanho, guarda os IDs da página e o total, dispensando a busca com <code>LIKE</code> e o
+ * <code>COUNT</code>. Os usuários em si são recarregados pelos IDs, pelo cache de segundo nível.
+ *
+ * <p>Qualquer alteração de usuário invalida todas as páginas de uma vez, em O(1), avançando a
+ * geração de escrita ({@link #invalidate()}): cada entrada guarda a geração em que foi lida e só
+ * é devolvida enquanto ela for a atual. Como em {@link UserResponseCache}, a geração avança de novo
+ * após o commit, e uma página lida antes de uma invalidação não é armazenada.</p>
+ *
+ * <p>A quantidade de páginas é limitada a <code>app.user.page-cache.max-entries</code>; ao
+ * exceder o limite, as menos acessadas recentemente são descartadas (LRU).</p>
+ *
+ * <p>As alterações feitas por outras instâncias não avançam a geração local, e uma página lida na
+ * réplica pode não ter as últimas alterações desta; por isso cada página vale por no máximo
+ * <code>app.cache.query.expire-after-write</code>, o mesmo limite do cache de consultas.</p>
+ */
+@Component
+public class UserPageCache {
+
+    private final int maxEntries;
+    private final long expireAfterWriteMillis;
+    private final LongSupplier clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong generation = new AtomicLong();
+    private final LinkedHashMap<PageKey, Entry> entries;
+
+    @Autowired
+    public UserPageCache(@Value("${app.user.page-cache.max-entries}") int maxEntries,
+                         @Value("${app.cache.query.expire-after-write}") long expireAfterWriteMillis) {
+        this(maxEntries, expireAfterWriteMillis, System::currentTimeMillis);
+    }
+
+    UserPageCache(int maxEntries, long expireAfterWriteMillis, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.expireAfterWriteMillis = expireAfterWriteMillis;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<PageKey, Entry> eldest) {
+                return size() > UserPageCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return geração a ser lida antes de consultar a página e repassada a {@link #put}
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * @param key filtros, página e tamanho
+     * @return página em cache, ou <code>null</code> se ausente, de uma geração anterior ou expirada
+     */
+    public CachedPage get(PageKey key) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (Objects.isNull(entry)) {
+                return null;
+            }
+            if (entry.page().generation() != generation.get()
+                    || clock.getAsLong() - entry.storedAt() >= expireAfterWriteMillis) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.page();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Armazena a página, a menos que tenha havido alteração depois de <code>generationAtLoad</code>.
+     *
+     * @param key              filtros, página e tamanho
+     * @param ids              IDs dos usuários da página, na ordem da consulta
+     * @param total            total de usuários que atendem aos filtros
+     * @param generationAtLoad valor de {@link #generation()} lido antes da consulta
+     */
+    public void put(PageKey key, List<Long> ids, long total, long generationAtLoad) {
+        if (maxEntries <= 0 || expireAfterWriteMillis <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (generation.get() != generationAtLoad) {
+                return;
+            }
+            entries.put(key, new Entry(new CachedPage(List.copyOf(ids), total, generationAtLoad), clock.getAsLong()));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Invalida todas as páginas. Dentro de uma transação, repete a invalidação após o commit.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * @return quantidade de páginas guardadas, inclusive de gerações anteriores ou expiradas ainda não descartadas
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Filtros e paginação de uma listagem.
+     */
+    public record PageKey(String username, String email, Boolean enabled, int pageNumber, int pageSize) {
+    }
+
+    /**
+     * Página em cache.
+     *
+     * @param ids        IDs dos usuários, na ordem da consulta
+     * @param total      total de usuários que atendem aos filtros
+     * @param generation geração em que a página foi lida
+     */
+    public record CachedPage(List<Long> ids, long total, long generation) {
+    }
+
+    private record Entry(CachedPage page, long storedAt) {
+    }
+}
@@ -0,0 +1,223 @@
+package vmtecnologia.com.br.UserService.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache das respostas de <code>findById</code> já serializadas, por ID do usuário e
+ * tipo de mídia (JSON, CBOR, Smile, Protobuf).
+ *
+ * <p>Em um acerto, os bytes são devolvidos como estão, sem consulta ao banco, mapeamento
+ * ou serialização. A memória é limitada a <code>app.user.response-cache.max-bytes</code>
+ * (corpo das respostas mais um custo fixo por entrada); ao exceder o limite, os usuários
+ * menos acessados recentemente são descartados (LRU).</p>
+ *
+ * <p>As entradas são removidas em {@link #invalidate(Long)} — chamado na atualização e
+ * exclusão do usuário — ou todas de uma vez em {@link #invalidateAll()}, nas operações em
+ * lote — e novamente após o commit. Para que uma leitura iniciada antes da alteração não
+ * grave a versão antiga depois da remoção, cada inserção informa a {@link #epoch()} lida
+ * antes de carregar o usuário e é descartada se houve invalidação nesse intervalo.</p>
+ *
+ * <p>As invalidações só alcançam as alterações feitas por esta instância, e uma resposta montada
+ * a partir da réplica pode não ter a última versão; por isso cada resposta vale por no máximo
+ * <code>app.cache.user.expire-after-write</code>, o mesmo limite da região de usuários do cache
+ * de segundo nível.</p>
+ */
+@Component
+public class UserResponseCache {
+
+    /**
+     * Custo estimado, em bytes, de cada entrada além do corpo (chaves, mapas e objetos).
+     */
+    static final int ENTRY_OVERHEAD = 128;
+
+    private final long maxBytes;
+    private final long expireAfterWriteMillis;
+    private final LongSupplier clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, Map<MediaType, Entry>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong epoch = new AtomicLong();
+    private long usedBytes;
+
+    @Autowired
+    public UserResponseCache(@Value("${app.user.response-cache.max-bytes}") long maxBytes,
+                             @Value("${app.cache.user.expire-after-write}") long expireAfterWriteMillis) {
+        this(maxBytes, expireAfterWriteMillis, System::currentTimeMillis);
+    }
+
+    UserResponseCache(long maxBytes, long expireAfterWriteMillis, LongSupplier clock) {
+        this.maxBytes = maxBytes;
+        this.expireAfterWriteMillis = expireAfterWriteMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * @return marcador a ser lido antes de carregar o usuário e repassado a {@link #put}
+     */
+    public long epoch() {
+        return epoch.get();
+    }
+
+    /**
+     * @param id        ID do usuário
+     * @param mediaType tipo de mídia negociado
+     * @return resposta serializada, ou <code>null</code> se não estiver em cache ou tiver expirado
+     */
+    public CachedResponse get(Long id, MediaType mediaType) {
+        lock.lock();
+        try {
+            Map<MediaType, Entry> byType = entries.get(id);
+            Entry entry = Objects.isNull(byType) ? null : byType.get(mediaType);
+            if (Objects.isNull(entry)) {
+                return null;
+            }
+            if (clock.getAsLong() - entry.storedAt() >= expireAfterWriteMillis) {
+                byType.remove(mediaType);
+                usedBytes -= cost(entry.response());
+                if (byType.isEmpty()) {
+                    entries.remove(id);
+                }
+                return null;
+            }
+            return entry.response();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Armazena a resposta serializada, a menos que o usuário tenha sido invalidado
+     * depois de <code>epochAtLoad</code> ou que a resposta sozinha exceda o limite.
+     *
+     * @param id          ID do usuário
+     * @param mediaType   tipo de mídia da resposta
+     * @param response    corpo serializado e metadados
+     * @param epochAtLoad valor de {@link #epoch()} lido antes de carregar o usuário
+     */
+    public void put(Long id, MediaType mediaType, CachedResponse response, long epochAtLoad) {
+        long cost = cost(response);
+        if (cost > maxBytes || expireAfterWriteMillis <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (epoch.get() != epochAtLoad) {
+                return;
+            }
+            Entry previous = entries.computeIfAbsent(id, k -> new HashMap<>(4))
+                    .put(mediaType, new Entry(response, clock.getAsLong()));
+            usedBytes += cost - (Objects.isNull(previous) ? 0 : cost(previous.response()));
+            evictToBudget();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Remove todas as respostas do usuário. Dentro de uma transação, repete a remoção após o commit.
+     *
+     * @param id ID do usuário alterado ou excluído
+     */
+    public void invalidate(Long id) {
+        remove(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remove(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Remove todas as respostas em cache. Dentro de uma transação, repete a remoção após o commit.
+     *
+     * <p>Usado nas operações em lote, em que os usuários afetados não são carregados.</p>
+     */
+    public void invalidateAll() {
+        clear();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        }
+    }
+
+    /**
+     * @return bytes contabilizados pelas entradas em cache
+     */
+    public long usedBytes() {
+        lock.lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void remove(Long id) {
+        lock.lock();
+        try {
+            epoch.incrementAndGet();
+            Map<MediaType, Entry> removed = entries.remove(id);
+            if (Objects.nonNull(removed)) {
+                removed.values().forEach(e -> usedBytes -= cost(e.response()));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void clear() {
+        lock.lock();
+        try {
+            epoch.incrementAndGet();
+            entries.clear();
+            usedBytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictToBudget() {
+        Iterator<Map<MediaType, Entry>> eldest = entries.values().iterator();
+        while (usedBytes > maxBytes && eldest.hasNext()) {
+            eldest.next().values().forEach(e -> usedBytes -= cost(e.response()));
+            eldest.remove();
+        }
+    }
+
+    private static long cost(CachedResponse response) {
+        return (long) response.body().length + ENTRY_OVERHEAD;
+    }
+
+    /**
+     * Resposta serializada.
+     *
+     * @param body        bytes do corpo, prontos para escrita
+     * @param contentType tipo de mídia do corpo
+     * @param version     versão do usuário, usada no cabeçalho ETag
+     */
+    public record CachedResponse(byte[] body, MediaType contentType, Long version) {
+    }
+
+    private record Entry(CachedResponse response, long storedAt) {
+    }
+}
@@ -0,0 +1,58 @@
+package vmtecnologia.com.br.UserService.config;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * {@link PasswordEncoder} que limita quantos hashes (BCrypt) são calculados ao mesmo tempo.
+ *
+ * <p>Com as requisições atendidas por threads virtuais, não há mais um pool de threads
+ * limitando a concorrência: milhares de logins simultâneos disputariam a CPU ao mesmo
+ * tempo e todos ficariam lentos. Aqui, no máximo <code>maxConcurrency</code> hashes rodam
+ * em paralelo e as demais requisições aguardam a vez, sem ocupar threads de plataforma.</p>
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Semaphore permits;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int maxConcurrency) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        acquire();
+        try {
+            return delegate.encode(rawPassword);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        acquire();
+        try {
+            return delegate.matches(rawPassword, encodedPassword);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private void acquire() {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando a verificação de senha", e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package vmtecnologia.com.br.UserService.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import vmtecnologia.com.br.UserService.datasource.ReadWriteRoutingDataSource;
+import vmtecnologia.com.br.UserService.datasource.ReadYourWritesTracker;
+
+import javax.sql.DataSource;
+
+/**
+ * Separação de leitura e escrita entre um banco primário e uma réplica.
+ *
+ * <p>Ativada por <code>app.datasource.routing.enabled=true</code>. O primário usa
+ * <code>spring.datasource.*</code> e a réplica <code>app.datasource.replica.*</code>;
+ * cada um tem seu próprio pool. Sem a propriedade, a aplicação usa apenas o
+ * {@link DataSource} padrão do Spring Boot.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Value("${app.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${app.datasource.replica.username}")
+    private String replicaUsername;
+
+    @Value("${app.datasource.replica.password}")
+    private String replicaPassword;
+
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker(@Value("${app.datasource.routing.read-your-writes-window}") long windowMillis) {
+        return new ReadYourWritesTracker(windowMillis);
+    }
+
+    /**
+     * @param properties propriedades <code>spring.datasource.*</code>
+     * @return pool de conexões do banco primário
+     */
+    @Bean(autowireCandidate = false)
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    /**
+     * @param properties propriedades <code>spring.datasource.*</code>, das quais se reaproveita o driver
+     * @return pool de conexões somente leitura da réplica
+     */
+    @Bean(autowireCandidate = false)
+    public HikariDataSource replicaDataSource(DataSourceProperties properties) {
+        HikariDataSource replica = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(replicaUrl)
+                .username(replicaUsername)
+                .password(replicaPassword)
+                .build();
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    /**
+     * @return {@link DataSource} usado pelo JPA, roteando cada transação para o primário ou a réplica
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, ReadYourWritesTracker readYourWritesTracker) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                primaryDataSource(properties), replicaDataSource(properties), readYourWritesTracker);
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
@@ -0,0 +1,102 @@
+package vmtecnologia.com.br.UserService.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.jpa.boot.spi.JpaSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import vmtecnologia.com.br.UserService.datasource.ShardRouter;
+import vmtecnologia.com.br.UserService.datasource.ShardRoutingDataSource;
+import vmtecnologia.com.br.UserService.datasource.ShardRoutingInterceptor;
+import vmtecnologia.com.br.UserService.datasource.ShardRoutingPostProcessor;
+import vmtecnologia.com.br.UserService.datasource.ShardSchemaIntegrator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Distribuição dos usuários entre vários bancos (shards) pelo hash do e-mail.
+ *
+ * <p>Ativada por <code>app.datasource.sharding.enabled=true</code>. Cada URL de
+ * <code>app.datasource.sharding.urls</code> (separadas por vírgula) é um shard com pool próprio;
+ * driver, usuário e senha vêm de <code>spring.datasource.*</code>. O roteamento fica abaixo do
+ * {@link vmtecnologia.com.br.UserService.repository.UserRepository} ({@link ShardRoutingInterceptor}):
+ * login, cadastro e buscas por ID consultam um único shard, e a listagem e as operações em lote
+ * consultam todos. Não pode ser combinada com a réplica de leitura ({@link DataSourceRoutingConfig}).</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.sharding", name = "enabled", havingValue = "true")
+public class DataSourceShardingConfig {
+
+    @Value("${app.datasource.sharding.urls}")
+    private List<String> urls;
+
+    @Bean
+    public ShardRouter shardRouter() {
+        return new ShardRouter(urls.size());
+    }
+
+    /**
+     * Registrado como estático por ser um {@link org.springframework.beans.factory.config.BeanPostProcessor};
+     * cria seu próprio {@link ShardRouter} para não antecipar a criação de outros beans.
+     */
+    @Bean
+    public static ShardRoutingPostProcessor shardRoutingPostProcessor(
+            @Value("${app.datasource.sharding.urls}") List<String> urls,
+            ObjectProvider<PlatformTransactionManager> transactionManager,
+            ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        return new ShardRoutingPostProcessor(
+                new ShardRoutingInterceptor(new ShardRouter(urls.size()), transactionManager, entityManagerFactory));
+    }
+
+    /**
+     * @param properties propriedades <code>spring.datasource.*</code>, das quais se reaproveitam driver e credenciais
+     * @return pools de conexões de todos os shards
+     */
+    @Bean(autowireCandidate = false, destroyMethod = "close")
+    public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties properties) {
+        List<HikariDataSource> shards = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource shard = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(urls.get(i).trim())
+                    .username(properties.determineUsername())
+                    .password(properties.determinePassword())
+                    .build();
+            shard.setPoolName("shard-" + i);
+            shards.add(shard);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    /**
+     * @return {@link DataSource} usado pelo JPA, ligando cada transação ao shard da primeira consulta
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource(properties));
+    }
+
+    /**
+     * Registra {@link ShardSchemaIntegrator}, que cria o esquema e ajusta a geração de IDs nos shards.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer shardSchemaCustomizer(ShardRouter shardRouter, DataSourceProperties properties) {
+        ShardSchemaIntegrator integrator = new ShardSchemaIntegrator(shardRouter, shardRoutingDataSource(properties).shards());
+        return hibernateProperties -> hibernateProperties.put(JpaSettings.INTEGRATOR_PROVIDER,
+                (IntegratorProvider) () -> List.of(integrator));
+    }
+}
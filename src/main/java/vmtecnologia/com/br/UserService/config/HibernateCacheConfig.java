@@ -0,0 +1,89 @@
+package vmtecnologia.com.br.UserService.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuração do cache de segundo nível do Hibernate, em processo, via JCache/Caffeine.
+ *
+ * <p>As regiões são criadas aqui, com limites e expiração definidos em
+ * <code>app.cache.*</code>, e o {@link CacheManager} resultante é entregue ao Hibernate.
+ * Regiões não previstas fazem a inicialização falhar, evitando caches sem limite.</p>
+ *
+ * <ul>
+ *   <li>{@link #USER_REGION} — entidades {@link vmtecnologia.com.br.UserService.entity.UserEntity} por ID;</li>
+ *   <li>{@link #USER_NATURAL_ID_REGION} — resolução e-mail → ID (natural id);</li>
+ *   <li>regiões padrão do cache de consultas e de timestamps das tabelas.</li>
+ * </ul>
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String USER_REGION = "users";
+    public static final String USER_NATURAL_ID_REGION = "users-natural-id";
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    /**
+     * Cria o {@link CacheManager} JCache com as regiões usadas pelo Hibernate.
+     *
+     * @param userMaxSize         quantidade máxima de entradas nas regiões de usuário
+     * @param userExpireAfterWrite expiração (ms) das entradas de usuário após escrita
+     * @param queryMaxSize        quantidade máxima de resultados de consulta em cache
+     * @param queryExpireAfterWrite expiração (ms) dos resultados de consulta após escrita
+     * @param statistics          habilita estatísticas JCache das regiões
+     * @return {@link CacheManager} dedicado ao Hibernate
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(@Value("${app.cache.user.max-size}") long userMaxSize,
+                                              @Value("${app.cache.user.expire-after-write}") long userExpireAfterWrite,
+                                              @Value("${app.cache.query.max-size}") long queryMaxSize,
+                                              @Value("${app.cache.query.expire-after-write}") long queryExpireAfterWrite,
+                                              @Value("${app.cache.statistics}") boolean statistics) {
+        // URI única por contexto: o provider reaproveita CacheManagers com a mesma URI
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        cacheManager.createCache(USER_REGION, region(userMaxSize, userExpireAfterWrite, statistics));
+        cacheManager.createCache(USER_NATURAL_ID_REGION, region(userMaxSize, userExpireAfterWrite, statistics));
+        cacheManager.createCache(QUERY_RESULTS_REGION, region(queryMaxSize, queryExpireAfterWrite, statistics));
+        // timestamps não podem expirar nem ser descartados antes dos resultados que protegem
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, region(-1, -1, statistics));
+        return cacheManager;
+    }
+
+    /**
+     * Entrega o {@link CacheManager} configurado ao Hibernate.
+     *
+     * @param hibernateCacheManager gerenciador de cache criado em {@link #hibernateCacheManager}
+     * @return customizador das propriedades do Hibernate
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maxSize, long expireAfterWriteMillis, boolean statistics) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maxSize > 0) {
+            configuration.setMaximumSize(OptionalLong.of(maxSize));
+        }
+        if (expireAfterWriteMillis > 0) {
+            configuration.setExpireAfterWrite(OptionalLong.of(TimeUnit.MILLISECONDS.toNanos(expireAfterWriteMillis)));
+        }
+        configuration.setStatisticsEnabled(statistics);
+        return configuration;
+    }
+}
@@ -0,0 +1,84 @@
+package vmtecnologia.com.br.UserService.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.feed.UserChangeEvent;
+import vmtecnologia.com.br.UserService.mapper.UserMapper;
+import vmtecnologia.com.br.UserService.repository.UserKey;
+
+import java.util.stream.Stream;
+
+/**
+ * Dicas de execução (reflexão e recursos) para a imagem nativa GraalVM, gerada com
+ * <code>mvn -Pnative native:compile</code>.
+ *
+ * <p>O processamento AOT do Spring já cobre beans, repositórios e entidades gerenciadas.
+ * Aqui ficam apenas as classes que bibliotecas carregam pelo nome, em tempo de execução.
+ * Hibernate e Caffeine são complementados pelo GraalVM Reachability Metadata Repository,
+ * habilitado pelo <code>native-maven-plugin</code>.</p>
+ */
+@Configuration
+@ImportRuntimeHints(NativeImageConfig.UserServiceRuntimeHints.class)
+public class NativeImageConfig {
+
+    static class UserServiceRuntimeHints implements RuntimeHintsRegistrar {
+
+        /**
+         * Implementações que o jjwt instancia por reflexão a partir da API.
+         */
+        private static final String[] JJWT_TYPES = {
+                "io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParser",
+                "io.jsonwebtoken.impl.DefaultClaims",
+                "io.jsonwebtoken.impl.DefaultHeader",
+                "io.jsonwebtoken.impl.DefaultJwsHeader",
+                "io.jsonwebtoken.impl.compression.DeflateCompressionCodec",
+                "io.jsonwebtoken.impl.compression.GzipCompressionCodec",
+                "io.jsonwebtoken.jackson.io.JacksonSerializer",
+                "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+        };
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // gerado pelo MapStruct em tempo de compilação
+            hints.reflection().registerType(TypeReference.of(UserMapper.class.getName() + "Impl"),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+            Stream.of(JJWT_TYPES).forEach(type -> hints.reflection().registerType(TypeReference.of(type),
+                    MemberCategory.INVOKE_DECLARED_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS));
+            hints.resources()
+                    .registerPattern("META-INF/services/io.jsonwebtoken.io.Serializer")
+                    .registerPattern("META-INF/services/io.jsonwebtoken.io.Deserializer")
+                    .registerPattern("META-INF/services/io.jsonwebtoken.CompressionCodec");
+
+            // entidade acessada pelo Hibernate por campo (proxies e cache de segundo nível)
+            hints.reflection().registerType(UserEntity.class,
+                    MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS);
+
+            // projeção instanciada pela Criteria API (cb.construct) e evento serializado pelo SseEmitter
+            hints.reflection().registerType(UserKey.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(), UserChangeEvent.class);
+
+            // cache de segundo nível: provider JCache carregado pelo nome (HibernateCacheConfig)
+            // e fábrica de regiões "jcache" registrada por ServiceLoader
+            hints.reflection().registerType(CaffeineCachingProvider.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(
+                    TypeReference.of("org.hibernate.cache.jcache.internal.StrategyRegistrationProviderImpl"),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.reflection().registerType(TypeReference.of("org.hibernate.cache.jcache.internal.JCacheRegionFactory"),
+                    MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.resources()
+                    .registerPattern("META-INF/services/org.hibernate.boot.registry.selector.StrategyRegistrationProvider")
+                    .registerPattern("reference.conf");
+        }
+    }
+}
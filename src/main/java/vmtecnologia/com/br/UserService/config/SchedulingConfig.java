@@ -0,0 +1,13 @@
+package vmtecnologia.com.br.UserService.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita a execução de tarefas agendadas (<code>@Scheduled</code>),
+ * usadas para limpeza periódica de estruturas em memória.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,50 @@
+package vmtecnologia.com.br.UserService.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import vmtecnologia.com.br.UserService.timing.SerializationTimingAdvice;
+import vmtecnologia.com.br.UserService.timing.ServerTimingFilter;
+import vmtecnologia.com.br.UserService.timing.ServerTimingPostProcessor;
+
+/**
+ * Cabeçalho <code>Server-Timing</code> com os tempos de cada etapa da requisição.
+ *
+ * <p>Ativado por <code>app.server-timing.enabled=true</code>. Sem a propriedade, nenhum proxy,
+ * filtro ou interceptor é registrado.</p>
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.server-timing", name = "enabled", havingValue = "true")
+public class ServerTimingConfig implements WebMvcConfigurer {
+
+    private final SerializationTimingAdvice serializationTimingAdvice = new SerializationTimingAdvice();
+
+    @Bean
+    public static ServerTimingPostProcessor serverTimingPostProcessor() {
+        return new ServerTimingPostProcessor();
+    }
+
+    /**
+     * Registrado antes do Spring Security, para incluir a validação do JWT.
+     */
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter() {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public SerializationTimingAdvice serializationTimingAdvice() {
+        return serializationTimingAdvice;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(serializationTimingAdvice);
+    }
+}
@@ -0,0 +1,32 @@
+package vmtecnologia.com.br.UserService.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import vmtecnologia.com.br.UserService.converter.UserProtobufHttpMessageConverter;
+
+import java.util.List;
+
+/**
+ * Configuração do Spring MVC.
+ *
+ * <p>Formatos de resposta negociados pelo cabeçalho <code>Accept</code>:</p>
+ * <ul>
+ *   <li><code>application/json</code> — padrão;</li>
+ *   <li><code>application/cbor</code> e <code>application/x-jackson-smile</code> — registrados
+ *       pelo próprio Spring MVC quando os módulos Jackson estão no classpath;</li>
+ *   <li><code>application/x-protobuf</code> — {@link UserProtobufHttpMessageConverter}.</li>
+ * </ul>
+ */
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    /**
+     * Adiciona o conversor Protobuf ao final da lista, mantendo JSON como formato padrão
+     * quando o cliente aceita qualquer tipo.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new UserProtobufHttpMessageConverter());
+    }
+}
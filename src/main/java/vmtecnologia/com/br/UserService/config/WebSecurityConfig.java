@@ -1,5 +1,7 @@
 package vmtecnologia.com.br.UserService.config;
 
+import jakarta.servlet.DispatcherType;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -14,13 +16,14 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 import vmtecnologia.com.br.UserService.filter.AuthenticationFilter;
 import vmtecnologia.com.br.UserService.service.JpaUserDetailsService;
 import vmtecnologia.com.br.UserService.service.JwtService;
+import vmtecnologia.com.br.UserService.service.TokenDenylistService;
 
 /**
  * Configuração de segurança da aplicação, definindo políticas de autenticação
  * e autorização para endpoints REST.
  *
  * <p>Desabilita CSRF, aplica sessãoless via JWT, e configura filtros
- * e rotas abertas (Swagger, login e cadastro).</p>
+ * e rotas abertas (Swagger, login, cadastro e JWKS).</p>
  */
 @Configuration
 public class WebSecurityConfig {
@@ -31,6 +34,7 @@ public class WebSecurityConfig {
      * @param http                  objeto de configuração HTTP oferecido pelo Spring
      * @param jwtService            serviço para manipulação de tokens JWT
      * @param jpaUserDetailsService serviço que carrega detalhes do usuário para autenticação
+     * @param tokenDenylistService  lista de tokens revogados consultada pelo filtro JWT
      * @return instância de {@link SecurityFilterChain} configurada
      * @throws Exception em caso de falha na criação do filtro
      */
@@ -38,10 +42,11 @@ public class WebSecurityConfig {
     public SecurityFilterChain securityFilterChain(
             HttpSecurity http,
             JwtService jwtService,
-            JpaUserDetailsService jpaUserDetailsService) throws Exception {
+            JpaUserDetailsService jpaUserDetailsService,
+            TokenDenylistService tokenDenylistService) throws Exception {
 
         // Instancia o filtro JWT antes do UsernamePasswordAuthenticationFilter
-        AuthenticationFilter jwtFilter = new AuthenticationFilter(jwtService, jpaUserDetailsService);
+        AuthenticationFilter jwtFilter = new AuthenticationFilter(jwtService, jpaUserDetailsService, tokenDenylistService);
 
         http
                 // Desabilita proteção CSRF para APIs stateless
@@ -50,6 +55,8 @@ public class WebSecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 // Configura endpoints públicos e protegidos
                 .authorizeHttpRequests(auth -> auth
+                        // despacho assíncrono (feed SSE): a requisição original já foi autorizada
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         // rotas de documentação e necessarias
                         .requestMatchers(
                                 "/swagger-ui.html",
@@ -57,7 +64,9 @@ public class WebSecurityConfig {
                                 "/v3/api-docs/**",   // se você usa o endpoint /v3
                                 "/v1/api-docs/**",   // e/ou se configurou /v1/api-docs
                                 "/auth/**",       // login para usuario ja cadastrado
-                                "/user/api/v1/save"  // cadastro de usuario
+                                "/.well-known/jwks.json", // chaves publicas para validacao dos tokens
+                                "/user/api/v1/save",  // cadastro de usuario
+                                "/actuator/health/**" // probes de liveness/readiness
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
@@ -72,11 +81,16 @@ public class WebSecurityConfig {
     /**
      * Registra o {@link PasswordEncoder} usado para codificar senhas.
      *
-     * @return instância de {@link BCryptPasswordEncoder}
+     * <p>O BCrypt é limitado a <code>app.security.bcrypt.max-concurrency</code> execuções
+     * simultâneas (0 = quantidade de processadores).</p>
+     *
+     * @param maxConcurrency quantidade máxima de hashes calculados em paralelo
+     * @return instância de {@link BCryptPasswordEncoder} envolvida por {@link BoundedPasswordEncoder}
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.security.bcrypt.max-concurrency}") int maxConcurrency) {
+        int permits = maxConcurrency > 0 ? maxConcurrency : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), permits);
     }
 
     /**
@@ -6,12 +6,15 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import vmtecnologia.com.br.UserService.model.LoginRequestModel;
+import vmtecnologia.com.br.UserService.model.RefreshTokenRequestModel;
 import vmtecnologia.com.br.UserService.model.TokenModel;
 import vmtecnologia.com.br.UserService.service.AuthService;
 
@@ -37,4 +40,34 @@ public class AuthController {
         return ResponseEntity.ok(authenticate);
     }
 
+    @Operation(
+            summary = "Renova o token de acesso",
+            description = "Troca um refresh token válido por um novo token JWT e um novo refresh token, sem reenviar a senha.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Token renovado",
+                            content = @Content(schema = @Schema(implementation = TokenModel.class))),
+                    @ApiResponse(responseCode = "401", description = "Refresh token inválido, expirado ou revogado")
+            }
+    )
+    @PostMapping("/refresh")
+    public ResponseEntity<TokenModel> refresh(@Valid @RequestBody RefreshTokenRequestModel refreshTokenRequestModel) {
+        TokenModel refreshed = authService.refresh(refreshTokenRequestModel);
+        return ResponseEntity.ok(refreshed);
+    }
+
+    @Operation(
+            summary = "Realiza logout do usuário",
+            description = "Revoga o token JWT enviado no cabeçalho Authorization até a sua expiração "
+                    + "e, se informado no corpo, o refresh token.",
+            responses = {
+                    @ApiResponse(responseCode = "204", description = "Tokens revogados")
+            }
+    )
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                       @RequestBody(required = false) RefreshTokenRequestModel refreshTokenRequestModel) {
+        authService.logout(authorization, refreshTokenRequestModel);
+        return ResponseEntity.noContent().build();
+    }
+
 }
@@ -0,0 +1,39 @@
+package vmtecnologia.com.br.UserService.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import vmtecnologia.com.br.UserService.service.JwtKeyService;
+
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtKeyService jwtKeyService;
+
+    @Value("${app.jwt.jwks-max-age}")
+    private long jwksMaxAge;
+
+    @Operation(
+            summary = "Publica as chaves públicas de assinatura (JWKS)",
+            description = "Retorna as chaves RSA usadas para assinar os tokens, identificadas pelo kid, "
+                    + "para que outros serviços validem os tokens localmente.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Documento JWKS")
+            }
+    )
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(jwksMaxAge, TimeUnit.SECONDS).cachePublic())
+                .body(jwtKeyService.jwks());
+    }
+}
@@ -5,17 +5,35 @@ import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import vmtecnologia.com.br.UserService.cache.UserResponseCache;
+import vmtecnologia.com.br.UserService.cache.UserResponseCache.CachedResponse;
+import vmtecnologia.com.br.UserService.converter.UserResponseSerializer;
+import vmtecnologia.com.br.UserService.exception.PreconditionFailedException;
+import vmtecnologia.com.br.UserService.feed.UserChangeEvent;
+import vmtecnologia.com.br.UserService.feed.UserChangeFeed;
 import vmtecnologia.com.br.UserService.model.PageModel;
+import vmtecnologia.com.br.UserService.model.request.BulkUserRequest;
 import vmtecnologia.com.br.UserService.model.request.UserModelRequest;
+import vmtecnologia.com.br.UserService.model.response.BulkOperationResponse;
+import vmtecnologia.com.br.UserService.model.response.UserDeltaResponse;
 import vmtecnologia.com.br.UserService.model.response.UserModelResponse;
 import vmtecnologia.com.br.UserService.service.UserService;
+import vmtecnologia.com.br.UserService.service.UserSyncService;
 
 import java.util.Objects;
+import java.util.Optional;
+
+import static vmtecnologia.com.br.UserService.logging.LogMarkers.HOT_PATH;
 
 @Slf4j
 @RestController
@@ -24,6 +42,10 @@ import java.util.Objects;
 public class UserController {
 
     private final UserService userService;
+    private final UserResponseCache userResponseCache;
+    private final UserResponseSerializer userResponseSerializer;
+    private final UserChangeFeed userChangeFeed;
+    private final UserSyncService userSyncService;
 
     @Operation(
             summary = "Cria um novo usuário",
@@ -36,11 +58,13 @@ public class UserController {
     )
     @PostMapping("/save")
     public ResponseEntity<UserModelResponse> saveUser(@RequestBody UserModelRequest userModelRequest) {
-        log.info("saveUser() -> Recebendo email {} para criação de usuario.", userModelRequest.getEmail());
+        log.atInfo().addMarker(HOT_PATH).setMessage("saveUser() -> Recebendo usuario para criação.")
+                .addKeyValue("email", userModelRequest.getEmail()).log();
 
         UserModelResponse user = userService.createUser(userModelRequest);
         if (Objects.isNull(user)) {
-            log.error("saveUser() -> Erro ao criar usuario com email {}", userModelRequest.getEmail());
+            log.atError().setMessage("saveUser() -> Erro ao criar usuario.")
+                    .addKeyValue("email", userModelRequest.getEmail()).log();
             return ResponseEntity.badRequest().build();
         }
 
@@ -53,20 +77,24 @@ public class UserController {
             responses = {
                     @ApiResponse(responseCode = "200", description = "Usuário atualizado com sucesso",
                             content = @Content(schema = @Schema(implementation = UserModelRequest.class))),
-                    @ApiResponse(responseCode = "400", description = "Requisição inválida")
+                    @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+                    @ApiResponse(responseCode = "412", description = "Versão informada em If-Match desatualizada")
             }
     )
     @PutMapping("/update")
-    public ResponseEntity<UserModelResponse> updateUser(@RequestBody UserModelRequest userModelRequest) {
-        log.info("saveUser() -> Recebendo email {} para atualização de usuario.", userModelRequest);
+    public ResponseEntity<UserModelResponse> updateUser(@RequestBody UserModelRequest userModelRequest,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.atInfo().addMarker(HOT_PATH).setMessage("updateUser() -> Recebendo usuario para atualização.")
+                .addKeyValue("email", userModelRequest.getEmail()).log();
 
-        UserModelResponse user = userService.updateUser(userModelRequest);
+        UserModelResponse user = userService.updateUser(userModelRequest, expectedVersion(ifMatch, userModelRequest.getEmail()));
         if (Objects.isNull(user)) {
-            log.error("saveUser() -> Erro ao atualizar usuario com email {}", userModelRequest.getEmail());
+            log.atError().setMessage("updateUser() -> Erro ao atualizar usuario.")
+                    .addKeyValue("email", userModelRequest.getEmail()).log();
             return ResponseEntity.badRequest().build();
         }
 
-        return ResponseEntity.status(HttpStatus.OK).body(user);
+        return withETag(ResponseEntity.status(HttpStatus.OK), user.getVersion(), MediaType.APPLICATION_JSON).body(user);
     }
 
     @Operation(
@@ -80,10 +108,11 @@ public class UserController {
     )
     @DeleteMapping("/delete")
     public ResponseEntity<Void> deleteUser(@RequestParam Long id) {
-        log.info("deleteUser() -> Recebendo id {} para exclusão de usuario.", id);
+        log.atInfo().addMarker(HOT_PATH).setMessage("deleteUser() -> Recebendo usuario para exclusão.")
+                .addKeyValue("userId", id).log();
 
         if (Objects.isNull(id) || id <= 0) {
-            log.error("deleteUser() -> ID inválido: {}", id);
+            log.atError().setMessage("deleteUser() -> ID inválido.").addKeyValue("userId", id).log();
             return ResponseEntity.badRequest().build();
         }
 
@@ -111,7 +140,8 @@ public class UserController {
                                                                     @RequestParam(required = false) Boolean enabled,
                                                                     @RequestParam(defaultValue = "0") Integer pageNumber,
                                                                     @RequestParam(defaultValue = "10") Integer pageSize) {
-        log.info("findAllUsers() -> Buscando listagem de usuarios.");
+        log.atInfo().addMarker(HOT_PATH).setMessage("findAllUsers() -> Buscando listagem de usuarios.")
+                .addKeyValue("pageNumber", pageNumber).addKeyValue("pageSize", pageSize).log();
 
         try {
             PageModel<UserModelResponse> pageModel = userService.findAllUsers(username, email, enabled, pageNumber, pageSize);
@@ -124,30 +154,201 @@ public class UserController {
 
     @Operation(
             summary = "Busca usuário por ID",
-            description = "Retorna o usuário correspondente ao ID informado.",
+            description = "Retorna o usuário correspondente ao ID informado, com ETag. "
+                    + "Com If-None-Match igual à versão atual, responde 304 sem corpo.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Usuário encontrado",
                             content = @Content(schema = @Schema(implementation = UserModelRequest.class))),
+                    @ApiResponse(responseCode = "304", description = "Usuário não modificado"),
                     @ApiResponse(responseCode = "400", description = "ID inválido"),
                     @ApiResponse(responseCode = "404", description = "Usuário não encontrado")
             }
     )
     @GetMapping("/findById")
-    public ResponseEntity<UserModelResponse> findById(@RequestParam Long id) {
-        log.info("findById() -> Buscando usuario com ID {}", id);
+    public ResponseEntity<?> findById(@RequestParam Long id,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                      @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        log.atInfo().addMarker(HOT_PATH).setMessage("findById() -> Buscando usuario.").addKeyValue("userId", id).log();
 
         if (Objects.isNull(id) || id <= 0) {
-            log.error("findById() -> ID inválido: {}", id);
+            log.atError().setMessage("findById() -> ID inválido.").addKeyValue("userId", id).log();
             return ResponseEntity.badRequest().build();
         }
 
-        UserModelResponse user = userService.findById(id);
-        if (Objects.isNull(user)) {
-            log.warn("findById() -> Usuario com ID {} não encontrado.", id);
-            return ResponseEntity.notFound().build();
+        MediaType mediaType = userResponseSerializer.negotiate(accept);
+        CachedResponse cached = Objects.isNull(mediaType) ? null : userResponseCache.get(id, mediaType);
+
+        // consulta apenas a versão: se o cliente já tem a atual, não carrega nem serializa o usuário
+        if (StringUtils.hasText(ifNoneMatch)) {
+            Optional<Long> version = Objects.nonNull(cached)
+                    ? Optional.ofNullable(cached.version())
+                    : userService.findVersionById(id);
+            if (version.isPresent() && matchesAny(ifNoneMatch, eTag(version.get(), mediaType))) {
+                return withETag(ResponseEntity.status(HttpStatus.NOT_MODIFIED), version.get(), mediaType)
+                        .varyBy(HttpHeaders.ACCEPT)
+                        .build();
+            }
         }
 
-        return ResponseEntity.status(HttpStatus.OK).body(user);
+        if (Objects.isNull(cached)) {
+            long epoch = userResponseCache.epoch();
+            UserModelResponse user = userService.findById(id);
+            if (Objects.isNull(user)) {
+                log.atWarn().setMessage("findById() -> Usuario não encontrado.").addKeyValue("userId", id).log();
+                return ResponseEntity.notFound().build();
+            }
+            if (Objects.isNull(mediaType)) {
+                // nenhum formato aceitável: o Spring responde 406
+                return ResponseEntity.ok(user);
+            }
+            cached = new CachedResponse(userResponseSerializer.serialize(user, mediaType), mediaType, user.getVersion());
+            userResponseCache.put(id, mediaType, cached, epoch);
+        }
+
+        // bytes já serializados: escritos diretamente pelo ByteArrayHttpMessageConverter
+        return withETag(ResponseEntity.status(HttpStatus.OK), cached.version(), cached.contentType())
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(cached.contentType())
+                .body(cached.body());
+    }
+
+    @Operation(
+            summary = "Habilita usuários em lote",
+            description = "Habilita, em uma única operação, os usuários com os IDs e/ou filtros informados.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Quantidade de usuários alterados",
+                            content = @Content(schema = @Schema(implementation = BulkOperationResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Nenhum ID ou filtro informado, ou seleção acima do limite")
+            }
+    )
+    @PostMapping("/bulk/enable")
+    public ResponseEntity<BulkOperationResponse> bulkEnable(@Valid @RequestBody BulkUserRequest selection) {
+        log.atInfo().setMessage("bulkEnable() -> Recebendo habilitação em lote.").log();
+        return ResponseEntity.ok(new BulkOperationResponse(userService.bulkSetEnabled(selection, true)));
+    }
+
+    @Operation(
+            summary = "Desabilita usuários em lote",
+            description = "Desabilita, em uma única operação, os usuários com os IDs e/ou filtros informados.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Quantidade de usuários alterados",
+                            content = @Content(schema = @Schema(implementation = BulkOperationResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Nenhum ID ou filtro informado, ou seleção acima do limite")
+            }
+    )
+    @PostMapping("/bulk/disable")
+    public ResponseEntity<BulkOperationResponse> bulkDisable(@Valid @RequestBody BulkUserRequest selection) {
+        log.atInfo().setMessage("bulkDisable() -> Recebendo desabilitação em lote.").log();
+        return ResponseEntity.ok(new BulkOperationResponse(userService.bulkSetEnabled(selection, false)));
+    }
+
+    @Operation(
+            summary = "Exclui usuários em lote",
+            description = "Remove, em uma única operação, os usuários com os IDs e/ou filtros informados.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Quantidade de usuários excluídos",
+                            content = @Content(schema = @Schema(implementation = BulkOperationResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Nenhum ID ou filtro informado, ou seleção acima do limite")
+            }
+    )
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkOperationResponse> bulkDelete(@Valid @RequestBody BulkUserRequest selection) {
+        log.atInfo().setMessage("bulkDelete() -> Recebendo exclusão em lote.").log();
+        return ResponseEntity.ok(new BulkOperationResponse(userService.bulkDelete(selection)));
+    }
+
+    @Operation(
+            summary = "Feed de alterações de usuários",
+            description = "Transmite por server-sent events as criações, atualizações, habilitações, desabilitações "
+                    + "e exclusões de usuários, na ordem dos commits. O id de cada evento é a posição no feed: "
+                    + "informe a última recebida em Last-Event-ID (ou lastEventId) para retomar. O evento reset "
+                    + "indica que a posição não está mais disponível e os usuários devem ser recarregados.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Fluxo de eventos",
+                            content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                                    schema = @Schema(implementation = UserChangeEvent.class))),
+                    @ApiResponse(responseCode = "503", description = "Limite de assinantes atingido")
+            }
+    )
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter changes(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+                              @RequestParam(value = "lastEventId", required = false) Long lastEventId) {
+        Long cursor = Objects.nonNull(lastEventIdHeader) ? lastEventIdHeader : lastEventId;
+        log.atInfo().setMessage("changes() -> Nova assinatura do feed de alterações.")
+                .addKeyValue("lastEventId", cursor).log();
+        return userChangeFeed.subscribe(cursor);
+    }
+
+    @Operation(
+            summary = "Sincronização incremental de usuários",
+            description = "Retorna os usuários criados, alterados ou excluídos (deleted=true) depois da marca informada, "
+                    + "em ordem de modificação. Sem marca, retorna o cadastro inteiro. Envie a marca da resposta na "
+                    + "próxima chamada, repetindo enquanto hasMore for true.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Página de alterações",
+                            content = @Content(schema = @Schema(implementation = UserDeltaResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Marca inválida")
+            }
+    )
+    @GetMapping("/delta")
+    public ResponseEntity<UserDeltaResponse> delta(@RequestParam(required = false) String watermark,
+                                                   @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(userSyncService.findChangesSince(watermark, limit));
+    }
+
+    /**
+     * ETag forte de uma representação do usuário: a versão e, fora do JSON, o subtipo do formato
+     * (<code>"7"</code>, <code>"7-x-protobuf"</code>). Cada formato tem bytes diferentes, então
+     * não pode compartilhar a mesma ETag forte; as respostas trazem <code>Vary: Accept</code>.
+     */
+    private static String eTag(Long version, MediaType mediaType) {
+        if (Objects.isNull(mediaType) || MediaType.APPLICATION_JSON.equalsTypeAndSubtype(mediaType)) {
+            return "\"" + version + "\"";
+        }
+        return "\"" + version + "-" + mediaType.getSubtype() + "\"";
+    }
+
+    private static ResponseEntity.BodyBuilder withETag(ResponseEntity.BodyBuilder builder, Long version, MediaType mediaType) {
+        return Objects.isNull(version) ? builder : builder.eTag(eTag(version, mediaType));
+    }
+
+    /**
+     * Comparação fraca do <code>If-None-Match</code> (RFC 9110): aceita <code>*</code>,
+     * listas separadas por vírgula e ETags com prefixo <code>W/</code>.
+     */
+    private static boolean matchesAny(String ifNoneMatch, String current) {
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Extrai a versão esperada do <code>If-Match</code>. Aceita <code>*</code> (qualquer versão)
+     * ou uma única ETag forte, de qualquer formato; ETags fracas ou listas não podem garantir a
+     * versão e são recusadas.
+     */
+    private static Long expectedVersion(String ifMatch, String email) {
+        if (!StringUtils.hasText(ifMatch) || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            String value = tag.substring(1, tag.length() - 1);
+            int format = value.indexOf('-');
+            try {
+                return Long.valueOf(format > 0 ? value.substring(0, format) : value);
+            } catch (NumberFormatException ignored) {
+                // cai na recusa abaixo
+            }
+        }
+        throw new PreconditionFailedException(email);
     }
 
 }
@@ -0,0 +1,189 @@
+package vmtecnologia.com.br.UserService.converter;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import vmtecnologia.com.br.UserService.model.PageModel;
+import vmtecnologia.com.br.UserService.model.TokenModel;
+import vmtecnologia.com.br.UserService.model.response.UserModelResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Codificação Protobuf de {@link UserModelResponse}, {@link PageModel} de usuários e
+ * {@link TokenModel}, conforme <code>src/main/proto/user_service.proto</code>.
+ *
+ * <p>Escrita diretamente sobre {@link CodedOutputStream}/{@link CodedInputStream}, sem
+ * classes geradas pelo <code>protoc</code>: os modelos da API continuam sendo os mesmos
+ * usados em JSON e não há cópia intermediária para objetos Protobuf. Campos nulos não
+ * são escritos e campos ausentes são lidos como <code>null</code>.</p>
+ */
+public final class UserProtobufCodec {
+
+    private static final int USER_ID = 1;
+    private static final int USER_ENABLED = 2;
+    private static final int USER_USERNAME = 3;
+    private static final int USER_EMAIL = 4;
+    private static final int USER_VERSION = 5;
+
+    private static final int PAGE_PAGE = 1;
+    private static final int PAGE_PAGE_SIZE = 2;
+    private static final int PAGE_TOTAL_CONTENT = 3;
+    private static final int PAGE_TOTAL_PAGES = 4;
+    private static final int PAGE_ITEMS = 5;
+
+    private static final int TOKEN_TOKEN = 1;
+    private static final int TOKEN_REFRESH_TOKEN = 2;
+    private static final int TOKEN_EXPIRES_IN = 3;
+
+    private UserProtobufCodec() {
+    }
+
+    /**
+     * Escreve os campos da mensagem <code>User</code>.
+     */
+    public static void writeUser(CodedOutputStream out, UserModelResponse user) throws IOException {
+        if (Objects.nonNull(user.getId())) {
+            out.writeInt64(USER_ID, user.getId());
+        }
+        if (Objects.nonNull(user.getEnabled())) {
+            out.writeBool(USER_ENABLED, user.getEnabled());
+        }
+        if (Objects.nonNull(user.getUsername())) {
+            out.writeString(USER_USERNAME, user.getUsername());
+        }
+        if (Objects.nonNull(user.getEmail())) {
+            out.writeString(USER_EMAIL, user.getEmail());
+        }
+        if (Objects.nonNull(user.getVersion())) {
+            out.writeInt64(USER_VERSION, user.getVersion());
+        }
+    }
+
+    /**
+     * @return tamanho, em bytes, da mensagem <code>User</code> (prefixo de mensagens aninhadas)
+     */
+    public static int userSize(UserModelResponse user) {
+        int size = 0;
+        if (Objects.nonNull(user.getId())) {
+            size += CodedOutputStream.computeInt64Size(USER_ID, user.getId());
+        }
+        if (Objects.nonNull(user.getEnabled())) {
+            size += CodedOutputStream.computeBoolSize(USER_ENABLED, user.getEnabled());
+        }
+        if (Objects.nonNull(user.getUsername())) {
+            size += CodedOutputStream.computeStringSize(USER_USERNAME, user.getUsername());
+        }
+        if (Objects.nonNull(user.getEmail())) {
+            size += CodedOutputStream.computeStringSize(USER_EMAIL, user.getEmail());
+        }
+        if (Objects.nonNull(user.getVersion())) {
+            size += CodedOutputStream.computeInt64Size(USER_VERSION, user.getVersion());
+        }
+        return size;
+    }
+
+    /**
+     * Lê uma mensagem <code>User</code> até o fim da entrada (ou do limite corrente).
+     */
+    public static UserModelResponse readUser(CodedInputStream in) throws IOException {
+        UserModelResponse user = new UserModelResponse();
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case USER_ID -> user.setId(in.readInt64());
+                case USER_ENABLED -> user.setEnabled(in.readBool());
+                case USER_USERNAME -> user.setUsername(in.readString());
+                case USER_EMAIL -> user.setEmail(in.readString());
+                case USER_VERSION -> user.setVersion(in.readInt64());
+                default -> in.skipField(tag);
+            }
+        }
+        return user;
+    }
+
+    /**
+     * Escreve a mensagem <code>UserPage</code>, com cada item como <code>User</code> aninhado.
+     */
+    public static void writePage(CodedOutputStream out, PageModel<UserModelResponse> page) throws IOException {
+        if (Objects.nonNull(page.getPage())) {
+            out.writeInt32(PAGE_PAGE, page.getPage());
+        }
+        if (Objects.nonNull(page.getPageSize())) {
+            out.writeInt32(PAGE_PAGE_SIZE, page.getPageSize());
+        }
+        if (Objects.nonNull(page.getTotalContent())) {
+            out.writeInt64(PAGE_TOTAL_CONTENT, page.getTotalContent());
+        }
+        if (Objects.nonNull(page.getTotalPages())) {
+            out.writeInt32(PAGE_TOTAL_PAGES, page.getTotalPages());
+        }
+        if (Objects.nonNull(page.getItems())) {
+            for (UserModelResponse item : page.getItems()) {
+                out.writeTag(PAGE_ITEMS, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                out.writeUInt32NoTag(userSize(item));
+                writeUser(out, item);
+            }
+        }
+    }
+
+    /**
+     * Lê uma mensagem <code>UserPage</code>.
+     */
+    public static PageModel<UserModelResponse> readPage(CodedInputStream in) throws IOException {
+        PageModel<UserModelResponse> page = new PageModel<>();
+        List<UserModelResponse> items = new ArrayList<>();
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case PAGE_PAGE -> page.setPage(in.readInt32());
+                case PAGE_PAGE_SIZE -> page.setPageSize(in.readInt32());
+                case PAGE_TOTAL_CONTENT -> page.setTotalContent(in.readInt64());
+                case PAGE_TOTAL_PAGES -> page.setTotalPages(in.readInt32());
+                case PAGE_ITEMS -> {
+                    int limit = in.pushLimit(in.readRawVarint32());
+                    items.add(readUser(in));
+                    in.popLimit(limit);
+                }
+                default -> in.skipField(tag);
+            }
+        }
+        page.setItems(items);
+        return page;
+    }
+
+    /**
+     * Escreve a mensagem <code>Token</code>.
+     */
+    public static void writeToken(CodedOutputStream out, TokenModel token) throws IOException {
+        if (Objects.nonNull(token.getToken())) {
+            out.writeString(TOKEN_TOKEN, token.getToken());
+        }
+        if (Objects.nonNull(token.getRefreshToken())) {
+            out.writeString(TOKEN_REFRESH_TOKEN, token.getRefreshToken());
+        }
+        if (Objects.nonNull(token.getExpiresIn())) {
+            out.writeInt64(TOKEN_EXPIRES_IN, token.getExpiresIn());
+        }
+    }
+
+    /**
+     * Lê uma mensagem <code>Token</code>.
+     */
+    public static TokenModel readToken(CodedInputStream in) throws IOException {
+        TokenModel token = new TokenModel();
+        int tag;
+        while ((tag = in.readTag()) != 0) {
+            switch (WireFormat.getTagFieldNumber(tag)) {
+                case TOKEN_TOKEN -> token.setToken(in.readString());
+                case TOKEN_REFRESH_TOKEN -> token.setRefreshToken(in.readString());
+                case TOKEN_EXPIRES_IN -> token.setExpiresIn(in.readInt64());
+                default -> in.skipField(tag);
+            }
+        }
+        return token;
+    }
+}
@@ -0,0 +1,75 @@
+package vmtecnologia.com.br.UserService.converter;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import vmtecnologia.com.br.UserService.model.PageModel;
+import vmtecnologia.com.br.UserService.model.TokenModel;
+import vmtecnologia.com.br.UserService.model.response.UserModelResponse;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * Conversor HTTP para <code>application/x-protobuf</code> dos modelos
+ * {@link UserModelResponse}, {@link PageModel} de usuários e {@link TokenModel}.
+ *
+ * <p>A codificação fica em {@link UserProtobufCodec}. Os demais tipos (por exemplo,
+ * respostas de erro) não são suportados, então clientes Protobuf devem aceitar
+ * também JSON: <code>Accept: application/x-protobuf, application/json</code>.</p>
+ */
+public class UserProtobufHttpMessageConverter extends AbstractHttpMessageConverter<Object> {
+
+    public static final String PROTOBUF_VALUE = "application/x-protobuf";
+    public static final MediaType PROTOBUF = MediaType.parseMediaType(PROTOBUF_VALUE);
+
+    public UserProtobufHttpMessageConverter() {
+        super(PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return UserModelResponse.class.isAssignableFrom(clazz)
+                || PageModel.class.isAssignableFrom(clazz)
+                || TokenModel.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        CodedInputStream in = CodedInputStream.newInstance(inputMessage.getBody());
+        if (UserModelResponse.class.isAssignableFrom(clazz)) {
+            return UserProtobufCodec.readUser(in);
+        }
+        if (PageModel.class.isAssignableFrom(clazz)) {
+            return UserProtobufCodec.readPage(in);
+        }
+        if (TokenModel.class.isAssignableFrom(clazz)) {
+            return UserProtobufCodec.readToken(in);
+        }
+        throw new HttpMessageNotReadableException("Tipo não suportado em Protobuf: " + clazz.getName(), inputMessage);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(Object body, HttpOutputMessage outputMessage) throws IOException {
+        CodedOutputStream out = CodedOutputStream.newInstance(outputMessage.getBody());
+        if (body instanceof UserModelResponse user) {
+            UserProtobufCodec.writeUser(out, user);
+        } else if (body instanceof PageModel<?> page) {
+            if (Objects.nonNull(page.getItems()) && !page.getItems().stream().allMatch(UserModelResponse.class::isInstance)) {
+                throw new HttpMessageNotWritableException("Página com itens não suportados em Protobuf");
+            }
+            UserProtobufCodec.writePage(out, (PageModel<UserModelResponse>) page);
+        } else if (body instanceof TokenModel token) {
+            UserProtobufCodec.writeToken(out, token);
+        } else {
+            throw new HttpMessageNotWritableException("Tipo não suportado em Protobuf: " + body.getClass().getName());
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,102 @@
+package vmtecnologia.com.br.UserService.converter;
+
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+import vmtecnologia.com.br.UserService.model.response.UserModelResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Serializa {@link UserModelResponse} em bytes com os mesmos conversores HTTP usados
+ * pelo Spring MVC, permitindo guardar a resposta pronta em
+ * {@link vmtecnologia.com.br.UserService.cache.UserResponseCache}.
+ *
+ * <p>Os conversores são consultados na mesma ordem do Spring MVC (Jackson JSON, CBOR,
+ * Smile e, por último, Protobuf), de modo que a negociação pelo <code>Accept</code>
+ * escolhe o mesmo formato que o Spring escolheria.</p>
+ */
+@Component
+public class UserResponseSerializer {
+
+    private final List<HttpMessageConverter<?>> converters;
+
+    public UserResponseSerializer(HttpMessageConverters httpMessageConverters) {
+        List<HttpMessageConverter<?>> all = new ArrayList<>(httpMessageConverters.getConverters());
+        all.add(new UserProtobufHttpMessageConverter());
+        this.converters = all.stream()
+                .filter(c -> c.canWrite(UserModelResponse.class, null))
+                .toList();
+    }
+
+    /**
+     * Escolhe o tipo de mídia da resposta a partir do cabeçalho <code>Accept</code>.
+     *
+     * @param accept valor do cabeçalho <code>Accept</code> (ausente equivale a <code>*&#47;*</code>)
+     * @return tipo de mídia concreto, ou <code>null</code> se nenhum formato for aceitável
+     */
+    public MediaType negotiate(String accept) {
+        List<MediaType> accepted;
+        try {
+            accepted = StringUtils.hasText(accept) ? MediaType.parseMediaTypes(accept) : List.of(MediaType.ALL);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        accepted = new ArrayList<>(accepted);
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType acceptable : accepted) {
+            for (HttpMessageConverter<?> converter : converters) {
+                for (MediaType supported : converter.getSupportedMediaTypes(UserModelResponse.class)) {
+                    if (supported.isConcrete() && acceptable.isCompatibleWith(supported)) {
+                        return supported;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param user      resposta a serializar
+     * @param mediaType tipo de mídia obtido em {@link #negotiate(String)}
+     * @return corpo serializado
+     */
+    @SuppressWarnings("unchecked")
+    public byte[] serialize(UserModelResponse user, MediaType mediaType) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+        HttpOutputMessage message = new HttpOutputMessage() {
+            private final HttpHeaders headers = new HttpHeaders();
+
+            @Override
+            public OutputStream getBody() {
+                return body;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+        for (HttpMessageConverter<?> converter : converters) {
+            if (converter.canWrite(UserModelResponse.class, mediaType)) {
+                try {
+                    ((HttpMessageConverter<Object>) converter).write(user, mediaType, message);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return body.toByteArray();
+            }
+        }
+        throw new IllegalArgumentException("Tipo de mídia não suportado: " + mediaType);
+    }
+}
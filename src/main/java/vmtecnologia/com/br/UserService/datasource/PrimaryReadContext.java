@@ -0,0 +1,47 @@
+package vmtecnologia.com.br.UserService.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marca, na thread atual, leituras que não podem ir para a réplica, consultada por
+ * {@link ReadWriteRoutingDataSource} ao obter a conexão.
+ *
+ * <p>Para leituras cujo resultado depende de dados que a réplica pode ainda não ter, sem que a
+ * transação deixe de ser somente leitura (e sem contar como escrita para a leitura das próprias
+ * escritas). Sem o roteamento de leitura ativo, não tem efeito.</p>
+ */
+public final class PrimaryReadContext {
+
+    private static final ThreadLocal<Boolean> CURRENT = new ThreadLocal<>();
+
+    private PrimaryReadContext() {
+    }
+
+    /**
+     * @return <code>true</code> se a thread atual está dentro de {@link #call(Supplier)}
+     */
+    public static boolean isActive() {
+        return Boolean.TRUE.equals(CURRENT.get());
+    }
+
+    /**
+     * Executa a ação com as conexões obtidas por ela indo para o primário. Dentro de uma
+     * transação, deve envolver a primeira consulta, antes de a conexão ser obtida.
+     *
+     * @param action leitura a executar
+     * @return resultado da ação
+     */
+    public static <T> T call(Supplier<T> action) {
+        Boolean previous = CURRENT.get();
+        CURRENT.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (Boolean.TRUE.equals(previous)) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
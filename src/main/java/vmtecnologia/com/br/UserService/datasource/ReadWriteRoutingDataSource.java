@@ -0,0 +1,75 @@
+package vmtecnologia.com.br.UserService.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * {@link DataSource} que envia transações <code>@Transactional(readOnly = true)</code>
+ * para a réplica e todo o resto (escritas e acessos fora de transação) para o primário.
+ *
+ * <p>Deve ser envolvido por um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}, para que a
+ * conexão só seja obtida depois que a transação já estiver marcada como somente leitura.</p>
+ *
+ * <p>Quando o usuário autenticado confirma uma escrita, suas leituras seguintes vão ao
+ * primário durante a janela do {@link ReadYourWritesTracker}, evitando ler dados ainda
+ * não replicados. Leituras marcadas por {@link PrimaryReadContext} vão sempre ao primário.</p>
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Destino da conexão.
+     */
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return Route.PRIMARY;
+        }
+        String principal = currentPrincipal();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (Objects.nonNull(principal) && TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        tracker.recordWrite(principal);
+                    }
+                });
+            }
+            return Route.PRIMARY;
+        }
+        if (PrimaryReadContext.isActive()) {
+            return Route.PRIMARY;
+        }
+        return Objects.nonNull(principal) && tracker.wroteRecently(principal) ? Route.PRIMARY : Route.REPLICA;
+    }
+
+    private static String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (Objects.isNull(authentication) || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,55 @@
+package vmtecnologia.com.br.UserService.datasource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registra, por usuário autenticado, o instante da última escrita confirmada,
+ * para que as leituras desse usuário continuem no primário durante a janela
+ * de <code>app.datasource.routing.read-your-writes-window</code> milissegundos
+ * (tempo esperado de replicação).
+ */
+public class ReadYourWritesTracker {
+
+    private final long windowMillis;
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * @param principal usuário que acabou de confirmar uma escrita
+     */
+    public void recordWrite(String principal) {
+        recentWrites.put(principal, System.currentTimeMillis() + windowMillis);
+    }
+
+    /**
+     * @param principal usuário autenticado
+     * @return <code>true</code> se o usuário escreveu dentro da janela de leitura das próprias escritas
+     */
+    public boolean wroteRecently(String principal) {
+        Long until = recentWrites.get(principal);
+        if (Objects.isNull(until)) {
+            return false;
+        }
+        if (until <= System.currentTimeMillis()) {
+            recentWrites.remove(principal, until);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Remove periodicamente as janelas já encerradas.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.routing.read-your-writes-window}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        recentWrites.values().removeIf(until -> until <= now);
+    }
+}
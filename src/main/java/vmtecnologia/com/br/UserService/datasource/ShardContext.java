@@ -0,0 +1,45 @@
+package vmtecnologia.com.br.UserService.datasource;
+
+import java.util.Objects;
+
+/**
+ * Shard da thread atual, consultado por {@link ShardRoutingDataSource} ao obter a conexão.
+ *
+ * <p>Definido por {@link ShardRoutingInterceptor} em volta de cada chamada ao repositório;
+ * sem valor, as conexões vão para o shard 0.</p>
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * @return shard da thread atual, ou <code>null</code> se não definido
+     */
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @param shard shard a usar nas próximas conexões da thread
+     * @return shard anterior, a ser devolvido em {@link #restore(Integer)}
+     */
+    public static Integer set(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    /**
+     * @param previous valor devolvido por {@link #set(int)}
+     */
+    public static void restore(Integer previous) {
+        if (Objects.isNull(previous)) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package vmtecnologia.com.br.UserService.datasource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.zip.CRC32;
+
+/**
+ * Define em qual shard fica cada usuário.
+ *
+ * <p>O shard é o CRC32 do e-mail normalizado (sem espaços nas pontas e em minúsculas) módulo a
+ * quantidade de shards, estável entre execuções e instâncias. Os IDs gerados no shard
+ * <code>k</code> são sempre congruentes a <code>k</code> módulo a quantidade de shards (ver
+ * {@link #nextId}), de modo que o ID também identifica o shard e é único entre todos eles.</p>
+ *
+ * <p>Alterar a quantidade de shards muda a posição dos usuários já cadastrados; a redistribuição
+ * dos dados não é feita pela aplicação.</p>
+ */
+public class ShardRouter {
+
+    private final int shards;
+
+    /**
+     * @param shards quantidade de shards; ao menos 1
+     */
+    public ShardRouter(int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Quantidade de shards inválida: " + shards);
+        }
+        this.shards = shards;
+    }
+
+    /**
+     * @return quantidade de shards
+     */
+    public int shards() {
+        return shards;
+    }
+
+    /**
+     * @param email e-mail do usuário
+     * @return shard do usuário
+     */
+    public int shardOf(String email) {
+        CRC32 crc = new CRC32();
+        crc.update(email.trim().toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % shards);
+    }
+
+    /**
+     * @param id ID do usuário
+     * @return shard em que o ID foi gerado
+     */
+    public int shardOf(Long id) {
+        return (int) Math.floorMod(id, (long) shards);
+    }
+
+    /**
+     * @param shard shard da tabela
+     * @param maxId maior ID já existente no shard (0 se vazio)
+     * @return menor ID maior que <code>maxId</code> pertencente ao shard
+     */
+    public long nextId(int shard, long maxId) {
+        return maxId + 1 + Math.floorMod(shard - (maxId + 1), (long) shards);
+    }
+}
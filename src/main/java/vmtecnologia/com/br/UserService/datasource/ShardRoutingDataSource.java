@@ -0,0 +1,55 @@
+package vmtecnologia.com.br.UserService.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * {@link javax.sql.DataSource} que envia cada conexão ao shard definido em {@link ShardContext}
+ * (shard 0 quando não definido, como na criação do esquema pelo Hibernate).
+ *
+ * <p>Deve ser envolvido por um
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: a transação começa
+ * antes de o repositório saber o shard, e a conexão só é obtida no primeiro comando SQL.</p>
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+
+    private final List<HikariDataSource> shards;
+
+    /**
+     * @param shards pool de conexões de cada shard, na ordem dos índices
+     */
+    public ShardRoutingDataSource(List<HikariDataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        afterPropertiesSet();
+    }
+
+    /**
+     * @return pool de conexões de cada shard, na ordem dos índices
+     */
+    public List<HikariDataSource> shards() {
+        return shards;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        return Objects.isNull(shard) ? 0 : shard;
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,313 @@
+package vmtecnologia.com.br.UserService.datasource;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.entity.UserTombstoneEntity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Roteia cada chamada a {@link vmtecnologia.com.br.UserService.repository.UserRepository} e a
+ * {@link vmtecnologia.com.br.UserService.repository.UserTombstoneRepository} para o shard certo, de
+ * modo que o serviço continue usando os repositórios como se houvesse um só banco.
+ *
+ * <ul>
+ *   <li>por e-mail (<code>findByEmail</code>, <code>findByEmailAndEnabled</code>, <code>save</code>,
+ *   <code>saveAndFlush</code>, <code>delete(entidade)</code>; a exclusão é registrada no shard do
+ *   usuário) e por ID (<code>findById</code>,
+ *   <code>findVersionById</code>, <code>findEmailById</code>, <code>existsById</code>,
+ *   <code>deleteById</code>): um único shard, na transação corrente;</li>
+ *   <li>demais consultas e operações em lote: executadas em todos os shards em paralelo, cada um
+ *   em transação própria, e os resultados combinados — páginas intercaladas pela ordenação pedida
+ *   (ID, se não houver), contagens somadas, listas concatenadas;</li>
+ *   <li><code>saveAll</code> e <code>findAllByIdsInOrder</code>: agrupados por shard (do e-mail ou do
+ *   ID), cada grupo em transação própria; a carga por IDs devolve os usuários na ordem pedida.</li>
+ * </ul>
+ *
+ * <p>Operações em vários shards não são atômicas entre si. Nelas o cache de consultas do
+ * Hibernate é ignorado, pois a mesma consulta tem resultado diferente em cada shard. Métodos
+ * não previstos aqui são recusados, para que nenhum acesso caia por engano no shard padrão.</p>
+ */
+public class ShardRoutingInterceptor implements MethodInterceptor {
+
+    private final ShardRouter router;
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ShardRoutingInterceptor(ShardRouter router,
+                                   ObjectProvider<PlatformTransactionManager> transactionManager,
+                                   ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.router = router;
+        this.transactionManager = transactionManager;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // já roteada (parte de uma operação em vários shards)
+        if (Objects.nonNull(ShardContext.current()) || invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        Object[] args = invocation.getArguments();
+        return switch (invocation.getMethod().getName()) {
+            case "findByEmail", "findByEmailAndEnabled" -> single(invocation, router.shardOf((String) args[0]));
+            case "findById", "findVersionById", "findEmailById", "existsById", "deleteById" ->
+                    single(invocation, router.shardOf((Long) args[0]));
+            case "save", "saveAndFlush" -> single(invocation, router.shardOf(emailOf(args[0])));
+            case "saveAll" -> saveByShard(invocation);
+            case "findAllByIdsInOrder" -> loadByShard(invocation);
+            case "delete" -> args[0] instanceof UserEntity user
+                    ? single(invocation, router.shardOf(user.getEmail()))
+                    : sum(invocation, false);
+            case "findAll" -> args.length == 2 && args[1] instanceof Pageable pageable
+                    ? page(invocation, pageable)
+                    : unsupported(invocation);
+            case "findByUsernameAndEnabled" -> scatter(invocation, true).stream()
+                    .map(Optional.class::cast)
+                    .filter(Optional::isPresent)
+                    .findFirst()
+                    .orElse(Optional.empty());
+            case "findKeys" -> scatter(invocation, true).stream()
+                    .flatMap(result -> ((List<?>) result).stream())
+                    .toList();
+            case "findChangedSince" -> merge(invocation, Sort.by("modSeq", "id"));
+            case "findDeletedSince" -> merge(invocation, Sort.by("modSeq", "userId"));
+            case "findMaxModSeq" -> scatter(invocation, true).stream()
+                    .map(result -> (Optional<?>) result)
+                    .flatMap(Optional::stream)
+                    .map(Long.class::cast)
+                    .max(Long::compare);
+            case "count" -> sum(invocation, true);
+            case "updateEnabled", "backfillModSeq", "deleteOlderThan" -> sum(invocation, false);
+            case "streamAllEmails" -> streamShards(invocation);
+            default -> unsupported(invocation);
+        };
+    }
+
+    private Object single(MethodInvocation invocation, int shard) throws Throwable {
+        Integer previous = ShardContext.set(shard);
+        try {
+            return invocation.proceed();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    /**
+     * Busca, em cada shard, as linhas até o fim da página pedida e intercala os resultados;
+     * o custo cresce com o número da página.
+     */
+    private Object page(MethodInvocation invocation, Pageable pageable) throws Throwable {
+        Object[] args = invocation.getArguments();
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        Pageable perShard = pageable.isPaged()
+                ? PageRequest.of(0, (int) (pageable.getOffset() + pageable.getPageSize()), sort)
+                : Pageable.unpaged(sort);
+        List<Object> pages = scatter(((ProxyMethodInvocation) invocation).invocableClone(args[0], perShard), true);
+
+        long total = 0;
+        List<Object> merged = new ArrayList<>();
+        for (Object result : pages) {
+            Page<?> shardPage = (Page<?>) result;
+            total += shardPage.getTotalElements();
+            merged.addAll(shardPage.getContent());
+        }
+        Stream<Object> ordered = merged.stream().sorted(comparator(sort));
+        if (pageable.isPaged()) {
+            ordered = ordered.skip(pageable.getOffset()).limit(pageable.getPageSize());
+        }
+        return new PageImpl<>(ordered.toList(), pageable, total);
+    }
+
+    /**
+     * Intercala as listas de cada shard pela ordenação informada e aplica o limite (último
+     * argumento) ao resultado.
+     */
+    private Object merge(MethodInvocation invocation, Sort sort) throws Throwable {
+        Object[] args = invocation.getArguments();
+        Limit limit = (Limit) args[args.length - 1];
+        Stream<Object> ordered = scatter(invocation, true).stream()
+                .<Object>flatMap(result -> ((List<?>) result).stream())
+                .sorted(comparator(sort));
+        if (limit.isLimited()) {
+            ordered = ordered.limit(limit.max());
+        }
+        return ordered.toList();
+    }
+
+    private Object saveByShard(MethodInvocation invocation) throws Throwable {
+        ProxyMethodInvocation template = (ProxyMethodInvocation) invocation;
+        Map<Integer, List<Object>> byShard = new TreeMap<>();
+        for (Object entity : (Iterable<?>) invocation.getArguments()[0]) {
+            byShard.computeIfAbsent(router.shardOf(emailOf(entity)), shard -> new ArrayList<>()).add(entity);
+        }
+        List<Object> saved = new ArrayList<>();
+        for (Map.Entry<Integer, List<Object>> group : byShard.entrySet()) {
+            saved.addAll((List<?>) inShard(group.getKey(), template.invocableClone((Object) group.getValue()), false));
+        }
+        return saved;
+    }
+
+    private Object loadByShard(MethodInvocation invocation) throws Throwable {
+        ProxyMethodInvocation template = (ProxyMethodInvocation) invocation;
+        List<?> ids = (List<?>) invocation.getArguments()[0];
+        Map<Integer, List<Long>> byShard = new TreeMap<>();
+        for (Object id : ids) {
+            byShard.computeIfAbsent(router.shardOf((Long) id), shard -> new ArrayList<>()).add((Long) id);
+        }
+        Map<Long, UserEntity> loaded = new HashMap<>(ids.size());
+        for (Map.Entry<Integer, List<Long>> group : byShard.entrySet()) {
+            for (Object user : (List<?>) inShard(group.getKey(), template.invocableClone((Object) group.getValue()), true)) {
+                loaded.put(((UserEntity) user).getId(), (UserEntity) user);
+            }
+        }
+        return ids.stream().map(loaded::get).filter(Objects::nonNull).toList();
+    }
+
+    private Object sum(MethodInvocation invocation, boolean readOnly) throws Throwable {
+        long total = scatter(invocation, readOnly).stream().mapToLong(result -> ((Number) result).longValue()).sum();
+        Class<?> returnType = invocation.getMethod().getReturnType();
+        return returnType == int.class || returnType == Integer.class ? (Object) Math.toIntExact(total) : (Object) total;
+    }
+
+    /**
+     * Executa a chamada em todos os shards em paralelo.
+     *
+     * @return resultado de cada shard, na ordem dos índices
+     */
+    private List<Object> scatter(MethodInvocation invocation, boolean readOnly) throws Throwable {
+        ProxyMethodInvocation template = (ProxyMethodInvocation) invocation;
+        List<Future<Object>> futures = new ArrayList<>(router.shards());
+        for (int shard = 0; shard < router.shards(); shard++) {
+            int target = shard;
+            MethodInvocation copy = template.invocableClone();
+            futures.add(executor.submit(() -> {
+                try {
+                    return inShard(target, copy, readOnly);
+                } catch (Exception | Error ex) {
+                    throw ex;
+                } catch (Throwable ex) {
+                    throw new IllegalStateException(ex);
+                }
+            }));
+        }
+        List<Object> results = new ArrayList<>(futures.size());
+        for (Future<Object> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException ex) {
+                throw ex.getCause();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Percorre os shards um de cada vez, conforme o stream é consumido; apenas os e-mails do
+     * shard corrente ficam em memória.
+     */
+    private Stream<Object> streamShards(MethodInvocation invocation) {
+        ProxyMethodInvocation template = (ProxyMethodInvocation) invocation;
+        return IntStream.range(0, router.shards()).boxed().flatMap(shard -> {
+            try {
+                return ((List<?>) inShard(shard, template.invocableClone(), true)).stream();
+            } catch (RuntimeException | Error ex) {
+                throw ex;
+            } catch (Throwable ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+    }
+
+    /**
+     * Executa a chamada no shard em uma transação nova, ignorando o cache de consultas.
+     * Streams são materializados antes do commit.
+     */
+    private Object inShard(int shard, MethodInvocation invocation, boolean readOnly) throws Throwable {
+        Integer previous = ShardContext.set(shard);
+        PlatformTransactionManager manager = transactionManager.getObject();
+        DefaultTransactionDefinition definition =
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        definition.setReadOnly(readOnly);
+        TransactionStatus status = manager.getTransaction(definition);
+        try {
+            EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory.getObject())
+                    .unwrap(Session.class)
+                    .setCacheMode(CacheMode.IGNORE);
+            Object result = invocation.proceed();
+            if (result instanceof Stream<?> stream) {
+                try (stream) {
+                    result = stream.toList();
+                }
+            }
+            manager.commit(status);
+            return result;
+        } catch (Throwable ex) {
+            if (!status.isCompleted()) {
+                manager.rollback(status);
+            }
+            throw ex;
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    private static String emailOf(Object entity) {
+        if (entity instanceof UserEntity user) {
+            return user.getEmail();
+        }
+        if (entity instanceof UserTombstoneEntity tombstone) {
+            return tombstone.getEmail();
+        }
+        throw new UnsupportedOperationException("Entidade sem roteamento entre shards: " + entity.getClass().getName());
+    }
+
+    private static Object unsupported(MethodInvocation invocation) {
+        throw new UnsupportedOperationException(
+                "Operação sem roteamento entre shards: " + invocation.getMethod().getName());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Object> comparator(Sort sort) {
+        Comparator<Object> comparator = (a, b) -> 0;
+        for (Sort.Order order : sort) {
+            Comparator<Object> byProperty = Comparator.comparing(
+                    entity -> (Comparable) new BeanWrapperImpl(entity).getPropertyValue(order.getProperty()),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            comparator = comparator.thenComparing(order.isAscending() ? byProperty : byProperty.reversed());
+        }
+        return comparator;
+    }
+}
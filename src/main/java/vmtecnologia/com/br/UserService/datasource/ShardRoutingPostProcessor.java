@@ -0,0 +1,31 @@
+package vmtecnologia.com.br.UserService.datasource;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import vmtecnologia.com.br.UserService.repository.UserRepository;
+import vmtecnologia.com.br.UserService.repository.UserTombstoneRepository;
+
+/**
+ * Acrescenta {@link ShardRoutingInterceptor} como primeiro da cadeia dos proxies de
+ * {@link UserRepository} e {@link UserTombstoneRepository}, antes da transação aberta pelo
+ * próprio repositório.
+ */
+public class ShardRoutingPostProcessor implements BeanPostProcessor {
+
+    private final ShardRoutingInterceptor interceptor;
+
+    public ShardRoutingPostProcessor(ShardRoutingInterceptor interceptor) {
+        this.interceptor = interceptor;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if ((bean instanceof UserRepository || bean instanceof UserTombstoneRepository) && bean instanceof Advised advised) {
+            if (advised.isFrozen()) {
+                throw new IllegalStateException("Proxy de " + beanName + " não aceita o roteamento entre shards");
+            }
+            advised.addAdvice(0, interceptor);
+        }
+        return bean;
+    }
+}
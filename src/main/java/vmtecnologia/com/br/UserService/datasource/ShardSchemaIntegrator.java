@@ -0,0 +1,95 @@
+package vmtecnologia.com.br.UserService.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.mapping.PersistentClass;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Prepara os shards quando o Hibernate termina de subir.
+ *
+ * <ol>
+ *   <li>Aplica aos shards 1..N-1 a mesma ação de esquema (<code>spring.jpa.hibernate.ddl-auto</code>)
+ *   que o Hibernate já aplicou ao shard 0, o padrão de {@link ShardRoutingDataSource}.</li>
+ *   <li>Ajusta a coluna de identidade de cada shard para gerar apenas IDs do próprio shard
+ *   (incremento N, próximo valor dado por {@link ShardRouter#nextId}). O ajuste é idempotente e
+ *   refeito a cada inicialização.</li>
+ * </ol>
+ */
+@Slf4j
+public class ShardSchemaIntegrator implements Integrator {
+
+    private final ShardRouter router;
+    private final List<HikariDataSource> shards;
+
+    public ShardSchemaIntegrator(ShardRouter router, List<HikariDataSource> shards) {
+        this.router = router;
+        this.shards = shards;
+    }
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext, SessionFactoryImplementor sessionFactory) {
+        sessionFactory.addObserver(new SessionFactoryObserver() {
+            @Override
+            public void sessionFactoryCreated(SessionFactory factory) {
+                prepare(metadata, sessionFactory);
+            }
+        });
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        // nada a desfazer
+    }
+
+    private void prepare(Metadata metadata, SessionFactoryImplementor sessionFactory) {
+        for (int shard = 1; shard < router.shards(); shard++) {
+            Integer previous = ShardContext.set(shard);
+            try {
+                // remoção do esquema ao encerrar (create-drop) fica restrita ao shard 0
+                SchemaManagementToolCoordinator.process(metadata, sessionFactory.getServiceRegistry(),
+                        sessionFactory.getProperties(), action -> { });
+            } finally {
+                ShardContext.restore(previous);
+            }
+        }
+        PersistentClass user = metadata.getEntityBinding(UserEntity.class.getName());
+        String table = user.getTable().getQuotedName();
+        String idColumn = user.getTable().getPrimaryKey().getColumn(0).getQuotedName();
+        for (int shard = 0; shard < router.shards(); shard++) {
+            alignIdentity(shard, table, idColumn);
+        }
+    }
+
+    private void alignIdentity(int shard, String table, String idColumn) {
+        try (Connection connection = shards.get(shard).getConnection();
+             Statement statement = connection.createStatement()) {
+            long maxId;
+            try (ResultSet rs = statement.executeQuery("SELECT COALESCE(MAX(" + idColumn + "), 0) FROM " + table)) {
+                rs.next();
+                maxId = rs.getLong(1);
+            }
+            long next = router.nextId(shard, maxId);
+            statement.execute("ALTER TABLE " + table + " ALTER COLUMN " + idColumn
+                    + " RESTART WITH " + next + " SET INCREMENT BY " + router.shards());
+            log.atInfo().setMessage("alignIdentity() -> Identidade do shard ajustada.")
+                    .addKeyValue("shard", shard).addKeyValue("nextId", next).log();
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Falha ao preparar o shard " + shard, ex);
+        }
+    }
+}
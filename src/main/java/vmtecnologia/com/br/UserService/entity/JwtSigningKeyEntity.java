@@ -0,0 +1,63 @@
+package vmtecnologia.com.br.UserService.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Par de chaves RSA de assinatura dos tokens JWT, compartilhado por todas as instâncias.
+ *
+ * <p>A chave privada é gravada cifrada (AES-GCM, com a chave derivada de
+ * <code>app.jwt.key-encryption-secret</code>); a pública, em claro, no formato X.509.</p>
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "jwt_signing_keys")
+public class JwtSigningKeyEntity implements Persistable<String> {
+
+    /**
+     * Identificador publicado no cabeçalho dos tokens e no JWKS.
+     */
+    @Id
+    @Column(name = "kid", nullable = false, length = 64)
+    private String kid;
+
+    @Column(name = "public_key", nullable = false, length = 1024)
+    private byte[] publicKey;
+
+    /**
+     * Vetor de inicialização seguido da chave privada PKCS#8 cifrada.
+     */
+    @Column(name = "private_key", nullable = false, length = 4096)
+    private byte[] privateKey;
+
+    /**
+     * Instante a partir do qual a chave passa a assinar os novos tokens.
+     */
+    @Column(name = "activates_at", nullable = false)
+    private Instant activatesAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Override
+    public String getId() {
+        return kid;
+    }
+
+    /**
+     * Sempre nova: o <code>kid</code> é derivado do instante de ativação, e duas instâncias que
+     * geram a mesma chave ao mesmo tempo devem colidir na chave primária, sem que a segunda
+     * sobrescreva a primeira.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
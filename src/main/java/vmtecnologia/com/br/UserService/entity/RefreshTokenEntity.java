@@ -0,0 +1,53 @@
+package vmtecnologia.com.br.UserService.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Refresh token ativo, compartilhado por todas as instâncias.
+ *
+ * <p>Guarda apenas o hash SHA-256 do token entregue ao cliente, associado ao e-mail do
+ * usuário e à data de expiração.</p>
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "refresh_tokens", indexes = @Index(name = "ix_refresh_tokens_email", columnList = "email"))
+public class RefreshTokenEntity implements Persistable<String> {
+
+    /**
+     * Hash SHA-256 do token, em Base64 URL sem preenchimento.
+     */
+    @Id
+    @Column(name = "token_hash", nullable = false, length = 64)
+    private String tokenHash;
+
+    @Column(name = "email", nullable = false)
+    private String email;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Override
+    public String getId() {
+        return tokenHash;
+    }
+
+    /**
+     * Sempre novo: cada token é aleatório e gravado uma única vez, então o Spring Data deve
+     * inserir sem consultar antes.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
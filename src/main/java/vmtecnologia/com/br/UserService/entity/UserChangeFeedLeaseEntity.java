@@ -0,0 +1,51 @@
+package vmtecnologia.com.br.UserService.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Lease que elege a única instância que publica o feed de alterações de usuários, compartilhado
+ * por todas as instâncias.
+ *
+ * <p>A instância dona renova a expiração periodicamente; as demais só o assumem depois que ele
+ * expira.</p>
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "user_change_feed_lease")
+public class UserChangeFeedLeaseEntity implements Persistable<String> {
+
+    @Id
+    @Column(name = "name", nullable = false, length = 64)
+    private String name;
+
+    /**
+     * Identificador aleatório da instância dona, gerado a cada inicialização.
+     */
+    @Column(name = "owner", nullable = false, length = 64)
+    private String owner;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Override
+    public String getId() {
+        return name;
+    }
+
+    /**
+     * Sempre novo: só é inserido quando não existe, e duas instâncias que o criam ao mesmo tempo
+     * devem colidir na chave primária, sem que a segunda sobrescreva a primeira.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,66 @@
+package vmtecnologia.com.br.UserService.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Registro persistido de uma alteração de usuário publicada no feed de alterações, usado para
+ * retomar o feed a partir de cursores mais antigos que o buffer em memória.
+ *
+ * <p>O ID é a posição no feed, atribuída pela instância que detém o lease de publicação
+ * ({@link UserChangeFeedLeaseEntity}); os registros só são inseridos
+ * (e removidos após <code>app.user.change-feed.log-retention</code>), nunca alterados.</p>
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "user_change_log", indexes = @Index(name = "ix_user_change_log_occurred_at", columnList = "occurred_at"))
+public class UserChangeLogEntity implements Persistable<Long> {
+
+    /**
+     * Posição no feed.
+     */
+    @Id
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    /**
+     * Tipo da alteração (<code>CREATED</code>, <code>UPDATED</code>, <code>ENABLED</code>,
+     * <code>DISABLED</code> ou <code>DELETED</code>).
+     */
+    @Column(name = "type", nullable = false, length = 16)
+    private String type;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "email", nullable = false)
+    private String email;
+
+    @Column(name = "enabled")
+    private Boolean enabled;
+
+    @Column(name = "version")
+    private Long version;
+
+    /**
+     * Instante do commit da alteração.
+     */
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    /**
+     * Sempre novo: o ID é atribuído pela aplicação e os registros nunca são atualizados,
+     * então o Spring Data deve inserir sem consultar antes.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -2,12 +2,21 @@ package vmtecnologia.com.br.UserService.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import vmtecnologia.com.br.UserService.config.HibernateCacheConfig;
+import vmtecnologia.com.br.UserService.sync.UserModificationListener;
 
 /**
  * Entidade que representa um usuário no banco de dados.
  *
  * Mapeada para a tabela <code>users</code>, com restrição de exclusividade
  * no campo <code>email</code> e <code>username</code>.
+ *
+ * <p>Mantida no cache de segundo nível do Hibernate, tanto por ID quanto pelo
+ * e-mail (natural id). Ver {@link HibernateCacheConfig}.</p>
  */
 @Getter
 @Setter
@@ -15,11 +24,19 @@ import lombok.*;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.USER_REGION)
+@NaturalIdCache(region = HibernateCacheConfig.USER_NATURAL_ID_REGION)
+@EntityListeners(UserModificationListener.class)
 @Table(name = "users", uniqueConstraints = {
-        @UniqueConstraint(columnNames = "email")
-})
+        @UniqueConstraint(name = UserEntity.EMAIL_UNIQUE_CONSTRAINT, columnNames = "email")
+}, indexes = @Index(name = "ix_users_mod_seq", columnList = "mod_seq, id"))
 public class UserEntity {
 
+    /**
+     * Nome da constraint de unicidade do e-mail, usado para identificar violações.
+     */
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_users_email";
+
     /**
      * Identificador único gerado automaticamente.
      */
@@ -38,8 +55,8 @@ public class UserEntity {
     /**
      * Endereço de e-mail único do usuário, usado como login.
      */
-    @Basic
-    @Column(name = "email", nullable = false, unique = true)
+    @NaturalId
+    @Column(name = "email", nullable = false)
     private String email;
 
     /**
@@ -56,4 +73,19 @@ public class UserEntity {
     @Column(name = "enabled", nullable = false)
     private Boolean enabled;
 
+    /**
+     * Versão do registro, incrementada a cada alteração. Usada no controle de
+     * concorrência otimista e como ETag das respostas.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    /**
+     * Sequência de modificação: crescente em todo o cadastro, atribuída a cada inserção e
+     * alteração por {@link UserModificationListener}. Usada na sincronização incremental.
+     */
+    @Column(name = "mod_seq")
+    private Long modSeq;
+
 }
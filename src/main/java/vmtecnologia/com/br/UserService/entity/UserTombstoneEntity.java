@@ -0,0 +1,56 @@
+package vmtecnologia.com.br.UserService.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Registro da exclusão de um usuário, devolvido pela sincronização incremental para que os
+ * consumidores removam o usuário da própria cópia.
+ *
+ * <p>Gravado na mesma transação da exclusão, com a sequência de modificação da exclusão.</p>
+ */
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "user_tombstones", indexes = @Index(name = "ix_user_tombstones_mod_seq", columnList = "mod_seq, user_id"))
+public class UserTombstoneEntity implements Persistable<Long> {
+
+    /**
+     * ID do usuário excluído (IDs não são reaproveitados).
+     */
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "email", nullable = false)
+    private String email;
+
+    /**
+     * Sequência de modificação da exclusão.
+     */
+    @Column(name = "mod_seq", nullable = false)
+    private Long modSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    @Override
+    public Long getId() {
+        return userId;
+    }
+
+    /**
+     * Sempre novo: cada usuário é excluído uma única vez, então o Spring Data deve inserir
+     * sem consultar antes.
+     */
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
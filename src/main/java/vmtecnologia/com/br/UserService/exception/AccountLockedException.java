@@ -0,0 +1,29 @@
+package vmtecnologia.com.br.UserService.exception;
+
+import lombok.Getter;
+
+/**
+ * Exceção lançada quando a conta está temporariamente bloqueada por excesso
+ * de tentativas de login malsucedidas.
+ *<p>
+ *É mapeada para resposta HTTP 429 Too Many Requests.</p>
+ */
+@Getter
+public class AccountLockedException extends StacklessException {
+
+    /**
+     * Tempo, em segundos, até que novas tentativas sejam aceitas.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Cria a exceção informando o tempo restante de bloqueio.
+     *
+     * @param retryAfterSeconds segundos até o fim do bloqueio
+     */
+    public AccountLockedException(long retryAfterSeconds) {
+        super("Conta temporariamente bloqueada por excesso de tentativas. Tente novamente em "
+                + retryAfterSeconds + " segundos.");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,17 @@
+package vmtecnologia.com.br.UserService.exception;
+
+/**
+ * Exceção lançada quando uma operação em lote não informa IDs nem filtros, o que
+ * alteraria todos os usuários cadastrados.
+ *<p>
+ *É mapeada para resposta HTTP 400 Bad Request.</p>
+ */
+public class BulkSelectionRequiredException extends StacklessException {
+
+    /**
+     * Cria a exceção com mensagem padrão.
+     */
+    public BulkSelectionRequiredException() {
+        super("Informe ao menos um ID ou filtro para a operação em lote");
+    }
+}
@@ -0,0 +1,19 @@
+package vmtecnologia.com.br.UserService.exception;
+
+/**
+ * Exceção lançada quando uma operação em lote seleciona mais usuários que o limite
+ * <code>app.user.bulk.max-selection</code>.
+ *<p>
+ *É mapeada para resposta HTTP 400 Bad Request.</p>
+ */
+public class BulkSelectionTooLargeException extends StacklessException {
+
+    /**
+     * Cria a exceção com mensagem padrão contendo o limite.
+     *
+     * @param maxSelection quantidade máxima de usuários por operação em lote
+     */
+    public BulkSelectionTooLargeException(int maxSelection) {
+        super("A seleção excede o limite de " + maxSelection + " usuários por operação em lote; refine os filtros");
+    }
+}
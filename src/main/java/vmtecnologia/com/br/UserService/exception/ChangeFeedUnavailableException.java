@@ -0,0 +1,24 @@
+package vmtecnologia.com.br.UserService.exception;
+
+/**
+ * Exceção lançada quando o feed de alterações já atingiu o número máximo de assinantes
+ * (<code>app.user.change-feed.max-subscribers</code>) ou é publicado por outra instância.
+ *<p>
+ *É mapeada para resposta HTTP 503 Service Unavailable.</p>
+ */
+public class ChangeFeedUnavailableException extends StacklessException {
+
+    /**
+     * Cria a exceção com mensagem padrão.
+     */
+    public ChangeFeedUnavailableException() {
+        super("Limite de assinantes do feed de alterações atingido; tente novamente mais tarde");
+    }
+
+    /**
+     * @param message mensagem devolvida ao cliente no corpo de erro
+     */
+    public ChangeFeedUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -5,7 +5,7 @@ package vmtecnologia.com.br.UserService.exception;
  *<p>
  *É mapeada para resposta HTTP 409 Conflict.</p>
  */
-public class EmailAlreadyExistsException extends RuntimeException {
+public class EmailAlreadyExistsException extends StacklessException {
 
     /**
      * Cria a exceção com mensagem indicando o e-mail duplicado.
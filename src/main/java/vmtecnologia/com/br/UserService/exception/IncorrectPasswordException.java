@@ -9,7 +9,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
  *É mapeada para resposta HTTP 401 Unauthorized.</p>
  */
 @ResponseStatus(HttpStatus.UNAUTHORIZED)
-public class IncorrectPasswordException extends RuntimeException {
+public class IncorrectPasswordException extends StacklessException {
 
     /**
      * Cria a exceção com mensagem padrão de senha incorreta.
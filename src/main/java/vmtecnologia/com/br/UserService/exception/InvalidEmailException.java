@@ -5,7 +5,7 @@ package vmtecnologia.com.br.UserService.exception;
  *<p>
  *É mapeada para resposta HTTP 400 Bad Request.</p>
  */
-public class InvalidEmailException extends RuntimeException {
+public class InvalidEmailException extends StacklessException {
 
     /**
      * Cria a exceção com mensagem indicando o e-mail inválido.
@@ -6,7 +6,7 @@ package vmtecnologia.com.br.UserService.exception;
  *<p>
  *É mapeada para resposta HTTP 400 Bad Request.</p>
  */
-public class InvalidPasswordException extends RuntimeException {
+public class InvalidPasswordException extends StacklessException {
 
     /**
      * Cria a exceção informando o critério mínimo de segurança para senha.
@@ -0,0 +1,21 @@
+package vmtecnologia.com.br.UserService.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando o refresh token informado não existe, expirou,
+ * já foi utilizado ou foi revogado.
+ *<p>
+ *É mapeada para resposta HTTP 401 Unauthorized.</p>
+ */
+@ResponseStatus(HttpStatus.UNAUTHORIZED)
+public class InvalidRefreshTokenException extends StacklessException {
+
+    /**
+     * Cria a exceção com mensagem padrão de refresh token inválido.
+     */
+    public InvalidRefreshTokenException() {
+        super("Refresh token inválido ou expirado.");
+    }
+}
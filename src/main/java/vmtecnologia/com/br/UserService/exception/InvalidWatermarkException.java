@@ -0,0 +1,19 @@
+package vmtecnologia.com.br.UserService.exception;
+
+/**
+ * Exceção lançada quando a marca de sincronização informada não está no formato
+ * <code>&lt;sequência&gt;.&lt;id&gt;</code>.
+ *<p>
+ *É mapeada para resposta HTTP 400 Bad Request.</p>
+ */
+public class InvalidWatermarkException extends StacklessException {
+
+    /**
+     * Cria a exceção com mensagem padrão contendo a marca recebida.
+     *
+     * @param watermark marca inválida
+     */
+    public InvalidWatermarkException(String watermark) {
+        super("Marca de sincronização inválida: " + watermark);
+    }
+}
@@ -5,7 +5,7 @@ package vmtecnologia.com.br.UserService.exception;
  *<p>
  *É mapeada para resposta HTTP 400 Bad Request.</p>
  */
-public class PasswordNotProvidedException extends RuntimeException {
+public class PasswordNotProvidedException extends StacklessException {
 
     /**
      * Cria a exceção informando que a senha não pode ser nula ou vazia.
@@ -0,0 +1,23 @@
+package vmtecnologia.com.br.UserService.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção lançada quando a versão informada em <code>If-Match</code> não corresponde
+ * à versão atual do usuário, ou seja, o registro foi alterado por outra requisição.
+ *<p>
+ *É mapeada para resposta HTTP 412 Precondition Failed.</p>
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends StacklessException {
+
+    /**
+     * Cria a exceção com mensagem padrão contendo o identificador do usuário.
+     *
+     * @param identifier e-mail ou ID do usuário cuja versão não confere
+     */
+    public PreconditionFailedException(String identifier) {
+        super("Versão do usuário desatualizada: " + identifier);
+    }
+}
@@ -0,0 +1,19 @@
+package vmtecnologia.com.br.UserService.exception;
+
+/**
+ * Base das exceções de regra de negócio deste pacote.
+ *<p>
+ *Representam respostas esperadas (usuário inexistente, senha incorreta, dados inválidos),
+ *tratadas por {@link vmtecnologia.com.br.UserService.handler.ApiExceptionHandler}; o stack trace
+ *não ajuda no diagnóstico e não é preenchido, o que barateia o caminho de erro em rajadas de
+ *logins inválidos. Exceções suprimidas também são descartadas.</p>
+ */
+public abstract class StacklessException extends RuntimeException {
+
+    /**
+     * @param message mensagem devolvida ao cliente no corpo de erro
+     */
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
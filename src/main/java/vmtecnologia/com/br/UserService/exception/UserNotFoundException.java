@@ -9,7 +9,7 @@ import org.springframework.web.bind.annotation.ResponseStatus;
  *É mapeada para resposta HTTP 401 Unauthorized.</p>
  */
 @ResponseStatus(HttpStatus.UNAUTHORIZED)
-public class UserNotFoundException extends RuntimeException {
+public class UserNotFoundException extends StacklessException {
 
     /**
      * Cria a exceção com mensagem padrão contendo o identificador buscado.
@@ -5,7 +5,7 @@ package vmtecnologia.com.br.UserService.exception;
  *<p>
  *É mapeada para resposta HTTP 400 Bad Request.</p>
  */
-public class UsernameNotProvidedException extends RuntimeException {
+public class UsernameNotProvidedException extends StacklessException {
 
     /**
      * Cria a exceção informando que o username é obrigatório.
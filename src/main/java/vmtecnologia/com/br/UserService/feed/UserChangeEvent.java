@@ -0,0 +1,32 @@
+package vmtecnologia.com.br.UserService.feed;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Alteração de usuário publicada no feed <code>/user/api/v1/changes</code>.
+ *
+ * @param id      posição no feed, crescente na ordem dos commits; usada como cursor (<code>Last-Event-ID</code>)
+ * @param type    tipo da alteração
+ * @param userId  ID do usuário
+ * @param email   e-mail do usuário
+ * @param enabled estado de habilitação após a alteração (ausente na exclusão)
+ * @param version versão do usuário após a alteração (ausente na exclusão e nas operações em lote)
+ * @param at      instante do commit
+ */
+@Schema(description = "Alteração de usuário publicada no feed de alterações")
+public record UserChangeEvent(long id, Type type, Long userId, String email, Boolean enabled, Long version, Instant at) {
+
+    /**
+     * Tipos de alteração; o nome do evento SSE é <code>user.&lt;tipo&gt;</code> em minúsculas.
+     */
+    public enum Type {
+        CREATED, UPDATED, ENABLED, DISABLED, DELETED;
+
+        public String eventName() {
+            return "user." + name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
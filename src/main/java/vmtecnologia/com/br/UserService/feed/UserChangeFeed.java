@@ -0,0 +1,707 @@
+package vmtecnologia.com.br.UserService.feed;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import vmtecnologia.com.br.UserService.entity.UserChangeFeedLeaseEntity;
+import vmtecnologia.com.br.UserService.entity.UserChangeLogEntity;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.exception.ChangeFeedUnavailableException;
+import vmtecnologia.com.br.UserService.feed.UserChangeEvent.Type;
+import vmtecnologia.com.br.UserService.repository.UserChangeFeedLeaseRepository;
+import vmtecnologia.com.br.UserService.repository.UserChangeLogRepository;
+import vmtecnologia.com.br.UserService.repository.UserKey;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Feed das alterações de usuários (criação, atualização, habilitação, desabilitação e exclusão),
+ * entregue por <em>server-sent events</em> em <code>/user/api/v1/changes</code>.
+ *
+ * <p>Cada alteração recebe, após o commit, uma posição crescente que é o <code>id</code> do evento
+ * SSE. O cliente retoma o feed a partir da última posição recebida (<code>Last-Event-ID</code>):</p>
+ * <ul>
+ *   <li>as últimas <code>app.user.change-feed.ring-size</code> alterações ficam em memória;</li>
+ *   <li>as anteriores são lidas do registro persistido ({@link UserChangeLogEntity}), gravado em
+ *   lotes de até <code>log-batch-size</code> por uma thread própria e mantido por
+ *   <code>log-retention</code> milissegundos;</li>
+ *   <li>se a posição não estiver mais disponível (ou o registro tiver lacunas), o feed envia o
+ *   evento <code>reset</code>: o cliente deve recarregar os usuários e seguir a partir dele.</li>
+ * </ul>
+ *
+ * <p>Cada assinante tem uma fila limitada a <code>subscriber-buffer</code> eventos, esvaziada por
+ * uma thread virtual própria. A publicação nunca espera por um assinante: se a fila dele estiver
+ * cheia, o assinante é desconectado (e retoma pela posição quando conseguir acompanhar). Sem
+ * eventos, um comentário é enviado a cada <code>heartbeat-interval</code> milissegundos.</p>
+ *
+ * <p>As posições são sequenciais, a partir da maior posição registrada, e só uma instância as
+ * atribui: a que detém o lease da tabela <code>user_change_feed_lease</code>, renovado a cada
+ * <code>lease-renew-interval</code> e válido por <code>lease-duration</code> milissegundos. As demais
+ * ficam em espera: recusam assinaturas e descartam as próprias alterações, então o feed só é
+ * completo com uma única instância do serviço. Quem assume um lease expirado deixa a posição
+ * seguinte sem registro, para que os clientes que retomarem de antes dela recebam reset.</p>
+ */
+@Slf4j
+@Component
+public class UserChangeFeed implements DisposableBean {
+
+    private static final long POLL_INTERVAL_MILLIS = 200;
+    private static final int REPLAY_PAGE_SIZE = 500;
+    private static final long PERSIST_WAIT_MILLIS = 5_000;
+    private static final String LEASE_NAME = "user-change-feed";
+
+    private final UserChangeLogRepository logRepository;
+    private final UserChangeFeedLeaseRepository leaseRepository;
+    private final TransactionTemplate transaction;
+    private final int ringSize;
+    private final int subscriberBuffer;
+    private final int maxSubscribers;
+    private final int logBatchSize;
+    private final int logQueueSize;
+    private final long heartbeatMillis;
+    private final long timeoutMillis;
+    private final long retentionMillis;
+    private final long leaseMillis;
+    private final String owner = UUID.randomUUID().toString();
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final UserChangeEvent[] ring;
+    private final Set<Subscriber> subscribers = new LinkedHashSet<>();
+    private final BlockingQueue<UserChangeEvent> pending;
+    private long lastId;
+    private long firstInMemory;
+    private boolean publishing;
+
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong unpersisted = new AtomicLong();
+
+    private volatile boolean loaded;
+    private volatile boolean running = true;
+    private volatile long persistedId;
+    private volatile long leaseValidUntil;
+    private Thread writer;
+
+    public UserChangeFeed(UserChangeLogRepository logRepository,
+                          UserChangeFeedLeaseRepository leaseRepository,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${app.user.change-feed.ring-size}") int ringSize,
+                          @Value("${app.user.change-feed.subscriber-buffer}") int subscriberBuffer,
+                          @Value("${app.user.change-feed.max-subscribers}") int maxSubscribers,
+                          @Value("${app.user.change-feed.heartbeat-interval}") long heartbeatMillis,
+                          @Value("${app.user.change-feed.timeout}") long timeoutMillis,
+                          @Value("${app.user.change-feed.log-batch-size}") int logBatchSize,
+                          @Value("${app.user.change-feed.log-queue-size}") int logQueueSize,
+                          @Value("${app.user.change-feed.log-retention}") long retentionMillis,
+                          @Value("${app.user.change-feed.lease-duration}") long leaseMillis) {
+        if (ringSize <= 0 || subscriberBuffer <= 0 || maxSubscribers <= 0 || logBatchSize <= 0 || logQueueSize <= 0
+                || heartbeatMillis <= 0 || leaseMillis <= 0) {
+            throw new IllegalArgumentException("configuração do feed de alterações inválida");
+        }
+        this.logRepository = logRepository;
+        this.leaseRepository = leaseRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ringSize = ringSize;
+        this.subscriberBuffer = subscriberBuffer;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeatMillis = heartbeatMillis;
+        this.timeoutMillis = timeoutMillis;
+        this.logBatchSize = logBatchSize;
+        this.logQueueSize = logQueueSize;
+        this.retentionMillis = retentionMillis;
+        this.leaseMillis = leaseMillis;
+        this.ring = new UserChangeEvent[ringSize];
+        this.pending = new ArrayBlockingQueue<>(logQueueSize);
+    }
+
+    /**
+     * Publica a criação, atualização, habilitação ou desabilitação de um usuário. Com uma transação
+     * ativa, a publicação fica para depois do commit (e é descartada em caso de rollback).
+     *
+     * @param type tipo da alteração
+     * @param user usuário já persistido
+     */
+    public void publish(Type type, UserEntity user) {
+        afterCommit(List.of(new UserChangeEvent(0, type, user.getId(), user.getEmail(), user.getEnabled(),
+                user.getVersion(), null)));
+    }
+
+    /**
+     * Publica a exclusão de um usuário, após o commit.
+     *
+     * @param userId ID do usuário excluído
+     * @param email  e-mail do usuário excluído
+     */
+    public void publishDeleted(Long userId, String email) {
+        afterCommit(List.of(new UserChangeEvent(0, Type.DELETED, userId, email, null, null, null)));
+    }
+
+    /**
+     * Publica, após o commit e em posições consecutivas, uma alteração em lote.
+     *
+     * @param type    tipo da alteração
+     * @param users   usuários alterados
+     * @param enabled estado de habilitação após a alteração (<code>null</code> na exclusão)
+     */
+    public void publishAll(Type type, List<UserKey> users, Boolean enabled) {
+        if (users.isEmpty()) {
+            return;
+        }
+        afterCommit(users.stream()
+                .map(user -> new UserChangeEvent(0, type, user.id(), user.email(), enabled, null, null))
+                .toList());
+    }
+
+    /**
+     * Cria uma assinatura do feed com o tempo limite configurado.
+     *
+     * @param lastEventId última posição recebida pelo cliente, ou <code>null</code> para receber
+     *                    apenas as alterações a partir de agora
+     * @return emissor SSE da assinatura
+     * @throws ChangeFeedUnavailableException se o limite de assinantes foi atingido ou se o feed é
+     *                                        publicado por outra instância
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        register(emitter, lastEventId);
+        return emitter;
+    }
+
+    /**
+     * @return assinantes conectados
+     */
+    public int getSubscriberCount() {
+        lock.lock();
+        try {
+            return subscribers.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return assinantes desconectados por não acompanharem o feed
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * @return alterações que não puderam ser gravadas no registro
+     */
+    public long getUnpersistedCount() {
+        return unpersisted.get();
+    }
+
+    /**
+     * @return posição da última alteração publicada
+     */
+    public long getLastId() {
+        ensureLoaded();
+        lock.lock();
+        try {
+            return lastId;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return posição da última alteração gravada no registro
+     */
+    public long getPersistedId() {
+        return persistedId;
+    }
+
+    /**
+     * Carrega a última posição registrada ao fim da inicialização, fora do caminho da primeira
+     * publicação.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        ensureLoaded();
+    }
+
+    /**
+     * Renova o lease de publicação. A instância em espera assume o lease expirado; a que o perdeu
+     * (renovação recusada, ou falhas até a expiração) passa a esperar e desconecta os assinantes.
+     */
+    @Scheduled(fixedDelayString = "${app.user.change-feed.lease-renew-interval}",
+            initialDelayString = "${app.user.change-feed.lease-renew-interval}")
+    public void renewLease() {
+        if (!loaded) {
+            return;
+        }
+        boolean held = acquireLease();
+        boolean wasPublishing;
+        lock.lock();
+        try {
+            wasPublishing = publishing;
+        } finally {
+            lock.unlock();
+        }
+        if (held && !wasPublishing) {
+            takeOver();
+        } else if (!held && wasPublishing) {
+            stepDown();
+        }
+    }
+
+    /**
+     * Remove do registro as alterações mais antigas que <code>app.user.change-feed.log-retention</code>.
+     */
+    @Scheduled(fixedDelayString = "${app.user.change-feed.purge-interval}",
+            initialDelayString = "${app.user.change-feed.purge-interval}")
+    public void purge() {
+        int removed = logRepository.deleteOlderThan(Instant.now().minusMillis(retentionMillis));
+        log.atDebug().addKeyValue("removed", removed).log("purge() -> Registro do feed de alterações expurgado.");
+    }
+
+    /**
+     * Registra o assinante e inicia a thread que envia, em ordem, o trecho do registro, o trecho
+     * em memória e as alterações seguintes.
+     */
+    void register(SseEmitter emitter, Long lastEventId) {
+        ensureLoaded();
+        Subscriber subscriber = new Subscriber(emitter);
+        lock.lock();
+        try {
+            if (!publishing) {
+                throw new ChangeFeedUnavailableException(
+                        "Feed de alterações publicado por outra instância; tente novamente mais tarde");
+            }
+            if (subscribers.size() >= maxSubscribers) {
+                throw new ChangeFeedUnavailableException();
+            }
+            long head = lastId;
+            long from = Objects.isNull(lastEventId) ? head + 1 : lastEventId + 1;
+            if (from > head + 1) {
+                // posição desconhecida (de outra instância ou de antes de um expurgo total)
+                subscriber.resetTo = head;
+                from = head + 1;
+            }
+            long ringFrom = Math.max(from, Math.max(firstInMemory, head - ringSize + 1));
+            subscriber.logFrom = from;
+            subscriber.logTo = ringFrom - 1;
+            for (long id = ringFrom; id <= head; id++) {
+                subscriber.backlog.add(ring[slot(id)]);
+            }
+            subscribers.add(subscriber);
+        } finally {
+            lock.unlock();
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        subscriber.start();
+    }
+
+    private void afterCommit(List<UserChangeEvent> drafts) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    append(drafts);
+                }
+            });
+            return;
+        }
+        append(drafts);
+    }
+
+    /**
+     * Atribui as posições e entrega as alterações ao buffer em memória, à fila do registro e às
+     * filas dos assinantes. Sob o lock, para que a ordem das posições seja a mesma em todos. Em
+     * espera, as alterações são descartadas.
+     */
+    private void append(List<UserChangeEvent> drafts) {
+        ensureLoaded();
+        Instant at = Instant.now();
+        List<Subscriber> overflowed = new ArrayList<>();
+        int unlogged = 0;
+        lock.lock();
+        try {
+            if (!publishing) {
+                return;
+            }
+            for (UserChangeEvent draft : drafts) {
+                UserChangeEvent event = new UserChangeEvent(++lastId, draft.type(), draft.userId(), draft.email(),
+                        draft.enabled(), draft.version(), at);
+                ring[slot(event.id())] = event;
+                if (!enqueueForLog(event)) {
+                    unlogged++;
+                }
+                for (Subscriber subscriber : subscribers) {
+                    if (!subscriber.queue.offer(event)) {
+                        overflowed.add(subscriber);
+                    }
+                }
+                overflowed.forEach(subscribers::remove);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (unlogged > 0) {
+            log.atWarn().addKeyValue("events", unlogged).addKeyValue("queue", logQueueSize)
+                    .log("append() -> Fila do registro do feed cheia; alterações ficam fora do registro.");
+        }
+        for (Subscriber subscriber : overflowed) {
+            dropped.incrementAndGet();
+            log.atWarn().addKeyValue("buffer", subscriberBuffer)
+                    .log("append() -> Assinante do feed desconectado por não acompanhar as alterações.");
+            subscriber.close();
+        }
+    }
+
+    /**
+     * Coloca a alteração na fila do registro, sem esperar: roda sob o lock e no
+     * <code>afterCommit</code> de quem grava, e uma espera ali pararia todas as publicações. Com a
+     * fila cheia (gravação atrasada em <code>log-queue-size</code> alterações), a alteração fica fora do
+     * registro e é contada em {@link #getUnpersistedCount()}; a lacuna é detectada na retomada,
+     * que envia reset.
+     *
+     * @return <code>false</code> se a alteração não entrou na fila
+     */
+    private boolean enqueueForLog(UserChangeEvent event) {
+        if (running && pending.offer(event)) {
+            return true;
+        }
+        unpersisted.incrementAndGet();
+        return false;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded) {
+                return;
+            }
+            boolean acquired = acquireLease();
+            long max = Objects.requireNonNull(transaction.execute(status -> logRepository.findMaxId().orElse(0L)));
+            lock.lock();
+            try {
+                lastId = max;
+                firstInMemory = max + 1;
+                publishing = acquired;
+            } finally {
+                lock.unlock();
+            }
+            persistedId = max;
+            writer = Thread.ofPlatform().name("user-change-log").daemon(true).start(this::writeLog);
+            loaded = true;
+            if (!acquired) {
+                log.atWarn().log("ensureLoaded() -> Feed de alterações publicado por outra instância; esta fica em espera.");
+            }
+        }
+    }
+
+    /**
+     * Renova ou assume o lease de publicação. Uma falha de acesso ao banco não tira o lease antes
+     * da expiração da última renovação.
+     *
+     * @return <code>true</code> se a instância detém o lease
+     */
+    private boolean acquireLease() {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plusMillis(leaseMillis);
+        try {
+            Integer renewed = transaction.execute(status -> leaseRepository.renew(LEASE_NAME, owner, expiresAt, now));
+            if (!Objects.equals(renewed, 1)) {
+                transaction.executeWithoutResult(status -> leaseRepository.saveAndFlush(UserChangeFeedLeaseEntity.builder()
+                        .name(LEASE_NAME)
+                        .owner(owner)
+                        .expiresAt(expiresAt)
+                        .build()));
+            }
+            leaseValidUntil = expiresAt.toEpochMilli();
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // lease válido de outra instância
+            return false;
+        } catch (RuntimeException e) {
+            log.atError().setCause(e).log("acquireLease() -> Falha ao renovar o lease do feed de alterações.");
+            return System.currentTimeMillis() < leaseValidUntil;
+        }
+    }
+
+    /**
+     * Passa a publicar a partir da maior posição registrada, pulando uma: as alterações descartadas
+     * em espera não estão no feed, e a lacuna faz quem retomar de antes dela receber reset.
+     */
+    private void takeOver() {
+        long max = Objects.requireNonNull(transaction.execute(status -> logRepository.findMaxId().orElse(0L)));
+        long gap;
+        lock.lock();
+        try {
+            lastId = Math.max(lastId, max) + 1;
+            firstInMemory = lastId + 1;
+            gap = lastId;
+            publishing = true;
+        } finally {
+            lock.unlock();
+        }
+        persistedId = gap;
+        log.atWarn().addKeyValue("position", gap).log("takeOver() -> Lease do feed de alterações assumido.");
+    }
+
+    /**
+     * Deixa de publicar: desconecta os assinantes e descarta as alterações ainda não gravadas, cujas
+     * posições passam a ser atribuídas pela nova dona do lease.
+     */
+    private void stepDown() {
+        List<Subscriber> open;
+        lock.lock();
+        try {
+            publishing = false;
+            open = List.copyOf(subscribers);
+            subscribers.clear();
+        } finally {
+            lock.unlock();
+        }
+        List<UserChangeEvent> discarded = new ArrayList<>();
+        pending.drainTo(discarded);
+        unpersisted.addAndGet(discarded.size());
+        open.forEach(Subscriber::close);
+        log.atError().addKeyValue("discarded", discarded.size())
+                .log("stepDown() -> Lease do feed de alterações perdido; esta instância fica em espera.");
+    }
+
+    private void writeLog() {
+        List<UserChangeEvent> batch = new ArrayList<>(logBatchSize);
+        try {
+            while (running || !pending.isEmpty()) {
+                UserChangeEvent first = pending.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (Objects.isNull(first)) {
+                    continue;
+                }
+                batch.add(first);
+                pending.drainTo(batch, logBatchSize - 1);
+                persist(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void persist(List<UserChangeEvent> batch) {
+        try {
+            transaction.executeWithoutResult(status -> logRepository.saveAll(batch.stream().map(UserChangeFeed::toEntity).toList()));
+        } catch (RuntimeException e) {
+            // a lacuna é detectada na retomada, que envia reset
+            unpersisted.addAndGet(batch.size());
+            log.atError().addKeyValue("events", batch.size()).setCause(e)
+                    .log("persist() -> Falha ao gravar o registro do feed de alterações.");
+        }
+        persistedId = batch.getLast().id();
+    }
+
+    private int slot(long id) {
+        return (int) Math.floorMod(id, (long) ringSize);
+    }
+
+    /**
+     * Encerra os assinantes e aguarda a gravação das alterações pendentes no registro.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        List<Subscriber> open;
+        lock.lock();
+        try {
+            open = List.copyOf(subscribers);
+            subscribers.clear();
+        } finally {
+            lock.unlock();
+        }
+        open.forEach(Subscriber::close);
+        Thread started;
+        synchronized (this) {
+            started = writer;
+        }
+        if (Objects.nonNull(started)) {
+            started.join(PERSIST_WAIT_MILLIS);
+            if (started.isAlive()) {
+                started.interrupt();
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.atWarn().addKeyValue("events", pending.size())
+                    .log("destroy() -> Alterações não gravadas no registro no encerramento.");
+        }
+        if (loaded) {
+            releaseLease();
+        }
+    }
+
+    /**
+     * Libera o lease no encerramento, para que outra instância (ou esta, reiniciada) o assuma sem
+     * esperar a expiração.
+     */
+    private void releaseLease() {
+        try {
+            transaction.executeWithoutResult(status -> leaseRepository.release(LEASE_NAME, owner));
+        } catch (RuntimeException e) {
+            log.atWarn().setCause(e).log("releaseLease() -> Falha ao liberar o lease do feed de alterações.");
+        }
+    }
+
+    private static UserChangeLogEntity toEntity(UserChangeEvent event) {
+        return UserChangeLogEntity.builder()
+                .id(event.id())
+                .type(event.type().name())
+                .userId(event.userId())
+                .email(event.email())
+                .enabled(event.enabled())
+                .version(event.version())
+                .occurredAt(event.at())
+                .build();
+    }
+
+    private static UserChangeEvent toEvent(UserChangeLogEntity entity) {
+        return new UserChangeEvent(entity.getId(), Type.valueOf(entity.getType()), entity.getUserId(),
+                entity.getEmail(), entity.getEnabled(), entity.getVersion(), entity.getOccurredAt());
+    }
+
+    /**
+     * Assinatura do feed: fila limitada e thread virtual que envia os eventos ao cliente.
+     */
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<UserChangeEvent> queue = new ArrayBlockingQueue<>(subscriberBuffer);
+        private final List<UserChangeEvent> backlog = new ArrayList<>();
+        private long logFrom;
+        private long logTo;
+        private Long resetTo;
+        private volatile boolean closed;
+        private volatile Thread sender;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        private void start() {
+            sender = Thread.ofVirtual().name("user-change-feed").start(this::run);
+        }
+
+        private void run() {
+            try {
+                if (Objects.nonNull(resetTo)) {
+                    sendReset(resetTo);
+                } else if (logFrom <= logTo && !replayLog()) {
+                    sendReset(logTo);
+                }
+                for (UserChangeEvent event : backlog) {
+                    send(event);
+                }
+                backlog.clear();
+                while (!closed) {
+                    UserChangeEvent event = queue.poll(heartbeatMillis, TimeUnit.MILLISECONDS);
+                    if (Objects.isNull(event)) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        send(event);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (IOException | RuntimeException e) {
+                // cliente desconectado, emissor já encerrado ou falha na leitura do registro
+                log.atDebug().setCause(e).log("run() -> Assinatura do feed encerrada.");
+            } finally {
+                close();
+                emitter.complete();
+            }
+        }
+
+        /**
+         * Envia o trecho do registro anterior ao buffer em memória, aguardando a gravação das
+         * alterações mais recentes dele.
+         *
+         * @return <code>false</code> se o trecho não estiver completo no registro
+         */
+        private boolean replayLog() throws IOException, InterruptedException {
+            long deadline = System.currentTimeMillis() + PERSIST_WAIT_MILLIS;
+            while (persistedId < logTo) {
+                if (System.currentTimeMillis() > deadline) {
+                    return false;
+                }
+                TimeUnit.MILLISECONDS.sleep(10);
+            }
+            long next = logFrom;
+            while (next <= logTo && !closed) {
+                List<UserChangeLogEntity> page = logRepository.findByIdBetweenOrderById(next, logTo, Limit.of(REPLAY_PAGE_SIZE));
+                if (page.isEmpty()) {
+                    return false;
+                }
+                for (UserChangeLogEntity entity : page) {
+                    if (entity.getId() != next) {
+                        return false;
+                    }
+                    send(toEvent(entity));
+                    next++;
+                }
+            }
+            return true;
+        }
+
+        private void send(UserChangeEvent event) throws IOException {
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(event.id()))
+                    .name(event.type().eventName())
+                    .data(event, MediaType.APPLICATION_JSON));
+        }
+
+        private void sendReset(long id) throws IOException {
+            emitter.send(SseEmitter.event().id(Long.toString(id)).name("reset").data("{}", MediaType.APPLICATION_JSON));
+        }
+
+        /**
+         * Remove a assinatura e interrompe a thread de envio; idempotente.
+         */
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            lock.lock();
+            try {
+                subscribers.remove(this);
+            } finally {
+                lock.unlock();
+            }
+            Thread current = sender;
+            if (Objects.nonNull(current) && current != Thread.currentThread()) {
+                current.interrupt();
+            }
+        }
+    }
+}
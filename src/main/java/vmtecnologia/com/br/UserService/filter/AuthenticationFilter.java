@@ -1,16 +1,22 @@
 package vmtecnologia.com.br.UserService.filter;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import vmtecnologia.com.br.UserService.handler.PrebuiltErrorBody;
 import vmtecnologia.com.br.UserService.service.JwtService;
+import vmtecnologia.com.br.UserService.service.TokenDenylistService;
 
 import java.io.IOException;
 import java.util.Objects;
@@ -21,23 +27,42 @@ import java.util.Objects;
  * Authorization.
  *
  * <p>Para cada requisição, verifica se o token começa com "Bearer ".
- * Se presente e válido, carrega o usuário associado e preenche
+ * Se presente, válido e não revogado, carrega o usuário associado e preenche
  * o contexto de segurança do Spring com a autenticação.</p>
+ *
+ * <p>Um token inválido, adulterado ou expirado encerra a requisição com 401 e
+ * corpo pré-montado ({@link PrebuiltErrorBody}), sem chegar aos controllers.</p>
+ *
+ * <p>As rotas de <code>/auth/</code> não passam pelo filtro: são públicas, e o logout e a
+ * renovação chegam justamente com o token de acesso expirado, que o próprio logout trata.</p>
+ *
+ * <p>Não é um bean: é instanciado e registrado apenas na cadeia do Spring Security
+ * ({@code WebSecurityConfig}). Registrado também pelo container de servlets, cada
+ * instância teria seu próprio marcador de "já filtrado" e o token seria validado duas
+ * vezes por requisição.</p>
  */
-@Component
 public class AuthenticationFilter extends OncePerRequestFilter {
+
+    private static final PrebuiltErrorBody INVALID_TOKEN = PrebuiltErrorBody.of(
+            HttpStatus.UNAUTHORIZED, "Token inválido", "Token JWT inválido ou expirado.");
+    private static final String INVALID_TOKEN_CHALLENGE = "Bearer error=\"invalid_token\"";
+    private static final String AUTH_PATH = "/auth/";
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsSvc;
+    private final TokenDenylistService tokenDenylistService;
 
     /**
      * Construtor do filtro, recebendo dependências de JWT e serviço de usuário.
      *
-     * @param jwtService      serviço para operações com JWT (extração e validação)
-     * @param uds  serviço que carrega detalhes do usuário a partir do username (e-mail)
+     * @param jwtService           serviço para operações com JWT (extração e validação)
+     * @param uds                  serviço que carrega detalhes do usuário a partir do username (e-mail)
+     * @param tokenDenylistService lista de tokens revogados (logout)
      */
-    public AuthenticationFilter(JwtService jwtService, UserDetailsService uds) {
+    public AuthenticationFilter(JwtService jwtService, UserDetailsService uds, TokenDenylistService tokenDenylistService) {
         this.jwtService = jwtService;
         this.userDetailsSvc = uds;
+        this.tokenDenylistService = tokenDenylistService;
     }
 
     /**
@@ -59,10 +84,19 @@ public class AuthenticationFilter extends OncePerRequestFilter {
         String header = req.getHeader("Authorization");
         if (Objects.nonNull(header) && header.startsWith("Bearer ")) {
             String token = header.substring(7);
-            String username = jwtService.extractUsername(token);
-            if (Objects.nonNull(username) && Objects.isNull(SecurityContextHolder.getContext().getAuthentication())) {
+            Claims claims;
+            try {
+                claims = jwtService.parseClaims(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                rejectInvalidToken(req, res);
+                return;
+            }
+            String username = claims.getSubject();
+            // tokens revogados são ignorados sem consultar o banco
+            if (Objects.nonNull(username) && !tokenDenylistService.isRevoked(claims.getId())
+                    && Objects.isNull(SecurityContextHolder.getContext().getAuthentication())) {
                 UserDetails user = userDetailsSvc.loadUserByUsername(username);
-                if (jwtService.validateToken(token, user)) {
+                if (jwtService.validateToken(claims, user)) {
                     UsernamePasswordAuthenticationToken auth =
                             new UsernamePasswordAuthenticationToken(
                                     user, null, user.getAuthorities());
@@ -73,5 +107,24 @@ public class AuthenticationFilter extends OncePerRequestFilter {
         // Continua a cadeia de filtros mesmo que não haja autenticação
         chain.doFilter(req, res);
     }
-}
 
+    /**
+     * Dispensa o filtro nas rotas de autenticação (login, renovação e logout).
+     *
+     * @param req objeto de requisição HTTP
+     * @return <code>true</code> se o caminho, sem o context path, começar com <code>/auth/</code>
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest req) {
+        return req.getRequestURI().startsWith(AUTH_PATH, req.getContextPath().length());
+    }
+
+    private static void rejectInvalidToken(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        byte[] body = INVALID_TOKEN.render(req.getRequestURI());
+        res.setStatus(HttpStatus.UNAUTHORIZED.value());
+        res.setHeader(HttpHeaders.WWW_AUTHENTICATE, INVALID_TOKEN_CHALLENGE);
+        res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        res.setContentLength(body.length);
+        res.getOutputStream().write(body);
+    }
+}
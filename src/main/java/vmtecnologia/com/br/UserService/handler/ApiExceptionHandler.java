@@ -1,7 +1,10 @@
 package vmtecnologia.com.br.UserService.handler;
 
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -11,6 +14,7 @@ import vmtecnologia.com.br.UserService.exception.*;
 import vmtecnologia.com.br.UserService.model.response.GenericErrorModelResponse;
 
 import java.time.Instant;
+import java.util.Objects;
 
 /**
  * Intercepta exceções lançadas pelos controllers e serviços,
@@ -19,26 +23,34 @@ import java.time.Instant;
  *
  * Cada método trata uma exceção específica e define o status HTTP,
  * a mensagem de erro e o caminho da requisição.
+ *
+ * <p>Os erros de autenticação, que chegam em rajadas durante ataques de força bruta,
+ * são escritos a partir de {@link PrebuiltErrorBody} quando o cliente aceita JSON.</p>
  */
 @RestControllerAdvice
 public class ApiExceptionHandler {
 
+    private static final PrebuiltErrorBody BAD_CREDENTIALS =
+            PrebuiltErrorBody.of(HttpStatus.UNAUTHORIZED, "Credenciais inválidas");
+    private static final PrebuiltErrorBody USER_NOT_FOUND =
+            PrebuiltErrorBody.of(HttpStatus.UNAUTHORIZED, "Usuario/Entidade não encontrado");
+    private static final PrebuiltErrorBody INCORRECT_PASSWORD =
+            PrebuiltErrorBody.of(HttpStatus.UNAUTHORIZED, "Senha incorreta", new IncorrectPasswordException().getMessage());
+    private static final PrebuiltErrorBody INVALID_REFRESH_TOKEN =
+            PrebuiltErrorBody.of(HttpStatus.UNAUTHORIZED, "Refresh token inválido", new InvalidRefreshTokenException().getMessage());
+    private static final PrebuiltErrorBody ACCOUNT_LOCKED =
+            PrebuiltErrorBody.of(HttpStatus.TOO_MANY_REQUESTS, "Conta bloqueada");
+
     /**
      * Trata falha de autenticação por credenciais inválidas.
      *
-     * @param ex exceção lançada pelo Spring Security ao validar credenciais
+     * @param ex      exceção lançada pelo Spring Security ao validar credenciais
+     * @param request objeto HTTP usado para verificar o cabeçalho Accept
      * @return resposta 401 Unauthorized com detalhes do erro
      */
     @ExceptionHandler(BadCredentialsException.class)
-    public ResponseEntity<GenericErrorModelResponse> onBadCreds(BadCredentialsException ex) {
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                .body(new GenericErrorModelResponse(
-                        Instant.now(),
-                        HttpStatus.UNAUTHORIZED.value(),
-                        "Credenciais inválidas",
-                        ex.getMessage(),
-                        null
-                ));
+    public ResponseEntity<?> onBadCreds(BadCredentialsException ex, HttpServletRequest request) {
+        return prebuilt(ResponseEntity.status(HttpStatus.UNAUTHORIZED), BAD_CREDENTIALS, ex.getMessage(), null, request);
     }
 
     /**
@@ -49,15 +61,9 @@ public class ApiExceptionHandler {
      * @return resposta 404 Not Found com detalhes do erro e caminho da requisição
      */
     @ExceptionHandler(UserNotFoundException.class)
-    public ResponseEntity<GenericErrorModelResponse> handleUserNotFound(UserNotFoundException ex, HttpServletRequest request) {
-        GenericErrorModelResponse response = new GenericErrorModelResponse(
-                Instant.now(),
-                HttpStatus.UNAUTHORIZED.value(),
-                "Usuario/Entidade não encontrado",
-                ex.getMessage(),
-                request.getRequestURI()
-        );
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+    public ResponseEntity<?> handleUserNotFound(UserNotFoundException ex, HttpServletRequest request) {
+        return prebuilt(ResponseEntity.status(HttpStatus.UNAUTHORIZED), USER_NOT_FOUND,
+                ex.getMessage(), request.getRequestURI(), request);
     }
 
     /**
@@ -192,17 +198,146 @@ public class ApiExceptionHandler {
      * @return resposta 401 Unauthorized indicando senha incorreta
      */
     @ExceptionHandler(IncorrectPasswordException.class)
-    public ResponseEntity<GenericErrorModelResponse> handleIncorrectPassword(
+    public ResponseEntity<?> handleIncorrectPassword(
             IncorrectPasswordException ex, HttpServletRequest req) {
+        return prebuilt(ResponseEntity.status(HttpStatus.UNAUTHORIZED), INCORRECT_PASSWORD,
+                null, req.getRequestURI(), req);
+    }
+
+    /**
+     * Trata refresh token inválido, expirado ou revogado.
+     *
+     * @param ex  exceção personalizada {@link InvalidRefreshTokenException}
+     * @param req objeto HTTP para recuperar o URI da requisição
+     * @return resposta 401 Unauthorized indicando refresh token inválido
+     */
+    @ExceptionHandler(InvalidRefreshTokenException.class)
+    public ResponseEntity<?> handleInvalidRefreshToken(
+            InvalidRefreshTokenException ex, HttpServletRequest req) {
+        return prebuilt(ResponseEntity.status(HttpStatus.UNAUTHORIZED), INVALID_REFRESH_TOKEN,
+                null, req.getRequestURI(), req);
+    }
+
+    /**
+     * Trata tentativa de login em conta temporariamente bloqueada.
+     *
+     * @param ex  exceção personalizada {@link AccountLockedException}
+     * @param req objeto HTTP para recuperar o URI da requisição
+     * @return resposta 429 Too Many Requests com cabeçalho Retry-After
+     */
+    @ExceptionHandler(AccountLockedException.class)
+    public ResponseEntity<?> handleAccountLocked(
+            AccountLockedException ex, HttpServletRequest req) {
+        return prebuilt(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds())),
+                ACCOUNT_LOCKED, ex.getMessage(), req.getRequestURI(), req);
+    }
+
+    /**
+     * Trata atualização com versão desatualizada, seja pelo <code>If-Match</code> informado
+     * ou por alteração concorrente detectada no <code>UPDATE</code>.
+     *
+     * @param ex  {@link PreconditionFailedException} ou {@link OptimisticLockingFailureException}
+     * @param req objeto HTTP para recuperar o URI da requisição
+     * @return resposta 412 Precondition Failed
+     */
+    @ExceptionHandler({PreconditionFailedException.class, OptimisticLockingFailureException.class})
+    public ResponseEntity<GenericErrorModelResponse> handlePreconditionFailed(
+            RuntimeException ex, HttpServletRequest req) {
 
         GenericErrorModelResponse response = new GenericErrorModelResponse(
                 Instant.now(),
-                HttpStatus.UNAUTHORIZED.value(),
-                "Senha incorreta",
+                HttpStatus.PRECONDITION_FAILED.value(),
+                "Versão desatualizada",
                 ex.getMessage(),
                 req.getRequestURI()
         );
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(response);
+    }
+
+    /**
+     * Trata operação em lote sem IDs nem filtros.
+     *
+     * @param ex  exceção personalizada {@link BulkSelectionRequiredException}
+     * @param req objeto HTTP para recuperar o URI da requisição
+     * @return resposta 400 Bad Request indicando seleção obrigatória
+     */
+    @ExceptionHandler(BulkSelectionRequiredException.class)
+    public ResponseEntity<GenericErrorModelResponse> handleBulkSelectionRequired(
+            BulkSelectionRequiredException ex, HttpServletRequest req) {
+
+        GenericErrorModelResponse response = new GenericErrorModelResponse(
+                Instant.now(),
+                HttpStatus.BAD_REQUEST.value(),
+                "Seleção obrigatória",
+                ex.getMessage(),
+                req.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    /**
+     * Trata operação em lote que seleciona mais usuários que o limite.
+     *
+     * @param ex  exceção personalizada {@link BulkSelectionTooLargeException}
+     * @param req objeto HTTP para recuperar o URI da requisição
+     * @return resposta 400 Bad Request indicando seleção acima do limite
+     */
+    @ExceptionHandler(BulkSelectionTooLargeException.class)
+    public ResponseEntity<GenericErrorModelResponse> handleBulkSelectionTooLarge(
+            BulkSelectionTooLargeException ex, HttpServletRequest req) {
+
+        GenericErrorModelResponse response = new GenericErrorModelResponse(
+                Instant.now(),
+                HttpStatus.BAD_REQUEST.value(),
+                "Seleção muito grande",
+                ex.getMessage(),
+                req.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    /**
+     * Trata marca de sincronização em formato inválido.
+     *
+     * @param ex  exceção personalizada {@link InvalidWatermarkException}
+     * @param req objeto HTTP para recuperar o URI da requisição
+     * @return resposta 400 Bad Request indicando marca inválida
+     */
+    @ExceptionHandler(InvalidWatermarkException.class)
+    public ResponseEntity<GenericErrorModelResponse> handleInvalidWatermark(
+            InvalidWatermarkException ex, HttpServletRequest req) {
+
+        GenericErrorModelResponse response = new GenericErrorModelResponse(
+                Instant.now(),
+                HttpStatus.BAD_REQUEST.value(),
+                "Marca inválida",
+                ex.getMessage(),
+                req.getRequestURI()
+        );
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    /**
+     * Trata assinatura do feed de alterações acima do limite de assinantes.
+     *
+     * @param ex  exceção personalizada {@link ChangeFeedUnavailableException}
+     * @param req objeto HTTP para recuperar o URI da requisição
+     * @return resposta 503 Service Unavailable
+     */
+    @ExceptionHandler(ChangeFeedUnavailableException.class)
+    public ResponseEntity<GenericErrorModelResponse> handleChangeFeedUnavailable(
+            ChangeFeedUnavailableException ex, HttpServletRequest req) {
+
+        GenericErrorModelResponse response = new GenericErrorModelResponse(
+                Instant.now(),
+                HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Feed indisponível",
+                ex.getMessage(),
+                req.getRequestURI()
+        );
+        // o cliente do feed pede text/event-stream: o tipo explícito dispensa a negociação
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.APPLICATION_JSON).body(response);
     }
 
     /**
@@ -224,4 +359,20 @@ public class ApiExceptionHandler {
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
     }
 
+    /**
+     * Escreve o corpo pré-montado quando o cliente aceita JSON (ou não informa <code>Accept</code>);
+     * para os demais formatos, devolve o modelo para a negociação de conteúdo do Spring MVC.
+     *
+     * @param message mensagem do erro; <code>null</code> usa a mensagem fixa do modelo
+     */
+    private static ResponseEntity<?> prebuilt(ResponseEntity.BodyBuilder builder, PrebuiltErrorBody body,
+                                              String message, String path, HttpServletRequest req) {
+        String accept = req.getHeader(HttpHeaders.ACCEPT);
+        if (Objects.isNull(accept) || accept.isBlank() || accept.contains(MediaType.APPLICATION_JSON_VALUE)
+                || accept.contains(MediaType.ALL_VALUE)) {
+            return builder.contentType(MediaType.APPLICATION_JSON)
+                    .body(Objects.isNull(message) ? body.render(path) : body.render(message, path));
+        }
+        return builder.body(body.toModel(message, path));
+    }
 }
@@ -0,0 +1,148 @@
+package vmtecnologia.com.br.UserService.handler;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import org.springframework.http.HttpStatus;
+import vmtecnologia.com.br.UserService.model.response.GenericErrorModelResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Corpo JSON de {@link GenericErrorModelResponse} pré-montado para um status e um título de erro.
+ *
+ * <p>Usado nos erros que chegam em rajadas (logins inválidos, tokens inválidos): a parte fixa
+ * do JSON é codificada uma única vez e, por requisição, só são escritos o horário, a mensagem e
+ * o caminho, direto em um <code>byte[]</code>, sem criar o modelo nem passar pelo Jackson.
+ * O horário tem precisão de milissegundos e é reaproveitado pelas respostas do mesmo milissegundo.</p>
+ *
+ * <p>O resultado é idêntico ao que o Jackson produziria para o modelo.</p>
+ */
+public final class PrebuiltErrorBody {
+
+    private static final JsonStringEncoder ENCODER = JsonStringEncoder.getInstance();
+    private static final byte[] OPEN = bytes("{\"timestamp\":\"");
+    private static final byte[] MESSAGE = bytes(",\"message\":");
+    private static final byte[] PATH = bytes(",\"path\":");
+    private static final byte[] NULL = bytes("null");
+    private static final byte[] CLOSE = bytes("}");
+
+    private static volatile Timestamp lastTimestamp = new Timestamp(0, bytes(Instant.EPOCH.toString()));
+
+    private final HttpStatus status;
+    private final String error;
+    private final String constantMessage;
+    private final byte[] head;
+    private final byte[] encodedMessage;
+
+    private PrebuiltErrorBody(HttpStatus status, String error, String constantMessage) {
+        this.status = status;
+        this.error = error;
+        this.constantMessage = constantMessage;
+        this.head = bytes("\",\"status\":" + status.value() + ",\"error\":" + quote(error));
+        this.encodedMessage = Objects.isNull(constantMessage) ? null : quoteBytes(constantMessage);
+    }
+
+    /**
+     * @param status status HTTP da resposta
+     * @param error  título do erro (campo <code>error</code>)
+     * @return modelo cuja mensagem é informada a cada resposta
+     */
+    public static PrebuiltErrorBody of(HttpStatus status, String error) {
+        return new PrebuiltErrorBody(status, error, null);
+    }
+
+    /**
+     * @param status  status HTTP da resposta
+     * @param error   título do erro (campo <code>error</code>)
+     * @param message mensagem fixa, já codificada na criação
+     * @return modelo com mensagem fixa
+     */
+    public static PrebuiltErrorBody of(HttpStatus status, String error, String message) {
+        return new PrebuiltErrorBody(status, error, message);
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * @param path caminho da requisição, ou <code>null</code>
+     * @return corpo JSON com a mensagem fixa
+     */
+    public byte[] render(String path) {
+        return render(encodedMessage, path);
+    }
+
+    /**
+     * @param message mensagem do erro, ou <code>null</code>
+     * @param path    caminho da requisição, ou <code>null</code>
+     * @return corpo JSON em UTF-8
+     */
+    public byte[] render(String message, String path) {
+        return render(Objects.isNull(message) ? NULL : quoteBytes(message), path);
+    }
+
+    /**
+     * Cria o modelo equivalente, para clientes que não aceitam JSON (CBOR, Smile).
+     *
+     * @param message mensagem do erro; se <code>null</code>, usa a mensagem fixa
+     * @param path    caminho da requisição, ou <code>null</code>
+     */
+    public GenericErrorModelResponse toModel(String message, String path) {
+        return new GenericErrorModelResponse(Instant.now(), status.value(), error,
+                Objects.isNull(message) ? constantMessage : message, path);
+    }
+
+    private byte[] render(byte[] message, String path) {
+        byte[] timestamp = timestamp();
+        byte[] encodedPath = Objects.isNull(path) ? NULL : quoteBytes(path);
+        byte[] body = new byte[OPEN.length + timestamp.length + head.length + MESSAGE.length + message.length
+                + PATH.length + encodedPath.length + CLOSE.length];
+        int offset = 0;
+        offset = append(body, offset, OPEN);
+        offset = append(body, offset, timestamp);
+        offset = append(body, offset, head);
+        offset = append(body, offset, MESSAGE);
+        offset = append(body, offset, message);
+        offset = append(body, offset, PATH);
+        offset = append(body, offset, encodedPath);
+        append(body, offset, CLOSE);
+        return body;
+    }
+
+    private static byte[] timestamp() {
+        long now = System.currentTimeMillis();
+        Timestamp last = lastTimestamp;
+        if (last.millis() != now) {
+            last = new Timestamp(now, bytes(Instant.ofEpochMilli(now).toString()));
+            lastTimestamp = last;
+        }
+        return last.iso();
+    }
+
+    private static int append(byte[] target, int offset, byte[] source) {
+        System.arraycopy(source, 0, target, offset, source.length);
+        return offset + source.length;
+    }
+
+    private static String quote(String value) {
+        return "\"" + new String(ENCODER.quoteAsString(value)) + "\"";
+    }
+
+    private static byte[] quoteBytes(String value) {
+        byte[] encoded = ENCODER.quoteAsUTF8(value);
+        byte[] quoted = new byte[encoded.length + 2];
+        quoted[0] = '"';
+        System.arraycopy(encoded, 0, quoted, 1, encoded.length);
+        quoted[quoted.length - 1] = '"';
+        return quoted;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Timestamp(long millis, byte[] iso) {
+    }
+}
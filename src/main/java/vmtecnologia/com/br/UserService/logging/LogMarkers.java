@@ -0,0 +1,19 @@
+package vmtecnologia.com.br.UserService.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+/**
+ * Marcadores de log da aplicação.
+ */
+public final class LogMarkers {
+
+    /**
+     * Logs emitidos a cada requisição nos caminhos quentes (consultas, cadastro, login).
+     * Sob pressão na fila de logs são amostrados pelo {@link SamplingAsyncAppender}.
+     */
+    public static final Marker HOT_PATH = MarkerFactory.getMarker("HOT_PATH");
+
+    private LogMarkers() {
+    }
+}
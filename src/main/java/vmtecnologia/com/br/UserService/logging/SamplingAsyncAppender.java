@@ -0,0 +1,66 @@
+package vmtecnologia.com.br.UserService.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import org.slf4j.Marker;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link AsyncAppender} que, com a fila acima do limite de descarte (<code>discardingThreshold</code>),
+ * amostra os logs marcados com {@link LogMarkers#HOT_PATH} em vez de descartar todos os logs INFO.
+ *
+ * <ul>
+ *   <li>WARN e ERROR nunca são descartados por este critério;</li>
+ *   <li>INFO fora do caminho quente (rotação de chaves, inicialização) é mantido;</li>
+ *   <li>INFO do caminho quente: mantém 1 a cada <code>hotPathSampleRate</code> (0 descarta todos);</li>
+ *   <li>DEBUG e TRACE são descartados.</li>
+ * </ul>
+ *
+ * <p>Com <code>neverBlock</code>, uma fila cheia descarta o evento sem bloquear quem loga.</p>
+ */
+public class SamplingAsyncAppender extends AsyncAppender {
+
+    private int hotPathSampleRate = 10;
+    private final AtomicLong hotPathEvents = new AtomicLong();
+    private final AtomicLong sampledOut = new AtomicLong();
+
+    @Override
+    protected boolean isDiscardable(ILoggingEvent event) {
+        int level = event.getLevel().toInt();
+        if (level > Level.INFO_INT) {
+            return false;
+        }
+        if (!isHotPath(event)) {
+            return level < Level.INFO_INT;
+        }
+        boolean keep = hotPathSampleRate > 0 && hotPathEvents.getAndIncrement() % hotPathSampleRate == 0;
+        if (!keep) {
+            sampledOut.incrementAndGet();
+        }
+        return !keep;
+    }
+
+    private static boolean isHotPath(ILoggingEvent event) {
+        List<Marker> markers = event.getMarkerList();
+        return Objects.nonNull(markers) && markers.stream().anyMatch(marker -> marker.contains(LogMarkers.HOT_PATH));
+    }
+
+    public int getHotPathSampleRate() {
+        return hotPathSampleRate;
+    }
+
+    public void setHotPathSampleRate(int hotPathSampleRate) {
+        this.hotPathSampleRate = hotPathSampleRate;
+    }
+
+    /**
+     * @return quantidade de logs do caminho quente descartados pela amostragem
+     */
+    public long getSampledOutCount() {
+        return sampledOut.get();
+    }
+}
@@ -0,0 +1,303 @@
+package vmtecnologia.com.br.UserService.mail;
+
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fila de envio de e-mails com conexões SMTP reaproveitadas.
+ *
+ * <p>Cada uma das <code>app.mail.dispatcher.pool-size</code> threads mantém a própria sessão SMTP
+ * aberta (conexão, STARTTLS e AUTH feitos uma única vez) e envia as mensagens da fila em lotes de
+ * até <code>batch-size</code> pela mesma conexão. A sessão é fechada depois de
+ * <code>idle-timeout</code> milissegundos sem uso e reaberta no próximo envio.</p>
+ *
+ * <ul>
+ *   <li>Uma mensagem recusada pelo servidor é registrada em log e não afeta as demais do lote;</li>
+ *   <li>se a conexão cair, a sessão é reaberta e a mensagem é reenviada uma vez;</li>
+ *   <li>dentro de uma transação, a mensagem só entra na fila após o commit;</li>
+ *   <li>com a fila cheia (<code>queue-capacity</code>), o envio é feito na thread de quem chamou.</li>
+ * </ul>
+ *
+ * <p>As threads são criadas no primeiro envio e, no encerramento da aplicação, a fila é esvaziada
+ * por até <code>shutdown-timeout</code> milissegundos. O <code>JavaMailSender</code> é resolvido no
+ * primeiro envio: no modo de inicialização adiada ele é <em>lazy</em>.</p>
+ */
+@Slf4j
+@Component
+public class SmtpDispatcher implements DisposableBean {
+
+    private static final long POLL_INTERVAL_MILLIS = 200;
+
+    private final ObjectProvider<JavaMailSender> mailSender;
+    private final int poolSize;
+    private final int batchSize;
+    private final long idleTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+    private final BlockingQueue<SimpleMailMessage> queue;
+    private final List<Thread> workers = new ArrayList<>();
+
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong connections = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    public SmtpDispatcher(ObjectProvider<JavaMailSender> mailSender,
+                          @Value("${app.mail.dispatcher.pool-size}") int poolSize,
+                          @Value("${app.mail.dispatcher.batch-size}") int batchSize,
+                          @Value("${app.mail.dispatcher.queue-capacity}") int queueCapacity,
+                          @Value("${app.mail.dispatcher.idle-timeout}") long idleTimeoutMillis,
+                          @Value("${app.mail.dispatcher.shutdown-timeout}") long shutdownTimeoutMillis) {
+        if (poolSize <= 0 || batchSize <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("configuração do envio de e-mails inválida");
+        }
+        this.mailSender = mailSender;
+        this.poolSize = poolSize;
+        this.batchSize = batchSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Agenda o envio da mensagem. Com uma transação ativa, o envio fica para depois do commit
+     * (e é descartado em caso de rollback).
+     *
+     * @param message mensagem a enviar
+     */
+    public void dispatch(SimpleMailMessage message) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(message);
+                }
+            });
+            return;
+        }
+        enqueue(message);
+    }
+
+    /**
+     * @return mensagens entregues ao servidor SMTP
+     */
+    public long getSentCount() {
+        return sent.get();
+    }
+
+    /**
+     * @return mensagens que falharam (recusadas ou sem conexão)
+     */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /**
+     * @return conexões SMTP abertas desde o início
+     */
+    public long getConnectionCount() {
+        return connections.get();
+    }
+
+    /**
+     * @return mensagens aguardando envio
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    private void enqueue(SimpleMailMessage message) {
+        startWorkers();
+        if (!running || !queue.offer(message)) {
+            // fila cheia ou aplicação encerrando: contrapressão sobre quem chamou
+            sendDirectly(message);
+        }
+    }
+
+    private synchronized void startWorkers() {
+        if (!workers.isEmpty() || !running) {
+            return;
+        }
+        for (int i = 0; i < poolSize; i++) {
+            workers.add(Thread.ofPlatform().name("smtp-dispatcher-" + i).daemon(true).start(this::work));
+        }
+    }
+
+    private void work() {
+        SmtpSession session = new SmtpSession();
+        List<SimpleMailMessage> batch = new ArrayList<>(batchSize);
+        try {
+            while (running || !queue.isEmpty()) {
+                SimpleMailMessage first = queue.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (Objects.isNull(first)) {
+                    session.closeIfIdle();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                send(session, batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            session.close();
+        }
+    }
+
+    private void send(SmtpSession session, List<SimpleMailMessage> batch) {
+        JavaMailSender sender;
+        try {
+            sender = mailSender.getObject();
+        } catch (RuntimeException e) {
+            failed.addAndGet(batch.size());
+            log.atError().addKeyValue("messages", batch.size()).setCause(e)
+                    .log("send() -> JavaMailSender indisponível.");
+            return;
+        }
+        if (!(sender instanceof JavaMailSenderImpl impl)) {
+            // sem acesso à sessão JavaMail: o próprio Spring envia o lote por uma única conexão
+            sendBatch(sender, batch);
+            return;
+        }
+        for (SimpleMailMessage message : batch) {
+            try {
+                session.send(impl, message);
+                sent.incrementAndGet();
+            } catch (MessagingException | MailException e) {
+                failed.incrementAndGet();
+                log.atError().addKeyValue("to", Arrays.toString(message.getTo())).setCause(e)
+                        .log("send() -> Falha ao enviar e-mail.");
+            }
+        }
+    }
+
+    private void sendBatch(JavaMailSender sender, List<SimpleMailMessage> batch) {
+        try {
+            sender.send(batch.toArray(SimpleMailMessage[]::new));
+            sent.addAndGet(batch.size());
+        } catch (MailSendException e) {
+            int failures = e.getFailedMessages().isEmpty() ? batch.size() : e.getFailedMessages().size();
+            failed.addAndGet(failures);
+            sent.addAndGet(batch.size() - failures);
+            log.atError().addKeyValue("messages", failures).setCause(e).log("sendBatch() -> Falha ao enviar e-mails.");
+        } catch (MailException e) {
+            failed.addAndGet(batch.size());
+            log.atError().addKeyValue("messages", batch.size()).setCause(e).log("sendBatch() -> Falha ao enviar e-mails.");
+        }
+    }
+
+    private void sendDirectly(SimpleMailMessage message) {
+        try {
+            mailSender.getObject().send(message);
+            sent.incrementAndGet();
+        } catch (MailException e) {
+            failed.incrementAndGet();
+            log.atError().addKeyValue("to", Arrays.toString(message.getTo())).setCause(e)
+                    .log("sendDirectly() -> Falha ao enviar e-mail.");
+        }
+    }
+
+    /**
+     * Para de aceitar mensagens e aguarda as threads esvaziarem a fila.
+     */
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMillis;
+        List<Thread> started;
+        synchronized (this) {
+            started = List.copyOf(workers);
+        }
+        for (Thread worker : started) {
+            worker.join(Math.max(1, deadline - System.currentTimeMillis()));
+            if (worker.isAlive()) {
+                worker.interrupt();
+            }
+        }
+        if (!queue.isEmpty()) {
+            log.atWarn().addKeyValue("messages", queue.size()).log("destroy() -> E-mails não enviados no encerramento.");
+        }
+    }
+
+    /**
+     * Conexão SMTP de uma thread de envio.
+     */
+    private final class SmtpSession {
+
+        private Transport transport;
+        private long lastUsed;
+
+        private void send(JavaMailSenderImpl sender, SimpleMailMessage message) throws MessagingException {
+            MimeMessage mime = sender.createMimeMessage();
+            message.copyTo(new MimeMailMessage(mime));
+            mime.saveChanges();
+            Address[] recipients = mime.getAllRecipients();
+            Transport current = connected(sender);
+            try {
+                current.sendMessage(mime, recipients);
+            } catch (MessagingException e) {
+                if (current.isConnected()) {
+                    // recusa da mensagem: a conexão continua válida para as demais
+                    throw e;
+                }
+                close();
+                connected(sender).sendMessage(mime, recipients);
+            }
+            lastUsed = System.currentTimeMillis();
+        }
+
+        private Transport connected(JavaMailSenderImpl sender) throws MessagingException {
+            if (Objects.isNull(transport)) {
+                Transport opened = sender.getSession().getTransport(
+                        Objects.requireNonNullElse(sender.getProtocol(), JavaMailSenderImpl.DEFAULT_PROTOCOL));
+                opened.connect(sender.getHost(), sender.getPort(), sender.getUsername(), sender.getPassword());
+                connections.incrementAndGet();
+                transport = opened;
+            }
+            return transport;
+        }
+
+        private void closeIfIdle() {
+            if (Objects.nonNull(transport) && System.currentTimeMillis() - lastUsed >= idleTimeoutMillis) {
+                close();
+            }
+        }
+
+        private void close() {
+            if (Objects.isNull(transport)) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.atDebug().setCause(e).log("close() -> Falha ao fechar a conexão SMTP.");
+            }
+            transport = null;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package vmtecnologia.com.br.UserService.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Modelo para requisição de renovação do token de acesso")
+public class RefreshTokenRequestModel {
+
+    @Schema(description = "Refresh token recebido no login ou na última renovação", example = "q3P0c1xH2m...", required = true)
+    @NotBlank(message = "O refresh token é obrigatório")
+    private String refreshToken;
+
+}
@@ -13,4 +13,10 @@ public class TokenModel {
 
     @Schema(description = "Token JWT de autenticação", example = "eyJhbGciOiJIUzI1NiIsInR5cCI6IkpXVCJ9...", required = true)
     private String token;
+
+    @Schema(description = "Refresh token opaco, de uso único, para obter um novo token de acesso", example = "q3P0c1xH2m...")
+    private String refreshToken;
+
+    @Schema(description = "Validade do token de acesso em segundos", example = "900")
+    private Long expiresIn;
 }
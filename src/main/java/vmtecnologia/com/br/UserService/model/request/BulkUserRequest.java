@@ -0,0 +1,35 @@
+package vmtecnologia.com.br.UserService.model.request;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Seleção de usuários para operações em lote: IDs e filtros são combinados com AND")
+public class BulkUserRequest {
+
+    /**
+     * Quantidade máxima de IDs por requisição.
+     */
+    public static final int MAX_IDS = 1000;
+
+    @Schema(description = "IDs dos usuários (no máximo 1000)", example = "[1, 2, 3]", required = false)
+    @Size(max = MAX_IDS, message = "Informe no máximo " + MAX_IDS + " IDs por operação em lote")
+    private List<Long> ids;
+
+    @Schema(description = "Termo parcial do nome de usuário", example = "usuario", required = false)
+    private String username;
+
+    @Schema(description = "Termo parcial do e-mail", example = "@dominio.com", required = false)
+    private String email;
+
+    @Schema(description = "Estado de habilitação atual", example = "false", required = false)
+    private Boolean enabled;
+
+}
@@ -0,0 +1,17 @@
+package vmtecnologia.com.br.UserService.model.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Resultado de uma operação em lote")
+public class BulkOperationResponse {
+
+    @Schema(description = "Quantidade de usuários afetados", example = "42", required = true)
+    private long affected;
+
+}
@@ -0,0 +1,26 @@
+package vmtecnologia.com.br.UserService.model.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Usuário criado, alterado ou excluído desde a marca de sincronização")
+public class UserDeltaItem {
+
+    @Schema(description = "ID do usuário", example = "1", required = true)
+    private Long id;
+
+    @Schema(description = "Email do usuário", example = "email@dominio.com", required = true)
+    private String email;
+
+    @Schema(description = "Indica que o usuário foi excluído", example = "false", required = true)
+    private boolean deleted;
+
+    @Schema(description = "Dados atuais do usuário (ausente na exclusão)", required = false)
+    private UserModelResponse user;
+
+}
@@ -0,0 +1,25 @@
+package vmtecnologia.com.br.UserService.model.response;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Página da sincronização incremental de usuários")
+public class UserDeltaResponse {
+
+    @Schema(description = "Alterações em ordem de sequência de modificação", required = true)
+    private List<UserDeltaItem> items;
+
+    @Schema(description = "Marca a enviar na próxima chamada", example = "1042.17", required = true)
+    private String watermark;
+
+    @Schema(description = "Indica que há mais alterações após esta página", example = "false", required = true)
+    private boolean hasMore;
+
+}
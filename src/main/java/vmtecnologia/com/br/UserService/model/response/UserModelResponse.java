@@ -28,4 +28,7 @@ public class UserModelResponse {
     @Email(message = "Email inválido")
     private String email;
 
+    @Schema(description = "Versão do registro, também enviada no cabeçalho ETag", example = "0", required = false)
+    private Long version;
+
 }
@@ -0,0 +1,24 @@
+package vmtecnologia.com.br.UserService.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import vmtecnologia.com.br.UserService.entity.JwtSigningKeyEntity;
+
+import java.util.List;
+
+/**
+ * Repositório das chaves de assinatura dos tokens JWT.
+ */
+@Repository
+public interface JwtSigningKeyRepository extends JpaRepository<JwtSigningKeyEntity, String> {
+
+    /**
+     * Lê todas as chaves no banco principal: com o roteamento de leitura ativo, uma réplica
+     * atrasada ainda não teria a chave recém-criada por outra instância.
+     *
+     * @return chaves em ordem crescente de ativação
+     */
+    @Transactional
+    List<JwtSigningKeyEntity> findAllByOrderByActivatesAtAscKidAsc();
+}
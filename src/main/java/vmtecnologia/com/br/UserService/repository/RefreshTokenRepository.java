@@ -0,0 +1,50 @@
+package vmtecnologia.com.br.UserService.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import vmtecnologia.com.br.UserService.entity.RefreshTokenEntity;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório dos refresh tokens ativos. Chamado apenas dentro das transações abertas por
+ * {@link vmtecnologia.com.br.UserService.service.RefreshTokenService}.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, String> {
+
+    /**
+     * @param tokenHash hash do token
+     * @return 1 se o token foi removido por esta chamada, 0 se já não existia
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshTokenEntity t WHERE t.tokenHash = :tokenHash")
+    int deleteByTokenHash(String tokenHash);
+
+    /**
+     * @param emails e-mails dos usuários
+     * @return quantidade de tokens removidos
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshTokenEntity t WHERE t.email IN :emails")
+    int deleteByEmailIn(Collection<String> emails);
+
+    /**
+     * @param email e-mail do usuário
+     * @return hashes dos tokens do usuário, do mais novo para o mais antigo
+     */
+    @Query("SELECT t.tokenHash FROM RefreshTokenEntity t WHERE t.email = :email ORDER BY t.createdAt DESC, t.tokenHash")
+    List<String> findTokenHashesByEmail(String email);
+
+    /**
+     * @param now instante atual
+     * @return quantidade de tokens expirados removidos
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshTokenEntity t WHERE t.expiresAt <= :now")
+    int deleteExpired(Instant now);
+}
@@ -0,0 +1,42 @@
+package vmtecnologia.com.br.UserService.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import vmtecnologia.com.br.UserService.entity.UserChangeFeedLeaseEntity;
+
+import java.time.Instant;
+
+/**
+ * Repositório do lease de publicação do feed de alterações de usuários.
+ */
+@Repository
+public interface UserChangeFeedLeaseRepository extends JpaRepository<UserChangeFeedLeaseEntity, String> {
+
+    /**
+     * Renova o lease da instância, ou o assume se estiver expirado.
+     *
+     * @param name      nome do lease
+     * @param owner     identificador da instância
+     * @param expiresAt nova expiração
+     * @param now       instante atual
+     * @return <code>1</code> se a instância detém o lease, <code>0</code> se ele não existe ou
+     * pertence a outra instância
+     */
+    @Modifying
+    @Query("UPDATE UserChangeFeedLeaseEntity l SET l.owner = :owner, l.expiresAt = :expiresAt "
+            + "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAt < :now)")
+    int renew(String name, String owner, Instant expiresAt, Instant now);
+
+    /**
+     * Libera o lease, se ainda pertencer à instância.
+     *
+     * @param name  nome do lease
+     * @param owner identificador da instância
+     * @return quantidade de leases removidos
+     */
+    @Modifying
+    @Query("DELETE FROM UserChangeFeedLeaseEntity l WHERE l.name = :name AND l.owner = :owner")
+    int release(String name, String owner);
+}
@@ -0,0 +1,49 @@
+package vmtecnologia.com.br.UserService.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import vmtecnologia.com.br.UserService.entity.UserChangeLogEntity;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório do registro persistido do feed de alterações de usuários.
+ */
+@Repository
+public interface UserChangeLogRepository extends JpaRepository<UserChangeLogEntity, Long> {
+
+    /**
+     * @return maior posição registrada, ou vazio se o registro estiver vazio
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT MAX(c.id) FROM UserChangeLogEntity c")
+    Optional<Long> findMaxId();
+
+    /**
+     * Lê um trecho do registro em ordem, para retomada do feed.
+     *
+     * @param from  primeira posição (inclusive)
+     * @param to    última posição (inclusive)
+     * @param limit quantidade máxima de registros
+     * @return registros do trecho, em ordem crescente de posição
+     */
+    @Transactional(readOnly = true)
+    List<UserChangeLogEntity> findByIdBetweenOrderById(long from, long to, Limit limit);
+
+    /**
+     * Remove os registros anteriores ao instante informado.
+     *
+     * @param before limite de retenção
+     * @return quantidade de registros removidos
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserChangeLogEntity c WHERE c.occurredAt < :before")
+    int deleteOlderThan(Instant before);
+}
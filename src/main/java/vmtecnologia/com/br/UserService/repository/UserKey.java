@@ -0,0 +1,10 @@
+package vmtecnologia.com.br.UserService.repository;
+
+/**
+ * Projeção com as chaves de um usuário (ID e e-mail), usada pelas operações em lote.
+ *
+ * @param id    ID do usuário
+ * @param email e-mail do usuário
+ */
+public record UserKey(Long id, String email) {
+}
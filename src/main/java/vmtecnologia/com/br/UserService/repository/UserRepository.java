@@ -1,14 +1,20 @@
 package vmtecnologia.com.br.UserService.repository;
 
-
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import vmtecnologia.com.br.UserService.entity.UserEntity;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositório de acesso a dados para {@link UserEntity}, estendendo tanto
@@ -17,19 +23,13 @@ import java.util.Optional;
  *
  * <p>Permite buscar usuários por e-mail, usuário e status de habilitação,
  * aproveitando o cache de transações de leitura.</p>
+ *
+ * <p>A busca por e-mail ({@link UserRepositoryCustom#findByEmail}) usa o natural id
+ * da entidade e as consultas por e-mail/usuário e habilitação usam o cache de
+ * consultas do Hibernate.</p>
  */
 @Repository
-public interface UserRepository extends JpaRepository<UserEntity, Long>, JpaSpecificationExecutor<UserEntity> {
-
-    /**
-     * Busca um usuário pelo seu e-mail.
-     *
-     * @param email o e-mail do usuário a ser consultado; não deve ser nulo
-     * @return um {@link Optional} contendo {@link UserEntity} caso exista usuário
-     *         com o e-mail fornecido ou vazio se não encontrado
-     */
-    @Transactional(readOnly = true)
-    Optional<UserEntity> findByEmail(String email);
+public interface UserRepository extends JpaRepository<UserEntity, Long>, JpaSpecificationExecutor<UserEntity>, UserRepositoryCustom {
 
     /**
      * Busca um usuário pelo seu nome de usuário e pelo seu estado de habilitação.
@@ -42,6 +42,7 @@ public interface UserRepository extends JpaRepository<UserEntity, Long>, JpaSpec
      */
     @Transactional(readOnly = true)
     @Query("SELECT u FROM UserEntity u WHERE u.username = :username AND u.enabled = :enabled")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<UserEntity> findByUsernameAndEnabled(String username, Boolean enabled);
 
     /**
@@ -55,6 +56,73 @@ public interface UserRepository extends JpaRepository<UserEntity, Long>, JpaSpec
      */
     @Transactional(readOnly = true)
     @Query("SELECT u FROM UserEntity u WHERE u.email = :email AND u.enabled = :enabled")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<UserEntity> findByEmailAndEnabled(String email, Boolean enabled);
 
+    /**
+     * Busca apenas o e-mail de um usuário pelo seu identificador.
+     *
+     * @param id identificador do usuário
+     * @return um {@link Optional} com o e-mail, ou vazio se não existir usuário com o ID
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT u.email FROM UserEntity u WHERE u.id = :id")
+    Optional<String> findEmailById(Long id);
+
+    /**
+     * Busca apenas a versão de um usuário pelo seu identificador, sem carregar a entidade.
+     *
+     * @param id identificador do usuário
+     * @return um {@link Optional} com a versão, ou vazio se não existir usuário com o ID
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT u.version FROM UserEntity u WHERE u.id = :id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    Optional<Long> findVersionById(Long id);
+
+    /**
+     * Percorre os e-mails de todos os usuários cadastrados.
+     *
+     * <p>Deve ser consumido dentro de uma transação e fechado após o uso.</p>
+     *
+     * @return {@link Stream} com os e-mails cadastrados
+     */
+    @Query("SELECT u.email FROM UserEntity u")
+    Stream<String> streamAllEmails();
+
+    /**
+     * Lê, pelo índice <code>(mod_seq, id)</code>, os usuários criados ou alterados depois da marca.
+     * O intervalo de <code>mod_seq</code> vem isolado na condição para que o banco percorra só o
+     * trecho do índice.
+     *
+     * @param seq   sequência da marca
+     * @param id    ID do usuário da marca (desempate na mesma sequência)
+     * @param bound primeira sequência ainda não visível (transações em andamento)
+     * @param limit quantidade máxima de usuários
+     * @return usuários em ordem de sequência e ID
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT u FROM UserEntity u"
+            + " WHERE u.modSeq >= :seq AND u.modSeq < :bound AND (u.modSeq > :seq OR u.id > :id)"
+            + " ORDER BY u.modSeq, u.id")
+    List<UserEntity> findChangedSince(long seq, long id, long bound, Limit limit);
+
+    /**
+     * @return maior sequência de modificação atribuída, ou vazio se não houver usuários
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT MAX(u.modSeq) FROM UserEntity u")
+    Optional<Long> findMaxModSeq();
+
+    /**
+     * Atribui a sequência informada aos usuários gravados antes da sequência de modificação existir.
+     *
+     * @param seq sequência atribuída
+     * @return quantidade de usuários alterados
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserEntity u SET u.modSeq = :seq WHERE u.modSeq IS NULL")
+    int backfillModSeq(long seq);
+
 }
@@ -0,0 +1,58 @@
+package vmtecnologia.com.br.UserService.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Consultas de {@link UserEntity} implementadas diretamente sobre a API do Hibernate,
+ * combinadas ao {@link UserRepository} como fragmento.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Busca um usuário pelo seu e-mail.
+     *
+     * @param email o e-mail do usuário a ser consultado; não deve ser nulo
+     * @return um {@link Optional} contendo {@link UserEntity} caso exista usuário
+     *         com o e-mail fornecido ou vazio se não encontrado
+     */
+    Optional<UserEntity> findByEmail(String email);
+
+    /**
+     * Carrega os usuários pelos IDs, na ordem informada, consultando antes o cache de segundo
+     * nível; só os ausentes dele são lidos do banco, em uma única consulta.
+     *
+     * @param ids IDs dos usuários
+     * @return usuários encontrados, na ordem dos IDs; os inexistentes são omitidos
+     */
+    List<UserEntity> findAllByIdsInOrder(List<Long> ids);
+
+    /**
+     * Busca apenas o ID e o e-mail dos usuários que atendem à especificação.
+     *
+     * @param specification critérios de seleção; <code>null</code> seleciona todos
+     * @param limit         quantidade máxima de chaves (por shard, com particionamento)
+     * @return chaves dos usuários encontrados
+     */
+    List<UserKey> findKeys(Specification<UserEntity> specification, Limit limit);
+
+    /**
+     * Habilita ou desabilita, em um único <code>UPDATE</code>, os usuários que atendem à
+     * especificação e ainda não estão no estado pedido, incrementando a versão de cada linha
+     * alterada. As linhas que já estão no estado pedido não são tocadas (nem versão, nem
+     * sequência). Todas as linhas alteradas recebem uma mesma nova sequência de modificação.
+     *
+     * <p>Como toda operação em lote do Hibernate, remove as regiões de {@link UserEntity}
+     * (entidade, natural id e consultas) do cache de segundo nível.</p>
+     *
+     * @param specification critérios de seleção; <code>null</code> altera todos
+     * @param enabled       novo estado de habilitação
+     * @return quantidade de linhas alteradas
+     */
+    int updateEnabled(Specification<UserEntity> specification, boolean enabled);
+
+}
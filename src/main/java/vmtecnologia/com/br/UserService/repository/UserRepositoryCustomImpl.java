@@ -0,0 +1,106 @@
+package vmtecnologia.com.br.UserService.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.sync.ModificationSequence;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Implementação de {@link UserRepositoryCustom}.
+ *
+ * <p>A busca por e-mail é feita pelo natural id da entidade, de modo que o Hibernate
+ * resolve e-mail → ID e ID → entidade pelo cache de segundo nível antes de ir ao banco. A carga
+ * por vários IDs segue o mesmo caminho, lendo do banco apenas os ausentes do cache.</p>
+ *
+ * <p>As operações em lote montam o <code>UPDATE</code> pela Criteria API a partir das mesmas
+ * {@link Specification} usadas na listagem, sem carregar as entidades.</p>
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final ModificationSequence modificationSequence;
+
+    public UserRepositoryCustomImpl(ModificationSequence modificationSequence) {
+        this.modificationSequence = modificationSequence;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<UserEntity> findByEmail(String email) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(UserEntity.class)
+                .loadOptional(email);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserEntity> findAllByIdsInOrder(List<Long> ids) {
+        return entityManager.unwrap(Session.class)
+                .byMultipleIds(UserEntity.class)
+                // sem o modo explícito, a carga por vários IDs não consulta o cache de segundo nível
+                .with(CacheMode.NORMAL)
+                .enableOrderedReturn(true)
+                .multiLoad(ids)
+                .stream()
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<UserKey> findKeys(Specification<UserEntity> specification, Limit limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserKey> query = cb.createQuery(UserKey.class);
+        Root<UserEntity> root = query.from(UserEntity.class);
+        query.select(cb.construct(UserKey.class, root.get("id"), root.get("email")));
+        Predicate predicate = toPredicate(specification, root, query, cb);
+        if (Objects.nonNull(predicate)) {
+            query.where(predicate);
+        }
+        TypedQuery<UserKey> typed = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typed.setMaxResults(limit.max());
+        }
+        return typed.getResultList();
+    }
+
+    @Override
+    @Transactional
+    public int updateEnabled(Specification<UserEntity> specification, boolean enabled) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<UserEntity> update = cb.createCriteriaUpdate(UserEntity.class);
+        Root<UserEntity> root = update.from(UserEntity.class);
+        update.set(root.<Boolean>get("enabled"), enabled);
+        // o UPDATE em lote não passa pelo versionamento da entidade: incrementa explicitamente
+        update.set(root.<Long>get("version"), cb.sum(root.get("version"), 1L));
+        // nem pelo listener da sequência de modificação: todas as linhas recebem a mesma
+        update.set(root.<Long>get("modSeq"), modificationSequence.next());
+        Predicate changed = cb.notEqual(root.get("enabled"), enabled);
+        Predicate predicate = toPredicate(specification, root, null, cb);
+        update.where(Objects.isNull(predicate) ? changed : cb.and(predicate, changed));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    private static Predicate toPredicate(Specification<UserEntity> specification, Root<UserEntity> root,
+                                         CriteriaQuery<?> query, CriteriaBuilder cb) {
+        return Objects.isNull(specification) ? null : specification.toPredicate(root, query, cb);
+    }
+
+}
@@ -0,0 +1,54 @@
+package vmtecnologia.com.br.UserService.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import vmtecnologia.com.br.UserService.entity.UserTombstoneEntity;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositório dos registros de exclusão de usuários usados na sincronização incremental.
+ */
+@Repository
+public interface UserTombstoneRepository extends JpaRepository<UserTombstoneEntity, Long> {
+
+    /**
+     * Lê, pelo índice <code>(mod_seq, user_id)</code>, as exclusões posteriores à marca
+     * (condição montada como em {@link UserRepository#findChangedSince}).
+     *
+     * @param seq   sequência da marca
+     * @param id    ID do usuário da marca (desempate na mesma sequência)
+     * @param bound primeira sequência ainda não visível (transações em andamento)
+     * @param limit quantidade máxima de registros
+     * @return exclusões em ordem de sequência e ID
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT t FROM UserTombstoneEntity t"
+            + " WHERE t.modSeq >= :seq AND t.modSeq < :bound AND (t.modSeq > :seq OR t.userId > :id)"
+            + " ORDER BY t.modSeq, t.userId")
+    List<UserTombstoneEntity> findDeletedSince(long seq, long id, long bound, Limit limit);
+
+    /**
+     * @return maior sequência de modificação registrada, ou vazio se não houver exclusões
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT MAX(t.modSeq) FROM UserTombstoneEntity t")
+    Optional<Long> findMaxModSeq();
+
+    /**
+     * Remove as exclusões anteriores ao instante informado.
+     *
+     * @param before limite de retenção
+     * @return quantidade de exclusões removidas
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserTombstoneEntity t WHERE t.deletedAt < :before")
+    int deleteOlderThan(Instant before);
+}
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.domain.Specification;
 import vmtecnologia.com.br.UserService.entity.UserEntity;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 
@@ -67,4 +68,26 @@ public interface UserSpecification {
 
         };
     }
+
+    /**
+     * Cria uma {@link Specification} que restringe o resultado aos IDs informados.
+     *
+     * @param ids identificadores dos usuários; se nulo ou vazio, não filtra por ID
+     * @return uma {@link Specification} com o predicado <code>id IN (...)</code>, ou que devolve
+     *         <code>null</code> se não houver IDs (equivalente a "sem filtro")
+     */
+    static Specification<UserEntity> withIds(Collection<Long> ids) {
+        return (root, query, cb) -> Objects.isNull(ids) || ids.isEmpty() ? null : root.get("id").in(ids);
+    }
+
+    /**
+     * Cria uma {@link Specification} que restringe o resultado aos usuários cujo estado de
+     * habilitação é diferente do informado, isto é, aos que uma alteração para ele mudaria.
+     *
+     * @param enabled estado de habilitação pretendido
+     * @return uma {@link Specification} com o predicado <code>enabled &lt;&gt; :enabled</code>
+     */
+    static Specification<UserEntity> withEnabledOtherThan(boolean enabled) {
+        return (root, query, cb) -> cb.notEqual(root.get("enabled"), enabled);
+    }
 }
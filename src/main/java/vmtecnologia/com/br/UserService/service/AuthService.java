@@ -1,18 +1,26 @@
 package vmtecnologia.com.br.UserService.service;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import vmtecnologia.com.br.UserService.cache.UnknownEmailCache;
 import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.exception.AccountLockedException;
 import vmtecnologia.com.br.UserService.exception.IncorrectPasswordException;
+import vmtecnologia.com.br.UserService.exception.InvalidRefreshTokenException;
 import vmtecnologia.com.br.UserService.exception.UserNotFoundException;
 import vmtecnologia.com.br.UserService.model.LoginRequestModel;
+import vmtecnologia.com.br.UserService.model.RefreshTokenRequestModel;
 import vmtecnologia.com.br.UserService.model.TokenModel;
 
 import java.util.Objects;
 import java.util.Optional;
 
+import static vmtecnologia.com.br.UserService.logging.LogMarkers.HOT_PATH;
+
 /**
  * Serviço responsável pela autenticação de usuários,
  * verificando credenciais e gerando tokens JWT.
@@ -25,14 +33,19 @@ public class AuthService {
     private final JwtService jwtService;
     private final UserService userService;
     private final PasswordEncoder encoder;
+    private final LoginAttemptService loginAttemptService;
+    private final UnknownEmailCache unknownEmailCache;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenDenylistService tokenDenylistService;
 
     /**
      * Autentica um usuário com base em e-mail e senha,
-     * retornando um token JWT quando credenciais válidas.
+     * retornando um token JWT de curta duração e um refresh token quando credenciais válidas.
      *
      * @param loginRequestModel objeto contendo e-mail e senha
-     * @return {@link TokenModel} com o JWT gerado
+     * @return {@link TokenModel} com o JWT gerado e o refresh token
      * @throws IllegalArgumentException   se e-mail ou senha não forem fornecidos
+     * @throws AccountLockedException    se a conta estiver bloqueada por excesso de tentativas
      * @throws UserNotFoundException      se não existir usuário habilitado com o e-mail informado
      * @throws IncorrectPasswordException se a senha estiver incorreta
      */
@@ -41,25 +54,102 @@ public class AuthService {
             throw new IllegalArgumentException("email e senha devem ser fornecidos");
         }
 
+        // recusa contas bloqueadas antes de qualquer consulta ao banco ou verificação BCrypt
+        loginAttemptService.checkAllowed(loginRequestModel.getEmail());
+
+        // e-mails sabidamente inexistentes não chegam ao banco
+        if(unknownEmailCache.isKnownMissing(loginRequestModel.getEmail())) {
+            loginAttemptService.recordFailure(loginRequestModel.getEmail());
+            throw new UserNotFoundException(loginRequestModel.getEmail());
+        }
+
         Optional<UserEntity> user = userService.findByEmailAndEnabled(loginRequestModel.getEmail(), Boolean.TRUE);
 
         if(user.isEmpty()) {
+            unknownEmailCache.markMissing(loginRequestModel.getEmail());
+            loginAttemptService.recordFailure(loginRequestModel.getEmail());
             throw new UserNotFoundException(loginRequestModel.getEmail());
         }
 
         boolean matches = encoder.matches(loginRequestModel.getPassword(), user.get().getPassword());
 
         if(!matches) {
+            loginAttemptService.recordFailure(loginRequestModel.getEmail());
             throw new IncorrectPasswordException();
         }
 
-        String token = jwtService.generateToken(user.get());
+        loginAttemptService.reset(loginRequestModel.getEmail());
+
+        log.atInfo().addMarker(HOT_PATH).setMessage("login() -> Usuário autenticado com sucesso.")
+                .addKeyValue("email", user.get().getEmail()).log();
+
+        return issueTokens(user.get());
+
+    }
+
+    /**
+     * Troca um refresh token válido por um novo token de acesso e um novo refresh token.
+     *
+     * <p>Não há verificação de senha: o custo é uma busca por hash no armazenamento de
+     * refresh tokens e a confirmação de que o usuário continua habilitado. O token
+     * apresentado é invalidado (rotação).</p>
+     *
+     * @param refreshTokenRequestModel objeto contendo o refresh token
+     * @return {@link TokenModel} com o novo JWT e o novo refresh token
+     * @throws InvalidRefreshTokenException se o refresh token for inválido, expirado ou
+     *                                      o usuário não estiver mais habilitado
+     */
+    public TokenModel refresh(RefreshTokenRequestModel refreshTokenRequestModel) {
+        String email = refreshTokenService.consume(refreshTokenRequestModel.getRefreshToken());
 
-        log.info("Usuário autenticado com sucesso: {}", user.get().getEmail());
+        UserEntity user = userService.findByEmailAndEnabled(email, Boolean.TRUE)
+                .orElseThrow(InvalidRefreshTokenException::new);
+
+        return issueTokens(user);
+    }
 
+    /**
+     * Encerra a sessão: revoga o token de acesso (pelo seu <code>jti</code>, até a expiração)
+     * e, se informado, o refresh token.
+     *
+     * <p>A operação é idempotente; tokens de acesso inválidos ou já expirados são ignorados,
+     * pois não autenticam mais nenhuma requisição.</p>
+     *
+     * @param authorization            cabeçalho Authorization no formato "Bearer &lt;token&gt;" (opcional)
+     * @param refreshTokenRequestModel objeto contendo o refresh token a revogar (opcional)
+     */
+    public void logout(String authorization, RefreshTokenRequestModel refreshTokenRequestModel) {
+        if (Objects.nonNull(refreshTokenRequestModel) && Objects.nonNull(refreshTokenRequestModel.getRefreshToken())) {
+            refreshTokenService.revoke(refreshTokenRequestModel.getRefreshToken());
+        }
+
+        if (Objects.isNull(authorization) || !authorization.startsWith("Bearer ")) {
+            return;
+        }
+
+        try {
+            Claims claims = jwtService.parseClaims(authorization.substring(7));
+            if (Objects.nonNull(claims.getId())) {
+                tokenDenylistService.revoke(claims.getId(), claims.getExpiration().getTime());
+                log.atInfo().addMarker(HOT_PATH).setMessage("logout() -> Token revogado.")
+                        .addKeyValue("email", claims.getSubject()).log();
+            }
+        } catch (JwtException | IllegalArgumentException ex) {
+            log.debug("logout() -> Token de acesso inválido ignorado: {}", ex.getMessage());
+        }
+    }
+
+    /**
+     * Gera o par token de acesso + refresh token para o usuário.
+     *
+     * @param user usuário autenticado
+     * @return {@link TokenModel} preenchido
+     */
+    private TokenModel issueTokens(UserEntity user) {
         return TokenModel.builder()
-                .token(token)
+                .token(jwtService.generateToken(user))
+                .refreshToken(refreshTokenService.issue(user.getEmail()))
+                .expiresIn(jwtService.getExpiration() / 1000)
                 .build();
-
     }
 }
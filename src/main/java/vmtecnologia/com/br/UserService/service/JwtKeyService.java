@@ -0,0 +1,363 @@
+package vmtecnologia.com.br.UserService.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import vmtecnologia.com.br.UserService.entity.JwtSigningKeyEntity;
+import vmtecnologia.com.br.UserService.repository.JwtSigningKeyRepository;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Serviço que mantém as chaves RSA usadas para assinar tokens JWT (RS256)
+ * e publica as chaves públicas no formato JWKS.
+ *
+ * <p>As chaves ficam na tabela <code>jwt_signing_keys</code>, compartilhada por todas as
+ * instâncias: qualquer instância valida os tokens emitidos pelas outras, um reinício não invalida
+ * os tokens emitidos e o JWKS é o mesmo em todas. A chave privada é gravada cifrada com a chave
+ * derivada de <code>app.jwt.key-encryption-secret</code>.</p>
+ *
+ * <p>Cada chave é ativada no início de um intervalo de <code>app.jwt.key-rotation-interval</code>
+ * milissegundos (contados a partir da época Unix), e o <code>kid</code> é derivado do instante de
+ * ativação. Duas instâncias que criam a mesma chave ao mesmo tempo colidem na chave primária, e a
+ * segunda passa a usar a da primeira. Em cada momento existem:</p>
+ * <ul>
+ *   <li><strong>atual</strong> — a última já ativada, assina os novos tokens;</li>
+ *   <li><strong>próxima</strong> — ativada no início do próximo intervalo e já publicada no JWKS,
+ *       para que serviços que fazem cache do JWKS a conheçam antes de ela começar a assinar;</li>
+ *   <li><strong>aposentadas</strong> — continuam publicadas por <code>app.jwt.key-overlap</code>
+ *       milissegundos após a ativação da sucessora, para validar tokens ainda não expirados, e
+ *       depois são removidas da tabela.</li>
+ * </ul>
+ *
+ * <p>A escolha da chave atual depende apenas do relógio, então todas as instâncias trocam de
+ * chave juntas. As chaves são relidas a cada <code>app.jwt.key-refresh-interval</code>
+ * milissegundos, criando a atual e a próxima quando faltarem, e também ao receber um token com
+ * <code>kid</code> desconhecido, no máximo uma vez por segundo. O documento JWKS é serializado
+ * uma única vez por leitura e servido já pronto.</p>
+ */
+@Slf4j
+@Service
+public class JwtKeyService {
+
+    private static final int KEY_SIZE = 2048;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+    private static final long MIN_RELOAD_INTERVAL_MILLIS = 1_000L;
+
+    private final JwtSigningKeyRepository repository;
+    private final ObjectMapper objectMapper;
+    private final long rotationMillis;
+    private final long overlapMillis;
+    private final SecretKey encryptionKey;
+    private final LongSupplier clock;
+    private final SecureRandom random = new SecureRandom();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile KeyRing ring;
+    private volatile long loadedAt;
+
+    @Autowired
+    public JwtKeyService(JwtSigningKeyRepository repository,
+                         ObjectMapper objectMapper,
+                         @Value("${app.jwt.key-rotation-interval}") long rotationMillis,
+                         @Value("${app.jwt.key-overlap}") long overlapMillis,
+                         @Value("${app.jwt.key-encryption-secret}") String encryptionSecret) {
+        this(repository, objectMapper, rotationMillis, overlapMillis, encryptionSecret, System::currentTimeMillis);
+    }
+
+    JwtKeyService(JwtSigningKeyRepository repository, ObjectMapper objectMapper, long rotationMillis,
+                  long overlapMillis, String encryptionSecret, LongSupplier clock) {
+        if (rotationMillis <= 0 || overlapMillis < 0 || Objects.isNull(encryptionSecret) || encryptionSecret.isBlank()) {
+            throw new IllegalArgumentException("configuração das chaves de assinatura inválida");
+        }
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.rotationMillis = rotationMillis;
+        this.overlapMillis = overlapMillis;
+        this.encryptionKey = deriveEncryptionKey(encryptionSecret);
+        this.clock = clock;
+    }
+
+    /**
+     * @return chave usada para assinar novos tokens
+     */
+    public SigningKey currentKey() {
+        long now = clock.getAsLong();
+        List<SigningKey> keys = keyRing().signing();
+        SigningKey current = keys.get(0);
+        for (SigningKey key : keys) {
+            if (key.activatesAt() > now) {
+                break;
+            }
+            current = key;
+        }
+        return current;
+    }
+
+    /**
+     * Busca a chave pública correspondente ao <code>kid</code> do cabeçalho do token. Um
+     * <code>kid</code> desconhecido relê as chaves, pois pode ter sido criado por outra instância.
+     *
+     * @param kid identificador da chave
+     * @return chave pública, ou <code>null</code> se o <code>kid</code> não for conhecido
+     */
+    public PublicKey verificationKey(String kid) {
+        PublicKey key = keyRing().verification().get(kid);
+        if (Objects.nonNull(key)) {
+            return key;
+        }
+        lock.lock();
+        try {
+            // outra thread pode ter relido as chaves enquanto esta esperava
+            key = ring.verification().get(kid);
+            if (Objects.isNull(key) && clock.getAsLong() - loadedAt >= MIN_RELOAD_INTERVAL_MILLIS) {
+                key = load().verification().get(kid);
+            }
+            return key;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return documento JWKS (JSON) com todas as chaves públicas publicadas
+     */
+    public String jwks() {
+        return keyRing().jwks();
+    }
+
+    /**
+     * Relê as chaves, cria a atual e a próxima quando faltarem e remove as que já saíram da
+     * janela de sobreposição.
+     */
+    @Scheduled(initialDelayString = "${app.jwt.key-refresh-interval}", fixedDelayString = "${app.jwt.key-refresh-interval}")
+    public void refresh() {
+        lock.lock();
+        try {
+            load();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private KeyRing keyRing() {
+        KeyRing keys = ring;
+        if (Objects.nonNull(keys)) {
+            return keys;
+        }
+        lock.lock();
+        try {
+            return Objects.isNull(ring) ? load() : ring;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deve ser chamado com {@link #lock} adquirido.
+     */
+    private KeyRing load() {
+        long now = clock.getAsLong();
+        long start = Math.floorDiv(now, rotationMillis) * rotationMillis;
+
+        List<JwtSigningKeyEntity> stored = repository.findAllByOrderByActivatesAtAscKidAsc();
+        boolean createdCurrent = createIfAbsent(stored, start);
+        boolean createdNext = createIfAbsent(stored, start + rotationMillis);
+        if (createdCurrent || createdNext) {
+            stored = repository.findAllByOrderByActivatesAtAscKidAsc();
+        }
+
+        Map<String, SigningKey> known = new LinkedHashMap<>();
+        if (Objects.nonNull(ring)) {
+            ring.signing().forEach(key -> known.put(key.kid(), key));
+        }
+        List<SigningKey> published = new ArrayList<>();
+        List<String> expired = new ArrayList<>();
+        for (int i = 0; i < stored.size(); i++) {
+            JwtSigningKeyEntity entity = stored.get(i);
+            long retiredUntil = i == stored.size() - 1
+                    ? Long.MAX_VALUE
+                    : stored.get(i + 1).getActivatesAt().toEpochMilli() + overlapMillis;
+            if (retiredUntil > now) {
+                SigningKey key = known.get(entity.getKid());
+                published.add(Objects.nonNull(key) ? key : decode(entity));
+            } else {
+                expired.add(entity.getKid());
+            }
+        }
+        if (!expired.isEmpty()) {
+            repository.deleteAllByIdInBatch(expired);
+            log.info("load() -> Chaves de assinatura removidas após a sobreposição: {}.", expired);
+        }
+
+        KeyRing keys = publish(published);
+        ring = keys;
+        loadedAt = now;
+        return keys;
+    }
+
+    private boolean createIfAbsent(List<JwtSigningKeyEntity> stored, long activatesAt) {
+        String kid = "rs256-" + activatesAt;
+        if (stored.stream().anyMatch(key -> key.getKid().equals(kid))) {
+            return false;
+        }
+        KeyPair keyPair = generate();
+        try {
+            repository.saveAndFlush(JwtSigningKeyEntity.builder()
+                    .kid(kid)
+                    .publicKey(keyPair.getPublic().getEncoded())
+                    .privateKey(encrypt(kid, keyPair.getPrivate().getEncoded()))
+                    .activatesAt(Instant.ofEpochMilli(activatesAt))
+                    .createdAt(Instant.ofEpochMilli(clock.getAsLong()))
+                    .build());
+            log.info("createIfAbsent() -> Chave de assinatura {} criada, ativa a partir de {}.", kid, Instant.ofEpochMilli(activatesAt));
+        } catch (DataIntegrityViolationException e) {
+            log.info("createIfAbsent() -> Chave de assinatura {} já criada por outra instância.", kid);
+        }
+        return true;
+    }
+
+    private KeyRing publish(List<SigningKey> keys) {
+        Map<String, PublicKey> verification = new LinkedHashMap<>();
+        List<Map<String, String>> jwkList = new ArrayList<>();
+        for (SigningKey key : keys) {
+            verification.put(key.kid(), key.keyPair().getPublic());
+            jwkList.add(toJwk(key));
+        }
+        try {
+            return new KeyRing(List.copyOf(keys), Map.copyOf(verification),
+                    objectMapper.writeValueAsString(Map.of("keys", jwkList)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar JWKS", e);
+        }
+    }
+
+    private static Map<String, String> toJwk(SigningKey key) {
+        RSAPublicKey publicKey = (RSAPublicKey) key.keyPair().getPublic();
+        Map<String, String> jwk = new LinkedHashMap<>();
+        jwk.put("kty", "RSA");
+        jwk.put("use", "sig");
+        jwk.put("alg", "RS256");
+        jwk.put("kid", key.kid());
+        jwk.put("n", base64Url(publicKey.getModulus()));
+        jwk.put("e", base64Url(publicKey.getPublicExponent()));
+        return jwk;
+    }
+
+    private static String base64Url(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        // remove o byte de sinal que o BigInteger acrescenta a valores positivos
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private SigningKey decode(JwtSigningKeyEntity entity) {
+        try {
+            KeyFactory factory = KeyFactory.getInstance("RSA");
+            PublicKey publicKey = factory.generatePublic(new X509EncodedKeySpec(entity.getPublicKey()));
+            PrivateKey privateKey = factory.generatePrivate(
+                    new PKCS8EncodedKeySpec(decrypt(entity.getKid(), entity.getPrivateKey())));
+            return new SigningKey(entity.getKid(), new KeyPair(publicKey, privateKey), entity.getActivatesAt().toEpochMilli());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao ler a chave de assinatura " + entity.getKid()
+                    + "; verifique app.jwt.key-encryption-secret", e);
+        }
+    }
+
+    private byte[] encrypt(String kid, byte[] plain) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            // o kid autentica o registro: a chave cifrada não pode ser trocada de linha
+            cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+            byte[] sealed = cipher.doFinal(plain);
+            byte[] stored = Arrays.copyOf(iv, IV_LENGTH + sealed.length);
+            System.arraycopy(sealed, 0, stored, IV_LENGTH, sealed.length);
+            return stored;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao cifrar a chave de assinatura " + kid, e);
+        }
+    }
+
+    private byte[] decrypt(String kid, byte[] stored) throws GeneralSecurityException {
+        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+        cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_LENGTH_BITS, stored, 0, IV_LENGTH));
+        cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+        return cipher.doFinal(stored, IV_LENGTH, stored.length - IV_LENGTH);
+    }
+
+    private static SecretKey deriveEncryptionKey(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            return new SecretKeySpec(digest, "AES");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    private static KeyPair generate() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(KEY_SIZE);
+            return generator.generateKeyPair();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("RSA indisponível", e);
+        }
+    }
+
+    /**
+     * Par de chaves de assinatura com seu identificador.
+     *
+     * @param kid         identificador publicado no cabeçalho dos tokens e no JWKS
+     * @param keyPair     par de chaves RSA
+     * @param activatesAt instante, em milissegundos, a partir do qual a chave assina os novos tokens
+     */
+    public record SigningKey(String kid, KeyPair keyPair, long activatesAt) {
+
+        public PrivateKey privateKey() {
+            return keyPair.getPrivate();
+        }
+    }
+
+    /**
+     * Chaves publicadas, em ordem de ativação, com o JWKS já serializado.
+     */
+    private record KeyRing(List<SigningKey> signing, Map<String, PublicKey> verification, String jwks) {
+    }
+}
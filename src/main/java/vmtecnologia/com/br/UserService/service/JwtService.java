@@ -1,42 +1,76 @@
 package vmtecnologia.com.br.UserService.service;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 import vmtecnologia.com.br.UserService.entity.UserEntity;
 
+import java.security.Key;
 import java.util.Date;
+import java.util.Objects;
+import java.util.UUID;
 
 /**
  * Componente responsável por operações de geração e validação de tokens JWT.
  *
- * <p>Utiliza o segredo configurado em <code>app.jwt.secret</code> e tempo de
- * expiração em <code>app.jwt.expiration</code> para assinatura e verificação
- * de tokens.</p>
+ * <p>Os tokens são assinados com RS256 pela chave atual do {@link JwtKeyService}, cujo
+ * identificador vai no cabeçalho <code>kid</code>. A verificação escolhe a chave pública
+ * pelo <code>kid</code>, o que permite a outros serviços validar os tokens localmente
+ * a partir do JWKS publicado. O tempo de expiração vem de <code>app.jwt.expiration</code>.</p>
  */
 @Component
 public class JwtService {
 
+    private final JwtKeyService jwtKeyService;
+
     /**
-     * Chave secreta para assinatura dos tokens JWT, definida em properties.
+     * Parser imutável e thread-safe, reutilizado em todas as verificações.
      */
-    @Value("${app.jwt.secret}")
-    private String secret;
+    private final JwtParser parser;
 
     /**
      * Tempo de expiração do token em milissegundos (por exemplo, 3600000 = 1h).
      */
-    @Value("${app.jwt.expiration}") // ex: 3600000ms = 1h
+    @Value("${app.jwt.expiration}") // ex: 900000ms = 15min
     private long expiration;
 
+    public JwtService(JwtKeyService jwtKeyService) {
+        this.jwtKeyService = jwtKeyService;
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        // tokens sem kid não têm chave correspondente
+                        Key key = Objects.isNull(header.getKeyId()) ? null : jwtKeyService.verificationKey(header.getKeyId());
+                        if (Objects.isNull(key)) {
+                            throw new JwtException("Chave de assinatura desconhecida: " + header.getKeyId());
+                        }
+                        return key;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @return tempo de expiração do token de acesso em milissegundos
+     */
+    public long getExpiration() {
+        return expiration;
+    }
+
     /**
      * Gera um token JWT para o usuário fornecido.
      *
-     * <p>Define o <strong>subject</strong> como o e-mail do usuário, a data de emissão
-     * e a data de expiração calculada a partir do tempo atual mais o valor configurado.</p>
+     * <p>Define o <strong>subject</strong> como o e-mail do usuário, um identificador único
+     * (<code>jti</code>, usado na revogação), a data de emissão e a data de expiração
+     * calculada a partir do tempo atual mais o valor configurado.</p>
      *
      * @param user entidade de usuário, cujo e-mail será usado como subject
      * @return token JWT assinado em formato compacto (String)
@@ -44,11 +78,14 @@ public class JwtService {
     public String generateToken(UserEntity user) {
         Date now = new Date();
         Date exp = new Date(now.getTime() + expiration);
+        JwtKeyService.SigningKey key = jwtKeyService.currentKey();
         return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, key.kid())
                 .setSubject(user.getEmail())
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(now)
                 .setExpiration(exp)
-                .signWith(Keys.hmacShaKeyFor(secret.getBytes()), SignatureAlgorithm.HS256)
+                .signWith(key.privateKey(), SignatureAlgorithm.RS256)
                 .compact();
     }
 
@@ -61,41 +98,40 @@ public class JwtService {
      *         e o token não estiver expirado; <code>false</code> caso contrário
      */
     public boolean validateToken(String token, UserDetails user) {
-        String username = extractUsername(token);
-        return username.equals(user.getUsername()) && !isTokenExpired(token);
+        return validateToken(parseClaims(token), user);
     }
 
     /**
-     * Extrai o nome de usuário (subject) de um token JWT.
+     * Valida claims já extraídas de um token para o usuário fornecido, evitando
+     * uma nova verificação de assinatura.
      *
-     * @param token string do token JWT
-     * @return valor do <code>subject</code> contido no token (neste caso, e-mail)
+     * @param claims claims obtidas por {@link #parseClaims(String)}
+     * @param user   detalhes do usuário para comparar o subject
+     * @return <code>true</code> se o subject corresponder ao usuário e o token não estiver expirado
      */
-    public String extractUsername(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(secret.getBytes())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    public boolean validateToken(Claims claims, UserDetails user) {
+        return claims.getSubject().equals(user.getUsername()) && !claims.getExpiration().before(new Date());
     }
 
     /**
-     * Verifica se um token JWT está expirado.
+     * Verifica a assinatura do token e retorna suas claims.
      *
-     * @param token string do token JWT a ser verificado
-     * @return <code>true</code> se a data de expiração do token for anterior
-     *         à data atual; <code>false</code> caso contrário
+     * @param token string do token JWT
+     * @return claims do token (subject, jti, emissão e expiração)
+     * @throws io.jsonwebtoken.JwtException se o token for inválido, adulterado ou estiver expirado
      */
-    private boolean isTokenExpired(String token) {
-        Date exp = Jwts.parserBuilder()
-                .setSigningKey(secret.getBytes())
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getExpiration();
-        return exp.before(new Date());
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
     }
 
+    /**
+     * Extrai o nome de usuário (subject) de um token JWT.
+     *
+     * @param token string do token JWT
+     * @return valor do <code>subject</code> contido no token (neste caso, e-mail)
+     */
+    public String extractUsername(String token) {
+        return parseClaims(token).getSubject();
+    }
 
 }
@@ -0,0 +1,217 @@
+package vmtecnologia.com.br.UserService.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import vmtecnologia.com.br.UserService.exception.AccountLockedException;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Serviço que controla tentativas de login malsucedidas por conta,
+ * bloqueando temporariamente e-mails que excedem o limite configurado.
+ *
+ * <p>As falhas são mantidas em memória, em janelas deslizantes por e-mail,
+ * distribuídas em <em>stripes</em> independentes (cada uma com seu próprio lock)
+ * para reduzir contenção. Cada stripe tem capacidade fixa, de modo que o consumo
+ * de memória permanece limitado mesmo com milhões de e-mails distintos sendo atacados.</p>
+ *
+ * <p>Ao exceder a capacidade, entre as {@value #EVICTION_SAMPLE} contas menos recentes é
+ * descartada a com menos falhas dentro da janela (a mais antiga, no empate). Assim, uma
+ * rajada de e-mails distintos, cada um com uma falha, não apaga a janela de uma conta
+ * próxima do bloqueio.</p>
+ *
+ * <p>Configuração em <code>app.login.max-failures</code>, <code>app.login.window</code>
+ * (milissegundos) e <code>app.login.max-tracked-accounts</code>.</p>
+ */
+@Service
+public class LoginAttemptService {
+
+    private static final int STRIPES = 64;
+
+    /**
+     * Quantidade de contas menos recentes avaliadas na escolha da que será descartada.
+     */
+    static final int EVICTION_SAMPLE = 16;
+
+    private final int maxFailures;
+    private final long windowMillis;
+    private final Stripe[] stripes;
+    private final LongSupplier clock;
+
+    @Autowired
+    public LoginAttemptService(@Value("${app.login.max-failures}") int maxFailures,
+                               @Value("${app.login.window}") long windowMillis,
+                               @Value("${app.login.max-tracked-accounts}") int maxTrackedAccounts) {
+        this(maxFailures, windowMillis, maxTrackedAccounts, System::currentTimeMillis);
+    }
+
+    LoginAttemptService(int maxFailures, long windowMillis, int maxTrackedAccounts, LongSupplier clock) {
+        if (maxFailures <= 0 || windowMillis <= 0 || maxTrackedAccounts <= 0) {
+            throw new IllegalArgumentException("configuração de bloqueio de login inválida");
+        }
+        this.maxFailures = maxFailures;
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+        this.stripes = new Stripe[STRIPES];
+        int perStripe = Math.max(1, maxTrackedAccounts / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+    }
+
+    /**
+     * Verifica se o e-mail pode tentar autenticar neste momento.
+     *
+     * @param email e-mail informado no login
+     * @throws AccountLockedException se a conta atingiu o limite de falhas dentro da janela
+     */
+    public void checkAllowed(String email) {
+        String key = normalize(email);
+        Stripe stripe = stripeFor(key);
+        long now = clock.getAsLong();
+        long retryAfterMillis;
+        synchronized (stripe) {
+            FailureWindow window = stripe.get(key);
+            if (Objects.isNull(window)) {
+                return;
+            }
+            retryAfterMillis = window.lockedFor(now, maxFailures, windowMillis);
+        }
+        if (retryAfterMillis > 0) {
+            throw new AccountLockedException((retryAfterMillis + 999) / 1000);
+        }
+    }
+
+    /**
+     * Registra uma tentativa de login malsucedida para o e-mail.
+     *
+     * @param email e-mail informado no login
+     */
+    public void recordFailure(String email) {
+        String key = normalize(email);
+        Stripe stripe = stripeFor(key);
+        long now = clock.getAsLong();
+        synchronized (stripe) {
+            stripe.computeIfAbsent(key, k -> new FailureWindow(maxFailures)).add(now);
+            if (stripe.size() > stripe.capacity) {
+                stripe.evict(key, now, windowMillis);
+            }
+        }
+    }
+
+    /**
+     * Limpa o histórico de falhas após um login bem-sucedido.
+     *
+     * @param email e-mail autenticado
+     */
+    public void reset(String email) {
+        String key = normalize(email);
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.remove(key);
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Janelas de falha em ordem de acesso, limitadas a uma capacidade fixa.
+     * Acesso sempre sincronizado na própria instância.
+     */
+    private static final class Stripe extends LinkedHashMap<String, FailureWindow> {
+
+        private final int capacity;
+
+        private Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        /**
+         * Descarta, entre as contas menos recentes, a com menos falhas na janela.
+         *
+         * @param keep conta que acabou de registrar a falha, nunca descartada
+         */
+        private void evict(String keep, long now, long windowMillis) {
+            String victim = null;
+            int fewest = Integer.MAX_VALUE;
+            int sampled = 0;
+            for (Map.Entry<String, FailureWindow> entry : entrySet()) {
+                if (sampled++ == EVICTION_SAMPLE) {
+                    break;
+                }
+                if (entry.getKey().equals(keep)) {
+                    continue;
+                }
+                int failures = entry.getValue().failuresSince(now - windowMillis);
+                if (failures < fewest) {
+                    fewest = failures;
+                    victim = entry.getKey();
+                }
+            }
+            if (Objects.nonNull(victim)) {
+                remove(victim);
+            }
+        }
+    }
+
+    /**
+     * Janela deslizante das últimas <code>maxFailures</code> falhas, guardadas
+     * em um buffer circular de timestamps.
+     */
+    private static final class FailureWindow {
+
+        private final long[] timestamps;
+        private int next;
+        private int count;
+
+        private FailureWindow(int maxFailures) {
+            this.timestamps = new long[maxFailures];
+        }
+
+        private void add(long now) {
+            timestamps[next] = now;
+            next = (next + 1) % timestamps.length;
+            if (count < timestamps.length) {
+                count++;
+            }
+        }
+
+        /**
+         * @return quantidade de falhas posteriores a <code>since</code>
+         */
+        private int failuresSince(long since) {
+            int failures = 0;
+            for (int i = 0; i < count; i++) {
+                if (timestamps[i] > since) {
+                    failures++;
+                }
+            }
+            return failures;
+        }
+
+        /**
+         * @return milissegundos restantes de bloqueio, ou 0 se a conta está liberada
+         */
+        private long lockedFor(long now, int maxFailures, long windowMillis) {
+            if (count < maxFailures) {
+                return 0;
+            }
+            // com o buffer cheio, a posição "next" guarda a falha mais antiga
+            long oldest = timestamps[next];
+            return Math.max(0, oldest + windowMillis - now);
+        }
+    }
+}
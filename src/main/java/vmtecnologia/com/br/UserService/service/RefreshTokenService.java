@@ -0,0 +1,193 @@
+package vmtecnologia.com.br.UserService.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import vmtecnologia.com.br.UserService.datasource.ShardContext;
+import vmtecnologia.com.br.UserService.entity.RefreshTokenEntity;
+import vmtecnologia.com.br.UserService.exception.InvalidRefreshTokenException;
+import vmtecnologia.com.br.UserService.repository.RefreshTokenRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+
+/**
+ * Serviço que emite, rotaciona e revoga refresh tokens opacos.
+ *
+ * <p>O token entregue ao cliente é um valor aleatório de 256 bits; no servidor
+ * guarda-se apenas o seu hash SHA-256, associado ao e-mail do usuário e à data
+ * de expiração. Cada token é de uso único: ao ser trocado por um novo token de
+ * acesso, é removido e substituído por outro (rotação).</p>
+ *
+ * <p>Os tokens ficam na tabela <code>refresh_tokens</code>, compartilhada por todas as
+ * instâncias: a renovação funciona em qualquer uma e após reinícios, e a revogação alcança
+ * todas. Cada operação roda em transação própria (no shard 0, com particionamento), fora da
+ * transação de quem chama; a remoção condicionada garante o uso único entre instâncias.</p>
+ *
+ * <p>O armazenamento é limitado a <code>app.jwt.refresh-max-per-user</code> tokens
+ * ativos por usuário (os mais antigos são descartados) e os expirados são
+ * removidos periodicamente.</p>
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecureRandom random = new SecureRandom();
+    private final RefreshTokenRepository repository;
+    private final TransactionTemplate transaction;
+    private final LongSupplier clock;
+
+    /**
+     * Tempo de expiração do refresh token em milissegundos.
+     */
+    @Value("${app.jwt.refresh-expiration}")
+    private long refreshExpiration;
+
+    /**
+     * Quantidade máxima de refresh tokens ativos por usuário.
+     */
+    @Value("${app.jwt.refresh-max-per-user}")
+    private int maxPerUser;
+
+    @Autowired
+    public RefreshTokenService(RefreshTokenRepository repository, PlatformTransactionManager transactionManager) {
+        this(repository, transactionManager, System::currentTimeMillis);
+    }
+
+    RefreshTokenService(RefreshTokenRepository repository, PlatformTransactionManager transactionManager,
+                        LongSupplier clock) {
+        this.repository = repository;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.clock = clock;
+    }
+
+    /**
+     * Emite um novo refresh token para o usuário.
+     *
+     * @param email e-mail do usuário autenticado
+     * @return refresh token opaco a ser entregue ao cliente
+     */
+    public String issue(String email) {
+        byte[] raw = new byte[TOKEN_BYTES];
+        random.nextBytes(raw);
+        String token = ENCODER.encodeToString(raw);
+        String key = hash(token);
+        long now = clock.getAsLong();
+
+        inTransaction(status -> {
+            repository.save(RefreshTokenEntity.builder()
+                    .tokenHash(key)
+                    .email(email)
+                    .expiresAt(Instant.ofEpochMilli(now + refreshExpiration))
+                    .createdAt(Instant.ofEpochMilli(now))
+                    .build());
+            // o token recém-emitido é sempre mantido; dos demais, ficam os mais novos
+            List<String> discarded = repository.findTokenHashesByEmail(email).stream()
+                    .filter(other -> !other.equals(key))
+                    .skip(Math.max(maxPerUser - 1, 0))
+                    .toList();
+            if (!discarded.isEmpty()) {
+                repository.deleteAllByIdInBatch(discarded);
+            }
+            return null;
+        });
+        return token;
+    }
+
+    /**
+     * Consome (invalida) o refresh token, retornando o e-mail do seu dono.
+     *
+     * @param token refresh token apresentado pelo cliente
+     * @return e-mail do usuário a quem o token foi emitido
+     * @throws InvalidRefreshTokenException se o token não existir, já tiver sido usado ou estiver expirado
+     */
+    public String consume(String token) {
+        String key = hash(token);
+        // só quem remove a linha consome o token: duas renovações simultâneas não passam ambas
+        RefreshTokenEntity entry = inTransaction(status -> repository.findById(key)
+                .filter(found -> repository.deleteByTokenHash(key) == 1)
+                .orElse(null));
+        if (Objects.isNull(entry) || !entry.getExpiresAt().isAfter(Instant.ofEpochMilli(clock.getAsLong()))) {
+            throw new InvalidRefreshTokenException();
+        }
+        return entry.getEmail();
+    }
+
+    /**
+     * Revoga um refresh token específico, se existir.
+     *
+     * @param token refresh token a revogar
+     */
+    public void revoke(String token) {
+        String key = hash(token);
+        inTransaction(status -> repository.deleteByTokenHash(key));
+    }
+
+    /**
+     * Revoga todos os refresh tokens de um usuário (ex.: troca de senha ou exclusão).
+     *
+     * @param email e-mail do usuário
+     */
+    public void revokeAll(String email) {
+        revokeAll(List.of(email));
+    }
+
+    /**
+     * Revoga, em um único <code>DELETE</code>, todos os refresh tokens dos usuários
+     * (ex.: exclusão em lote).
+     *
+     * @param emails e-mails dos usuários
+     */
+    public void revokeAll(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        inTransaction(status -> repository.deleteByEmailIn(emails));
+    }
+
+    /**
+     * Remove periodicamente os refresh tokens expirados.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.refresh-purge-interval}")
+    public void purgeExpired() {
+        Integer removed = inTransaction(status -> repository.deleteExpired(Instant.ofEpochMilli(clock.getAsLong())));
+        log.debug("purgeExpired() -> {} refresh tokens expirados removidos.", removed);
+    }
+
+    private <T> T inTransaction(TransactionCallback<T> action) {
+        // fora da transação de quem chama e, com particionamento, sempre no shard 0
+        Integer previous = ShardContext.set(0);
+        try {
+            return transaction.execute(action);
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return ENCODER.encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
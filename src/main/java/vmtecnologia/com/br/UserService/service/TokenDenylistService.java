@@ -0,0 +1,85 @@
+package vmtecnologia.com.br.UserService.service;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Lista de negação (denylist) em memória dos tokens JWT revogados, indexada pelo
+ * identificador do token (<code>jti</code>).
+ *
+ * <p>A consulta é O(1) por hash. As entradas ficam também em um conjunto ordenado
+ * pela expiração do token, de onde são removidas assim que o próprio token expira:
+ * a partir daí a assinatura/expiração já o rejeita e a entrada se torna desnecessária.
+ * Assim, a memória usada é proporcional apenas aos tokens revogados e ainda válidos.</p>
+ */
+@Service
+public class TokenDenylistService {
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final NavigableSet<Revocation> byExpiration = new ConcurrentSkipListSet<>(
+            Comparator.comparingLong(Revocation::expiresAt).thenComparing(Revocation::jti));
+
+    /**
+     * Revoga o token até a sua expiração.
+     *
+     * @param jti       identificador do token
+     * @param expiresAt instante de expiração do token, em milissegundos
+     */
+    public void revoke(String jti, long expiresAt) {
+        long now = System.currentTimeMillis();
+        evictExpired(now);
+        if (expiresAt <= now) {
+            return;
+        }
+        if (Objects.isNull(revoked.putIfAbsent(jti, expiresAt))) {
+            byExpiration.add(new Revocation(expiresAt, jti));
+        }
+    }
+
+    /**
+     * @param jti identificador do token
+     * @return <code>true</code> se o token foi revogado
+     */
+    public boolean isRevoked(String jti) {
+        return Objects.nonNull(jti) && revoked.containsKey(jti);
+    }
+
+    /**
+     * Remove periodicamente as revogações de tokens já expirados.
+     */
+    @Scheduled(fixedDelayString = "${app.jwt.denylist-purge-interval}")
+    public void purgeExpired() {
+        evictExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * @return quantidade de tokens revogados ainda mantidos em memória
+     */
+    public int size() {
+        return revoked.size();
+    }
+
+    private void evictExpired(long now) {
+        // o conjunto é ordenado pela expiração: para no primeiro token ainda válido
+        Iterator<Revocation> it = byExpiration.iterator();
+        while (it.hasNext()) {
+            Revocation head = it.next();
+            if (head.expiresAt() > now) {
+                return;
+            }
+            it.remove();
+            revoked.remove(head.jti(), head.expiresAt());
+        }
+    }
+
+    private record Revocation(long expiresAt, String jti) {
+    }
+}
@@ -3,29 +3,54 @@ package vmtecnologia.com.br.UserService.service;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+import vmtecnologia.com.br.UserService.cache.EmailBloomFilter;
+import vmtecnologia.com.br.UserService.cache.UnknownEmailCache;
+import vmtecnologia.com.br.UserService.cache.UserPageCache;
+import vmtecnologia.com.br.UserService.cache.UserResponseCache;
+import vmtecnologia.com.br.UserService.datasource.PrimaryReadContext;
 import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.entity.UserTombstoneEntity;
 import vmtecnologia.com.br.UserService.exception.*;
+import vmtecnologia.com.br.UserService.feed.UserChangeEvent;
+import vmtecnologia.com.br.UserService.feed.UserChangeFeed;
 import vmtecnologia.com.br.UserService.mapper.UserMapper;
 import vmtecnologia.com.br.UserService.model.PageModel;
+import vmtecnologia.com.br.UserService.model.request.BulkUserRequest;
 import vmtecnologia.com.br.UserService.model.request.UserModelRequest;
 import vmtecnologia.com.br.UserService.model.response.UserModelResponse;
+import vmtecnologia.com.br.UserService.repository.UserKey;
 import vmtecnologia.com.br.UserService.repository.UserRepository;
+import vmtecnologia.com.br.UserService.repository.UserTombstoneRepository;
 import vmtecnologia.com.br.UserService.repository.specification.UserSpecification;
+import vmtecnologia.com.br.UserService.sync.ModificationSequence;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import java.util.Optional;
 
+import static vmtecnologia.com.br.UserService.logging.LogMarkers.HOT_PATH;
+
 /**
  * Serviço de negócio para gerenciamento de usuários, encapsulando operações
  * de criação, atualização, consulta, listagem com filtros e paginação,
- * e remoção de usuários.
+ * e remoção de usuários, inclusive em lote.
+ *
+ * <p>Toda alteração é publicada no {@link UserChangeFeed} após o commit; as exclusões também
+ * ficam registradas ({@link UserTombstoneEntity}) para a sincronização incremental.</p>
  *
  * <p>Utiliza transações para garantir consistência em operações
  * de escrita e leitura.</p>
@@ -39,6 +64,20 @@ public class UserService {
     private final PasswordEncoder encoder;
     private final UserMapper userMapper;
     private final EmailService emailService;
+    private final UnknownEmailCache unknownEmailCache;
+    private final EmailBloomFilter emailBloomFilter;
+    private final RefreshTokenService refreshTokenService;
+    private final UserResponseCache userResponseCache;
+    private final UserPageCache userPageCache;
+    private final UserChangeFeed userChangeFeed;
+    private final UserTombstoneRepository tombstoneRepository;
+    private final ModificationSequence modificationSequence;
+
+    /**
+     * Quantidade máxima de usuários alterados ou removidos por operação em lote.
+     */
+    @Value("${app.user.bulk.max-selection}")
+    private int maxBulkSelection;
 
     /**
      * Cria um novo usuário a partir dos dados fornecidos.
@@ -46,6 +85,10 @@ public class UserService {
      * <p>Valida unicidade do e-mail, regras de negócio (senha, username e e-mail),
      * codifica a senha, persiste a entidade e envia e-mail de boas-vindas.</p>
      *
+     * <p>A consulta de unicidade só é feita quando o {@link EmailBloomFilter} indica
+     * que o e-mail pode estar cadastrado; nos demais casos a constraint única do banco
+     * é a garantia final e sua violação é convertida em {@link EmailAlreadyExistsException}.</p>
+     *
      * @param userModelRequest DTO contendo username, e-mail, senha e flag de habilitado
      * @return DTO {@link UserModelResponse} com dados do usuário recém-criado
      * @throws EmailAlreadyExistsException    se já existir usuário com o mesmo e-mail
@@ -56,16 +99,30 @@ public class UserService {
      */
     @Transactional
     public UserModelResponse createUser(UserModelRequest userModelRequest) {
-        // checa se já existe
-        userRepository.findByEmail(userModelRequest.getEmail())
-                .ifPresent(u -> { throw new EmailAlreadyExistsException(userModelRequest.getEmail()); });
+        // checa se já existe (apenas quando o filtro não descarta o e-mail)
+        if (emailBloomFilter.mightContain(userModelRequest.getEmail())) {
+            userRepository.findByEmail(userModelRequest.getEmail())
+                    .ifPresent(u -> { throw new EmailAlreadyExistsException(userModelRequest.getEmail()); });
+        }
 
         validateUser(userModelRequest);
         String encode = encoder.encode(userModelRequest.getPassword());
         userModelRequest.setPassword(encode);
 
         UserEntity userEntity = userMapper.toEntity(userModelRequest);
-        UserEntity savedUser = userRepository.save(userEntity);
+        UserEntity savedUser;
+        try {
+            savedUser = userRepository.save(userEntity);
+        } catch (DataIntegrityViolationException ex) {
+            if (isEmailUniqueViolation(ex)) {
+                throw new EmailAlreadyExistsException(userModelRequest.getEmail());
+            }
+            throw ex;
+        }
+        emailBloomFilter.add(savedUser.getEmail());
+        unknownEmailCache.invalidate(savedUser.getEmail());
+        userPageCache.invalidate();
+        userChangeFeed.publish(UserChangeEvent.Type.CREATED, savedUser);
 
         emailService.sendUserCreationEmail(savedUser.getEmail(), savedUser.getUsername());
         return userMapper.toResponse(savedUser);
@@ -87,6 +144,24 @@ public class UserService {
      */
     @Transactional
     public UserModelResponse updateUser(UserModelRequest userModelRequest) {
+        return updateUser(userModelRequest, null);
+    }
+
+    /**
+     * Atualiza um usuário existente somente se ele ainda estiver na versão esperada.
+     *
+     * <p>A versão é conferida na leitura e novamente no <code>UPDATE</code> (controle de
+     * concorrência otimista): se outra requisição alterar o usuário entre as duas etapas,
+     * a atualização falha com {@link org.springframework.dao.OptimisticLockingFailureException}.</p>
+     *
+     * @param userModelRequest DTO contendo username, e-mail, senha e flag de habilitado
+     * @param expectedVersion  versão esperada (cabeçalho <code>If-Match</code>), ou <code>null</code> para qualquer versão
+     * @return DTO {@link UserModelResponse} com dados do usuário atualizado, já com a nova versão
+     * @throws UserNotFoundException        se não houver usuário cadastrado com o e-mail fornecido
+     * @throws PreconditionFailedException  se a versão atual for diferente da esperada
+     */
+    @Transactional
+    public UserModelResponse updateUser(UserModelRequest userModelRequest, Long expectedVersion) {
         validateUser(userModelRequest);
 
         Optional<UserEntity> userExist = userRepository.findByEmail(userModelRequest.getEmail());
@@ -94,12 +169,25 @@ public class UserService {
         if (userExist.isEmpty()) {
             throw new UserNotFoundException(userModelRequest.getEmail());
         }
+        Long currentVersion = userExist.get().getVersion();
+        if (Objects.nonNull(expectedVersion) && !expectedVersion.equals(currentVersion)) {
+            throw new PreconditionFailedException(userModelRequest.getEmail());
+        }
 
         UserEntity userEntity = userMapper.toEntity(userModelRequest);
         userEntity.setId(userExist.get().getId());
+        userEntity.setVersion(Objects.nonNull(expectedVersion) ? expectedVersion : currentVersion);
         userEntity.setPassword(encoder.encode(userModelRequest.getPassword()));
 
-        UserEntity updatedUser = userRepository.save(userEntity);
+        // flush para que a resposta já traga a versão incrementada
+        UserEntity updatedUser = userRepository.saveAndFlush(userEntity);
+        userResponseCache.invalidate(userEntity.getId());
+        userPageCache.invalidate();
+        // a atualização pode (re)habilitar o usuário
+        unknownEmailCache.invalidate(updatedUser.getEmail());
+        // a senha é sempre redefinida: sessões abertas com refresh token deixam de valer
+        refreshTokenService.revokeAll(updatedUser.getEmail());
+        userChangeFeed.publish(UserChangeEvent.Type.UPDATED, updatedUser);
         emailService.sendUserUpdateEmail(updatedUser.getEmail(), updatedUser.getUsername());
         return userMapper.toResponse(updatedUser);
     }
@@ -115,13 +203,25 @@ public class UserService {
     public UserModelResponse findById(Long id) {
         Optional<UserEntity> userEntity = userRepository.findById(id);
         if (userEntity.isEmpty()) {
-            log.error("findById() -> Usuario com ID {} não encontrado.", id);
+            log.atError().setMessage("findById() -> Usuario não encontrado.").addKeyValue("userId", id).log();
             throw new UserNotFoundException(id.toString());
         }
-        log.info("findById() -> Usuario com email {} encontrado.", userEntity.get().getEmail());
+        log.atInfo().addMarker(HOT_PATH).setMessage("findById() -> Usuario encontrado.")
+                .addKeyValue("userId", id).log();
         return userMapper.toResponse(userEntity.get());
     }
 
+    /**
+     * Busca apenas a versão atual de um usuário, sem carregar nem converter a entidade.
+     *
+     * @param id identificador único do usuário
+     * @return {@link Optional} com a versão, ou vazio se não existir usuário com o ID
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findVersionById(Long id) {
+        return userRepository.findVersionById(id);
+    }
+
     /**
      * Busca uma entidade de usuário por username e flag de habilitado.
      *
@@ -137,13 +237,19 @@ public class UserService {
     /**
      * Busca uma entidade de usuário por e-mail e flag de habilitado.
      *
+     * <p>Usada no login, na renovação do token e na carga do usuário autenticado, caminhos sem
+     * principal (a leitura das próprias escritas não se aplica) e logo após o cadastro. Por isso a
+     * consulta vai sempre ao primário ({@link PrimaryReadContext}): uma réplica atrasada recusaria
+     * o login de quem acabou de se cadastrar, e a ausência ficaria no cache de consultas e no
+     * {@link UnknownEmailCache}.</p>
+     *
      * @param email   e-mail cadastrado do usuário
      * @param enabled indica se retorna apenas habilitados (true) ou desabilitados (false)
      * @return {@link Optional} contendo {@link UserEntity} encontrado, ou vazio se não existir
      */
     @Transactional(readOnly = true)
     public Optional<UserEntity> findByEmailAndEnabled(String email, Boolean enabled) {
-        return userRepository.findByEmailAndEnabled(email, enabled);
+        return PrimaryReadContext.call(() -> userRepository.findByEmailAndEnabled(email, enabled));
     }
 
     /**
@@ -152,6 +258,10 @@ public class UserService {
      * <p>Suporta filtragem por username (partial match), e-mail (partial match)
      * e flag de habilitado, retornando um modelo de página com metadados.</p>
      *
+     * <p>Os IDs e o total de cada combinação de filtros e página ficam no {@link UserPageCache},
+     * invalidado por qualquer alteração feita por este serviço; em um acerto, só os usuários são
+     * carregados, pelo cache de segundo nível.</p>
+     *
      * @param username   termo parcial para busca no campo username (ignorado se nulo/vazio)
      * @param email      termo parcial para busca no campo e-mail (ignorado se nulo/vazio)
      * @param enabled    flag para filtrar habilitados/desabilitados (ignorado se nulo)
@@ -163,15 +273,18 @@ public class UserService {
     public PageModel<UserModelResponse> findAllUsers(String username, String email, Boolean enabled, Integer pageNumber, Integer pageSize) {
 
         PageRequest pageRequest = PageRequest.of(pageNumber, pageSize);
-        Specification<UserEntity> specification = UserSpecification.withFilters(username, email, enabled);
+        UserPageCache.PageKey key = new UserPageCache.PageKey(username, email, enabled, pageNumber, pageSize);
 
-        Page<UserEntity> entities = userRepository.findAll(specification, pageRequest);
-
-        if (entities.isEmpty()) {
-            log.info("findAllUsers() -> Nenhum usuário encontrado com os filtros fornecidos.");
+        Page<UserEntity> entities = cachedPage(key, pageRequest);
+        if (Objects.isNull(entities)) {
+            long generation = userPageCache.generation();
+            Specification<UserEntity> specification = UserSpecification.withFilters(username, email, enabled);
+            entities = userRepository.findAll(specification, pageRequest);
+            userPageCache.put(key, entities.stream().map(UserEntity::getId).toList(), entities.getTotalElements(), generation);
         }
 
-        log.info("findAllUsers() -> Encontrados {} usuários com os filtros fornecidos.", entities.getTotalElements());
+        log.atInfo().addMarker(HOT_PATH).setMessage("findAllUsers() -> Usuários encontrados com os filtros fornecidos.")
+                .addKeyValue("total", entities.getTotalElements()).log();
 
         List<UserModelResponse> userModelResponses = entities.stream()
                 .map(userMapper::toResponse)
@@ -186,6 +299,24 @@ public class UserService {
                 .build();
     }
 
+    /**
+     * Monta a página a partir dos IDs em cache.
+     *
+     * @return página, ou <code>null</code> se não estiver em cache ou se algum usuário dela não
+     *         existir mais (excluído depois da leitura da geração)
+     */
+    private Page<UserEntity> cachedPage(UserPageCache.PageKey key, PageRequest pageRequest) {
+        UserPageCache.CachedPage cached = userPageCache.get(key);
+        if (Objects.isNull(cached)) {
+            return null;
+        }
+        List<UserEntity> users = cached.ids().isEmpty() ? List.of() : userRepository.findAllByIdsInOrder(cached.ids());
+        if (users.size() != cached.ids().size()) {
+            return null;
+        }
+        return new PageImpl<>(users, pageRequest, cached.total());
+    }
+
     /**
      * Remove um usuário existente.
      *
@@ -194,12 +325,149 @@ public class UserService {
      */
     @Transactional
     public void deleteUser(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            log.error("deleteUser() -> Usuario com ID {} não encontrado.", userId);
+        Optional<String> email = userRepository.findEmailById(userId);
+        if (email.isEmpty()) {
+            log.atError().setMessage("deleteUser() -> Usuario não encontrado.").addKeyValue("userId", userId).log();
             throw new EntityNotFoundException("Usuário não encontrado");
         }
         userRepository.deleteById(userId);
-        log.info("deleteUser() -> Usuario com ID {} deletado com sucesso.", userId);
+        tombstoneRepository.save(tombstone(userId, email.get(), modificationSequence.next(), Instant.now()));
+        userResponseCache.invalidate(userId);
+        userPageCache.invalidate();
+        emailBloomFilter.remove(email.get());
+        refreshTokenService.revokeAll(email.get());
+        userChangeFeed.publishDeleted(userId, email.get());
+        log.atInfo().addMarker(HOT_PATH).setMessage("deleteUser() -> Usuario deletado com sucesso.")
+                .addKeyValue("userId", userId).log();
+    }
+
+    /**
+     * Habilita ou desabilita, em um único <code>UPDATE</code>, os usuários selecionados.
+     *
+     * <p>As respostas em cache são descartadas de uma vez; na habilitação, o cache negativo
+     * do login também, já que e-mails antes desabilitados passam a ser válidos. As chaves dos
+     * usuários selecionados que ainda não estão no novo estado são lidas antes, na mesma
+     * transação, e o <code>UPDATE</code> altera exatamente esses IDs: um usuário que passe a
+     * atender aos filtros depois da leitura não é alterado sem aparecer no feed, e os que já
+     * estavam no estado pedido não mudam de versão nem geram evento.</p>
+     *
+     * @param selection IDs e/ou filtros dos usuários, combinados com AND
+     * @param enabled   novo estado de habilitação
+     * @return quantidade de usuários alterados
+     * @throws BulkSelectionRequiredException se não houver IDs nem filtros
+     * @throws BulkSelectionTooLargeException se a seleção passar de <code>app.user.bulk.max-selection</code>
+     */
+    @Transactional
+    public long bulkSetEnabled(BulkUserRequest selection, boolean enabled) {
+        Specification<UserEntity> specification = bulkSpecification(selection)
+                .and(UserSpecification.withEnabledOtherThan(enabled));
+        List<UserKey> users = bulkKeys(specification);
+        if (users.isEmpty()) {
+            return 0;
+        }
+        int affected = userRepository.updateEnabled(UserSpecification.withIds(ids(users)), enabled);
+        userResponseCache.invalidateAll();
+        userPageCache.invalidate();
+        userChangeFeed.publishAll(enabled ? UserChangeEvent.Type.ENABLED : UserChangeEvent.Type.DISABLED, users, enabled);
+        if (enabled) {
+            unknownEmailCache.invalidateAll();
+        }
+        log.atInfo().setMessage("bulkSetEnabled() -> Usuarios alterados em lote.")
+                .addKeyValue("enabled", enabled).addKeyValue("affected", affected).log();
+        return affected;
+    }
+
+    /**
+     * Remove, em um único <code>DELETE</code>, os usuários selecionados.
+     *
+     * <p>IDs e e-mails são lidos antes (uma consulta de projeção) para retirar os e-mails do
+     * {@link EmailBloomFilter}, revogar os refresh tokens e publicar as exclusões no feed de
+     * alterações; as respostas em cache são descartadas de uma vez. O <code>DELETE</code> remove
+     * exatamente os IDs lidos, para que nenhum usuário seja excluído sem esse acompanhamento.</p>
+     *
+     * @param selection IDs e/ou filtros dos usuários, combinados com AND
+     * @return quantidade de usuários removidos
+     * @throws BulkSelectionRequiredException se não houver IDs nem filtros
+     * @throws BulkSelectionTooLargeException se a seleção passar de <code>app.user.bulk.max-selection</code>
+     */
+    @Transactional
+    public long bulkDelete(BulkUserRequest selection) {
+        Specification<UserEntity> specification = bulkSpecification(selection);
+        List<UserKey> users = bulkKeys(specification);
+        if (users.isEmpty()) {
+            return 0;
+        }
+        long affected = userRepository.delete(UserSpecification.withIds(ids(users)));
+        long modSeq = modificationSequence.next();
+        Instant deletedAt = Instant.now();
+        tombstoneRepository.saveAll(users.stream().map(user -> tombstone(user.id(), user.email(), modSeq, deletedAt)).toList());
+        userResponseCache.invalidateAll();
+        userPageCache.invalidate();
+        users.forEach(user -> emailBloomFilter.remove(user.email()));
+        refreshTokenService.revokeAll(users.stream().map(UserKey::email).toList());
+        userChangeFeed.publishAll(UserChangeEvent.Type.DELETED, users, null);
+        log.atInfo().setMessage("bulkDelete() -> Usuarios deletados em lote.")
+                .addKeyValue("affected", affected).log();
+        return affected;
+    }
+
+    /**
+     * Combina IDs e filtros da seleção em lote, recusando a seleção vazia.
+     *
+     * @param selection IDs e/ou filtros dos usuários
+     * @return {@link Specification} com os critérios combinados com AND
+     * @throws BulkSelectionRequiredException se não houver IDs nem filtros
+     */
+    private Specification<UserEntity> bulkSpecification(BulkUserRequest selection) {
+        boolean noIds = Objects.isNull(selection.getIds()) || selection.getIds().isEmpty();
+        boolean noFilters = !StringUtils.hasLength(selection.getUsername()) && !StringUtils.hasLength(selection.getEmail())
+                && Objects.isNull(selection.getEnabled());
+        if (noIds && noFilters) {
+            throw new BulkSelectionRequiredException();
+        }
+        return UserSpecification.withIds(selection.getIds())
+                .and(UserSpecification.withFilters(selection.getUsername(), selection.getEmail(), selection.getEnabled()));
+    }
+
+    /**
+     * Lê as chaves da seleção em lote, uma além do limite para detectar o excesso sem carregar
+     * a seleção inteira: as chaves ficam em memória para o feed, o filtro de e-mails e os
+     * registros de exclusão.
+     *
+     * @param specification critérios da seleção
+     * @return chaves dos usuários selecionados
+     * @throws BulkSelectionTooLargeException se a seleção passar de <code>app.user.bulk.max-selection</code>
+     */
+    private List<UserKey> bulkKeys(Specification<UserEntity> specification) {
+        List<UserKey> users = userRepository.findKeys(specification, Limit.of(maxBulkSelection + 1));
+        if (users.size() > maxBulkSelection) {
+            log.atWarn().setMessage("bulkKeys() -> Seleção em lote acima do limite.")
+                    .addKeyValue("maxSelection", maxBulkSelection).log();
+            throw new BulkSelectionTooLargeException(maxBulkSelection);
+        }
+        return users;
+    }
+
+    private static List<Long> ids(List<UserKey> users) {
+        return users.stream().map(UserKey::id).toList();
+    }
+
+    private static UserTombstoneEntity tombstone(Long userId, String email, long modSeq, Instant deletedAt) {
+        return UserTombstoneEntity.builder().userId(userId).email(email).modSeq(modSeq).deletedAt(deletedAt).build();
+    }
+
+    /**
+     * Verifica se a violação de integridade foi causada pela constraint única de e-mail.
+     *
+     * @param ex exceção lançada ao persistir o usuário
+     * @return <code>true</code> se a constraint violada for {@link UserEntity#EMAIL_UNIQUE_CONSTRAINT}
+     */
+    private boolean isEmailUniqueViolation(DataIntegrityViolationException ex) {
+        Throwable cause = ex.getCause();
+        if (cause instanceof ConstraintViolationException violation && Objects.nonNull(violation.getConstraintName())) {
+            return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(UserEntity.EMAIL_UNIQUE_CONSTRAINT);
+        }
+        return false;
     }
 
     /**
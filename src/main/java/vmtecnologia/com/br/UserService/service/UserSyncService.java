@@ -0,0 +1,139 @@
+package vmtecnologia.com.br.UserService.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import vmtecnologia.com.br.UserService.datasource.PrimaryReadContext;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.entity.UserTombstoneEntity;
+import vmtecnologia.com.br.UserService.exception.InvalidWatermarkException;
+import vmtecnologia.com.br.UserService.mapper.UserMapper;
+import vmtecnologia.com.br.UserService.model.response.UserDeltaItem;
+import vmtecnologia.com.br.UserService.model.response.UserDeltaResponse;
+import vmtecnologia.com.br.UserService.repository.UserRepository;
+import vmtecnologia.com.br.UserService.repository.UserTombstoneRepository;
+import vmtecnologia.com.br.UserService.sync.ModificationSequence;
+import vmtecnologia.com.br.UserService.sync.Watermark;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static vmtecnologia.com.br.UserService.logging.LogMarkers.HOT_PATH;
+
+/**
+ * Sincronização incremental de usuários: devolve o que foi criado, alterado ou excluído depois
+ * de uma marca, para consumidores que não mantêm o feed de alterações aberto.
+ *
+ * <p>Usuários e exclusões são lidos pela sequência de modificação com paginação por chave
+ * (<code>(mod_seq, id) &gt; marca</code>, ambos indexados), de modo que o custo acompanha a
+ * quantidade de alterações e não o tamanho do cadastro. A leitura para antes da primeira sequência
+ * de uma transação ainda em andamento ({@link ModificationSequence#visibleBound()}).</p>
+ *
+ * <p>As leituras vão sempre ao primário ({@link PrimaryReadContext}): o limite é calculado a partir
+ * do que já foi confirmado no primário, e uma réplica atrasada devolveria a página sem alterações
+ * já confirmadas, que ficariam para trás da marca devolvida ao consumidor.</p>
+ *
+ * <p>Os registros de exclusão são mantidos por <code>app.user.delta-sync.tombstone-retention</code>
+ * milissegundos: um consumidor parado por mais tempo que isso deve recarregar o cadastro inteiro
+ * (marca vazia), pois as exclusões mais antigas já não são devolvidas.</p>
+ */
+@Slf4j
+@Service
+public class UserSyncService {
+
+    private final UserRepository userRepository;
+    private final UserTombstoneRepository tombstoneRepository;
+    private final ModificationSequence modificationSequence;
+    private final UserMapper userMapper;
+    private final int maxLimit;
+    private final long tombstoneRetentionMillis;
+
+    public UserSyncService(UserRepository userRepository,
+                           UserTombstoneRepository tombstoneRepository,
+                           ModificationSequence modificationSequence,
+                           UserMapper userMapper,
+                           @Value("${app.user.delta-sync.max-limit}") int maxLimit,
+                           @Value("${app.user.delta-sync.tombstone-retention}") long tombstoneRetentionMillis) {
+        this.userRepository = userRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.modificationSequence = modificationSequence;
+        this.userMapper = userMapper;
+        this.maxLimit = maxLimit;
+        this.tombstoneRetentionMillis = tombstoneRetentionMillis;
+    }
+
+    /**
+     * Busca as alterações posteriores à marca, em ordem de sequência de modificação.
+     *
+     * @param watermark marca devolvida pela chamada anterior; vazia para o cadastro inteiro
+     * @param limit     quantidade máxima de itens (limitada a <code>app.user.delta-sync.max-limit</code>)
+     * @return página de alterações, com a marca para a próxima chamada
+     * @throws InvalidWatermarkException se a marca não estiver no formato esperado
+     */
+    @Transactional(readOnly = true)
+    public UserDeltaResponse findChangesSince(String watermark, int limit) {
+        Watermark from = Watermark.parse(watermark);
+        int size = Math.clamp(limit, 1, maxLimit);
+        long bound = modificationSequence.visibleBound();
+
+        // um a mais de cada lado para saber se há próxima página
+        List<UserEntity> changed = PrimaryReadContext.call(() ->
+                userRepository.findChangedSince(from.seq(), from.id(), bound, Limit.of(size + 1)));
+        List<UserTombstoneEntity> deleted = PrimaryReadContext.call(() ->
+                tombstoneRepository.findDeletedSince(from.seq(), from.id(), bound, Limit.of(size + 1)));
+
+        List<UserDeltaItem> items = new ArrayList<>(Math.min(size, changed.size() + deleted.size()));
+        Watermark next = from;
+        int u = 0;
+        int d = 0;
+        while (items.size() < size && (u < changed.size() || d < deleted.size())) {
+            boolean takeUser = d >= deleted.size()
+                    || (u < changed.size() && compare(changed.get(u), deleted.get(d)) < 0);
+            if (takeUser) {
+                UserEntity user = changed.get(u++);
+                items.add(UserDeltaItem.builder()
+                        .id(user.getId())
+                        .email(user.getEmail())
+                        .user(userMapper.toResponse(user))
+                        .build());
+                next = new Watermark(user.getModSeq(), user.getId());
+            } else {
+                UserTombstoneEntity tombstone = deleted.get(d++);
+                items.add(UserDeltaItem.builder()
+                        .id(tombstone.getUserId())
+                        .email(tombstone.getEmail())
+                        .deleted(true)
+                        .build());
+                next = new Watermark(tombstone.getModSeq(), tombstone.getUserId());
+            }
+        }
+        boolean hasMore = u < changed.size() || d < deleted.size();
+
+        log.atInfo().addMarker(HOT_PATH).setMessage("findChangesSince() -> Alterações desde a marca.")
+                .addKeyValue("watermark", from).addKeyValue("items", items.size()).log();
+        return UserDeltaResponse.builder()
+                .items(items)
+                .watermark(next.toString())
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Remove os registros de exclusão mais antigos que <code>app.user.delta-sync.tombstone-retention</code>.
+     */
+    @Scheduled(fixedDelayString = "${app.user.delta-sync.tombstone-purge-interval}",
+            initialDelayString = "${app.user.delta-sync.tombstone-purge-interval}")
+    public void purgeTombstones() {
+        int removed = tombstoneRepository.deleteOlderThan(Instant.now().minusMillis(tombstoneRetentionMillis));
+        log.atDebug().addKeyValue("removed", removed).log("purgeTombstones() -> Registros de exclusão expurgados.");
+    }
+
+    private static int compare(UserEntity user, UserTombstoneEntity tombstone) {
+        int bySeq = Long.compare(user.getModSeq(), tombstone.getModSeq());
+        return bySeq != 0 ? bySeq : Long.compare(user.getId(), tombstone.getUserId());
+    }
+}
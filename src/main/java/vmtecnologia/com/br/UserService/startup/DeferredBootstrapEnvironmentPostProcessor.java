@@ -0,0 +1,29 @@
+package vmtecnologia.com.br.UserService.startup;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+import java.util.Map;
+
+/**
+ * No modo de inicialização adiada (<code>app.startup.deferred=true</code>), ativa o bootstrap
+ * adiado dos repositórios JPA: o <code>EntityManagerFactory</code> é construído em segundo plano
+ * enquanto o restante do contexto sobe. Um valor explícito de
+ * <code>spring.data.jpa.repositories.bootstrap-mode</code> sempre prevalece.
+ */
+public class DeferredBootstrapEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    static final String DEFERRED_PROPERTY = "app.startup.deferred";
+    static final String BOOTSTRAP_MODE_PROPERTY = "spring.data.jpa.repositories.bootstrap-mode";
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (environment.getProperty(DEFERRED_PROPERTY, Boolean.class, false)
+                && !environment.containsProperty(BOOTSTRAP_MODE_PROPERTY)) {
+            environment.getPropertySources().addLast(
+                    new MapPropertySource("deferredBootstrap", Map.of(BOOTSTRAP_MODE_PROPERTY, "deferred")));
+        }
+    }
+}
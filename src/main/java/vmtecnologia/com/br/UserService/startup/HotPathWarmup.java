@@ -0,0 +1,44 @@
+package vmtecnologia.com.br.UserService.startup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.repository.UserRepository;
+import vmtecnologia.com.br.UserService.service.JwtService;
+
+/**
+ * Inicializa o caminho quente (repositório/<code>EntityManagerFactory</code> e emissão/validação
+ * de JWT) antes de a aplicação aceitar tráfego.
+ *
+ * <p>Roda no <code>ApplicationReadyEvent</code>, que o Spring Boot publica antes de mudar a
+ * prontidão (<code>/actuator/health/readiness</code>) para <code>ACCEPTING_TRAFFIC</code>.
+ * No modo adiado, é aqui que a subida aguarda o bootstrap do JPA em segundo plano.
+ * Uma falha impede a subida.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class HotPathWarmup {
+
+    private static final String WARMUP_EMAIL = "warmup@localhost";
+
+    private final UserRepository userRepository;
+    private final JwtService jwtService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        userRepository.findByEmail(WARMUP_EMAIL);
+        long repository = System.currentTimeMillis();
+
+        String token = jwtService.generateToken(UserEntity.builder().email(WARMUP_EMAIL).build());
+        jwtService.parseClaims(token);
+        long end = System.currentTimeMillis();
+
+        log.info("warmUp() -> Caminho quente inicializado em {} ms (repositório {} ms, JWT {} ms).",
+                end - start, repository - start, end - repository);
+    }
+}
@@ -0,0 +1,73 @@
+package vmtecnologia.com.br.UserService.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.MethodMetadata;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * No modo de inicialização adiada (<code>app.startup.deferred=true</code>), marca como
+ * <em>lazy</em> os beans não críticos para o atendimento — os declarados por classes cujo nome
+ * começa com um dos prefixos de <code>app.startup.lazy-bean-prefixes</code> (springdoc/OpenAPI e e-mail).
+ * Eles passam a ser criados no primeiro uso, fora do caminho de inicialização.
+ *
+ * <p>Um bean <em>lazy</em> ainda é criado na subida se um bean ansioso depender dele diretamente;
+ * por isso o {@link vmtecnologia.com.br.UserService.mail.SmtpDispatcher} recebe o
+ * <code>JavaMailSender</code> por <code>ObjectProvider</code>.</p>
+ */
+@Slf4j
+@Component
+public class LazyNonCriticalBeansPostProcessor implements BeanFactoryPostProcessor, EnvironmentAware {
+
+    private boolean deferred;
+    private List<String> prefixes = List.of();
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        Binder binder = Binder.get(environment);
+        this.deferred = binder.bind(DeferredBootstrapEnvironmentPostProcessor.DEFERRED_PROPERTY, Boolean.class)
+                .orElse(false);
+        this.prefixes = binder.bind("app.startup.lazy-bean-prefixes", Bindable.listOf(String.class))
+                .orElse(List.of());
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+        if (!deferred) {
+            return;
+        }
+        int count = 0;
+        for (String name : beanFactory.getBeanDefinitionNames()) {
+            BeanDefinition definition = beanFactory.getBeanDefinition(name);
+            String origin = origin(definition);
+            if (Objects.nonNull(origin) && prefixes.stream().anyMatch(origin::startsWith)) {
+                definition.setLazyInit(true);
+                count++;
+            }
+        }
+        log.info("postProcessBeanFactory() -> Inicialização adiada: {} beans não críticos marcados como lazy.", count);
+    }
+
+    /**
+     * @return classe que declara o bean: a do método <code>@Bean</code> ou a própria classe do bean
+     */
+    private static String origin(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated) {
+            MethodMetadata factoryMethod = annotated.getFactoryMethodMetadata();
+            if (Objects.nonNull(factoryMethod)) {
+                return factoryMethod.getDeclaringClassName();
+            }
+        }
+        return definition.getBeanClassName();
+    }
+}
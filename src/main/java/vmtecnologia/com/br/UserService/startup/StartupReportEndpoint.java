@@ -0,0 +1,170 @@
+package vmtecnologia.com.br.UserService.startup;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline.TimelineEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Endpoint <code>/actuator/startupreport</code>: etapas de inicialização gravadas pelo
+ * {@link BufferingApplicationStartup}, ordenadas pelo tempo próprio (duração da etapa
+ * menos a das etapas filhas) e agrupadas por componente (JPA, springdoc, segurança, JWT, e-mail, web),
+ * reconhecido por prefixo no nome da etapa ou nas suas tags (nome e tipo do bean).
+ *
+ * <p>Lê a linha do tempo sem consumi-la; um <code>POST /actuator/startup</code> esvazia o buffer
+ * e, a partir daí, este relatório fica vazio.</p>
+ *
+ * <p>O ranking traz as <code>app.startup.report-limit</code> etapas mais custosas.</p>
+ */
+@Component
+@Endpoint(id = "startupreport")
+public class StartupReportEndpoint {
+
+    /**
+     * Grupos na ordem de avaliação: o primeiro cujo prefixo aparece no nome ou nas tags da etapa vence.
+     */
+    private static final Map<String, List<String>> GROUPS = groups();
+
+    private final ConfigurableApplicationContext context;
+    private final int limit;
+
+    public StartupReportEndpoint(ConfigurableApplicationContext context,
+                                 @Value("${app.startup.report-limit}") int limit) {
+        this.context = context;
+        this.limit = limit;
+    }
+
+    /**
+     * @return relatório com os grupos e as etapas mais custosas
+     */
+    @ReadOperation
+    public StartupReport report() {
+        if (!(context.getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return new StartupReport(false, 0, List.of(), List.of());
+        }
+        return build(startup.getBufferedTimeline().getEvents(), limit);
+    }
+
+    static StartupReport build(List<TimelineEvent> events, int limit) {
+        Map<Long, Long> childrenNanos = new HashMap<>();
+        for (TimelineEvent event : events) {
+            Long parentId = event.getStartupStep().getParentId();
+            if (Objects.nonNull(parentId)) {
+                childrenNanos.merge(parentId, event.getDuration().toNanos(), Long::sum);
+            }
+        }
+
+        List<Step> steps = new ArrayList<>(events.size());
+        Map<String, GroupTotal> totals = new LinkedHashMap<>();
+        long totalNanos = 0;
+        for (TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            long durationNanos = event.getDuration().toNanos();
+            long selfNanos = Math.max(0, durationNanos - childrenNanos.getOrDefault(step.getId(), 0L));
+            Map<String, String> tags = new LinkedHashMap<>();
+            step.getTags().forEach(tag -> tags.put(tag.getKey(), tag.getValue()));
+            String group = group(step.getName(), tags);
+
+            steps.add(new Step(step.getName(), group, tags, millis(durationNanos), millis(selfNanos)));
+            totals.computeIfAbsent(group, GroupTotal::new).add(selfNanos);
+            if (Objects.isNull(step.getParentId())) {
+                totalNanos += durationNanos;
+            }
+        }
+
+        List<Group> groups = totals.values().stream()
+                .sorted(Comparator.comparingLong(GroupTotal::selfNanos).reversed())
+                .map(total -> new Group(total.name, millis(total.selfNanos), total.steps))
+                .toList();
+        List<Step> ranked = steps.stream()
+                .sorted(Comparator.comparingDouble(Step::selfTimeMs).reversed())
+                .limit(Math.max(0, limit))
+                .toList();
+        return new StartupReport(true, millis(totalNanos), groups, ranked);
+    }
+
+    private static String group(String name, Map<String, String> tags) {
+        for (Map.Entry<String, List<String>> group : GROUPS.entrySet()) {
+            for (String prefix : group.getValue()) {
+                if (name.startsWith(prefix) || tags.values().stream().anyMatch(value -> value.startsWith(prefix))) {
+                    return group.getKey();
+                }
+            }
+        }
+        return "other";
+    }
+
+    private static Map<String, List<String>> groups() {
+        Map<String, List<String>> groups = new LinkedHashMap<>();
+        groups.put("jpa", List.of("spring.data.repository", "org.springframework.data", "org.springframework.orm",
+                "org.springframework.boot.autoconfigure.orm", "org.springframework.boot.autoconfigure.data",
+                "org.hibernate", "entityManagerFactory", "jpaVendorAdapter", "jpaMappingContext", "transactionManager",
+                "dataSource", "vmtecnologia.com.br.UserService.repository",
+                "vmtecnologia.com.br.UserService.config.HibernateCacheConfig", "hibernateCacheManager"));
+        groups.put("springdoc", List.of("org.springdoc", "io.swagger", "springdoc", "swagger", "customOpenAPI",
+                "vmtecnologia.com.br.UserService.config.OpenApiConfig"));
+        groups.put("security", List.of("org.springframework.security", "org.springframework.boot.autoconfigure.security",
+                "securityFilterChain", "springSecurityFilterChain", "passwordEncoder", "authenticationFilter",
+                "vmtecnologia.com.br.UserService.config.WebSecurityConfig", "vmtecnologia.com.br.UserService.filter"));
+        groups.put("jwt", List.of("io.jsonwebtoken", "jwtKeyService", "jwtService"));
+        groups.put("mail", List.of("org.springframework.boot.autoconfigure.mail", "org.springframework.mail",
+                "mailSender", "emailService", "smtpDispatcher", "vmtecnologia.com.br.UserService.service.EmailService",
+                "vmtecnologia.com.br.UserService.mail"));
+        groups.put("web", List.of("org.springframework.web", "org.springframework.boot.autoconfigure.web",
+                "org.springframework.boot.web", "spring.boot.webserver", "tomcat",
+                "vmtecnologia.com.br.UserService.controller"));
+        return Collections.unmodifiableMap(groups);
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    /**
+     * @param available <code>false</code> se a aplicação não foi iniciada com {@link BufferingApplicationStartup}
+     * @param totalMs   soma das etapas de nível mais alto
+     * @param groups    tempo próprio somado por grupo, do maior para o menor
+     * @param steps     etapas com maior tempo próprio
+     */
+    public record StartupReport(boolean available, double totalMs, List<Group> groups, List<Step> steps) {
+    }
+
+    public record Group(String name, double selfTimeMs, int steps) {
+    }
+
+    public record Step(String name, String group, Map<String, String> tags, double durationMs, double selfTimeMs) {
+    }
+
+    private static final class GroupTotal {
+
+        private final String name;
+        private long selfNanos;
+        private int steps;
+
+        private GroupTotal(String name) {
+            this.name = name;
+        }
+
+        private void add(long nanos) {
+            selfNanos += nanos;
+            steps++;
+        }
+
+        private long selfNanos() {
+            return selfNanos;
+        }
+    }
+}
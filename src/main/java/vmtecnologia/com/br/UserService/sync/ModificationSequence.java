@@ -0,0 +1,292 @@
+package vmtecnologia.com.br.UserService.sync;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vmtecnologia.com.br.UserService.datasource.ShardContext;
+import vmtecnologia.com.br.UserService.repository.UserRepository;
+import vmtecnologia.com.br.UserService.repository.UserTombstoneRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Gera a sequência de modificação dos usuários (inserções, alterações e exclusões) e informa até
+ * onde ela já pode ser lida.
+ *
+ * <p>Os valores vêm da sequência <code>user_mod_seq</code> do banco (do shard 0, com
+ * particionamento), compartilhada por todas as instâncias e criada na primeira inicialização a
+ * partir da maior sequência gravada (usuários e exclusões). São reservados por uma conexão
+ * própria, mantida aberta, para que a reserva não dependa de uma segunda conexão do pool enquanto
+ * a transação de quem grava segura a primeira. Um rollback não devolve o valor: lacunas são
+ * esperadas.</p>
+ *
+ * <p>A sequência é atribuída durante a transação, mas o commit pode acontecer fora de ordem: um
+ * consumidor que lesse a sequência 11 já confirmada avançaria a marca e perderia a 10 confirmada
+ * depois. Por isso as sequências de transações em andamento ficam registradas até o fim delas e
+ * {@link #visibleBound()} devolve a menor delas; a leitura só vai até ali.</p>
+ *
+ * <p>As transações em andamento de outras instâncias não são conhecidas. Com
+ * <code>app.user.delta-sync.commit-grace</code> maior que zero, a sequência é amostrada a cada
+ * segundo e a leitura vai, no máximo, até o valor amostrado há pelo menos esse tempo, que deve ser
+ * maior que a transação de escrita mais longa. Com zero, a leitura vai até a última sequência
+ * reservada por esta instância, o que pressupõe uma única instância gravando.</p>
+ */
+@Slf4j
+@Component
+public class ModificationSequence implements DisposableBean {
+
+    private static final String SEQUENCE = "user_mod_seq";
+    private static final String NEXT_VALUE = "SELECT NEXT VALUE FOR " + SEQUENCE;
+    private static final long SAMPLE_INTERVAL_MILLIS = 1_000;
+
+    private final ObjectProvider<UserRepository> userRepository;
+    private final ObjectProvider<UserTombstoneRepository> tombstoneRepository;
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+    private final ObjectProvider<DataSource> dataSource;
+    private final long commitGraceMillis;
+    private final LongSupplier clock;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final TreeSet<Long> inFlight = new TreeSet<>();
+    /**
+     * Amostras <code>{instante, sequência}</code> ainda dentro da carência.
+     */
+    private final ArrayDeque<long[]> samples = new ArrayDeque<>();
+    private Connection connection;
+    private long last;
+    private long settled;
+    private volatile boolean loaded;
+
+    @Autowired
+    public ModificationSequence(ObjectProvider<UserRepository> userRepository,
+                                ObjectProvider<UserTombstoneRepository> tombstoneRepository,
+                                ObjectProvider<PlatformTransactionManager> transactionManager,
+                                ObjectProvider<DataSource> dataSource,
+                                @Value("${app.user.delta-sync.commit-grace}") long commitGraceMillis) {
+        this(userRepository, tombstoneRepository, transactionManager, dataSource, commitGraceMillis,
+                System::currentTimeMillis);
+    }
+
+    ModificationSequence(ObjectProvider<UserRepository> userRepository,
+                         ObjectProvider<UserTombstoneRepository> tombstoneRepository,
+                         ObjectProvider<PlatformTransactionManager> transactionManager,
+                         ObjectProvider<DataSource> dataSource,
+                         long commitGraceMillis,
+                         LongSupplier clock) {
+        this.userRepository = userRepository;
+        this.tombstoneRepository = tombstoneRepository;
+        this.transactionManager = transactionManager;
+        this.dataSource = dataSource;
+        this.commitGraceMillis = commitGraceMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * Reserva a próxima sequência. Com uma transação ativa, a sequência fica invisível para a
+     * leitura até a transação terminar (commit ou rollback).
+     *
+     * @return sequência reservada
+     */
+    public long next() {
+        ensureLoaded();
+        long seq;
+        boolean tracked = TransactionSynchronizationManager.isSynchronizationActive();
+        lock.lock();
+        try {
+            // reservada e registrada sob o mesmo lock: visibleBound() nunca vê uma sem a outra
+            seq = allocate();
+            last = Math.max(last, seq);
+            if (tracked) {
+                inFlight.add(seq);
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (tracked) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    release(seq);
+                }
+            });
+        }
+        return seq;
+    }
+
+    /**
+     * @return primeira sequência que ainda não pode ser lida: a menor de uma transação em
+     *         andamento nesta instância ou, sem nenhuma, a seguinte à última reservada; com
+     *         carência, no máximo a seguinte à amostrada há pelo menos a carência
+     */
+    public long visibleBound() {
+        ensureLoaded();
+        lock.lock();
+        try {
+            if (commitGraceMillis <= 0) {
+                return inFlight.isEmpty() ? last + 1 : inFlight.first();
+            }
+            return inFlight.isEmpty() ? settled : Math.min(settled, inFlight.first());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Amostra a sequência do banco, para que a leitura avance também sobre as reservas das
+     * outras instâncias. Sem carência, não faz nada.
+     */
+    @Scheduled(fixedDelay = SAMPLE_INTERVAL_MILLIS)
+    public void sample() {
+        if (commitGraceMillis <= 0 || !loaded) {
+            return;
+        }
+        lock.lock();
+        try {
+            long now = clock.getAsLong();
+            long seq = allocate();
+            last = Math.max(last, seq);
+            samples.addLast(new long[]{now, seq});
+            // as reservas até uma amostra vencida já terminaram: a transação mais longa cabe na carência
+            while (!samples.isEmpty() && samples.getFirst()[0] <= now - commitGraceMillis) {
+                settled = samples.removeFirst()[1] + 1;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Carrega a última sequência ao fim da inicialização, fora do caminho da primeira gravação.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        ensureLoaded();
+    }
+
+    @Override
+    public void destroy() {
+        lock.lock();
+        try {
+            close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(long seq) {
+        lock.lock();
+        try {
+            inFlight.remove(seq);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Deve ser chamado com {@link #lock} adquirido. Uma conexão com falha é reaberta uma vez.
+     */
+    private long allocate() {
+        try {
+            return nextValue();
+        } catch (SQLException e) {
+            log.atWarn().setCause(e).log("allocate() -> Falha na conexão da sequência de modificação; reabrindo.");
+            close();
+            try {
+                return nextValue();
+            } catch (SQLException retry) {
+                throw new IllegalStateException("Falha ao reservar a sequência de modificação", retry);
+            }
+        }
+    }
+
+    private long nextValue() throws SQLException {
+        try (Statement statement = connection().createStatement();
+             ResultSet rs = statement.executeQuery(NEXT_VALUE)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private Connection connection() throws SQLException {
+        if (Objects.isNull(connection)) {
+            // fora da transação de quem grava e, com particionamento, sempre no shard 0
+            Integer previous = ShardContext.set(0);
+            try {
+                Connection opened = dataSource.getObject().getConnection();
+                opened.setAutoCommit(true);
+                // obtém a conexão de fato agora, ainda no shard 0 (o DataSource é preguiçoso)
+                opened.createStatement().close();
+                connection = opened;
+            } finally {
+                ShardContext.restore(previous);
+            }
+        }
+        return connection;
+    }
+
+    private void close() {
+        if (Objects.nonNull(connection)) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.atDebug().setCause(e).log("close() -> Falha ao fechar a conexão da sequência de modificação.");
+            }
+            connection = null;
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager.getObject());
+            transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            long max = Objects.requireNonNull(transaction.execute(status -> Math.max(
+                    userRepository.getObject().findMaxModSeq().orElse(0L),
+                    tombstoneRepository.getObject().findMaxModSeq().orElse(0L))));
+            // usuários gravados antes da sequência existir entram todos na mesma
+            Integer backfilled = transaction.execute(status -> userRepository.getObject().backfillModSeq(max + 1));
+            long start = Objects.nonNull(backfilled) && backfilled > 0 ? max + 2 : max + 1;
+            if (start > max + 1) {
+                log.atInfo().addKeyValue("users", backfilled).addKeyValue("modSeq", max + 1)
+                        .log("ensureLoaded() -> Sequência de modificação atribuída aos usuários existentes.");
+            }
+            try (Statement statement = connection().createStatement()) {
+                // já existente (outra instância ou reinício), continua de onde está
+                statement.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE + " START WITH " + start);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Falha ao criar a sequência de modificação", e);
+            }
+            last = start - 1;
+            samples.addLast(new long[]{clock.getAsLong(), last});
+            loaded = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package vmtecnologia.com.br.UserService.sync;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+
+/**
+ * Atribui a sequência de modificação de {@link UserEntity} na inserção e em cada alteração.
+ *
+ * <p>Instanciado pelo Spring (o Hibernate resolve os listeners pelo contêiner de beans).
+ * Alterações em lote não passam por aqui e atribuem a sequência no próprio <code>UPDATE</code>.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class UserModificationListener {
+
+    private final ModificationSequence modificationSequence;
+
+    @PrePersist
+    @PreUpdate
+    public void assign(UserEntity user) {
+        user.setModSeq(modificationSequence.next());
+    }
+}
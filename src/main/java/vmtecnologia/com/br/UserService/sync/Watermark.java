@@ -0,0 +1,47 @@
+package vmtecnologia.com.br.UserService.sync;
+
+import org.springframework.util.StringUtils;
+import vmtecnologia.com.br.UserService.exception.InvalidWatermarkException;
+
+/**
+ * Posição na sincronização incremental: a sequência de modificação e o ID do último usuário
+ * recebido. Alterações em lote compartilham a sequência, por isso o ID desempata.
+ *
+ * <p>Representada como <code>&lt;sequência&gt;.&lt;id&gt;</code>; uma sequência sozinha
+ * indica todas as alterações posteriores a ela.</p>
+ *
+ * @param seq sequência de modificação
+ * @param id  ID do usuário
+ */
+public record Watermark(long seq, long id) {
+
+    /**
+     * Início do cadastro: todos os usuários e exclusões retidas.
+     */
+    public static final Watermark START = new Watermark(0, 0);
+
+    /**
+     * @param value marca recebida do cliente; vazia para o início
+     * @return marca correspondente
+     * @throws InvalidWatermarkException se o valor não estiver no formato esperado
+     */
+    public static Watermark parse(String value) {
+        if (!StringUtils.hasText(value)) {
+            return START;
+        }
+        try {
+            int dot = value.indexOf('.');
+            if (dot < 0) {
+                return new Watermark(Long.parseLong(value), Long.MAX_VALUE);
+            }
+            return new Watermark(Long.parseLong(value.substring(0, dot)), Long.parseLong(value.substring(dot + 1)));
+        } catch (NumberFormatException e) {
+            throw new InvalidWatermarkException(value);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return id == Long.MAX_VALUE ? Long.toString(seq) : seq + "." + id;
+    }
+}
@@ -0,0 +1,48 @@
+package vmtecnologia.com.br.UserService.timing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Objects;
+
+/**
+ * Mede a serialização do corpo da resposta (<code>ser</code>): do momento em que o conversor é
+ * escolhido ({@link #beforeBodyWrite}) até o fim do processamento do handler ({@link #afterCompletion}).
+ */
+@ControllerAdvice
+public class SerializationTimingAdvice implements ResponseBodyAdvice<Object>, HandlerInterceptor {
+
+    private static final String STARTED_AT = SerializationTimingAdvice.class.getName() + ".startedAt";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest && Objects.nonNull(ServerTiming.current())) {
+            servletRequest.getServletRequest().setAttribute(STARTED_AT, System.nanoTime());
+        }
+        return body;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        ServerTiming timing = ServerTiming.current();
+        if (Objects.nonNull(timing) && request.getAttribute(STARTED_AT) instanceof Long startedAt) {
+            timing.record("ser", System.nanoTime() - startedAt);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package vmtecnologia.com.br.UserService.timing;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Tempos de uma requisição, acumulados por métrica e publicados no cabeçalho <code>Server-Timing</code>.
+ *
+ * <p>Fica associado à thread da requisição por {@link ServerTimingFilter}. Fora de uma requisição
+ * instrumentada, {@link #current()} é <code>null</code> e nada é registrado.</p>
+ *
+ * <p>Chamadas repetidas da mesma métrica são somadas (<code>desc</code> informa a quantidade), e
+ * chamadas aninhadas da mesma métrica (um serviço chamando outro) contam uma única vez. Métricas
+ * diferentes podem se sobrepor: <code>userdetails</code> inclui a consulta ao repositório que faz.</p>
+ */
+public final class ServerTiming {
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Metric> metrics = new LinkedHashMap<>();
+    private final long startedAt = System.nanoTime();
+
+    /**
+     * @return tempos da requisição em andamento na thread atual, ou <code>null</code>
+     */
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    static ServerTiming begin() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Marca o início de uma medição.
+     *
+     * @return <code>false</code> se a métrica já está sendo medida (chamada aninhada), caso em que
+     * {@link #stop(String, long)} não deve ser chamado
+     */
+    public boolean start(String name) {
+        Metric metric = metrics.computeIfAbsent(name, key -> new Metric());
+        return metric.depth++ == 0;
+    }
+
+    /**
+     * Encerra a medição iniciada por {@link #start(String)}.
+     *
+     * @param startedAtNanos valor de {@link System#nanoTime()} no início da medição
+     */
+    public void stop(String name, long startedAtNanos) {
+        Metric metric = metrics.get(name);
+        metric.depth = 0;
+        metric.add(System.nanoTime() - startedAtNanos);
+    }
+
+    /**
+     * Libera uma chamada aninhada, para a qual {@link #start(String)} devolveu <code>false</code>.
+     */
+    public void leave(String name) {
+        metrics.get(name).depth--;
+    }
+
+    /**
+     * Soma uma duração já medida à métrica.
+     */
+    public void record(String name, long nanos) {
+        metrics.computeIfAbsent(name, key -> new Metric()).add(nanos);
+    }
+
+    /**
+     * @return tempo desde o início da requisição, em nanossegundos
+     */
+    public long elapsed() {
+        return System.nanoTime() - startedAt;
+    }
+
+    /**
+     * @return valor do cabeçalho, ex.: <code>jwt;dur=0.42, repo.findByEmail;dur=1.30;desc="2x"</code>
+     */
+    public String toHeaderValue() {
+        StringJoiner header = new StringJoiner(", ");
+        metrics.forEach((name, metric) -> {
+            if (metric.count == 0) {
+                return;
+            }
+            StringBuilder entry = new StringBuilder(name).append(";dur=")
+                    .append(String.format(Locale.ROOT, "%.2f", metric.nanos / 1_000_000.0));
+            if (metric.count > 1) {
+                entry.append(";desc=\"").append(metric.count).append("x\"");
+            }
+            header.add(entry);
+        });
+        return header.toString();
+    }
+
+    /**
+     * @return duração acumulada de cada métrica, em nanossegundos
+     */
+    public Map<String, Long> durations() {
+        Map<String, Long> durations = new LinkedHashMap<>();
+        metrics.forEach((name, metric) -> {
+            if (metric.count > 0) {
+                durations.put(name, metric.nanos);
+            }
+        });
+        return durations;
+    }
+
+    /**
+     * @return quantidade de medições da métrica
+     */
+    public int count(String name) {
+        Metric metric = metrics.get(name);
+        return Objects.isNull(metric) ? 0 : metric.count;
+    }
+
+    private static final class Metric {
+        private long nanos;
+        private int count;
+        private int depth;
+
+        private void add(long elapsed) {
+            nanos += elapsed;
+            count++;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package vmtecnologia.com.br.UserService.timing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.spi.LoggingEventBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Objects;
+
+import static vmtecnologia.com.br.UserService.logging.LogMarkers.HOT_PATH;
+
+/**
+ * Abre o {@link ServerTiming} da requisição e, ao final, publica o cabeçalho <code>Server-Timing</code>
+ * e uma linha de log com os mesmos tempos (em milissegundos).
+ *
+ * <p>O corpo da resposta é mantido em memória até o fim da requisição para que o cabeçalho possa
+ * incluir a serialização (<code>ser</code>) e o tempo total (<code>total</code>).</p>
+ *
+ * <p>Requisições de <em>server-sent events</em> (<code>Accept: text/event-stream</code>) não passam
+ * pelo filtro: o corpo é enviado aos poucos e não pode ficar retido.</p>
+ */
+@Slf4j
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String SERVER_TIMING = "Server-Timing";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest req) {
+        String accept = req.getHeader(HttpHeaders.ACCEPT);
+        return Objects.nonNull(accept) && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest req, HttpServletResponse res, FilterChain chain)
+            throws ServletException, IOException {
+        ServerTiming timing = ServerTiming.begin();
+        ContentCachingResponseWrapper response = new ContentCachingResponseWrapper(res);
+        try {
+            chain.doFilter(req, response);
+        } finally {
+            ServerTiming.end();
+            timing.record("total", timing.elapsed());
+            String header = timing.toHeaderValue();
+            if (!response.isCommitted()) {
+                response.setHeader(SERVER_TIMING, header);
+            }
+            log(req, response.getStatus(), timing);
+            response.copyBodyToResponse();
+        }
+    }
+
+    private void log(HttpServletRequest req, int status, ServerTiming timing) {
+        LoggingEventBuilder event = log.atInfo()
+                .addMarker(HOT_PATH)
+                .addKeyValue("method", req.getMethod())
+                .addKeyValue("uri", req.getRequestURI())
+                .addKeyValue("status", status);
+        timing.durations().forEach((name, nanos) ->
+                event.addKeyValue(name, String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0)));
+        event.log("doFilterInternal() -> Tempos da requisição");
+    }
+}
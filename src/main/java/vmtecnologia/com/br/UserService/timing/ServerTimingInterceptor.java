@@ -0,0 +1,48 @@
+package vmtecnologia.com.br.UserService.timing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.Objects;
+
+/**
+ * Mede as chamadas a um bean e soma o tempo à métrica correspondente de {@link ServerTiming}.
+ *
+ * <p>Fora de uma requisição instrumentada o custo é uma leitura de <code>ThreadLocal</code>.</p>
+ */
+class ServerTimingInterceptor implements MethodInterceptor {
+
+    private final String metric;
+    private final boolean perMethod;
+
+    /**
+     * @param metric    nome da métrica
+     * @param perMethod se <code>true</code>, cada método gera a própria métrica (<code>metric.metodo</code>)
+     */
+    ServerTimingInterceptor(String metric, boolean perMethod) {
+        this.metric = metric;
+        this.perMethod = perMethod;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ServerTiming timing = ServerTiming.current();
+        if (Objects.isNull(timing) || invocation.getMethod().getDeclaringClass() == Object.class) {
+            return invocation.proceed();
+        }
+        String name = perMethod ? metric + "." + invocation.getMethod().getName() : metric;
+        long startedAt = System.nanoTime();
+        if (!timing.start(name)) {
+            try {
+                return invocation.proceed();
+            } finally {
+                timing.leave(name);
+            }
+        }
+        try {
+            return invocation.proceed();
+        } finally {
+            timing.stop(name, startedAt);
+        }
+    }
+}
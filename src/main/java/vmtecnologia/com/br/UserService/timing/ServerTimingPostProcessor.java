@@ -0,0 +1,74 @@
+package vmtecnologia.com.br.UserService.timing;
+
+import org.springframework.aop.framework.AopInfrastructureBean;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.framework.ProxyProcessorSupport;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import vmtecnologia.com.br.UserService.repository.UserRepository;
+import vmtecnologia.com.br.UserService.service.AuthService;
+import vmtecnologia.com.br.UserService.service.EmailService;
+import vmtecnologia.com.br.UserService.service.JwtService;
+import vmtecnologia.com.br.UserService.service.UserService;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Envolve os beans do caminho de uma requisição com {@link ServerTimingInterceptor}.
+ *
+ * <table>
+ *   <caption>Métricas</caption>
+ *   <tr><td><code>jwt</code></td><td>{@link JwtService}: leitura e validação do token (e emissão, no login)</td></tr>
+ *   <tr><td><code>userdetails</code></td><td>{@link UserDetailsService}: carga do usuário autenticado</td></tr>
+ *   <tr><td><code>svc</code></td><td>{@link UserService} e {@link AuthService}</td></tr>
+ *   <tr><td><code>repo.&lt;metodo&gt;</code></td><td>cada método de {@link UserRepository}</td></tr>
+ *   <tr><td><code>hash</code></td><td>{@link PasswordEncoder}: BCrypt</td></tr>
+ *   <tr><td><code>mail</code></td><td>{@link EmailService}</td></tr>
+ * </table>
+ *
+ * <p>Beans que já são proxies (transações, repositórios) recebem o interceptor como primeiro
+ * da cadeia, de modo que o tempo inclui o commit; os demais ganham um proxy próprio.</p>
+ */
+public class ServerTimingPostProcessor extends ProxyProcessorSupport implements BeanPostProcessor {
+
+    private static final Map<Class<?>, ServerTimingInterceptor> INTERCEPTORS = Map.of(
+            JwtService.class, new ServerTimingInterceptor("jwt", false),
+            UserDetailsService.class, new ServerTimingInterceptor("userdetails", false),
+            UserService.class, new ServerTimingInterceptor("svc", false),
+            AuthService.class, new ServerTimingInterceptor("svc", false),
+            UserRepository.class, new ServerTimingInterceptor("repo", true),
+            PasswordEncoder.class, new ServerTimingInterceptor("hash", false),
+            EmailService.class, new ServerTimingInterceptor("mail", false)
+    );
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof AopInfrastructureBean) {
+            return bean;
+        }
+        ServerTimingInterceptor interceptor = INTERCEPTORS.entrySet().stream()
+                .filter(entry -> entry.getKey().isInstance(bean))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null);
+        if (Objects.isNull(interceptor)) {
+            return bean;
+        }
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            advised.addAdvice(0, interceptor);
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        if (Proxy.isProxyClass(bean.getClass())) {
+            proxyFactory.setInterfaces(bean.getClass().getInterfaces());
+        } else {
+            proxyFactory.setProxyTargetClass(true);
+        }
+        proxyFactory.addAdvice(interceptor);
+        return proxyFactory.getProxy(getProxyClassLoader());
+    }
+}
@@ -0,0 +1,129 @@
+package vmtecnologia.com.br.UserService;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.CodedInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import vmtecnologia.com.br.UserService.converter.UserProtobufCodec;
+import vmtecnologia.com.br.UserService.converter.UserProtobufHttpMessageConverter;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.model.response.UserModelResponse;
+import vmtecnologia.com.br.UserService.repository.UserRepository;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Fluxos ponta a ponta executados também no executável nativo (<code>mvn -PnativeTest test</code>):
+ * login com BCrypt e jjwt, leitura autenticada via Hibernate e MapStruct, Protobuf e JWKS.
+ */
+@Tag("native")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"spring.mail.host=localhost", "spring.mail.port=1"})
+class UserServiceNativeTests {
+
+    private static final String EMAIL = "nativo@ex.com";
+    private static final String PASSWORD = "Senha@123";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = userRepository.findByEmail(EMAIL)
+                .orElseGet(() -> userRepository.save(UserEntity.builder()
+                        .username("nativo")
+                        .email(EMAIL)
+                        .password(passwordEncoder.encode(PASSWORD))
+                        .enabled(true)
+                        .build()))
+                .getId();
+    }
+
+    @Test
+    @DisplayName("login e busca autenticada em JSON")
+    void loginAndFindById() throws Exception {
+        String token = login();
+
+        HttpResponse<String> response = client.send(get("/user/api/v1/findById?id=" + userId, token, "application/json"),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue("ETag")).hasValue("\"0\"");
+        JsonNode user = objectMapper.readTree(response.body());
+        assertThat(user.get("email").asText()).isEqualTo(EMAIL);
+        assertThat(user.has("password")).isFalse();
+    }
+
+    @Test
+    @DisplayName("listagem paginada em Protobuf")
+    void findAllProtobuf() throws Exception {
+        String token = login();
+
+        HttpResponse<byte[]> response = client.send(
+                get("/user/api/v1/findAll?email=" + EMAIL, token, UserProtobufHttpMessageConverter.PROTOBUF_VALUE),
+                HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(UserProtobufCodec.readPage(CodedInputStream.newInstance(response.body())).getItems())
+                .extracting(UserModelResponse::getEmail)
+                .containsExactly(EMAIL);
+    }
+
+    @Test
+    @DisplayName("JWKS publicado sem autenticação")
+    void jwks() throws Exception {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri("/.well-known/jwks.json")).build(),
+                HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(objectMapper.readTree(response.body()).get("keys")).hasSizeGreaterThanOrEqualTo(2);
+    }
+
+    private String login() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("email", EMAIL, "password", PASSWORD));
+        HttpRequest request = HttpRequest.newBuilder(uri("/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HttpRequest get(String path, String token, String accept) {
+        return HttpRequest.newBuilder(uri(path))
+                .header("Authorization", "Bearer " + token)
+                .header("Accept", accept)
+                .GET()
+                .build();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+}
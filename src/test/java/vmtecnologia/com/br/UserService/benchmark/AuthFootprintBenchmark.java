@@ -0,0 +1,175 @@
+package vmtecnologia.com.br.UserService.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.repository.UserRepository;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Mede o consumo de threads de plataforma e de conexões com o banco com milhares de
+ * clientes simultâneos nos caminhos de login e de leitura autenticada por JWT.
+ *
+ * <p>Executar com:</p>
+ * <pre>
+ * mvn test -Dtest=AuthFootprintBenchmark -Dbenchmark=true [-Dbenchmark.clients=10000] [-Dbenchmark.logins=200]
+ * </pre>
+ *
+ * <p>Para comparar com o modelo de uma thread de plataforma por requisição, acrescentar
+ * <code>-Dspring.threads.virtual.enabled=false</code>. Cada cliente abre a sua própria
+ * conexão HTTP, e os dois lados rodam no mesmo processo; por isso o limite de
+ * descritores de arquivo (<code>ulimit -n</code>) deve ser maior que o dobro de clientes.</p>
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class AuthFootprintBenchmark {
+
+    private static final String EMAIL = "benchmark@ex.com";
+    private static final String PASSWORD = "Senha@123";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private HttpClient client;
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        userId = userRepository.findByEmail(EMAIL)
+                .orElseGet(() -> userRepository.save(UserEntity.builder()
+                        .username("benchmark")
+                        .email(EMAIL)
+                        .password(passwordEncoder.encode(PASSWORD))
+                        .enabled(true)
+                        .build()))
+                .getId();
+    }
+
+    @Test
+    void footprint() throws Exception {
+        int clients = Integer.getInteger("benchmark.clients", 10_000);
+        int logins = Integer.getInteger("benchmark.logins", 200);
+        String token = login();
+
+        report("login", logins, this::login);
+        report("findById", clients, () -> {
+            HttpRequest request = HttpRequest.newBuilder(uri("/user/api/v1/findById?id=" + userId))
+                    .header("Authorization", "Bearer " + token)
+                    .GET()
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            assertThat(response.statusCode()).isEqualTo(200);
+            return response.body();
+        });
+    }
+
+    private void report(String name, int clients, Call call) throws Exception {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        HikariPoolMXBean pool = hikariPool();
+        AtomicInteger peakConnections = new AtomicInteger();
+        AtomicBoolean sampling = new AtomicBoolean(true);
+        Thread sampler = Thread.ofPlatform().start(() -> {
+            while (sampling.get()) {
+                peakConnections.accumulateAndGet(pool.getActiveConnections(), Math::max);
+                Thread.onSpinWait();
+            }
+        });
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>(clients);
+        threads.resetPeakThreadCount();
+        long begin;
+        long elapsed;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return call.execute();
+                }));
+            }
+            begin = System.nanoTime();
+            start.countDown();
+            for (Future<String> result : results) {
+                result.get();
+            }
+            elapsed = System.nanoTime() - begin;
+        }
+        sampling.set(false);
+        sampler.join();
+
+        System.out.printf("%n[%s] clientes=%d tempo=%d ms vazão=%.0f req/s "
+                        + "threads de plataforma (pico)=%d conexões JDBC ativas (pico)=%d / pool=%d%n",
+                name, clients, elapsed / 1_000_000, clients / (elapsed / 1e9),
+                threads.getPeakThreadCount(), peakConnections.get(), pool.getTotalConnections());
+    }
+
+    private String login() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("email", EMAIL, "password", PASSWORD));
+        HttpRequest request = HttpRequest.newBuilder(uri("/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).isEqualTo(200);
+        return objectMapper.readTree(response.body()).get("token").asText();
+    }
+
+    private HikariPoolMXBean hikariPool() throws SQLException {
+        return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    @FunctionalInterface
+    private interface Call {
+        String execute() throws Exception;
+    }
+}
@@ -0,0 +1,137 @@
+package vmtecnologia.com.br.UserService.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import vmtecnologia.com.br.UserService.converter.UserProtobufCodec;
+import vmtecnologia.com.br.UserService.model.PageModel;
+import vmtecnologia.com.br.UserService.model.response.UserModelResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara tamanho do payload e custo de serialização/desserialização de uma página
+ * de usuários (resposta de <code>findAll</code>) em JSON, CBOR, Smile e Protobuf.
+ *
+ * <p>Executar com:</p>
+ * <pre>
+ * mvn test -Dtest=PayloadFormatBenchmark -Dbenchmark=true [-Dbenchmark.pageSize=100] [-Dbenchmark.iterations=20000]
+ * </pre>
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class PayloadFormatBenchmark {
+
+    private static final TypeReference<PageModel<UserModelResponse>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    @Test
+    void payloadFormats() throws Exception {
+        int pageSize = Integer.getInteger("benchmark.pageSize", 100);
+        int iterations = Integer.getInteger("benchmark.iterations", 20_000);
+        PageModel<UserModelResponse> page = page(pageSize);
+
+        System.out.printf("%n%-9s %10s %14s %14s%n", "formato", "bytes", "escrita ns/op", "leitura ns/op");
+        for (Format format : formats()) {
+            byte[] encoded = format.encode(page);
+            assertThat(format.decode(encoded).getItems()).hasSize(pageSize);
+
+            // aquecimento do JIT
+            for (int i = 0; i < iterations; i++) {
+                format.decode(format.encode(page));
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                encoded = format.encode(page);
+            }
+            long write = (System.nanoTime() - start) / iterations;
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                format.decode(encoded);
+            }
+            long read = (System.nanoTime() - start) / iterations;
+
+            System.out.printf("%-9s %10d %14d %14d%n", format.name(), encoded.length, write, read);
+        }
+    }
+
+    private static List<Format> formats() {
+        return List.of(
+                jackson("json", new ObjectMapper()),
+                jackson("cbor", new CBORMapper()),
+                jackson("smile", new SmileMapper()),
+                new Format() {
+                    @Override
+                    public String name() {
+                        return "protobuf";
+                    }
+
+                    @Override
+                    public byte[] encode(PageModel<UserModelResponse> page) throws Exception {
+                        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+                        UserProtobufCodec.writePage(out, page);
+                        out.flush();
+                        return bytes.toByteArray();
+                    }
+
+                    @Override
+                    public PageModel<UserModelResponse> decode(byte[] bytes) throws Exception {
+                        return UserProtobufCodec.readPage(CodedInputStream.newInstance(bytes));
+                    }
+                });
+    }
+
+    private static Format jackson(String name, ObjectMapper mapper) {
+        return new Format() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public byte[] encode(PageModel<UserModelResponse> page) throws Exception {
+                return mapper.writeValueAsBytes(page);
+            }
+
+            @Override
+            public PageModel<UserModelResponse> decode(byte[] bytes) throws Exception {
+                return mapper.readValue(bytes, PAGE_TYPE);
+            }
+        };
+    }
+
+    private static PageModel<UserModelResponse> page(int size) {
+        List<UserModelResponse> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            items.add(UserModelResponse.builder()
+                    .id(1_000L + i)
+                    .enabled(i % 3 != 0)
+                    .username("usuario" + i)
+                    .email("usuario" + i + "@empresa.com.br")
+                    .version((long) i % 7)
+                    .build());
+        }
+        return PageModel.<UserModelResponse>builder()
+                .page(0).pageSize(size).totalContent(10_000L).totalPages(10_000 / size).items(items)
+                .build();
+    }
+
+    private interface Format {
+        String name();
+
+        byte[] encode(PageModel<UserModelResponse> page) throws Exception;
+
+        PageModel<UserModelResponse> decode(byte[] bytes) throws Exception;
+    }
+}
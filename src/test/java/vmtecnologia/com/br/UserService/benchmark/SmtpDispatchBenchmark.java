@@ -0,0 +1,85 @@
+package vmtecnologia.com.br.UserService.benchmark;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import vmtecnologia.com.br.UserService.mail.SmtpDispatcher;
+import vmtecnologia.com.br.UserService.mail.SmtpStandIn;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara o envio de uma conexão SMTP por mensagem (comportamento anterior do <code>EmailService</code>)
+ * com o {@link SmtpDispatcher}, contra um servidor SMTP em processo que atrasa cada resposta para
+ * simular a latência de rede.
+ *
+ * <p>Executar com:</p>
+ * <pre>
+ * mvn test -Dtest=SmtpDispatchBenchmark -Dbenchmark=true [-Dbenchmark.messages=500] [-Dbenchmark.smtpDelayMs=2]
+ * </pre>
+ */
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SmtpDispatchBenchmark {
+
+    @Test
+    void dispatch() throws Exception {
+        int messages = Integer.getInteger("benchmark.messages", 500);
+        long delay = Long.getLong("benchmark.smtpDelayMs", 2);
+
+        System.out.printf("%n%-34s %10s %10s %10s%n", "estratégia", "tempo ms", "msg/s", "conexões");
+        try (SmtpStandIn smtp = new SmtpStandIn(Set.of(), delay)) {
+            JavaMailSenderImpl sender = sender(smtp);
+            long start = System.nanoTime();
+            for (int i = 0; i < messages; i++) {
+                sender.send(message(i));
+            }
+            report("uma conexão por mensagem", messages, System.nanoTime() - start, smtp.getConnections());
+        }
+        for (int poolSize : new int[]{1, 2, 4}) {
+            try (SmtpStandIn smtp = new SmtpStandIn(Set.of(), delay)) {
+                DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+                beans.registerSingleton("mailSender", sender(smtp));
+                SmtpDispatcher dispatcher = new SmtpDispatcher(beans.getBeanProvider(JavaMailSender.class),
+                        poolSize, 50, messages, 60_000, 60_000);
+                long start = System.nanoTime();
+                for (int i = 0; i < messages; i++) {
+                    dispatcher.dispatch(message(i));
+                }
+                while (dispatcher.getSentCount() + dispatcher.getFailedCount() < messages) {
+                    Thread.sleep(1);
+                }
+                long elapsed = System.nanoTime() - start;
+                assertThat(dispatcher.getFailedCount()).isZero();
+                report("SmtpDispatcher pool=" + poolSize + " lote=50", messages, elapsed, smtp.getConnections());
+                dispatcher.destroy();
+            }
+        }
+    }
+
+    private static void report(String name, int messages, long elapsed, int connections) {
+        System.out.printf("%-34s %10d %10.0f %10d%n", name, elapsed / 1_000_000, messages / (elapsed / 1e9), connections);
+    }
+
+    private static JavaMailSenderImpl sender(SmtpStandIn smtp) {
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(smtp.getPort());
+        return sender;
+    }
+
+    private static SimpleMailMessage message(int i) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("noreply@ex.com");
+        message.setTo("usuario" + i + "@ex.com");
+        message.setSubject("Bem-vindo(a) à nossa aplicação");
+        message.setText("Olá usuario" + i + ",\n\nSeu usuário foi criado com sucesso!");
+        return message;
+    }
+}
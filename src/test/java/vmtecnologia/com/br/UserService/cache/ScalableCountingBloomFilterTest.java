@@ -0,0 +1,66 @@
+package vmtecnologia.com.br.UserService.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScalableCountingBloomFilterTest {
+
+    @Test
+    @DisplayName("não deve gerar falsos negativos para elementos adicionados")
+    void noFalseNegatives() {
+        ScalableCountingBloomFilter filter = new ScalableCountingBloomFilter(1_000, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.add("usuario" + i + "@ex.com");
+        }
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(filter.mightContain("usuario" + i + "@ex.com")).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("deve manter a taxa de falso positivo próxima da configurada")
+    void falsePositiveRate() {
+        ScalableCountingBloomFilter filter = new ScalableCountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("usuario" + i + "@ex.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("novo" + i + "@ex.com")) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(200);
+    }
+
+    @Test
+    @DisplayName("deve esquecer elementos removidos")
+    void remove() {
+        ScalableCountingBloomFilter filter = new ScalableCountingBloomFilter(100, 0.01);
+        filter.add("a@ex.com");
+        filter.add("b@ex.com");
+
+        filter.remove("a@ex.com");
+
+        assertThat(filter.mightContain("a@ex.com")).isFalse();
+        assertThat(filter.mightContain("b@ex.com")).isTrue();
+    }
+
+    @Test
+    @DisplayName("deve criar novas camadas ao exceder a capacidade")
+    void grows() {
+        ScalableCountingBloomFilter filter = new ScalableCountingBloomFilter(100, 0.01);
+        for (int i = 0; i < 1_000; i++) {
+            filter.add("usuario" + i + "@ex.com");
+        }
+
+        assertThat(filter.layerCount()).isGreaterThan(1);
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(filter.mightContain("usuario" + i + "@ex.com")).isTrue();
+        }
+    }
+}
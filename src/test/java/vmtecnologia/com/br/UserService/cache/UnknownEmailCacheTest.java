@@ -0,0 +1,87 @@
+package vmtecnologia.com.br.UserService.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UnknownEmailCacheTest {
+
+    private static final String EMAIL = "inexistente@ex.com";
+
+    private AtomicLong nanos;
+    private UnknownEmailCache cache;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong();
+        cache = new UnknownEmailCache(60_000L, 100, nanos::get, Runnable::run);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("deve esquecer o e-mail após o TTL")
+    void expiresAfterTtl() {
+        cache.markMissing(EMAIL);
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(59_999L));
+        assertThat(cache.isKnownMissing(EMAIL)).isTrue();
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1L));
+        assertThat(cache.isKnownMissing(EMAIL)).isFalse();
+    }
+
+    @Test
+    @DisplayName("deve limitar a quantidade de e-mails e continuar registrando os novos")
+    void boundedSize() {
+        for (int i = 0; i < 10_000; i++) {
+            cache.markMissing("rajada" + i + "@ex.com");
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        cache.markMissing(EMAIL);
+        assertThat(cache.isKnownMissing(EMAIL)).isTrue();
+    }
+
+    @Test
+    @DisplayName("deve repetir a remoção após o commit, descartando marcação feita durante a transação")
+    void invalidatesAgainAfterCommit() {
+        cache.markMissing(EMAIL);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidate(EMAIL);
+        // login concorrente que ainda não vê o usuário criado
+        cache.markMissing(EMAIL);
+        assertThat(cache.isKnownMissing(EMAIL)).isTrue();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(cache.isKnownMissing(EMAIL)).isFalse();
+    }
+
+    @Test
+    @DisplayName("deve esvaziar o cache e repetir a limpeza após o commit")
+    void invalidatesAllAgainAfterCommit() {
+        cache.markMissing(EMAIL);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.invalidateAll();
+        cache.markMissing(EMAIL);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(cache.isKnownMissing(EMAIL)).isFalse();
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,87 @@
+package vmtecnologia.com.br.UserService.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import vmtecnologia.com.br.UserService.cache.UserPageCache.PageKey;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserPageCacheTest {
+
+    private static PageKey page(int pageNumber) {
+        return new PageKey("usuario", null, true, pageNumber, 10);
+    }
+
+    @Test
+    @DisplayName("deve guardar IDs e total por filtros e paginação")
+    void putAndGet() {
+        UserPageCache cache = new UserPageCache(10, 60_000);
+
+        cache.put(page(0), List.of(3L, 1L, 2L), 25, cache.generation());
+
+        assertThat(cache.get(page(0)).ids()).containsExactly(3L, 1L, 2L);
+        assertThat(cache.get(page(0)).total()).isEqualTo(25);
+        assertThat(cache.get(page(1))).isNull();
+        assertThat(cache.get(new PageKey("usuario", null, false, 0, 10))).isNull();
+    }
+
+    @Test
+    @DisplayName("deve invalidar todas as páginas ao avançar a geração")
+    void invalidatesAll() {
+        UserPageCache cache = new UserPageCache(10, 60_000);
+        cache.put(page(0), List.of(1L), 1, cache.generation());
+        cache.put(page(1), List.of(2L), 1, cache.generation());
+
+        cache.invalidate();
+
+        assertThat(cache.get(page(0))).isNull();
+        assertThat(cache.get(page(1))).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("não deve guardar página lida antes de uma invalidação")
+    void rejectsStalePut() {
+        UserPageCache cache = new UserPageCache(10, 60_000);
+        long generation = cache.generation();
+
+        cache.invalidate();
+        cache.put(page(0), List.of(1L), 1, generation);
+
+        assertThat(cache.get(page(0))).isNull();
+    }
+
+    @Test
+    @DisplayName("deve descartar as páginas menos usadas ao exceder o limite")
+    void evictsLeastRecentlyUsed() {
+        UserPageCache cache = new UserPageCache(2, 60_000);
+        cache.put(page(0), List.of(1L), 3, cache.generation());
+        cache.put(page(1), List.of(2L), 3, cache.generation());
+        cache.get(page(0));
+
+        cache.put(page(2), List.of(3L), 3, cache.generation());
+
+        assertThat(cache.get(page(1))).isNull();
+        assertThat(cache.get(page(0))).isNotNull();
+        assertThat(cache.get(page(2))).isNotNull();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("deve expirar a página após o tempo de expiração, mesmo sem alterações locais")
+    void expiresAfterWrite() {
+        AtomicLong now = new AtomicLong(1_000);
+        UserPageCache cache = new UserPageCache(10, 500, now::get);
+        cache.put(page(0), List.of(1L), 1, cache.generation());
+
+        now.addAndGet(499);
+        assertThat(cache.get(page(0))).isNotNull();
+
+        now.addAndGet(1);
+        assertThat(cache.get(page(0))).isNull();
+        assertThat(cache.size()).isZero();
+    }
+}
@@ -0,0 +1,102 @@
+package vmtecnologia.com.br.UserService.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import vmtecnologia.com.br.UserService.cache.UserResponseCache.CachedResponse;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserResponseCacheTest {
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+
+    private static CachedResponse response(int size) {
+        return new CachedResponse(new byte[size], MediaType.APPLICATION_JSON, 0L);
+    }
+
+    @Test
+    @DisplayName("deve guardar respostas por ID e tipo de mídia")
+    void putAndGet() {
+        UserResponseCache cache = new UserResponseCache(10_000, 60_000);
+        CachedResponse json = response(10);
+
+        cache.put(1L, MediaType.APPLICATION_JSON, json, cache.epoch());
+
+        assertThat(cache.get(1L, MediaType.APPLICATION_JSON)).isSameAs(json);
+        assertThat(cache.get(1L, CBOR)).isNull();
+        assertThat(cache.usedBytes()).isEqualTo(10 + UserResponseCache.ENTRY_OVERHEAD);
+    }
+
+    @Test
+    @DisplayName("deve descartar os usuários menos usados ao exceder o limite de bytes")
+    void evictsLeastRecentlyUsed() {
+        int entry = 100 + UserResponseCache.ENTRY_OVERHEAD;
+        UserResponseCache cache = new UserResponseCache(3L * entry, 60_000);
+        cache.put(1L, MediaType.APPLICATION_JSON, response(100), cache.epoch());
+        cache.put(2L, MediaType.APPLICATION_JSON, response(100), cache.epoch());
+        cache.put(3L, MediaType.APPLICATION_JSON, response(100), cache.epoch());
+        cache.get(1L, MediaType.APPLICATION_JSON);
+
+        cache.put(4L, MediaType.APPLICATION_JSON, response(100), cache.epoch());
+
+        assertThat(cache.get(2L, MediaType.APPLICATION_JSON)).isNull();
+        assertThat(cache.get(1L, MediaType.APPLICATION_JSON)).isNotNull();
+        assertThat(cache.get(4L, MediaType.APPLICATION_JSON)).isNotNull();
+        assertThat(cache.usedBytes()).isLessThanOrEqualTo(3L * entry);
+    }
+
+    @Test
+    @DisplayName("deve ignorar respostas maiores que o limite")
+    void rejectsOversized() {
+        UserResponseCache cache = new UserResponseCache(100, 60_000);
+
+        cache.put(1L, MediaType.APPLICATION_JSON, response(500), cache.epoch());
+
+        assertThat(cache.get(1L, MediaType.APPLICATION_JSON)).isNull();
+        assertThat(cache.usedBytes()).isZero();
+    }
+
+    @Test
+    @DisplayName("deve remover todos os formatos do usuário ao invalidar")
+    void invalidateAllMediaTypes() {
+        UserResponseCache cache = new UserResponseCache(10_000, 60_000);
+        cache.put(1L, MediaType.APPLICATION_JSON, response(10), cache.epoch());
+        cache.put(1L, CBOR, response(8), cache.epoch());
+
+        cache.invalidate(1L);
+
+        assertThat(cache.get(1L, MediaType.APPLICATION_JSON)).isNull();
+        assertThat(cache.get(1L, CBOR)).isNull();
+        assertThat(cache.usedBytes()).isZero();
+    }
+
+    @Test
+    @DisplayName("não deve guardar resposta carregada antes de uma invalidação")
+    void rejectsStaleLoad() {
+        UserResponseCache cache = new UserResponseCache(10_000, 60_000);
+        long epochAtLoad = cache.epoch();
+
+        cache.invalidate(1L);
+        cache.put(1L, MediaType.APPLICATION_JSON, response(10), epochAtLoad);
+
+        assertThat(cache.get(1L, MediaType.APPLICATION_JSON)).isNull();
+    }
+
+    @Test
+    @DisplayName("deve expirar a resposta após o tempo de expiração, mesmo sem invalidação local")
+    void expiresAfterWrite() {
+        AtomicLong now = new AtomicLong(1_000);
+        UserResponseCache cache = new UserResponseCache(10_000, 500, now::get);
+        cache.put(1L, MediaType.APPLICATION_JSON, response(10), cache.epoch());
+
+        now.addAndGet(499);
+        assertThat(cache.get(1L, MediaType.APPLICATION_JSON)).isNotNull();
+
+        now.addAndGet(1);
+        assertThat(cache.get(1L, MediaType.APPLICATION_JSON)).isNull();
+        assertThat(cache.usedBytes()).isZero();
+    }
+}
@@ -0,0 +1,54 @@
+package vmtecnologia.com.br.UserService.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.mapper.UserMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeImageConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new NativeImageConfig.UserServiceRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("deve registrar a implementação gerada pelo MapStruct")
+    void mapperImpl() throws ClassNotFoundException {
+        Class<?> impl = Class.forName(UserMapper.class.getName() + "Impl");
+
+        assertThat(RuntimeHintsPredicates.reflection().onType(impl)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+    }
+
+    @Test
+    @DisplayName("deve registrar as classes do jjwt carregadas pelo nome e seus ServiceLoaders")
+    void jjwt() throws ClassNotFoundException {
+        for (String type : new String[]{"io.jsonwebtoken.impl.DefaultJwtBuilder",
+                "io.jsonwebtoken.impl.DefaultJwtParserBuilder", "io.jsonwebtoken.jackson.io.JacksonDeserializer"}) {
+            assertThat(RuntimeHintsPredicates.reflection().onType(Class.forName(type))
+                    .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        }
+        assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Serializer"))
+                .accepts(hints);
+    }
+
+    @Test
+    @DisplayName("deve registrar a entidade e o provider do cache de segundo nível")
+    void hibernate() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(UserEntity.class)
+                .withMemberCategory(MemberCategory.DECLARED_FIELDS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(CaffeineCachingProvider.class)
+                .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("reference.conf")).accepts(hints);
+    }
+}
@@ -13,16 +13,21 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.web.servlet.MockMvc;
 import vmtecnologia.com.br.UserService.exception.IncorrectPasswordException;
+import vmtecnologia.com.br.UserService.exception.InvalidRefreshTokenException;
 import vmtecnologia.com.br.UserService.exception.UserNotFoundException;
 import vmtecnologia.com.br.UserService.filter.AuthenticationFilter;
 import vmtecnologia.com.br.UserService.model.LoginRequestModel;
+import vmtecnologia.com.br.UserService.model.RefreshTokenRequestModel;
 import vmtecnologia.com.br.UserService.model.TokenModel;
 import vmtecnologia.com.br.UserService.service.AuthService;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -38,6 +43,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         }
 )
 @AutoConfigureMockMvc(addFilters = false)
+@DisabledInAotMode // @MockBean não é suportado no modo AOT/nativo
 class AuthControllerTest {
 
     @Autowired
@@ -103,7 +109,31 @@ class AuthControllerTest {
             mvc.perform(post("/auth/login")
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(mapper.writeValueAsString(req)))
-                    .andExpect(status().isUnauthorized());
+                    .andExpect(status().isUnauthorized())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.status").value(401))
+                    .andExpect(jsonPath("$.error").value("Senha incorreta"))
+                    .andExpect(jsonPath("$.message").value("Senha incorreta. Por favor, tente novamente."))
+                    .andExpect(jsonPath("$.path").value("/auth/login"))
+                    .andExpect(jsonPath("$.timestamp").isNotEmpty());
+        }
+
+        @Test
+        @DisplayName("– Falha: senha incorreta com Accept CBOR -> 401 em CBOR")
+        void loginIncorrectPasswordCbor() throws Exception {
+            LoginRequestModel req = new LoginRequestModel();
+            req.setEmail("usuario@ex.com");
+            req.setPassword("SenhaErrada1!");
+
+            given(authService.authenticate(any(LoginRequestModel.class)))
+                    .willThrow(new IncorrectPasswordException());
+
+            mvc.perform(post("/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .accept(MediaType.APPLICATION_CBOR)
+                            .content(mapper.writeValueAsString(req)))
+                    .andExpect(status().isUnauthorized())
+                    .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
         }
 
         @Test
@@ -116,4 +146,84 @@ class AuthControllerTest {
                     .andExpect(status().isBadRequest());
         }
     }
+
+    @Nested
+    @DisplayName("POST /auth/refresh")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("– Sucesso: retorna 200 com novo par de tokens")
+        void refreshSuccess() throws Exception {
+            RefreshTokenRequestModel req = new RefreshTokenRequestModel("refresh-antigo");
+
+            TokenModel token = TokenModel.builder()
+                    .token("jwt-novo")
+                    .refreshToken("refresh-novo")
+                    .expiresIn(900L)
+                    .build();
+
+            given(authService.refresh(any(RefreshTokenRequestModel.class)))
+                    .willReturn(token);
+
+            mvc.perform(post("/auth/refresh")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(req)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.token").value("jwt-novo"))
+                    .andExpect(jsonPath("$.refreshToken").value("refresh-novo"))
+                    .andExpect(jsonPath("$.expiresIn").value(900));
+        }
+
+        @Test
+        @DisplayName("– Falha: refresh token inválido -> 401")
+        void refreshInvalid() throws Exception {
+            RefreshTokenRequestModel req = new RefreshTokenRequestModel("refresh-usado");
+
+            given(authService.refresh(any(RefreshTokenRequestModel.class)))
+                    .willThrow(new InvalidRefreshTokenException());
+
+            mvc.perform(post("/auth/refresh")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(req)))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        @Test
+        @DisplayName("– Falha: payload sem refresh token -> 400")
+        void refreshBadRequest() throws Exception {
+            mvc.perform(post("/auth/refresh")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{}"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /auth/logout")
+    class LogoutTests {
+
+        @Test
+        @DisplayName("– Sucesso: revoga tokens e retorna 204")
+        void logoutSuccess() throws Exception {
+            RefreshTokenRequestModel req = new RefreshTokenRequestModel("refresh-atual");
+
+            mvc.perform(post("/auth/logout")
+                            .header("Authorization", "Bearer jwt-atual")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(req)))
+                    .andExpect(status().isNoContent());
+
+            then(authService).should().logout(eq("Bearer jwt-atual"), any(RefreshTokenRequestModel.class));
+        }
+
+        @Test
+        @DisplayName("– Sem corpo: retorna 204")
+        void logoutWithoutBody() throws Exception {
+            mvc.perform(post("/auth/logout")
+                            .header("Authorization", "Bearer jwt-atual"))
+                    .andExpect(status().isNoContent());
+
+            then(authService).should().logout("Bearer jwt-atual", null);
+        }
+    }
 }
@@ -0,0 +1,233 @@
+package vmtecnologia.com.br.UserService.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import vmtecnologia.com.br.UserService.datasource.SqlCapture;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.model.request.BulkUserRequest;
+import vmtecnologia.com.br.UserService.model.request.UserModelRequest;
+import vmtecnologia.com.br.UserService.repository.RefreshTokenRepository;
+import vmtecnologia.com.br.UserService.repository.UserRepository;
+import vmtecnologia.com.br.UserService.repository.specification.UserSpecification;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Orçamento de SQL por endpoint: quantos comandos cada requisição executa e quantas linhas eles
+ * leem ou alteram, incluindo a autenticação.
+ *
+ * <p>Os valores são exatos de propósito. Um comando a mais quebra o build; um a menos também, para
+ * que o orçamento seja reduzido junto com a melhoria e não fique folga para a próxima regressão.
+ * A mensagem de falha lista o SQL executado.</p>
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:sql_budget")
+@AutoConfigureMockMvc
+@Import(SqlCapture.Config.class)
+class SqlBudgetTest {
+
+    private static final String DOMAIN = "@budget.com";
+    private static final String EMAIL = "conta" + DOMAIN;
+    private static final String PASSWORD = "Senha@123";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<UserEntity> users;
+    private JsonNode tokens;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        userRepository.save(UserEntity.builder()
+                .username("conta")
+                .email(EMAIL)
+                .password(passwordEncoder.encode(PASSWORD))
+                .enabled(true)
+                .build());
+        users = IntStream.range(0, 3)
+                .mapToObj(i -> userRepository.save(UserEntity.builder()
+                        .username("orcamento" + i)
+                        .email("orcamento" + i + DOMAIN)
+                        .password("hash")
+                        .enabled(true)
+                        .build()))
+                .toList();
+        tokens = objectMapper.readTree(mvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("email", EMAIL, "password", PASSWORD))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.delete(UserSpecification.withFilters(null, DOMAIN, null));
+        refreshTokenRepository.deleteAllInBatch();
+    }
+
+    @Nested
+    @DisplayName("UserController")
+    class UserEndpoints {
+
+        @Test
+        @DisplayName("POST /save: reserva da sequência de modificação e INSERT, o filtro de Bloom dispensa a consulta do e-mail novo")
+        void save() throws Exception {
+            UserModelRequest request = UserModelRequest.builder()
+                    .username("novo").email("novo" + DOMAIN).password(PASSWORD).enabled(true).build();
+
+            assertBudget(authorized(post("/user/api/v1/save")).content(json(request)), status().isOk(), 2, 2);
+        }
+
+        @Test
+        @DisplayName("PUT /update: leitura do usuário, reserva da sequência, UPDATE versionado e revogação dos refresh tokens")
+        void update() throws Exception {
+            UserModelRequest request = UserModelRequest.builder()
+                    .username("alterado").email(users.get(0).getEmail()).password(PASSWORD).enabled(true).build();
+
+            assertBudget(authorized(put("/user/api/v1/update")).content(json(request)), status().isOk(), 4, 3);
+        }
+
+        @Test
+        @DisplayName("DELETE /delete: e-mail, leitura do usuário, reserva da sequência, revogação dos refresh tokens, registro da exclusão e DELETE")
+        void deleteUser() throws Exception {
+            assertBudget(authorized(delete("/user/api/v1/delete")).param("id", id(0)), status().isOk(), 6, 5);
+        }
+
+        @Test
+        @DisplayName("GET /findAll: página sem contagem quando o resultado cabe nela")
+        void findAll() throws Exception {
+            assertBudget(authorized(get("/user/api/v1/findAll")).param("email", DOMAIN), status().isOk(), 1, 4);
+        }
+
+        @Test
+        @DisplayName("GET /findAll repetido: IDs e total do cache de páginas, usuários do cache de segundo nível")
+        void findAllCached() throws Exception {
+            mvc.perform(authorized(get("/user/api/v1/findAll")).param("email", DOMAIN)).andExpect(status().isOk());
+
+            assertBudget(authorized(get("/user/api/v1/findAll")).param("email", DOMAIN), status().isOk(), 0, 0);
+        }
+
+        @Test
+        @DisplayName("GET /findById: uma leitura pela chave primária")
+        void findById() throws Exception {
+            assertBudget(authorized(get("/user/api/v1/findById")).param("id", id(1)), status().isOk(), 1, 1);
+        }
+
+        @Test
+        @DisplayName("POST /bulk/disable: seleção das chaves, reserva da sequência e um único UPDATE")
+        void bulkDisable() throws Exception {
+            BulkUserRequest request = BulkUserRequest.builder().email("orcamento").build();
+
+            assertBudget(authorized(post("/user/api/v1/bulk/disable")).content(json(request)), status().isOk(), 3, 7);
+        }
+
+        @Test
+        @DisplayName("POST /bulk/delete: seleção das chaves, um DELETE, reserva da sequência, uma revogação dos refresh tokens e um INSERT por registro de exclusão")
+        void bulkDelete() throws Exception {
+            BulkUserRequest request = BulkUserRequest.builder().email("orcamento").build();
+
+            assertBudget(authorized(post("/user/api/v1/bulk/delete")).content(json(request)), status().isOk(), 7, 10);
+        }
+
+        @Test
+        @DisplayName("GET /delta: usuários e exclusões a partir da marca, um item além do limite")
+        void delta() throws Exception {
+            String watermark = String.valueOf(users.get(0).getModSeq() - 1);
+
+            assertBudget(authorized(get("/user/api/v1/delta")).param("watermark", watermark).param("limit", "2"),
+                    status().isOk(), 2, 3);
+        }
+    }
+
+    @Nested
+    @DisplayName("AuthController")
+    class AuthEndpoints {
+
+        @Test
+        @DisplayName("POST /auth/login: leitura do usuário habilitado, INSERT do refresh token e leitura dos tokens ativos do usuário")
+        void login() throws Exception {
+            // a alteração invalida o cache de consultas aquecido pelo login do setUp
+            UserEntity other = users.get(2);
+            other.setUsername("orcamento-alterado");
+            userRepository.save(other);
+            MockHttpServletRequestBuilder request = post("/auth/login").contentType(MediaType.APPLICATION_JSON)
+                    .content(json(Map.of("email", EMAIL, "password", PASSWORD)));
+
+            assertBudget(request, status().isOk(), 3, 4);
+        }
+
+        @Test
+        @DisplayName("POST /auth/refresh: leitura e DELETE do token consumido, INSERT do novo e leitura dos tokens ativos")
+        void refresh() throws Exception {
+            MockHttpServletRequestBuilder request = post("/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                    .content(json(Map.of("refreshToken", tokens.get("refreshToken").asText())));
+
+            assertBudget(request, status().isOk(), 4, 4);
+        }
+
+        @Test
+        @DisplayName("POST /auth/logout: um DELETE pelo hash do token")
+        void logout() throws Exception {
+            MockHttpServletRequestBuilder request = authorized(post("/auth/logout"))
+                    .content(json(Map.of("refreshToken", tokens.get("refreshToken").asText())));
+
+            assertBudget(request, status().isNoContent(), 1, 1);
+        }
+    }
+
+    private void assertBudget(MockHttpServletRequestBuilder request, ResultMatcher expectedStatus,
+                              int statements, long rows) throws Exception {
+        SqlCapture.Recording recording = SqlCapture.record(() -> mvc.perform(request).andExpect(expectedStatus));
+
+        assertThat(recording.getStatements()).as("comandos SQL\n%s", recording).hasSize(statements);
+        assertThat(recording.getRows()).as("linhas lidas ou alteradas\n%s", recording).isEqualTo(rows);
+    }
+
+    private MockHttpServletRequestBuilder authorized(MockHttpServletRequestBuilder request) {
+        return request.contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + tokens.get("token").asText());
+    }
+
+    private String id(int index) {
+        return users.get(index).getId().toString();
+    }
+
+    private String json(Object body) throws Exception {
+        return objectMapper.writeValueAsString(body);
+    }
+}
@@ -1,6 +1,7 @@
 package vmtecnologia.com.br.UserService.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.CodedInputStream;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -13,21 +14,50 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import vmtecnologia.com.br.UserService.cache.UserResponseCache;
+import vmtecnologia.com.br.UserService.cache.UserResponseCache.CachedResponse;
+import vmtecnologia.com.br.UserService.converter.UserProtobufCodec;
+import vmtecnologia.com.br.UserService.converter.UserProtobufHttpMessageConverter;
+import vmtecnologia.com.br.UserService.converter.UserResponseSerializer;
+import vmtecnologia.com.br.UserService.exception.BulkSelectionRequiredException;
+import vmtecnologia.com.br.UserService.exception.BulkSelectionTooLargeException;
+import vmtecnologia.com.br.UserService.exception.ChangeFeedUnavailableException;
+import vmtecnologia.com.br.UserService.exception.InvalidWatermarkException;
+import vmtecnologia.com.br.UserService.exception.PreconditionFailedException;
+import vmtecnologia.com.br.UserService.feed.UserChangeFeed;
 import vmtecnologia.com.br.UserService.filter.AuthenticationFilter;
 import vmtecnologia.com.br.UserService.model.PageModel;
+import vmtecnologia.com.br.UserService.model.request.BulkUserRequest;
 import vmtecnologia.com.br.UserService.model.request.UserModelRequest;
+import vmtecnologia.com.br.UserService.model.response.UserDeltaItem;
+import vmtecnologia.com.br.UserService.model.response.UserDeltaResponse;
 import vmtecnologia.com.br.UserService.model.response.UserModelResponse;
 import vmtecnologia.com.br.UserService.service.UserService;
+import vmtecnologia.com.br.UserService.service.UserSyncService;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
 import static org.mockito.BDDMockito.willThrow;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.mockito.Mockito.never;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(
@@ -44,6 +74,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
         }
 )
 @AutoConfigureMockMvc(addFilters = false)  // desabilita filtros de segurança
+@Import(UserResponseSerializer.class)
+@DisabledInAotMode // @MockBean não é suportado no modo AOT/nativo
 class UserControllerTest {
 
     @Autowired
@@ -52,6 +84,12 @@ class UserControllerTest {
     private ObjectMapper mapper;
     @MockBean
     private UserService userService;
+    @MockBean
+    private UserResponseCache userResponseCache;
+    @MockBean
+    private UserChangeFeed userChangeFeed;
+    @MockBean
+    private UserSyncService userSyncService;
 
     @Nested
     @DisplayName("POST /user/api/v1/save")
@@ -106,7 +144,7 @@ class UserControllerTest {
                     .build();
             UserModelResponse resp = UserModelResponse.builder()
                     .id(2L).username("maria").email("maria@ex.com").enabled(false).build();
-            given(userService.updateUser(any())).willReturn(resp);
+            given(userService.updateUser(any(), any())).willReturn(resp);
 
             mvc.perform(put("/user/api/v1/update")
                             .contentType(MediaType.APPLICATION_JSON)
@@ -124,13 +162,87 @@ class UserControllerTest {
                     .email("maria@ex.com")
                     .password("OutraSenha1!")
                     .build();
-            given(userService.updateUser(any())).willReturn(null);
+            given(userService.updateUser(any(), any())).willReturn(null);
 
             mvc.perform(put("/user/api/v1/update")
                             .contentType(MediaType.APPLICATION_JSON)
                             .content(mapper.writeValueAsString(req)))
                     .andExpect(status().isBadRequest());
         }
+
+        @Test
+        @DisplayName("– If-Match: repassa a versão e retorna a nova ETag")
+        void updateIfMatch() throws Exception {
+            UserModelRequest req = UserModelRequest.builder()
+                    .username("maria")
+                    .email("maria@ex.com")
+                    .password("OutraSenha1!")
+                    .build();
+            UserModelResponse resp = UserModelResponse.builder()
+                    .id(2L).username("maria").email("maria@ex.com").version(4L).build();
+            given(userService.updateUser(any(), eq(3L))).willReturn(resp);
+
+            mvc.perform(put("/user/api/v1/update")
+                            .header(HttpHeaders.IF_MATCH, "\"3\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(req)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+        }
+
+        @Test
+        @DisplayName("– If-Match com a ETag de outro formato: repassa a versão")
+        void updateIfMatchOtherFormat() throws Exception {
+            UserModelRequest req = UserModelRequest.builder()
+                    .username("maria")
+                    .email("maria@ex.com")
+                    .password("OutraSenha1!")
+                    .build();
+            UserModelResponse resp = UserModelResponse.builder()
+                    .id(2L).username("maria").email("maria@ex.com").version(4L).build();
+            given(userService.updateUser(any(), eq(3L))).willReturn(resp);
+
+            mvc.perform(put("/user/api/v1/update")
+                            .header(HttpHeaders.IF_MATCH, "\"3-x-protobuf\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(req)))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+        }
+
+        @Test
+        @DisplayName("– If-Match desatualizado -> 412")
+        void updateStaleVersion() throws Exception {
+            UserModelRequest req = UserModelRequest.builder()
+                    .username("maria")
+                    .email("maria@ex.com")
+                    .password("OutraSenha1!")
+                    .build();
+            given(userService.updateUser(any(), eq(3L))).willThrow(new PreconditionFailedException("maria@ex.com"));
+
+            mvc.perform(put("/user/api/v1/update")
+                            .header(HttpHeaders.IF_MATCH, "\"3\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(req)))
+                    .andExpect(status().isPreconditionFailed());
+        }
+
+        @Test
+        @DisplayName("– If-Match com ETag fraca -> 412 sem atualizar")
+        void updateWeakETag() throws Exception {
+            UserModelRequest req = UserModelRequest.builder()
+                    .username("maria")
+                    .email("maria@ex.com")
+                    .password("OutraSenha1!")
+                    .build();
+
+            mvc.perform(put("/user/api/v1/update")
+                            .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(mapper.writeValueAsString(req)))
+                    .andExpect(status().isPreconditionFailed());
+            then(userService).should(never()).updateUser(any(), any());
+        }
     }
 
     @Nested
@@ -229,5 +341,268 @@ class UserControllerTest {
                             .param("id", "123"))
                     .andExpect(status().isNotFound());
         }
+
+        @Test
+        @DisplayName("– Accept CBOR -> responde em application/cbor")
+        void findByIdCbor() throws Exception {
+            UserModelResponse resp = UserModelResponse.builder()
+                    .id(5L).username("ana").email("ana@ex.com").enabled(true).build();
+            given(userService.findById(5L)).willReturn(resp);
+
+            mvc.perform(get("/user/api/v1/findById")
+                            .param("id", "5")
+                            .accept("application/cbor"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/cbor"));
+        }
+
+        @Test
+        @DisplayName("– Accept Protobuf -> responde em application/x-protobuf")
+        void findByIdProtobuf() throws Exception {
+            UserModelResponse resp = UserModelResponse.builder()
+                    .id(5L).username("ana").email("ana@ex.com").enabled(true).version(1L).build();
+            given(userService.findById(5L)).willReturn(resp);
+
+            byte[] body = mvc.perform(get("/user/api/v1/findById")
+                            .param("id", "5")
+                            .accept(UserProtobufHttpMessageConverter.PROTOBUF))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(UserProtobufHttpMessageConverter.PROTOBUF))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            assertThat(UserProtobufCodec.readUser(CodedInputStream.newInstance(body)))
+                    .usingRecursiveComparison().isEqualTo(resp);
+        }
+
+        @Test
+        @DisplayName("– Resposta em cache -> devolve os bytes sem consultar o serviço")
+        void findByIdCached() throws Exception {
+            byte[] body = "{\"id\":5,\"username\":\"ana\"}".getBytes(StandardCharsets.UTF_8);
+            given(userResponseCache.get(5L, MediaType.APPLICATION_JSON))
+                    .willReturn(new CachedResponse(body, MediaType.APPLICATION_JSON, 2L));
+
+            mvc.perform(get("/user/api/v1/findById")
+                            .param("id", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                    .andExpect(content().bytes(body))
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+            then(userService).should(never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("– Cache vazio -> serializa e guarda a resposta pelo tipo negociado")
+        void findByIdPopulatesCache() throws Exception {
+            UserModelResponse resp = UserModelResponse.builder()
+                    .id(5L).username("ana").email("ana@ex.com").enabled(true).version(2L).build();
+            given(userResponseCache.epoch()).willReturn(9L);
+            given(userService.findById(5L)).willReturn(resp);
+
+            mvc.perform(get("/user/api/v1/findById")
+                            .param("id", "5")
+                            .accept("application/x-jackson-smile"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentType("application/x-jackson-smile"));
+            then(userResponseCache).should().put(eq(5L), eq(MediaType.parseMediaType("application/x-jackson-smile")),
+                    argThat(cached -> cached.version() == 2L && cached.body().length > 0), eq(9L));
+        }
+
+        @Test
+        @DisplayName("– Accept sem formato suportado -> 406")
+        void findByIdNotAcceptable() throws Exception {
+            given(userService.findById(5L)).willReturn(UserModelResponse.builder().id(5L).build());
+
+            mvc.perform(get("/user/api/v1/findById")
+                            .param("id", "5")
+                            .accept(MediaType.APPLICATION_PDF))
+                    .andExpect(status().isNotAcceptable());
+        }
+
+        @Test
+        @DisplayName("– Retorna ETag com a versão do usuário")
+        void findByIdETag() throws Exception {
+            UserModelResponse resp = UserModelResponse.builder()
+                    .id(5L).username("ana").email("ana@ex.com").enabled(true).version(7L).build();
+            given(userService.findById(5L)).willReturn(resp);
+
+            mvc.perform(get("/user/api/v1/findById")
+                            .param("id", "5"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"7\""))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+        }
+
+        @Test
+        @DisplayName("– ETag distinta por formato: a ETag do JSON não vale para Smile")
+        void findByIdETagPerFormat() throws Exception {
+            UserModelResponse resp = UserModelResponse.builder()
+                    .id(5L).username("ana").email("ana@ex.com").enabled(true).version(7L).build();
+            given(userService.findVersionById(5L)).willReturn(Optional.of(7L));
+            given(userService.findById(5L)).willReturn(resp);
+
+            mvc.perform(get("/user/api/v1/findById")
+                            .param("id", "5")
+                            .accept("application/x-jackson-smile")
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"7-x-jackson-smile\""))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT));
+
+            mvc.perform(get("/user/api/v1/findById")
+                            .param("id", "5")
+                            .accept("application/x-jackson-smile")
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"7-x-jackson-smile\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"7-x-jackson-smile\""));
+        }
+
+        @Test
+        @DisplayName("– If-None-Match com a versão atual -> 304 sem carregar o usuário")
+        void findByIdNotModified() throws Exception {
+            given(userService.findVersionById(5L)).willReturn(Optional.of(7L));
+
+            mvc.perform(get("/user/api/v1/findById")
+                            .param("id", "5")
+                            .header(HttpHeaders.IF_NONE_MATCH, "W/\"6\", \"7\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"7\""))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                    .andExpect(content().string(""));
+            then(userService).should(never()).findById(any());
+        }
+
+        @Test
+        @DisplayName("– If-None-Match desatualizado -> 200 com o usuário")
+        void findByIdModified() throws Exception {
+            UserModelResponse resp = UserModelResponse.builder()
+                    .id(5L).username("ana").email("ana@ex.com").enabled(true).version(8L).build();
+            given(userService.findVersionById(5L)).willReturn(Optional.of(8L));
+            given(userService.findById(5L)).willReturn(resp);
+
+            mvc.perform(get("/user/api/v1/findById")
+                            .param("id", "5")
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"7\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"8\""))
+                    .andExpect(jsonPath("$.version").value(8));
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /user/api/v1/bulk/*")
+    class BulkTests {
+        @Test
+        @DisplayName("– Desabilitação: retorna 200 com a quantidade de usuários alterados")
+        void disable() throws Exception {
+            given(userService.bulkSetEnabled(any(BulkUserRequest.class), eq(false))).willReturn(7L);
+
+            mvc.perform(post("/user/api/v1/bulk/disable")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"email\":\"@ex.com\",\"enabled\":true}"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.affected").value(7));
+        }
+
+        @Test
+        @DisplayName("– Exclusão sem IDs nem filtros -> 400")
+        void deleteWithoutSelection() throws Exception {
+            given(userService.bulkDelete(any(BulkUserRequest.class))).willThrow(new BulkSelectionRequiredException());
+
+            mvc.perform(post("/user/api/v1/bulk/delete")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Seleção obrigatória"));
+        }
+
+        @Test
+        @DisplayName("– IDs acima do limite -> 400 sem chamar o serviço")
+        void tooManyIds() throws Exception {
+            String ids = LongStream.rangeClosed(1, BulkUserRequest.MAX_IDS + 1).mapToObj(Long::toString)
+                    .collect(Collectors.joining(","));
+
+            mvc.perform(post("/user/api/v1/bulk/enable")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"ids\":[" + ids + "]}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Dados inválidos"));
+            then(userService).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("– Seleção por filtros acima do limite -> 400")
+        void selectionTooLarge() throws Exception {
+            given(userService.bulkSetEnabled(any(BulkUserRequest.class), eq(false)))
+                    .willThrow(new BulkSelectionTooLargeException(10_000));
+
+            mvc.perform(post("/user/api/v1/bulk/disable")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"email\":\"@ex.com\"}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Seleção muito grande"));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /user/api/v1/changes")
+    class ChangesTests {
+        @Test
+        @DisplayName("– Last-Event-ID: abre o fluxo SSE a partir da posição informada")
+        void resumeFromHeader() throws Exception {
+            given(userChangeFeed.subscribe(41L)).willReturn(new SseEmitter());
+
+            mvc.perform(get("/user/api/v1/changes")
+                            .accept(MediaType.TEXT_EVENT_STREAM)
+                            .header("Last-Event-ID", "41")
+                            .param("lastEventId", "7"))
+                    .andExpect(request().asyncStarted());
+
+            then(userChangeFeed).should().subscribe(41L);
+        }
+
+        @Test
+        @DisplayName("– Limite de assinantes atingido -> 503")
+        void tooManySubscribers() throws Exception {
+            given(userChangeFeed.subscribe(null)).willThrow(new ChangeFeedUnavailableException());
+
+            mvc.perform(get("/user/api/v1/changes").accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(jsonPath("$.error").value("Feed indisponível"));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /user/api/v1/delta")
+    class DeltaTests {
+        @Test
+        @DisplayName("– Sucesso: retorna as alterações, as exclusões e a próxima marca")
+        void delta() throws Exception {
+            UserDeltaResponse response = UserDeltaResponse.builder()
+                    .items(List.of(
+                            UserDeltaItem.builder().id(3L).email("a@ex.com")
+                                    .user(UserModelResponse.builder().id(3L).email("a@ex.com").build()).build(),
+                            UserDeltaItem.builder().id(4L).email("b@ex.com").deleted(true).build()))
+                    .watermark("12.4")
+                    .hasMore(true)
+                    .build();
+            given(userSyncService.findChangesSince("10.2", 2)).willReturn(response);
+
+            mvc.perform(get("/user/api/v1/delta").param("watermark", "10.2").param("limit", "2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.items[0].user.id").value(3))
+                    .andExpect(jsonPath("$.items[1].deleted").value(true))
+                    .andExpect(jsonPath("$.watermark").value("12.4"))
+                    .andExpect(jsonPath("$.hasMore").value(true));
+        }
+
+        @Test
+        @DisplayName("– Marca inválida -> 400")
+        void invalidWatermark() throws Exception {
+            given(userSyncService.findChangesSince(eq("abc"), anyInt())).willThrow(new InvalidWatermarkException("abc"));
+
+            mvc.perform(get("/user/api/v1/delta").param("watermark", "abc"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.error").value("Marca inválida"));
+        }
     }
 }
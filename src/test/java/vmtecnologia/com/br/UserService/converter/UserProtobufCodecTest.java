@@ -0,0 +1,109 @@
+package vmtecnologia.com.br.UserService.converter;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import vmtecnologia.com.br.UserService.model.PageModel;
+import vmtecnologia.com.br.UserService.model.TokenModel;
+import vmtecnologia.com.br.UserService.model.response.UserModelResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserProtobufCodecTest {
+
+    private final UserModelResponse user = UserModelResponse.builder()
+            .id(42L).enabled(true).username("ana").email("ana@ex.com").version(3L).build();
+
+    @Test
+    @DisplayName("deve codificar e decodificar uma página de usuários")
+    void pageRoundTrip() throws IOException {
+        PageModel<UserModelResponse> page = PageModel.<UserModelResponse>builder()
+                .page(0).pageSize(10).totalContent(2L).totalPages(1)
+                .items(List.of(user, UserModelResponse.builder().id(43L).username("bia").build()))
+                .build();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        UserProtobufCodec.writePage(out, page);
+        out.flush();
+        PageModel<UserModelResponse> decoded = UserProtobufCodec.readPage(CodedInputStream.newInstance(bytes.toByteArray()));
+
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(page);
+        assertThat(decoded.getItems().get(1).getEmail()).isNull();
+    }
+
+    @Test
+    @DisplayName("deve codificar e decodificar o token")
+    void tokenRoundTrip() throws IOException {
+        TokenModel token = new TokenModel("jwt", "refresh", 900L);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        UserProtobufCodec.writeToken(out, token);
+        out.flush();
+
+        assertThat(UserProtobufCodec.readToken(CodedInputStream.newInstance(bytes.toByteArray())))
+                .usingRecursiveComparison().isEqualTo(token);
+    }
+
+    @Test
+    @DisplayName("deve seguir o formato da mensagem User do esquema .proto")
+    void wireCompatibleWithSchema() throws Exception {
+        Descriptors.Descriptor descriptor = userDescriptor();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+        UserProtobufCodec.writeUser(out, user);
+        out.flush();
+        DynamicMessage message = DynamicMessage.parseFrom(descriptor, bytes.toByteArray());
+
+        assertThat(message.getField(descriptor.findFieldByName("id"))).isEqualTo(42L);
+        assertThat(message.getField(descriptor.findFieldByName("enabled"))).isEqualTo(true);
+        assertThat(message.getField(descriptor.findFieldByName("username"))).isEqualTo("ana");
+        assertThat(message.getField(descriptor.findFieldByName("email"))).isEqualTo("ana@ex.com");
+        assertThat(message.getField(descriptor.findFieldByName("version"))).isEqualTo(3L);
+        assertThat(message.getSerializedSize()).isEqualTo(UserProtobufCodec.userSize(user));
+
+        UserModelResponse decoded = UserProtobufCodec.readUser(CodedInputStream.newInstance(message.toByteArray()));
+        assertThat(decoded).usingRecursiveComparison().isEqualTo(user);
+    }
+
+    /**
+     * Descritor equivalente à mensagem <code>User</code> de <code>user_service.proto</code>.
+     */
+    private static Descriptors.Descriptor userDescriptor() throws Descriptors.DescriptorValidationException {
+        DescriptorProto user = DescriptorProto.newBuilder()
+                .setName("User")
+                .addField(field("id", 1, FieldDescriptorProto.Type.TYPE_INT64))
+                .addField(field("enabled", 2, FieldDescriptorProto.Type.TYPE_BOOL))
+                .addField(field("username", 3, FieldDescriptorProto.Type.TYPE_STRING))
+                .addField(field("email", 4, FieldDescriptorProto.Type.TYPE_STRING))
+                .addField(field("version", 5, FieldDescriptorProto.Type.TYPE_INT64))
+                .build();
+        FileDescriptorProto file = FileDescriptorProto.newBuilder()
+                .setName("user_service.proto")
+                .setPackage("vmtecnologia.userservice.v1")
+                .addMessageType(user)
+                .build();
+        return Descriptors.FileDescriptor.buildFrom(file, new Descriptors.FileDescriptor[0]).findMessageTypeByName("User");
+    }
+
+    private static FieldDescriptorProto field(String name, int number, FieldDescriptorProto.Type type) {
+        return FieldDescriptorProto.newBuilder()
+                .setName(name)
+                .setNumber(number)
+                .setType(type)
+                .setLabel(FieldDescriptorProto.Label.LABEL_OPTIONAL)
+                .build();
+    }
+}
@@ -0,0 +1,180 @@
+package vmtecnologia.com.br.UserService.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vmtecnologia.com.br.UserService.model.response.UserDeltaItem;
+import vmtecnologia.com.br.UserService.service.UserService;
+import vmtecnologia.com.br.UserService.service.UserSyncService;
+import vmtecnologia.com.br.UserService.sync.ModificationSequence;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sobe a aplicação com dois bancos H2 em memória, um como primário e outro como réplica.
+ * O esquema da réplica é criado antes do contexto (o primário é criado pelo Hibernate) e
+ * os dados de cada banco são inseridos diretamente, de modo que o resultado da consulta
+ * revela o banco usado.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.routing.enabled=true",
+        "app.datasource.routing.read-your-writes-window=60000",
+        "spring.datasource.url=jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "app.datasource.replica.url=" + ReadWriteRoutingDataSourceTest.REPLICA_URL
+})
+class ReadWriteRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1";
+    private static final String COUNT = "SELECT COUNT(*) FROM users WHERE username = ?";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserSyncService userSyncService;
+
+    @Autowired
+    private ModificationSequence modificationSequence;
+
+    private JdbcTemplate routed;
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeAll
+    static void createReplicaSchema() {
+        jdbc(REPLICA_URL).execute("""
+                CREATE TABLE IF NOT EXISTS users (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    username VARCHAR(255) NOT NULL UNIQUE,
+                    email VARCHAR(255) NOT NULL CONSTRAINT uk_users_email UNIQUE,
+                    password VARCHAR(255) NOT NULL,
+                    enabled BOOLEAN NOT NULL,
+                    version BIGINT NOT NULL,
+                    mod_seq BIGINT
+                )""");
+    }
+
+    @BeforeEach
+    void setUp() {
+        routed = new JdbcTemplate(dataSource);
+        primary = jdbc("jdbc:h2:mem:routing_primary");
+        replica = jdbc(REPLICA_URL);
+
+        insert(primary, "somente-primario");
+        insert(replica, "somente-replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        primary.update("DELETE FROM users");
+        replica.update("DELETE FROM users");
+    }
+
+    @Test
+    @DisplayName("deve enviar transações somente leitura para a réplica")
+    void readOnlyGoesToReplica() {
+        assertThat(count(true, "somente-replica")).isEqualTo(1);
+        assertThat(count(true, "somente-primario")).isZero();
+    }
+
+    @Test
+    @DisplayName("deve enviar transações de escrita e acessos sem transação para o primário")
+    void writesGoToPrimary() {
+        assertThat(count(false, "somente-primario")).isEqualTo(1);
+        assertThat(routed.queryForObject(COUNT, Integer.class, "somente-primario")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("deve ler do primário logo após escrita do próprio usuário")
+    void readYourWrites() {
+        authenticate("alice");
+        write();
+
+        assertThat(count(true, "somente-primario")).isEqualTo(1);
+
+        authenticate("bob");
+        assertThat(count(true, "somente-primario")).isZero();
+    }
+
+    @Test
+    @DisplayName("deve rotear as consultas somente leitura do UserService para a réplica")
+    void serviceReadOnlyQueries() {
+        assertThat(userService.findByUsernameAndEnabled("somente-replica", true)).isPresent();
+        assertThat(userService.findByUsernameAndEnabled("somente-primario", true)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("deve enviar ao primário as leituras marcadas, sem contá-las como escrita")
+    void primaryReadContext() {
+        authenticate("alice");
+
+        assertThat(PrimaryReadContext.call(() -> count(true, "somente-primario"))).isEqualTo(1);
+        assertThat(count(true, "somente-replica")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("deve ler do primário as alterações da sincronização incremental")
+    void deltaSyncReadsPrimary() {
+        long seq = modificationSequence.next();
+        primary.update("UPDATE users SET mod_seq = ?", seq);
+        replica.update("UPDATE users SET mod_seq = ?", seq);
+
+        assertThat(userSyncService.findChangesSince(null, 10).getItems())
+                .extracting(UserDeltaItem::getEmail)
+                .containsExactly("somente-primario@ex.com");
+    }
+
+    @Test
+    @DisplayName("deve buscar no primário o usuário do login, mesmo sem autenticação")
+    void loginLookupReadsPrimary() {
+        assertThat(userService.findByEmailAndEnabled("somente-primario@ex.com", Boolean.TRUE)).isPresent();
+        assertThat(userService.findByEmailAndEnabled("somente-replica@ex.com", Boolean.TRUE)).isEmpty();
+    }
+
+    private Integer count(boolean readOnly, String user) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(readOnly);
+        return tx.execute(status -> routed.queryForObject(COUNT, Integer.class, user));
+    }
+
+    private void write() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                routed.update("UPDATE users SET enabled = TRUE WHERE username = ?", "somente-primario"));
+    }
+
+    private static void authenticate(String principal) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, List.of()));
+    }
+
+    private static JdbcTemplate jdbc(String url) {
+        return new JdbcTemplate(new DriverManagerDataSource(url, "sa", ""));
+    }
+
+    private static void insert(JdbcTemplate jdbc, String user) {
+        jdbc.update("INSERT INTO users (username, email, password, enabled, version) VALUES (?, ?, 'hash', TRUE, 0)",
+                user, user + "@ex.com");
+    }
+}
@@ -0,0 +1,148 @@
+package vmtecnologia.com.br.UserService.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.model.PageModel;
+import vmtecnologia.com.br.UserService.model.request.BulkUserRequest;
+import vmtecnologia.com.br.UserService.model.response.UserModelResponse;
+import vmtecnologia.com.br.UserService.repository.UserRepository;
+import vmtecnologia.com.br.UserService.repository.specification.UserSpecification;
+import vmtecnologia.com.br.UserService.service.UserService;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sobe a aplicação com três bancos H2 em memória como shards. Os usuários são gravados pelo
+ * repositório e conferidos diretamente em cada banco.
+ */
+@SpringBootTest(properties = {
+        "app.datasource.sharding.enabled=true",
+        "app.datasource.sharding.urls=jdbc:h2:mem:shard_0,jdbc:h2:mem:shard_1,jdbc:h2:mem:shard_2",
+        "spring.datasource.username=sa",
+        "spring.datasource.password="
+})
+class ShardRoutingTest {
+
+    private static final String DOMAIN = "@shard.com";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ApplicationContext context;
+
+    private List<UserEntity> users;
+
+    @BeforeEach
+    void setUp() {
+        users = IntStream.range(0, 12)
+                .mapToObj(i -> userRepository.save(UserEntity.builder()
+                        .username("shard" + i)
+                        .email("shard" + i + DOMAIN)
+                        .password("hash")
+                        .enabled(true)
+                        .build()))
+                .toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.delete(UserSpecification.withFilters(null, DOMAIN, null));
+    }
+
+    @Test
+    @DisplayName("deve gravar cada usuário no shard do e-mail, com ID único que identifica o shard")
+    void storesByEmailHash() {
+        List<ShardTable> shards = shards();
+        assertThat(shards).hasSize(3);
+
+        for (UserEntity user : users) {
+            int shard = shardRouter.shardOf(user.getEmail());
+            assertThat(shardRouter.shardOf(user.getId())).isEqualTo(shard);
+            for (int i = 0; i < shards.size(); i++) {
+                assertThat(shards.get(i).countEmail(user.getEmail())).isEqualTo(i == shard ? 1 : 0);
+            }
+        }
+        assertThat(users).extracting(UserEntity::getId).doesNotHaveDuplicates();
+        // a distribuição usa mais de um shard
+        assertThat(users).extracting(user -> shardRouter.shardOf(user.getEmail())).contains(0, 1, 2);
+    }
+
+    @Test
+    @DisplayName("deve encontrar por e-mail e por ID em um único shard")
+    void singleShardLookups() {
+        UserEntity user = users.get(5);
+
+        assertThat(userRepository.findByEmail(user.getEmail())).map(UserEntity::getId).contains(user.getId());
+        assertThat(userRepository.findByEmailAndEnabled(user.getEmail(), true)).isPresent();
+        assertThat(userRepository.findById(user.getId())).map(UserEntity::getEmail).contains(user.getEmail());
+        assertThat(userRepository.findByUsernameAndEnabled(user.getUsername(), true)).isPresent();
+    }
+
+    @Test
+    @DisplayName("deve paginar a listagem intercalando os shards pela ordem do ID")
+    void scatterGatherPages() {
+        List<Long> expected = users.stream().map(UserEntity::getId).sorted().toList();
+
+        PageModel<UserModelResponse> first = userService.findAllUsers(null, DOMAIN, null, 0, 5);
+        PageModel<UserModelResponse> third = userService.findAllUsers(null, DOMAIN, null, 2, 5);
+
+        assertThat(first.getTotalContent()).isEqualTo(12);
+        assertThat(first.getTotalPages()).isEqualTo(3);
+        assertThat(first.getItems()).extracting(UserModelResponse::getId).containsExactlyElementsOf(expected.subList(0, 5));
+        assertThat(third.getItems()).extracting(UserModelResponse::getId).containsExactlyElementsOf(expected.subList(10, 12));
+    }
+
+    @Test
+    @DisplayName("deve carregar por IDs de vários shards mantendo a ordem pedida")
+    void loadsByIdsAcrossShards() {
+        List<Long> ids = List.of(users.get(7).getId(), users.get(0).getId(), 999_999L, users.get(4).getId());
+
+        assertThat(userRepository.findAllByIdsInOrder(ids)).extracting(UserEntity::getId)
+                .containsExactly(users.get(7).getId(), users.get(0).getId(), users.get(4).getId());
+    }
+
+    @Test
+    @DisplayName("deve aplicar as operações em lote em todos os shards e somar as linhas afetadas")
+    void bulkAcrossShards() {
+        List<Long> ids = users.subList(0, 6).stream().map(UserEntity::getId).toList();
+
+        assertThat(userService.bulkSetEnabled(BulkUserRequest.builder().ids(ids).build(), false)).isEqualTo(6);
+        assertThat(userRepository.count(UserSpecification.withFilters(null, DOMAIN, false))).isEqualTo(6);
+
+        assertThat(userService.bulkDelete(BulkUserRequest.builder().email(DOMAIN).enabled(false).build())).isEqualTo(6);
+        assertThat(shards().stream().mapToLong(shard -> shard.countDomain(DOMAIN)).sum()).isEqualTo(6);
+    }
+
+    private List<ShardTable> shards() {
+        ShardRoutingDataSource routing = context.getBean(ShardRoutingDataSource.class);
+        return routing.shards().stream().map(dataSource -> new ShardTable(new JdbcTemplate(dataSource))).toList();
+    }
+
+    private record ShardTable(JdbcTemplate jdbc) {
+
+        int countEmail(String email) {
+            return jdbc.queryForObject("SELECT COUNT(*) FROM users WHERE email = ?", Integer.class, email);
+        }
+
+        long countDomain(String domain) {
+            return jdbc.queryForObject("SELECT COUNT(*) FROM users WHERE email LIKE ?", Long.class, "%" + domain);
+        }
+    }
+}
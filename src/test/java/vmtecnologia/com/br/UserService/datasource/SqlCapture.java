@@ -0,0 +1,191 @@
+package vmtecnologia.com.br.UserService.datasource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Registra o SQL executado e as linhas lidas ou alteradas, para testes que fixam quantas
+ * consultas cada operação pode fazer.
+ *
+ * <p>Com {@link Config} importada no contexto, o {@link DataSource} da aplicação é envolvido por
+ * proxies de conexão, comando e resultado. Apenas a thread que chamou {@link #record} é registrada:
+ * gravações assíncronas (feed de alterações, envio de e-mail) ficam de fora. As linhas são as
+ * percorridas em cada {@link ResultSet} de consulta somadas às alteradas por INSERT, UPDATE e
+ * DELETE; chaves geradas não entram na conta.</p>
+ */
+public final class SqlCapture {
+
+    private static final ThreadLocal<Recording> CURRENT = new ThreadLocal<>();
+    private static final Set<String> EXECUTE = Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate");
+
+    private SqlCapture() {
+    }
+
+    /**
+     * Executa a ação registrando o SQL emitido pela thread atual.
+     *
+     * @param action ação a medir
+     * @return comandos e linhas registrados
+     */
+    public static Recording record(Action action) throws Exception {
+        Recording recording = new Recording();
+        CURRENT.set(recording);
+        try {
+            action.run();
+        } finally {
+            CURRENT.remove();
+        }
+        return recording;
+    }
+
+    /**
+     * Envolve o {@link DataSource}; as demais interfaces JDBC são envolvidas à medida que são abertas.
+     *
+     * @param dataSource {@link DataSource} da aplicação
+     * @return {@link DataSource} que registra o SQL
+     */
+    public static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, dataSource, (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            return result instanceof Connection connection ? proxy(Connection.class, connection, connectionHandler()) : result;
+        });
+    }
+
+    private static Handler connectionHandler() {
+        return (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            String sql = Objects.nonNull(args) && args.length > 0 && args[0] instanceof String text ? text : null;
+            return switch (result) {
+                case CallableStatement statement -> proxy(CallableStatement.class, statement, statementHandler(sql));
+                case PreparedStatement statement -> proxy(PreparedStatement.class, statement, statementHandler(sql));
+                case Statement statement -> proxy(Statement.class, statement, statementHandler(null));
+                case null, default -> result;
+            };
+        };
+    }
+
+    private static Handler statementHandler(String prepared) {
+        List<String> batch = new ArrayList<>();
+        return (target, method, args) -> {
+            String name = method.getName();
+            String sql = Objects.nonNull(args) && args.length > 0 && args[0] instanceof String text ? text : prepared;
+            if (name.equals("addBatch")) {
+                batch.add(sql);
+            }
+            Object result = invoke(target, method, args);
+            Recording recording = CURRENT.get();
+            if (Objects.isNull(recording)) {
+                return result;
+            }
+            if (EXECUTE.contains(name)) {
+                recording.statements.add(sql);
+            }
+            switch (name) {
+                case "executeUpdate" -> recording.rows += (Integer) result;
+                case "executeLargeUpdate" -> recording.rows += (Long) result;
+                case "executeBatch" -> {
+                    recording.statements.addAll(batch);
+                    for (int count : (int[]) result) {
+                        recording.rows += Math.max(count, 0);
+                    }
+                    batch.clear();
+                }
+                case "executeQuery", "getResultSet" -> {
+                    return Objects.isNull(result) ? null : proxy(ResultSet.class, result, resultSetHandler(recording));
+                }
+                default -> {
+                }
+            }
+            return result;
+        };
+    }
+
+    private static Handler resultSetHandler(Recording recording) {
+        return (target, method, args) -> {
+            Object result = invoke(target, method, args);
+            if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                recording.rows++;
+            }
+            return result;
+        };
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, Handler handler) {
+        InvocationHandler invocation = (proxy, method, args) -> handler.handle(target, method, args);
+        return (T) Proxy.newProxyInstance(SqlCapture.class.getClassLoader(), new Class<?>[]{type}, invocation);
+    }
+
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Object target, Method method, Object[] args) throws Throwable;
+    }
+
+    /**
+     * Comandos executados, na ordem, e total de linhas.
+     */
+    public static final class Recording {
+
+        private final List<String> statements = new ArrayList<>();
+        private long rows;
+
+        public List<String> getStatements() {
+            return statements;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        @Override
+        public String toString() {
+            return statements.size() + " comandos, " + rows + " linhas:\n  " + String.join("\n  ", statements);
+        }
+    }
+
+    /**
+     * Envolve o bean <code>dataSource</code> com {@link SqlCapture#wrap}.
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    public static class Config {
+
+        @Bean
+        static BeanPostProcessor sqlCapturePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && beanName.equals("dataSource") ? wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+}
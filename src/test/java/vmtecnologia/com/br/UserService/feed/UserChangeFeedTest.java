@@ -0,0 +1,315 @@
+package vmtecnologia.com.br.UserService.feed;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.exception.ChangeFeedUnavailableException;
+import vmtecnologia.com.br.UserService.repository.UserChangeFeedLeaseRepository;
+import vmtecnologia.com.br.UserService.repository.UserChangeLogRepository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Sobe a aplicação com um buffer em memória de 4 alterações e filas de 2 eventos por assinante,
+ * em um banco próprio para que as posições não se misturem com as de outros testes. O lease só é
+ * renovado quando o teste pede.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:change_feed",
+        "app.user.change-feed.ring-size=4",
+        "app.user.change-feed.subscriber-buffer=2",
+        "app.user.change-feed.heartbeat-interval=100",
+        "app.user.change-feed.lease-renew-interval=600000"
+})
+class UserChangeFeedTest {
+
+    @Autowired
+    private UserChangeFeed feed;
+
+    @Autowired
+    private UserChangeLogRepository logRepository;
+
+    @Autowired
+    private UserChangeFeedLeaseRepository leaseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        emitters.forEach(RecordingEmitter::release);
+        emitters.forEach(SseEmitter::complete);
+        await(() -> feed.getSubscriberCount() == 0);
+    }
+
+    @Test
+    @DisplayName("deve entregar as alterações somente após o commit, na ordem das posições")
+    void deliversAfterCommit() {
+        RecordingEmitter emitter = subscribe(null);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            feed.publish(UserChangeEvent.Type.CREATED, user(1L));
+            feed.publishDeleted(2L, "dois@feed.com");
+            assertThat(emitter.events).isEmpty();
+        });
+        transaction.executeWithoutResult(status -> {
+            feed.publish(UserChangeEvent.Type.UPDATED, user(3L));
+            status.setRollbackOnly();
+        });
+
+        await(() -> emitter.events.size() == 2);
+        assertThat(emitter.events).extracting(Received::name).containsExactly("user.created", "user.deleted");
+        assertThat(emitter.events.get(1).id()).isEqualTo(emitter.events.get(0).id() + 1);
+        assertThat(emitter.events.get(1).event().email()).isEqualTo("dois@feed.com");
+    }
+
+    @Test
+    @DisplayName("deve retomar pelo Last-Event-ID lendo o registro e depois o buffer em memória")
+    void resumesFromLogAndRing() {
+        long start = feed.getLastId();
+        LongStream.rangeClosed(1, 10).forEach(i -> feed.publish(UserChangeEvent.Type.UPDATED, user(i)));
+        await(() -> feed.getPersistedId() == start + 10);
+
+        RecordingEmitter emitter = subscribe(start + 1);
+
+        await(() -> emitter.events.size() == 9);
+        assertThat(emitter.events).extracting(Received::id)
+                .containsExactlyElementsOf(LongStream.rangeClosed(start + 2, start + 10).boxed().toList());
+        assertThat(emitter.events).extracting(Received::name).doesNotContain("reset");
+    }
+
+    @Test
+    @DisplayName("deve enviar reset quando a posição não estiver mais no registro")
+    void resetsOnMissingPosition() {
+        long start = feed.getLastId();
+        LongStream.rangeClosed(1, 8).forEach(i -> feed.publish(UserChangeEvent.Type.UPDATED, user(i)));
+        await(() -> feed.getPersistedId() == start + 8);
+        jdbc.update("DELETE FROM user_change_log WHERE id = ?", start + 2);
+
+        RecordingEmitter emitter = subscribe(start);
+
+        // start+1 do registro, reset na lacuna e as 4 últimas do buffer em memória
+        await(() -> emitter.events.size() == 6);
+        assertThat(emitter.events).extracting(Received::name).containsSubsequence("user.updated", "reset");
+        assertThat(emitter.events.get(1).id()).isEqualTo(start + 4);
+        assertThat(emitter.events.subList(2, 6)).extracting(Received::id)
+                .containsExactly(start + 5, start + 6, start + 7, start + 8);
+    }
+
+    @Test
+    @DisplayName("não deve bloquear a publicação com a fila do registro cheia, contando as alterações não gravadas")
+    void doesNotBlockOnFullLogQueue() throws Exception {
+        UserChangeLogRepository repository = mock(UserChangeLogRepository.class);
+        CountDownLatch release = new CountDownLatch(1);
+        given(repository.findMaxId()).willReturn(Optional.empty());
+        given(repository.saveAll(anyList())).willAnswer(invocation -> {
+            release.await();
+            return invocation.getArgument(0);
+        });
+        UserChangeFeed stalled = new UserChangeFeed(repository, mock(UserChangeFeedLeaseRepository.class),
+                mock(PlatformTransactionManager.class), 4, 2, 1, 100, 1_000, 2, 4, 60_000, 60_000);
+        try {
+            CompletableFuture<Void> publishing = CompletableFuture.runAsync(() -> LongStream.rangeClosed(1, 20)
+                    .forEach(i -> stalled.publish(UserChangeEvent.Type.UPDATED, user(i))));
+
+            publishing.get(5, TimeUnit.SECONDS);
+            assertThat(stalled.getLastId()).isEqualTo(20);
+            assertThat(stalled.getUnpersistedCount()).isPositive();
+        } finally {
+            release.countDown();
+            stalled.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("deve desconectar o assinante que não acompanha, sem bloquear a publicação")
+    void dropsSlowSubscriber() {
+        long dropped = feed.getDroppedCount();
+        RecordingEmitter slow = subscribe(null);
+        slow.block();
+        RecordingEmitter fast = subscribe(null);
+
+        LongStream.rangeClosed(1, 6).forEach(i -> {
+            feed.publish(UserChangeEvent.Type.UPDATED, user(i));
+            // o assinante rápido esvazia a fila entre as publicações
+            await(() -> fast.events.size() == i);
+        });
+
+        assertThat(feed.getDroppedCount()).isEqualTo(dropped + 1);
+        assertThat(feed.getSubscriberCount()).isEqualTo(1);
+        slow.release();
+        await(slow::isCompleted);
+        assertThat(slow.events.size()).isLessThan(6);
+    }
+
+    @Test
+    @DisplayName("deve ficar em espera, sem publicar nem aceitar assinaturas, enquanto outra instância detém o lease")
+    void standsByWithoutLease() throws Exception {
+        long head = feed.getLastId();
+        UserChangeFeed standby = instance();
+        try {
+            long standbyHead = standby.getLastId();
+
+            assertThatThrownBy(() -> standby.register(new RecordingEmitter(), null))
+                    .isInstanceOf(ChangeFeedUnavailableException.class);
+            standby.publish(UserChangeEvent.Type.UPDATED, user(1));
+
+            assertThat(standby.getLastId()).isEqualTo(standbyHead);
+            assertThat(feed.getLastId()).isEqualTo(head);
+        } finally {
+            standby.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("deve assumir o lease expirado deixando uma lacuna, que leva ao reset quem retomar de antes dela")
+    void takesOverExpiredLease() throws Exception {
+        await(() -> feed.getPersistedId() == feed.getLastId());
+        long head = feed.getLastId();
+        UserChangeFeed standby = instance();
+        try {
+            standby.getLastId();
+            jdbc.update("UPDATE user_change_feed_lease SET expires_at = ?", Timestamp.from(Instant.now().minusSeconds(1)));
+
+            standby.renewLease();
+            feed.renewLease();
+            standby.publish(UserChangeEvent.Type.UPDATED, user(1));
+            await(() -> standby.getPersistedId() == head + 2);
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            standby.register(emitter, head);
+
+            await(() -> emitter.events.size() == 2);
+            assertThat(emitter.events).extracting(Received::name).containsExactly("reset", "user.updated");
+            assertThat(emitter.events).extracting(Received::id).containsExactly(head + 1, head + 2);
+            assertThatThrownBy(() -> feed.register(new RecordingEmitter(), null))
+                    .isInstanceOf(ChangeFeedUnavailableException.class);
+        } finally {
+            standby.destroy();
+            feed.renewLease();
+        }
+    }
+
+    /**
+     * Segunda instância do feed sobre o mesmo banco.
+     */
+    private UserChangeFeed instance() {
+        return new UserChangeFeed(logRepository, leaseRepository, transactionManager,
+                4, 2, 1, 100, 1_000, 2, 16, 60_000, 60_000);
+    }
+
+    private RecordingEmitter subscribe(Long lastEventId) {
+        RecordingEmitter emitter = new RecordingEmitter();
+        emitters.add(emitter);
+        feed.register(emitter, lastEventId);
+        return emitter;
+    }
+
+    private static UserEntity user(long id) {
+        return UserEntity.builder().id(id).email("usuario" + id + "@feed.com").enabled(true).version(0L).build();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("tempo esgotado aguardando o feed").isLessThan(deadline);
+            try {
+                TimeUnit.MILLISECONDS.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private record Received(long id, String name, UserChangeEvent event) {
+    }
+
+    /**
+     * Emissor sem conexão HTTP: registra os eventos enviados e pode bloquear o envio, simulando
+     * um cliente lento.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<Received> events = new CopyOnWriteArrayList<>();
+        private volatile CountDownLatch gate;
+        private volatile boolean completed;
+
+        private void block() {
+            gate = new CountDownLatch(1);
+        }
+
+        private void release() {
+            if (Objects.nonNull(gate)) {
+                gate.countDown();
+            }
+        }
+
+        private boolean isCompleted() {
+            return completed;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (completed) {
+                throw new IllegalStateException("emissor encerrado");
+            }
+            CountDownLatch current = gate;
+            if (Objects.nonNull(current)) {
+                try {
+                    current.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            Set<DataWithMediaType> parts = builder.build();
+            String text = parts.iterator().next().getData().toString();
+            if (!text.startsWith("id:")) {
+                // heartbeat
+                return;
+            }
+            String[] lines = text.split("\n");
+            long id = Long.parseLong(lines[0].substring(3));
+            String name = lines[1].substring(6);
+            Object data = parts.stream().skip(1).findFirst().map(DataWithMediaType::getData).orElse(null);
+            events.add(new Received(id, name, data instanceof UserChangeEvent event ? event : null));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+            super.complete();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package vmtecnologia.com.br.UserService.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.repository.UserRepository;
+
+import java.util.Map;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Passa pela cadeia completa do Spring Security, com o {@link AuthenticationFilter}, para cobrir
+ * as rotas públicas que recebem um token de acesso já expirado.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:auth_filter_chain")
+@AutoConfigureMockMvc
+class AuthenticationFilterChainTest {
+
+    private static final String EMAIL = "cadeia@ex.com";
+    private static final String PASSWORD = "Senha@123";
+    private static final String STALE = "Bearer token.expirado.invalido";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(UserEntity.builder()
+                .username("cadeia")
+                .email(EMAIL)
+                .password(passwordEncoder.encode(PASSWORD))
+                .enabled(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @DisplayName("deve recusar com 401 o token inválido em uma rota protegida")
+    void protectedPathRejectsStaleToken() throws Exception {
+        mvc.perform(get("/user/api/v1/findById").param("id", user.getId().toString())
+                        .header("Authorization", STALE))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @DisplayName("deve renovar o token mesmo com o token de acesso expirado no cabeçalho")
+    void refreshWithStaleToken() throws Exception {
+        String refreshToken = login().get("refreshToken").asText();
+
+        mvc.perform(post("/auth/refresh")
+                        .header("Authorization", STALE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("refreshToken", refreshToken))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("deve revogar o refresh token no logout mesmo com o token de acesso expirado")
+    void logoutWithStaleToken() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of("refreshToken", login().get("refreshToken").asText()));
+
+        mvc.perform(post("/auth/logout")
+                        .header("Authorization", STALE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isNoContent());
+
+        mvc.perform(post("/auth/refresh").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private JsonNode login() throws Exception {
+        String response = mvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("email", EMAIL, "password", PASSWORD))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(response);
+    }
+}
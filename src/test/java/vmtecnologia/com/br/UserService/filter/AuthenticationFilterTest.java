@@ -0,0 +1,90 @@
+package vmtecnologia.com.br.UserService.filter;
+
+import io.jsonwebtoken.MalformedJwtException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import vmtecnologia.com.br.UserService.service.JwtService;
+import vmtecnologia.com.br.UserService.service.TokenDenylistService;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+class AuthenticationFilterTest {
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private UserDetailsService userDetailsService;
+
+    @Mock
+    private TokenDenylistService tokenDenylistService;
+
+    @InjectMocks
+    private AuthenticationFilter filter;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("token inválido deve responder 401 sem seguir a cadeia de filtros")
+    void invalidTokenIsUnauthorized() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/user/api/v1/findById");
+        request.addHeader("Authorization", "Bearer adulterado");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        given(jwtService.parseClaims("adulterado")).willThrow(new MalformedJwtException("token malformado"));
+
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getHeader("WWW-Authenticate")).isEqualTo("Bearer error=\"invalid_token\"");
+        assertThat(response.getContentType()).isEqualTo("application/json");
+        assertThat(response.getContentAsString(StandardCharsets.UTF_8)).contains("\"error\":\"Token inválido\"", "\"path\":\"/user/api/v1/findById\"");
+        assertThat(chain.getRequest()).isNull();
+        then(userDetailsService).should(never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("rotas de autenticação devem seguir a cadeia mesmo com token inválido")
+    void authPathsSkipToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/logout");
+        request.addHeader("Authorization", "Bearer expirado");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        then(jwtService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("requisição sem token deve seguir a cadeia sem autenticação")
+    void noTokenContinues() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/auth/login");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isSameAs(request);
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+}
@@ -0,0 +1,58 @@
+package vmtecnologia.com.br.UserService.handler;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import vmtecnologia.com.br.UserService.exception.IncorrectPasswordException;
+import vmtecnologia.com.br.UserService.exception.UserNotFoundException;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrebuiltErrorBodyTest {
+
+    private final ObjectMapper mapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    @DisplayName("deve gerar o mesmo JSON que o Jackson, com caracteres especiais escapados")
+    void matchesJackson() throws Exception {
+        PrebuiltErrorBody body = PrebuiltErrorBody.of(HttpStatus.UNAUTHORIZED, "Usuario/Entidade não encontrado");
+        String message = "Usuário não encontrado: \"x\"\\n@ex.com\t";
+
+        JsonNode prebuilt = mapper.readTree(body.render(message, "/auth/login"));
+        JsonNode jackson = mapper.readTree(mapper.writeValueAsBytes(body.toModel(message, "/auth/login")));
+
+        assertThat(Instant.parse(prebuilt.get("timestamp").asText())).isNotNull();
+        ((ObjectNode) prebuilt).remove("timestamp");
+        ((ObjectNode) jackson).remove("timestamp");
+        assertThat(prebuilt).isEqualTo(jackson);
+    }
+
+    @Test
+    @DisplayName("deve usar a mensagem fixa e aceitar caminho nulo")
+    void constantMessage() throws Exception {
+        PrebuiltErrorBody body = PrebuiltErrorBody.of(HttpStatus.UNAUTHORIZED, "Senha incorreta",
+                new IncorrectPasswordException().getMessage());
+
+        JsonNode json = mapper.readTree(body.render(null));
+
+        assertThat(json.get("status").asInt()).isEqualTo(401);
+        assertThat(json.get("message").asText()).isEqualTo("Senha incorreta. Por favor, tente novamente.");
+        assertThat(json.get("path").isNull()).isTrue();
+    }
+
+    @Test
+    @DisplayName("exceções de domínio não devem preencher o stack trace")
+    void stacklessExceptions() {
+        assertThat(new IncorrectPasswordException().getStackTrace()).isEmpty();
+        assertThat(new UserNotFoundException("x@ex.com").getStackTrace()).isEmpty();
+    }
+}
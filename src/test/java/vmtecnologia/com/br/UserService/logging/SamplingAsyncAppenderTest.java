@@ -0,0 +1,112 @@
+package vmtecnologia.com.br.UserService.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.AppenderBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class SamplingAsyncAppenderTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final Logger logger = context.getLogger(SamplingAsyncAppenderTest.class);
+    private final BlockingAppender console = new BlockingAppender();
+    private final SamplingAsyncAppender appender = new SamplingAsyncAppender();
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        console.setContext(context);
+        console.start();
+        appender.setContext(context);
+        appender.setQueueSize(10);
+        appender.setDiscardingThreshold(8);
+        appender.setHotPathSampleRate(2);
+        appender.setNeverBlock(true);
+        appender.addAppender(console);
+        appender.start();
+
+        // o primeiro evento fica preso no console, e os seguintes se acumulam na fila
+        appender.doAppend(event(Level.INFO, false));
+        assertThat(console.firstReceived.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @AfterEach
+    void tearDown() {
+        console.release.countDown();
+        appender.stop();
+    }
+
+    @Test
+    @DisplayName("deve amostrar o caminho quente e descartar DEBUG acima do limite, mantendo WARN e demais INFO")
+    void samplesHotPathUnderPressure() {
+        appender.doAppend(event(Level.INFO, true));
+        appender.doAppend(event(Level.INFO, true));
+        appender.doAppend(event(Level.INFO, false)); // fila com 3: acima do limite de descarte
+
+        for (int i = 0; i < 4; i++) {
+            appender.doAppend(event(Level.INFO, true));
+        }
+        appender.doAppend(event(Level.DEBUG, false));
+        appender.doAppend(event(Level.WARN, true));
+        appender.doAppend(event(Level.INFO, false));
+
+        console.release.countDown();
+        appender.stop();
+
+        assertThat(appender.getSampledOutCount()).isEqualTo(2);
+        assertThat(console.received).hasSize(8);
+        assertThat(console.received).extracting(ILoggingEvent::getLevel).doesNotContain(Level.DEBUG).contains(Level.WARN);
+    }
+
+    @Test
+    @DisplayName("não deve bloquear quem loga com a fila cheia")
+    void neverBlocks() {
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            for (int i = 0; i < 100; i++) {
+                appender.doAppend(event(Level.ERROR, false));
+            }
+        });
+    }
+
+    private LoggingEvent event(Level level, boolean hotPath) {
+        LoggingEvent event = new LoggingEvent(Logger.FQCN, logger, level, "mensagem", null, null);
+        if (hotPath) {
+            event.addMarker(LogMarkers.HOT_PATH);
+        }
+        return event;
+    }
+
+    private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final List<ILoggingEvent> received = new CopyOnWriteArrayList<>();
+        private final CountDownLatch firstReceived = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            received.add(event);
+            firstReceived.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
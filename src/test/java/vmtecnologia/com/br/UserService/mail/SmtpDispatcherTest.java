@@ -0,0 +1,107 @@
+package vmtecnologia.com.br.UserService.mail;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SmtpDispatcherTest {
+
+    private static final String REJECTED = "recusado@ex.com";
+
+    private SmtpStandIn smtp;
+    private SmtpDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        smtp = new SmtpStandIn(Set.of(REJECTED), 0);
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setHost("localhost");
+        sender.setPort(smtp.getPort());
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("mailSender", sender);
+        dispatcher = new SmtpDispatcher(beans.getBeanProvider(JavaMailSender.class), 1, 50, 1000, 60_000, 5_000);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        dispatcher.destroy();
+        smtp.close();
+    }
+
+    @Test
+    @DisplayName("deve enviar o lote por uma única conexão, isolando a mensagem recusada")
+    void batchesOverOneConnection() {
+        for (int i = 0; i < 20; i++) {
+            dispatcher.dispatch(message(i == 7 ? REJECTED : "usuario" + i + "@ex.com"));
+        }
+
+        await(() -> dispatcher.getSentCount() + dispatcher.getFailedCount() == 20);
+
+        assertThat(dispatcher.getSentCount()).isEqualTo(19);
+        assertThat(dispatcher.getFailedCount()).isEqualTo(1);
+        assertThat(smtp.getRecipients()).hasSize(19).doesNotContain(REJECTED);
+        assertThat(smtp.getConnections()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("deve reabrir a conexão derrubada pelo servidor e reenviar a mensagem")
+    void reconnectsAfterDrop() throws Exception {
+        dispatcher.dispatch(message("primeiro@ex.com"));
+        await(() -> dispatcher.getSentCount() == 1);
+
+        smtp.dropConnections();
+        dispatcher.dispatch(message("segundo@ex.com"));
+        await(() -> dispatcher.getSentCount() == 2);
+
+        assertThat(dispatcher.getFailedCount()).isZero();
+        assertThat(smtp.getRecipients()).containsExactly("primeiro@ex.com", "segundo@ex.com");
+        assertThat(smtp.getConnections()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("dentro de uma transação, deve enviar somente após o commit")
+    void waitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            dispatcher.dispatch(message("transacao@ex.com"));
+            assertThat(dispatcher.getQueueSize()).isZero();
+            assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCommit());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        await(() -> dispatcher.getSentCount() == 1);
+        assertThat(smtp.getRecipients()).containsExactly("transacao@ex.com");
+    }
+
+    private static SimpleMailMessage message(String to) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("noreply@ex.com");
+        message.setTo(to);
+        message.setSubject("Teste");
+        message.setText("Olá");
+        return message;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("tempo esgotado aguardando o envio").isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+}
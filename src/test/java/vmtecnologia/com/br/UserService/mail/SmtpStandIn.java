@@ -0,0 +1,138 @@
+package vmtecnologia.com.br.UserService.mail;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor SMTP em processo para testes e benchmarks de envio.
+ *
+ * <p>Conta conexões e mensagens recebidas, recusa (550) os destinatários informados e pode
+ * atrasar cada resposta para simular a latência de rede (cada comando SMTP custa uma ida e volta,
+ * e o STARTTLS/AUTH de um servidor real acrescentam outras na abertura da conexão).</p>
+ */
+public class SmtpStandIn implements AutoCloseable {
+
+    private final ServerSocket server;
+    private final Set<String> rejectedRecipients;
+    private final long replyDelayMillis;
+    private final AtomicInteger connections = new AtomicInteger();
+    private final List<String> recipients = new CopyOnWriteArrayList<>();
+    private final List<Socket> open = new CopyOnWriteArrayList<>();
+
+    public SmtpStandIn(Set<String> rejectedRecipients, long replyDelayMillis) {
+        this.rejectedRecipients = rejectedRecipients;
+        this.replyDelayMillis = replyDelayMillis;
+        try {
+            this.server = new ServerSocket(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Thread.ofPlatform().daemon(true).start(this::accept);
+    }
+
+    public int getPort() {
+        return server.getLocalPort();
+    }
+
+    public int getConnections() {
+        return connections.get();
+    }
+
+    /**
+     * @return destinatário de cada mensagem aceita, na ordem de chegada
+     */
+    public List<String> getRecipients() {
+        return recipients;
+    }
+
+    /**
+     * Derruba as conexões abertas, como faria um servidor que encerra sessões ociosas.
+     */
+    public void dropConnections() throws IOException {
+        for (Socket socket : open) {
+            socket.close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        dropConnections();
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                connections.incrementAndGet();
+                open.add(socket);
+                Thread.ofPlatform().daemon(true).start(() -> session(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void session(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             PrintWriter out = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+            reply(out, "220 stand-in");
+            String recipient = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase(Locale.ROOT) : line;
+                switch (command) {
+                    case "EHLO", "HELO" -> reply(out, "250 stand-in");
+                    case "RCPT" -> {
+                        recipient = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+                        reply(out, rejectedRecipients.contains(recipient) ? "550 destinatário recusado" : "250 ok");
+                    }
+                    case "DATA" -> {
+                        reply(out, "354 fim com <CRLF>.<CRLF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // descarta o conteúdo da mensagem
+                        }
+                        recipients.add(recipient);
+                        reply(out, "250 ok");
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 bye");
+                        return;
+                    }
+                    default -> reply(out, "250 ok");
+                }
+            }
+        } catch (SocketException e) {
+            // conexão derrubada por dropConnections()
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            open.remove(socket);
+        }
+    }
+
+    private void reply(PrintWriter out, String message) {
+        if (replyDelayMillis > 0) {
+            try {
+                Thread.sleep(replyDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        out.print(message + "\r\n");
+        out.flush();
+    }
+}
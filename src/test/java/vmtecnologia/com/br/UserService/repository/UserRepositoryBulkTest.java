@@ -0,0 +1,112 @@
+package vmtecnologia.com.br.UserService.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.repository.specification.UserSpecification;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.cache.statistics=true")
+class UserRepositoryBulkTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private List<UserEntity> users;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        users = IntStream.range(0, 5)
+                .mapToObj(i -> userRepository.save(UserEntity.builder()
+                        .username("lote" + i)
+                        .email("lote" + i + "@bulk.com")
+                        .password("hash")
+                        .enabled(true)
+                        .build()))
+                .toList();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.delete(UserSpecification.withFilters(null, "@bulk.com", null));
+    }
+
+    @Test
+    @DisplayName("deve desabilitar pelo filtro em um único UPDATE, incrementando a versão")
+    void updateEnabledByFilter() {
+        UserEntity first = users.get(0);
+        // carrega no cache de segundo nível
+        userRepository.findById(first.getId());
+        statistics.clear();
+
+        int affected = userRepository.updateEnabled(UserSpecification.withFilters(null, "@bulk.com", null), false);
+
+        assertThat(affected).isEqualTo(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        // a região da entidade foi removida: a leitura vai ao banco e já vê a alteração
+        UserEntity reloaded = userRepository.findById(first.getId()).orElseThrow();
+        assertThat(reloaded.getEnabled()).isFalse();
+        assertThat(reloaded.getVersion()).isEqualTo(first.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("não deve tocar versão nem sequência das linhas que já estão no estado pedido")
+    void updateEnabledSkipsUnchanged() {
+        userRepository.updateEnabled(UserSpecification.withIds(List.of(users.get(0).getId())), false);
+        UserEntity disabled = userRepository.findById(users.get(0).getId()).orElseThrow();
+
+        int affected = userRepository.updateEnabled(UserSpecification.withFilters(null, "@bulk.com", null), false);
+
+        assertThat(affected).isEqualTo(4);
+        UserEntity unchanged = userRepository.findById(disabled.getId()).orElseThrow();
+        assertThat(unchanged.getVersion()).isEqualTo(disabled.getVersion());
+        assertThat(unchanged.getModSeq()).isEqualTo(disabled.getModSeq());
+    }
+
+    @Test
+    @DisplayName("deve combinar IDs e filtros com AND")
+    void updateEnabledByIdsAndFilter() {
+        List<Long> ids = List.of(users.get(0).getId(), users.get(1).getId());
+
+        int affected = userRepository.updateEnabled(
+                UserSpecification.withIds(ids).and(UserSpecification.withFilters("lote1", null, null)), false);
+
+        assertThat(affected).isEqualTo(1);
+        assertThat(userRepository.findByEmailAndEnabled("lote1@bulk.com", false)).isPresent();
+        assertThat(userRepository.findByEmailAndEnabled("lote0@bulk.com", true)).isPresent();
+    }
+
+    @Test
+    @DisplayName("deve excluir pelos IDs em um único DELETE")
+    void deleteByIds() {
+        List<Long> ids = List.of(users.get(2).getId(), users.get(3).getId(), users.get(4).getId());
+        userRepository.findByEmail("lote2@bulk.com");
+        statistics.clear();
+
+        long affected = userRepository.delete(UserSpecification.withIds(ids));
+
+        assertThat(affected).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(userRepository.findByEmail("lote2@bulk.com")).isEmpty();
+        assertThat(userRepository.findKeys(UserSpecification.withFilters(null, "@bulk.com", null), Limit.unlimited()))
+                .extracting(UserKey::email)
+                .containsExactlyInAnyOrder("lote0@bulk.com", "lote1@bulk.com");
+    }
+}
@@ -0,0 +1,99 @@
+package vmtecnologia.com.br.UserService.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "app.cache.statistics=true")
+class UserRepositoryCacheTest {
+
+    private static final String EMAIL = "cache@ex.com";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        user = userRepository.save(UserEntity.builder()
+                .username("cache")
+                .email(EMAIL)
+                .password("hash")
+                .enabled(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @DisplayName("deve servir findById do cache de segundo nível")
+    void findByIdHitsEntityCache() {
+        userRepository.findById(user.getId());
+        statistics.clear();
+
+        userRepository.findById(user.getId());
+        userRepository.findById(user.getId());
+
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("deve resolver findByEmail pelo cache de natural id")
+    void findByEmailHitsNaturalIdCache() {
+        userRepository.findByEmail(EMAIL);
+        statistics.clear();
+
+        assertThat(userRepository.findByEmail(EMAIL)).map(UserEntity::getId).contains(user.getId());
+        assertThat(userRepository.findByEmail(EMAIL)).isPresent();
+
+        assertThat(statistics.getNaturalIdCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("deve servir findByEmailAndEnabled do cache de consultas")
+    void findByEmailAndEnabledHitsQueryCache() {
+        userRepository.findByEmailAndEnabled(EMAIL, true);
+        statistics.clear();
+
+        assertThat(userRepository.findByEmailAndEnabled(EMAIL, true)).isPresent();
+        assertThat(userRepository.findByEmailAndEnabled(EMAIL, true)).isPresent();
+
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("deve invalidar o cache de consultas quando a tabela é alterada")
+    void queryCacheInvalidatedOnUpdate() {
+        userRepository.findByUsernameAndEnabled("cache", true);
+        user.setEnabled(false);
+        user = userRepository.save(user);
+        statistics.clear();
+
+        assertThat(userRepository.findByUsernameAndEnabled("cache", true)).isEmpty();
+        assertThat(userRepository.findByUsernameAndEnabled("cache", false)).isPresent();
+
+        assertThat(statistics.getQueryCacheHitCount()).isZero();
+        assertThat(statistics.getQueryCacheMissCount()).isEqualTo(2);
+    }
+}
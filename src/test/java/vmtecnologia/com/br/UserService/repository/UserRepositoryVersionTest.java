@@ -0,0 +1,67 @@
+package vmtecnologia.com.br.UserService.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class UserRepositoryVersionTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(UserEntity.builder()
+                .username("versionado")
+                .email("versionado@ex.com")
+                .password("hash")
+                .enabled(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @DisplayName("deve incrementar a versão a cada atualização")
+    void incrementsVersion() {
+        assertThat(userRepository.findVersionById(user.getId())).contains(0L);
+
+        user.setEnabled(false);
+        user = userRepository.saveAndFlush(user);
+
+        assertThat(user.getVersion()).isEqualTo(1L);
+        assertThat(userRepository.findVersionById(user.getId())).contains(1L);
+    }
+
+    @Test
+    @DisplayName("deve rejeitar atualização feita sobre uma versão antiga")
+    void rejectsStaleVersion() {
+        UserEntity stale = UserEntity.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .email(user.getEmail())
+                .password(user.getPassword())
+                .enabled(true)
+                .version(user.getVersion())
+                .build();
+        user.setEnabled(false);
+        user = userRepository.saveAndFlush(user);
+
+        assertThatThrownBy(() -> userRepository.saveAndFlush(stale))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+}
@@ -0,0 +1,210 @@
+package vmtecnologia.com.br.UserService.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+import vmtecnologia.com.br.UserService.entity.JwtSigningKeyEntity;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.repository.JwtSigningKeyRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+class JwtServiceTest {
+
+    private static final long ROTATION = 3_600_000L;
+    private static final String SECRET = "segredo-de-teste";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final UserEntity user = UserEntity.builder().email("usuario@ex.com").build();
+
+    /**
+     * Tabela <code>jwt_signing_keys</code> compartilhada pelas instâncias do teste.
+     */
+    private final Map<String, JwtSigningKeyEntity> table = new ConcurrentHashMap<>();
+    private final JwtSigningKeyRepository repository = mock(JwtSigningKeyRepository.class);
+    private final AtomicLong clock = new AtomicLong(1_000 * ROTATION);
+
+    private JwtKeyService keyService;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        given(repository.findAllByOrderByActivatesAtAscKidAsc()).willAnswer(invocation -> table.values().stream()
+                .sorted(Comparator.comparing(JwtSigningKeyEntity::getActivatesAt))
+                .toList());
+        given(repository.saveAndFlush(any())).willAnswer(invocation -> {
+            JwtSigningKeyEntity key = invocation.getArgument(0);
+            if (Objects.nonNull(table.putIfAbsent(key.getKid(), key))) {
+                throw new DataIntegrityViolationException("kid duplicado");
+            }
+            return key;
+        });
+        willAnswer(invocation -> {
+            Collection<String> kids = invocation.getArgument(0);
+            kids.forEach(table::remove);
+            return null;
+        }).given(repository).deleteAllByIdInBatch(anyCollection());
+
+        keyService = keyService(60_000L, clock);
+        jwtService = jwtService(keyService);
+    }
+
+    private JwtKeyService keyService(long overlap, AtomicLong time) {
+        return new JwtKeyService(repository, mapper, ROTATION, overlap, SECRET, time::get);
+    }
+
+    private JwtService jwtService(JwtKeyService keys) {
+        JwtService service = new JwtService(keys);
+        ReflectionTestUtils.setField(service, "expiration", 60_000L);
+        return service;
+    }
+
+    private void rotate() {
+        clock.addAndGet(ROTATION);
+        keyService.refresh();
+    }
+
+    @Test
+    @DisplayName("deve assinar com RS256, informar o kid e gerar jti")
+    void signsWithKid() throws Exception {
+        String token = jwtService.generateToken(user);
+
+        JsonNode header = mapper.readTree(Base64.getUrlDecoder()
+                .decode(token.substring(0, token.indexOf('.'))));
+        assertThat(header.get("alg").asText()).isEqualTo("RS256");
+        assertThat(header.get("kid").asText()).isEqualTo(keyService.currentKey().kid());
+
+        Claims claims = jwtService.parseClaims(token);
+        assertThat(claims.getSubject()).isEqualTo("usuario@ex.com");
+        assertThat(claims.getId()).isNotBlank();
+        assertThat(jwtService.validateToken(token, User.withUsername("usuario@ex.com").password("x").build())).isTrue();
+    }
+
+    @Test
+    @DisplayName("deve continuar validando tokens da chave anterior após a rotação")
+    void validatesAfterRotation() {
+        String before = jwtService.generateToken(user);
+        String previousKid = keyService.currentKey().kid();
+
+        rotate();
+
+        assertThat(keyService.currentKey().kid()).isNotEqualTo(previousKid);
+        assertThat(jwtService.extractUsername(before)).isEqualTo("usuario@ex.com");
+        assertThat(jwtService.extractUsername(jwtService.generateToken(user))).isEqualTo("usuario@ex.com");
+    }
+
+    @Test
+    @DisplayName("deve rejeitar tokens de chaves fora da janela de sobreposição")
+    void rejectsAfterOverlap() {
+        keyService = keyService(0L, clock);
+        jwtService = jwtService(keyService);
+        String token = jwtService.generateToken(user);
+
+        rotate();
+        rotate();
+
+        assertThatThrownBy(() -> jwtService.parseClaims(token)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("deve rejeitar tokens adulterados")
+    void rejectsTampered() {
+        String token = jwtService.generateToken(user);
+        String[] parts = token.split("\\.");
+        String forged = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"sub\":\"admin@ex.com\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> jwtService.parseClaims(parts[0] + "." + forged + "." + parts[2]))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("deve rejeitar tokens sem kid com JwtException")
+    void rejectsMissingKid() {
+        String token = jwtService.generateToken(user);
+        String[] parts = token.split("\\.");
+        String header = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("{\"alg\":\"RS256\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThatThrownBy(() -> jwtService.parseClaims(header + "." + parts[1] + "." + parts[2]))
+                .isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("deve publicar a chave atual e a próxima no JWKS")
+    void publishesJwks() throws Exception {
+        String current = keyService.currentKey().kid();
+        rotate();
+
+        JsonNode keys = mapper.readTree(keyService.jwks()).get("keys");
+        List<String> kids = StreamSupport.stream(keys.spliterator(), false)
+                .map(k -> k.get("kid").asText())
+                .toList();
+
+        assertThat(kids).hasSize(3).contains(current, keyService.currentKey().kid());
+        assertThat(keys.get(0).get("kty").asText()).isEqualTo("RSA");
+        assertThat(keys.get(0).get("n").asText()).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("deve validar em outra instância e após reinício os tokens assinados por uma instância")
+    void sharesKeysAcrossInstances() {
+        String token = jwtService.generateToken(user);
+
+        JwtKeyService other = keyService(60_000L, clock);
+
+        assertThat(other.currentKey().kid()).isEqualTo(keyService.currentKey().kid());
+        assertThat(other.jwks()).isEqualTo(keyService.jwks());
+        assertThat(jwtService(other).extractUsername(token)).isEqualTo("usuario@ex.com");
+        assertThat(table).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("deve reler as chaves ao receber kid criado por outra instância")
+    void reloadsOnUnknownKid() {
+        keyService.currentKey();
+        AtomicLong later = new AtomicLong(clock.get() + 2 * ROTATION);
+        String token = jwtService(keyService(60_000L, later)).generateToken(user);
+
+        clock.addAndGet(1_000L);
+
+        assertThat(jwtService.extractUsername(token)).isEqualTo("usuario@ex.com");
+    }
+
+    @Test
+    @DisplayName("não deve gravar a chave privada em claro")
+    void encryptsPrivateKey() {
+        byte[] privateKey = keyService.currentKey().privateKey().getEncoded();
+        JwtSigningKeyEntity stored = table.get(keyService.currentKey().kid());
+
+        assertThat(stored.getPrivateKey()).isNotEqualTo(privateKey);
+        assertThat(new String(stored.getPrivateKey(), StandardCharsets.ISO_8859_1))
+                .doesNotContain(new String(privateKey, StandardCharsets.ISO_8859_1).substring(32, 64));
+        JwtKeyService wrongSecret = new JwtKeyService(repository, mapper, ROTATION, 60_000L, "outro", clock::get);
+        assertThatThrownBy(wrongSecret::jwks).isInstanceOf(IllegalStateException.class);
+    }
+}
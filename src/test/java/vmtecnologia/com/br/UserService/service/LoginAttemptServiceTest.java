@@ -0,0 +1,106 @@
+package vmtecnologia.com.br.UserService.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import vmtecnologia.com.br.UserService.exception.AccountLockedException;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginAttemptServiceTest {
+
+    private static final String EMAIL = "usuario@ex.com";
+
+    private AtomicLong now;
+    private LoginAttemptService service;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_000_000L);
+        service = new LoginAttemptService(3, 60_000L, 1_000, now::get);
+    }
+
+    @Test
+    @DisplayName("deve bloquear após atingir o limite de falhas na janela")
+    void locksAfterMaxFailures() {
+        service.recordFailure(EMAIL);
+        service.recordFailure(EMAIL);
+        assertThatCode(() -> service.checkAllowed(EMAIL)).doesNotThrowAnyException();
+
+        service.recordFailure(EMAIL);
+
+        assertThatThrownBy(() -> service.checkAllowed(EMAIL))
+                .isInstanceOf(AccountLockedException.class)
+                .satisfies(ex -> assertThat(((AccountLockedException) ex).getRetryAfterSeconds()).isEqualTo(60));
+    }
+
+    @Test
+    @DisplayName("deve ignorar diferenças de caixa e espaços no e-mail")
+    void normalizesEmail() {
+        service.recordFailure("Usuario@Ex.com");
+        service.recordFailure(" usuario@ex.com ");
+        service.recordFailure("USUARIO@EX.COM");
+
+        assertThatThrownBy(() -> service.checkAllowed(EMAIL))
+                .isInstanceOf(AccountLockedException.class);
+    }
+
+    @Test
+    @DisplayName("deve liberar quando a falha mais antiga sai da janela")
+    void slidingWindowExpires() {
+        service.recordFailure(EMAIL);
+        now.addAndGet(30_000L);
+        service.recordFailure(EMAIL);
+        service.recordFailure(EMAIL);
+
+        now.addAndGet(29_999L);
+        assertThatThrownBy(() -> service.checkAllowed(EMAIL))
+                .isInstanceOf(AccountLockedException.class);
+
+        now.addAndGet(1L);
+        assertThatCode(() -> service.checkAllowed(EMAIL)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("deve zerar o contador após login bem-sucedido")
+    void resetClearsFailures() {
+        service.recordFailure(EMAIL);
+        service.recordFailure(EMAIL);
+        service.reset(EMAIL);
+        service.recordFailure(EMAIL);
+
+        assertThatCode(() -> service.checkAllowed(EMAIL)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("deve manter a memória limitada descartando contas menos recentes")
+    void boundedMemory() {
+        LoginAttemptService small = new LoginAttemptService(1, 60_000L, 64, now::get);
+        small.recordFailure(EMAIL);
+        for (int i = 0; i < 10_000; i++) {
+            small.recordFailure("alvo" + i + "@ex.com");
+        }
+
+        assertThatCode(() -> small.checkAllowed(EMAIL)).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("deve manter a conta próxima do bloqueio sob uma rajada de e-mails distintos")
+    void lockoutSurvivesEvictionPressure() {
+        LoginAttemptService small = new LoginAttemptService(3, 60_000L, 64 * 4, now::get);
+        small.recordFailure(EMAIL);
+        small.recordFailure(EMAIL);
+        for (int i = 0; i < 10_000; i++) {
+            small.recordFailure("spray" + i + "@ex.com");
+        }
+
+        small.recordFailure(EMAIL);
+
+        assertThatThrownBy(() -> small.checkAllowed(EMAIL))
+                .isInstanceOf(AccountLockedException.class);
+    }
+}
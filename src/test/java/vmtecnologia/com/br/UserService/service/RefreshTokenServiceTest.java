@@ -0,0 +1,157 @@
+package vmtecnologia.com.br.UserService.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import vmtecnologia.com.br.UserService.entity.RefreshTokenEntity;
+import vmtecnologia.com.br.UserService.exception.InvalidRefreshTokenException;
+import vmtecnologia.com.br.UserService.repository.RefreshTokenRepository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Usa um repositório simulado sobre um mapa, compartilhado entre instâncias do serviço como a
+ * tabela <code>refresh_tokens</code> seria.
+ */
+class RefreshTokenServiceTest {
+
+    private static final String EMAIL = "usuario@ex.com";
+
+    private final Map<String, RefreshTokenEntity> table = new ConcurrentHashMap<>();
+    private final RefreshTokenRepository repository = mock(RefreshTokenRepository.class);
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+
+    private RefreshTokenService service;
+
+    @BeforeEach
+    void setUp() {
+        given(repository.save(any())).willAnswer(invocation -> {
+            RefreshTokenEntity entity = invocation.getArgument(0);
+            table.put(entity.getTokenHash(), entity);
+            return entity;
+        });
+        given(repository.findById(anyString())).willAnswer(invocation ->
+                Optional.ofNullable(table.get(invocation.<String>getArgument(0))));
+        given(repository.deleteByTokenHash(anyString())).willAnswer(invocation ->
+                Objects.isNull(table.remove(invocation.<String>getArgument(0))) ? 0 : 1);
+        given(repository.deleteByEmailIn(anyCollection())).willAnswer(invocation -> {
+            Collection<String> emails = invocation.getArgument(0);
+            return table.values().removeIf(token -> emails.contains(token.getEmail())) ? 1 : 0;
+        });
+        given(repository.findTokenHashesByEmail(anyString())).willAnswer(invocation -> table.values().stream()
+                .filter(token -> token.getEmail().equals(invocation.getArgument(0)))
+                .sorted(Comparator.comparing(RefreshTokenEntity::getCreatedAt).reversed())
+                .map(RefreshTokenEntity::getTokenHash)
+                .toList());
+        willAnswer(invocation -> {
+            invocation.<Collection<String>>getArgument(0).forEach(table::remove);
+            return null;
+        }).given(repository).deleteAllByIdInBatch(anyCollection());
+        given(repository.deleteExpired(any())).willAnswer(invocation -> {
+            Instant now = invocation.getArgument(0);
+            return table.values().removeIf(token -> !token.getExpiresAt().isAfter(now)) ? 1 : 0;
+        });
+        service = instance();
+    }
+
+    private RefreshTokenService instance() {
+        RefreshTokenService instance = new RefreshTokenService(repository, mock(PlatformTransactionManager.class), clock::get);
+        ReflectionTestUtils.setField(instance, "refreshExpiration", 60_000L);
+        ReflectionTestUtils.setField(instance, "maxPerUser", 2);
+        return instance;
+    }
+
+    @Test
+    @DisplayName("deve aceitar o refresh token uma única vez")
+    void singleUse() {
+        String token = service.issue(EMAIL);
+
+        assertThat(service.consume(token)).isEqualTo(EMAIL);
+        assertThatThrownBy(() -> service.consume(token))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    @DisplayName("deve rejeitar refresh token expirado")
+    void expired() {
+        String token = service.issue(EMAIL);
+
+        clock.addAndGet(60_000);
+
+        assertThatThrownBy(() -> service.consume(token))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    @DisplayName("deve revogar todos os tokens do usuário")
+    void revokeAll() {
+        String first = service.issue(EMAIL);
+        String second = service.issue(EMAIL);
+        String other = service.issue("outro@ex.com");
+
+        service.revokeAll(EMAIL);
+
+        assertThatThrownBy(() -> service.consume(first)).isInstanceOf(InvalidRefreshTokenException.class);
+        assertThatThrownBy(() -> service.consume(second)).isInstanceOf(InvalidRefreshTokenException.class);
+        assertThat(service.consume(other)).isEqualTo("outro@ex.com");
+    }
+
+    @Test
+    @DisplayName("deve descartar os tokens mais antigos ao exceder o limite por usuário")
+    void maxPerUser() {
+        String oldest = service.issue(EMAIL);
+        clock.incrementAndGet();
+        String middle = service.issue(EMAIL);
+        clock.incrementAndGet();
+        String newest = service.issue(EMAIL);
+
+        assertThatThrownBy(() -> service.consume(oldest)).isInstanceOf(InvalidRefreshTokenException.class);
+        assertThat(service.consume(middle)).isEqualTo(EMAIL);
+        assertThat(service.consume(newest)).isEqualTo(EMAIL);
+    }
+
+    @Test
+    @DisplayName("deve renovar e revogar em outra instância o token emitido por uma")
+    void sharedAcrossInstances() {
+        RefreshTokenService other = instance();
+        String renewed = service.issue(EMAIL);
+        String revoked = service.issue(EMAIL);
+
+        assertThat(other.consume(renewed)).isEqualTo(EMAIL);
+        other.revokeAll(EMAIL);
+
+        assertThatThrownBy(() -> service.consume(revoked)).isInstanceOf(InvalidRefreshTokenException.class);
+    }
+
+    @Test
+    @DisplayName("deve remover os tokens expirados")
+    void purgesExpired() {
+        service.issue(EMAIL);
+        clock.addAndGet(30_000);
+        String fresh = service.issue(EMAIL);
+        clock.addAndGet(30_000);
+
+        service.purgeExpired();
+
+        assertThat(table).hasSize(1);
+        assertThat(service.consume(fresh)).isEqualTo(EMAIL);
+    }
+}
@@ -0,0 +1,45 @@
+package vmtecnologia.com.br.UserService.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenDenylistServiceTest {
+
+    private final TokenDenylistService service = new TokenDenylistService();
+
+    @Test
+    @DisplayName("deve reconhecer tokens revogados ainda válidos")
+    void revoked() {
+        service.revoke("jti-1", System.currentTimeMillis() + 60_000L);
+
+        assertThat(service.isRevoked("jti-1")).isTrue();
+        assertThat(service.isRevoked("jti-2")).isFalse();
+        assertThat(service.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("não deve guardar tokens já expirados")
+    void ignoresExpired() {
+        service.revoke("jti-1", System.currentTimeMillis() - 1L);
+
+        assertThat(service.isRevoked("jti-1")).isFalse();
+        assertThat(service.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("deve descartar revogações quando o token expira")
+    void evictsOnExpiry() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        service.revoke("curto", now + 50L);
+        service.revoke("longo", now + 60_000L);
+
+        Thread.sleep(100L);
+        service.purgeExpired();
+
+        assertThat(service.isRevoked("curto")).isFalse();
+        assertThat(service.isRevoked("longo")).isTrue();
+        assertThat(service.size()).isEqualTo(1);
+    }
+}
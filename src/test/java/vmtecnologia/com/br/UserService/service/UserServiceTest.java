@@ -8,19 +8,34 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import vmtecnologia.com.br.UserService.cache.EmailBloomFilter;
+import vmtecnologia.com.br.UserService.cache.UnknownEmailCache;
+import vmtecnologia.com.br.UserService.cache.UserPageCache;
+import vmtecnologia.com.br.UserService.cache.UserResponseCache;
 import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.entity.UserTombstoneEntity;
 import vmtecnologia.com.br.UserService.exception.*;
+import vmtecnologia.com.br.UserService.feed.UserChangeEvent;
+import vmtecnologia.com.br.UserService.feed.UserChangeFeed;
 import vmtecnologia.com.br.UserService.mapper.UserMapper;
 import vmtecnologia.com.br.UserService.model.PageModel;
+import vmtecnologia.com.br.UserService.model.request.BulkUserRequest;
 import vmtecnologia.com.br.UserService.model.request.UserModelRequest;
 import vmtecnologia.com.br.UserService.model.response.UserModelResponse;
+import vmtecnologia.com.br.UserService.repository.UserKey;
 import vmtecnologia.com.br.UserService.repository.UserRepository;
+import vmtecnologia.com.br.UserService.repository.UserTombstoneRepository;
+import vmtecnologia.com.br.UserService.sync.ModificationSequence;
 
 import java.util.List;
 import java.util.Optional;
@@ -40,6 +55,22 @@ class UserServiceTest {
     private UserMapper userMapper;
     @Mock
     private EmailService emailService;
+    @Mock
+    private UnknownEmailCache unknownEmailCache;
+    @Mock
+    private EmailBloomFilter emailBloomFilter;
+    @Mock
+    private RefreshTokenService refreshTokenService;
+    @Mock
+    private UserResponseCache userResponseCache;
+    @Mock
+    private UserPageCache userPageCache;
+    @Mock
+    private UserChangeFeed userChangeFeed;
+    @Mock
+    private UserTombstoneRepository tombstoneRepository;
+    @Mock
+    private ModificationSequence modificationSequence;
     @InjectMocks
     private UserService userService;
 
@@ -50,6 +81,8 @@ class UserServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(userService, "maxBulkSelection", 3);
+        given(emailBloomFilter.mightContain(any())).willReturn(true);
         validRequest = UserModelRequest.builder()
                 .username("usuario")
                 .email("usuario@ex.com")
@@ -123,8 +156,40 @@ class UserServiceTest {
             then(userRepository).should().findByEmail(validRequest.getEmail());
             then(encoder).should().encode("SenhaValida1!");
             then(emailService).should().sendUserCreationEmail(validEntity.getEmail(), validEntity.getUsername());
+            then(unknownEmailCache).should().invalidate(validEntity.getEmail());
+            then(emailBloomFilter).should().add(validEntity.getEmail());
+            then(userChangeFeed).should().publish(UserChangeEvent.Type.CREATED, validEntity);
             assertThat(result).isEqualToComparingFieldByField(validResponse);
         }
+
+        @Test
+        @DisplayName("não deve consultar o e-mail quando o filtro garante que é novo")
+        void skipsLookupWhenFilterMisses() {
+            given(emailBloomFilter.mightContain(validRequest.getEmail())).willReturn(false);
+            given(encoder.encode(validRequest.getPassword())).willReturn("hashed");
+            given(userMapper.toEntity(validRequest)).willReturn(validEntity);
+            given(userRepository.save(validEntity)).willReturn(validEntity);
+            given(userMapper.toResponse(validEntity)).willReturn(validResponse);
+
+            userService.createUser(validRequest);
+
+            then(userRepository).should(never()).findByEmail(any());
+            then(userRepository).should().save(validEntity);
+        }
+
+        @Test
+        @DisplayName("deve converter violação da constraint de e-mail em EmailAlreadyExistsException")
+        void uniqueConstraintViolation() {
+            given(emailBloomFilter.mightContain(validRequest.getEmail())).willReturn(false);
+            given(encoder.encode(validRequest.getPassword())).willReturn("hashed");
+            given(userMapper.toEntity(validRequest)).willReturn(validEntity);
+            given(userRepository.save(validEntity)).willThrow(new DataIntegrityViolationException("duplicado",
+                    new ConstraintViolationException("duplicado", null, "PUBLIC.UK_USERS_EMAIL_INDEX_4")));
+
+            assertThatThrownBy(() -> userService.createUser(validRequest))
+                    .isInstanceOf(EmailAlreadyExistsException.class);
+            then(emailBloomFilter).should(never()).add(any());
+        }
     }
 
     @Nested
@@ -151,14 +216,43 @@ class UserServiceTest {
                     .enabled(true)
                     .build();
             given(userMapper.toEntity(validRequest)).willReturn(updatedEntity);
-            given(userRepository.save(updatedEntity)).willReturn(updatedEntity);
+            given(userRepository.saveAndFlush(updatedEntity)).willReturn(updatedEntity);
             given(userMapper.toResponse(updatedEntity)).willReturn(validResponse);
 
             UserModelResponse result = userService.updateUser(validRequest);
 
             then(emailService).should().sendUserUpdateEmail(updatedEntity.getEmail(), updatedEntity.getUsername());
+            then(unknownEmailCache).should().invalidate(updatedEntity.getEmail());
+            then(refreshTokenService).should().revokeAll(updatedEntity.getEmail());
+            then(userResponseCache).should().invalidate(1L);
             assertThat(result).isEqualToComparingFieldByField(validResponse);
         }
+
+        @Test
+        @DisplayName("deve lançar PreconditionFailedException se a versão esperada estiver desatualizada")
+        void staleVersion() {
+            validEntity.setVersion(3L);
+            given(userRepository.findByEmail(validRequest.getEmail())).willReturn(Optional.of(validEntity));
+
+            assertThatThrownBy(() -> userService.updateUser(validRequest, 2L))
+                    .isInstanceOf(PreconditionFailedException.class);
+            then(userRepository).should(never()).saveAndFlush(any());
+        }
+
+        @Test
+        @DisplayName("deve enviar a versão esperada na entidade atualizada")
+        void expectedVersion() {
+            validEntity.setVersion(3L);
+            given(userRepository.findByEmail(validRequest.getEmail())).willReturn(Optional.of(validEntity));
+            UserEntity updatedEntity = UserEntity.builder().email("usuario@ex.com").username("usuario").build();
+            given(userMapper.toEntity(validRequest)).willReturn(updatedEntity);
+            given(userRepository.saveAndFlush(updatedEntity)).willReturn(updatedEntity);
+
+            userService.updateUser(validRequest, 3L);
+
+            assertThat(updatedEntity.getId()).isEqualTo(1L);
+            assertThat(updatedEntity.getVersion()).isEqualTo(3L);
+        }
     }
 
     @Nested
@@ -201,6 +295,37 @@ class UserServiceTest {
             assertThat(result.getPage()).isEqualTo(0);
             assertThat(result.getPageSize()).isEqualTo(10);
             assertThat(result.getTotalPages()).isEqualTo(1);
+            then(userPageCache).should().put(new UserPageCache.PageKey(null, null, null, 0, 10), List.of(1L), 1L, 0L);
+        }
+
+        @Test
+        @DisplayName("deve montar a página pelos IDs em cache, sem a consulta filtrada")
+        void cachedPage() {
+            UserPageCache.PageKey key = new UserPageCache.PageKey("jo", null, true, 2, 10);
+            given(userPageCache.get(key)).willReturn(new UserPageCache.CachedPage(List.of(1L), 21, 0));
+            given(userRepository.findAllByIdsInOrder(List.of(1L))).willReturn(List.of(validEntity));
+            given(userMapper.toResponse(validEntity)).willReturn(validResponse);
+
+            PageModel<UserModelResponse> result = userService.findAllUsers("jo", null, true, 2, 10);
+
+            assertThat(result.getItems()).containsExactly(validResponse);
+            assertThat(result.getTotalContent()).isEqualTo(21);
+            assertThat(result.getTotalPages()).isEqualTo(3);
+            then(userRepository).should(never()).findAll(any(Specification.class), any(Pageable.class));
+        }
+
+        @Test
+        @DisplayName("deve refazer a consulta quando um usuário da página em cache não existir mais")
+        void cachedPageWithMissingUser() {
+            UserPageCache.PageKey key = new UserPageCache.PageKey(null, null, null, 0, 10);
+            given(userPageCache.get(key)).willReturn(new UserPageCache.CachedPage(List.of(1L, 2L), 2, 0));
+            given(userRepository.findAllByIdsInOrder(List.of(1L, 2L))).willReturn(List.of(validEntity));
+            given(userRepository.findAll(any(Specification.class), any(Pageable.class)))
+                    .willReturn(new PageImpl<>(List.of(validEntity), PageRequest.of(0, 10), 1));
+
+            PageModel<UserModelResponse> result = userService.findAllUsers(null, null, null, 0, 10);
+
+            assertThat(result.getTotalContent()).isEqualTo(1);
         }
 
         @Test
@@ -225,7 +350,7 @@ class UserServiceTest {
         @Test
         @DisplayName("deve lançar EntityNotFoundException quando não existe")
         void notFound() {
-            given(userRepository.existsById(99L)).willReturn(false);
+            given(userRepository.findEmailById(99L)).willReturn(Optional.empty());
             assertThatThrownBy(() -> userService.deleteUser(99L))
                     .isInstanceOf(EntityNotFoundException.class);
         }
@@ -233,12 +358,93 @@ class UserServiceTest {
         @Test
         @DisplayName("deve deletar usuário quando existir")
         void success() {
-            given(userRepository.existsById(1L)).willReturn(true);
+            given(userRepository.findEmailById(1L)).willReturn(Optional.of(validEntity.getEmail()));
+            given(modificationSequence.next()).willReturn(9L);
             willDoNothing().given(userRepository).deleteById(1L);
 
             userService.deleteUser(1L);
 
             then(userRepository).should().deleteById(1L);
+            then(emailBloomFilter).should().remove(validEntity.getEmail());
+            then(userResponseCache).should().invalidate(1L);
+            then(userPageCache).should().invalidate();
+            then(userChangeFeed).should().publishDeleted(1L, validEntity.getEmail());
+            then(tombstoneRepository).should().save(argThat(tombstone ->
+                    tombstone.getUserId() == 1L && tombstone.getModSeq() == 9L));
+        }
+    }
+
+    @Nested
+    @DisplayName("operações em lote")
+    class Bulk {
+        @Test
+        @DisplayName("deve recusar seleção sem IDs nem filtros")
+        void emptySelection() {
+            assertThatThrownBy(() -> userService.bulkSetEnabled(new BulkUserRequest(List.of(), "", null, null), false))
+                    .isInstanceOf(BulkSelectionRequiredException.class);
+            assertThatThrownBy(() -> userService.bulkDelete(new BulkUserRequest()))
+                    .isInstanceOf(BulkSelectionRequiredException.class);
+            then(userRepository).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("deve recusar seleção acima do limite, lendo uma chave além dele")
+        void selectionAboveLimit() {
+            List<UserKey> users = List.of(new UserKey(1L, "a@ex.com"), new UserKey(2L, "b@ex.com"),
+                    new UserKey(3L, "c@ex.com"), new UserKey(4L, "d@ex.com"));
+            given(userRepository.findKeys(any(), eq(Limit.of(4)))).willReturn(users);
+
+            assertThatThrownBy(() -> userService.bulkDelete(BulkUserRequest.builder().email("@ex.com").build()))
+                    .isInstanceOf(BulkSelectionTooLargeException.class);
+            then(userRepository).should(never()).delete(any(Specification.class));
+            then(userChangeFeed).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("deve habilitar em um único UPDATE e limpar os caches")
+        void enable() {
+            List<UserKey> users = List.of(new UserKey(1L, "a@ex.com"), new UserKey(2L, "b@ex.com"), new UserKey(3L, "c@ex.com"));
+            given(userRepository.findKeys(any(), any())).willReturn(users);
+            given(userRepository.updateEnabled(any(), eq(true))).willReturn(3);
+
+            long affected = userService.bulkSetEnabled(BulkUserRequest.builder().ids(List.of(1L, 2L, 3L)).build(), true);
+
+            assertThat(affected).isEqualTo(3);
+            then(userResponseCache).should().invalidateAll();
+            then(unknownEmailCache).should().invalidateAll();
+            then(userChangeFeed).should().publishAll(UserChangeEvent.Type.ENABLED, users, true);
+        }
+
+        @Test
+        @DisplayName("não deve alterar nem publicar nada quando todos já estão no estado pedido")
+        void enableWithoutChanges() {
+            given(userRepository.findKeys(any(), any())).willReturn(List.of());
+
+            long affected = userService.bulkSetEnabled(BulkUserRequest.builder().email("@ex.com").build(), true);
+
+            assertThat(affected).isZero();
+            then(userRepository).should(never()).updateEnabled(any(), anyBoolean());
+            then(userChangeFeed).shouldHaveNoInteractions();
+            then(userResponseCache).shouldHaveNoInteractions();
+        }
+
+        @Test
+        @DisplayName("deve excluir em um único DELETE, liberando e-mails e refresh tokens")
+        void delete() {
+            List<UserKey> users = List.of(new UserKey(1L, "a@ex.com"), new UserKey(2L, "b@ex.com"));
+            given(userRepository.findKeys(any(), any())).willReturn(users);
+            given(userRepository.delete(any(Specification.class))).willReturn(2L);
+
+            long affected = userService.bulkDelete(BulkUserRequest.builder().email("@ex.com").build());
+
+            assertThat(affected).isEqualTo(2);
+            then(userRepository).should().delete(any(Specification.class));
+            then(emailBloomFilter).should().remove("a@ex.com");
+            then(refreshTokenService).should().revokeAll(List.of("a@ex.com", "b@ex.com"));
+            then(userResponseCache).should().invalidateAll();
+            then(userChangeFeed).should().publishAll(UserChangeEvent.Type.DELETED, users, null);
+            then(tombstoneRepository).should().saveAll(argThat((List<UserTombstoneEntity> tombstones) ->
+                    tombstones.stream().map(UserTombstoneEntity::getEmail).toList().equals(List.of("a@ex.com", "b@ex.com"))));
         }
     }
 }
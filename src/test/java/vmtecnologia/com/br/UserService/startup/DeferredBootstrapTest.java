@@ -0,0 +1,55 @@
+package vmtecnologia.com.br.UserService.startup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.startup.deferred=true")
+@AutoConfigureMockMvc
+class DeferredBootstrapTest {
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    @DisplayName("deve adiar o bootstrap do JPA e a criação dos beans de e-mail e OpenAPI")
+    void deferredBeans() {
+        var beanFactory = context.getBeanFactory();
+
+        assertThat(environment.getProperty("spring.data.jpa.repositories.bootstrap-mode")).isEqualTo("deferred");
+        assertThat(beanFactory.getBeanDefinition("mailSender").isLazyInit()).isTrue();
+        assertThat(beanFactory.getBeanDefinition("customOpenAPI").isLazyInit()).isTrue();
+        assertThat(beanFactory.containsSingleton("mailSender")).isFalse();
+    }
+
+    @Test
+    @DisplayName("deve ficar pronto após o aquecimento e servir o OpenAPI sob demanda")
+    void readyAndLazyOpenApi() throws Exception {
+        assertThat(context.getBeanFactory().containsSingleton("customOpenAPI")).isFalse();
+
+        mvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+
+        mvc.perform(get("/v1/api-docs"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.info.title").value("User Service API"));
+        assertThat(context.getBeanFactory().containsSingleton("customOpenAPI")).isTrue();
+    }
+}
@@ -0,0 +1,53 @@
+package vmtecnologia.com.br.UserService.startup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import vmtecnologia.com.br.UserService.startup.StartupReportEndpoint.Group;
+import vmtecnologia.com.br.UserService.startup.StartupReportEndpoint.StartupReport;
+import vmtecnologia.com.br.UserService.startup.StartupReportEndpoint.Step;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StartupReportEndpointTest {
+
+    @Test
+    @DisplayName("deve ordenar as etapas pelo tempo próprio e agrupar por componente")
+    void ranksBySelfTime() throws InterruptedException {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        StartupStep parent = startup.start("spring.beans.instantiate")
+                .tag("beanName", "entityManagerFactory");
+        Thread.sleep(60);
+        StartupStep child = startup.start("spring.beans.instantiate")
+                .tag("beanName", "mailSender")
+                .tag("beanType", "org.springframework.mail.javamail.JavaMailSenderImpl");
+        Thread.sleep(20);
+        child.end();
+        parent.end();
+
+        StartupReport report = StartupReportEndpoint.build(startup.getBufferedTimeline().getEvents(), 10);
+
+        assertThat(report.available()).isTrue();
+        assertThat(report.steps()).extracting(Step::group).containsExactly("jpa", "mail");
+        Step jpa = report.steps().get(0);
+        assertThat(jpa.selfTimeMs()).isLessThan(jpa.durationMs());
+        assertThat(jpa.durationMs()).isGreaterThanOrEqualTo(80);
+        assertThat(report.groups()).extracting(Group::name).containsExactly("jpa", "mail");
+        assertThat(report.totalMs()).isEqualTo(jpa.durationMs());
+    }
+
+    @Test
+    @DisplayName("deve limitar a quantidade de etapas do ranking")
+    void limit() {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+        for (int i = 0; i < 5; i++) {
+            startup.start("step-" + i).end();
+        }
+
+        StartupReport report = StartupReportEndpoint.build(startup.getBufferedTimeline().getEvents(), 2);
+
+        assertThat(report.steps()).hasSize(2);
+        assertThat(report.groups()).singleElement().extracting(Group::steps).isEqualTo(5);
+    }
+}
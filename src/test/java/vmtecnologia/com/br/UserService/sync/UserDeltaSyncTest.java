@@ -0,0 +1,254 @@
+package vmtecnologia.com.br.UserService.sync;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.model.request.BulkUserRequest;
+import vmtecnologia.com.br.UserService.model.response.UserDeltaItem;
+import vmtecnologia.com.br.UserService.model.response.UserDeltaResponse;
+import vmtecnologia.com.br.UserService.repository.UserRepository;
+import vmtecnologia.com.br.UserService.repository.UserTombstoneRepository;
+import vmtecnologia.com.br.UserService.repository.specification.UserSpecification;
+import vmtecnologia.com.br.UserService.service.UserService;
+import vmtecnologia.com.br.UserService.service.UserSyncService;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Sobe a aplicação em um banco próprio e sincroniza a partir da marca corrente, de modo que
+ * apenas as alterações de cada teste apareçam.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:delta_sync")
+class UserDeltaSyncTest {
+
+    private static final String DOMAIN = "@delta.com";
+
+    @Autowired
+    private UserSyncService userSyncService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private ModificationSequence modificationSequence;
+
+    @Autowired
+    private ObjectProvider<UserRepository> userRepositoryProvider;
+
+    @Autowired
+    private ObjectProvider<UserTombstoneRepository> tombstoneRepositoryProvider;
+
+    @Autowired
+    private ObjectProvider<PlatformTransactionManager> transactionManagerProvider;
+
+    @Autowired
+    private ObjectProvider<DataSource> dataSourceProvider;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.delete(UserSpecification.withFilters(null, DOMAIN, null));
+    }
+
+    @Test
+    @DisplayName("deve devolver criações, alterações e exclusões na ordem de modificação, paginadas pela marca")
+    void pagesChangesAndTombstones() {
+        String watermark = currentWatermark();
+        List<UserEntity> users = IntStream.range(0, 5).mapToObj(i -> save("delta" + i)).toList();
+        UserEntity updated = users.get(1);
+        updated.setUsername("delta1-alterado");
+        userRepository.save(updated);
+        userService.deleteUser(users.get(3).getId());
+
+        List<UserDeltaResponse> pages = new ArrayList<>();
+        List<UserDeltaItem> items = new ArrayList<>();
+        UserDeltaResponse page;
+        do {
+            page = userSyncService.findChangesSince(watermark, 2);
+            pages.add(page);
+            items.addAll(page.getItems());
+            watermark = page.getWatermark();
+        } while (page.isHasMore());
+
+        assertThat(pages).hasSize(3);
+        assertThat(items).extracting(UserDeltaItem::getId, UserDeltaItem::isDeleted).containsExactly(
+                tuple(users.get(0).getId(), false),
+                tuple(users.get(2).getId(), false),
+                tuple(users.get(4).getId(), false),
+                tuple(updated.getId(), false),
+                tuple(users.get(3).getId(), true));
+        assertThat(items.get(3).getUser().getUsername()).isEqualTo("delta1-alterado");
+        assertThat(items.get(4).getEmail()).isEqualTo("delta3" + DOMAIN);
+        assertThat(userSyncService.findChangesSince(watermark, 2).getItems()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("deve desempatar pelo ID as alterações em lote, que compartilham a sequência")
+    void bulkChangesShareSequence() {
+        List<Long> ids = IntStream.range(0, 3).mapToObj(i -> save("lote" + i).getId()).toList();
+        String watermark = currentWatermark();
+
+        userService.bulkSetEnabled(BulkUserRequest.builder().ids(ids).build(), false);
+
+        UserDeltaResponse first = userSyncService.findChangesSince(watermark, 2);
+        UserDeltaResponse second = userSyncService.findChangesSince(first.getWatermark(), 2);
+
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(second.isHasMore()).isFalse();
+        assertThat(first.getWatermark()).contains(".");
+        List<UserDeltaItem> items = new ArrayList<>(first.getItems());
+        items.addAll(second.getItems());
+        assertThat(items).extracting(UserDeltaItem::getId).containsExactlyElementsOf(ids);
+        assertThat(items).allSatisfy(item -> assertThat(item.getUser().getEnabled()).isFalse());
+    }
+
+    @Test
+    @DisplayName("não deve passar da sequência de uma transação em andamento")
+    void stopsBeforeInFlightTransaction() throws Exception {
+        String watermark = currentWatermark();
+        CountDownLatch saved = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Long> pending = CompletableFuture.supplyAsync(() ->
+                new TransactionTemplate(transactionManager).execute(status -> {
+                    Long id = save("pendente").getId();
+                    saved.countDown();
+                    await(commit);
+                    return id;
+                }));
+        await(saved);
+        Long later = save("posterior").getId();
+
+        UserDeltaResponse blocked = userSyncService.findChangesSince(watermark, 10);
+        commit.countDown();
+        Long earlier = pending.get(5, TimeUnit.SECONDS);
+        UserDeltaResponse released = userSyncService.findChangesSince(blocked.getWatermark(), 10);
+
+        assertThat(blocked.getItems()).isEmpty();
+        assertThat(blocked.getWatermark()).isEqualTo(watermark);
+        assertThat(released.getItems()).extracting(UserDeltaItem::getId).containsExactly(earlier, later);
+    }
+
+    @Test
+    @DisplayName("deve percorrer apenas o trecho do índice da sequência de modificação")
+    void usesModSeqIndex() {
+        String plan = jdbc.queryForObject("EXPLAIN SELECT * FROM users"
+                + " WHERE mod_seq >= 10 AND mod_seq < 20 AND (mod_seq > 10 OR id > 3)"
+                + " ORDER BY mod_seq, id FETCH FIRST 11 ROWS ONLY", String.class);
+
+        assertThat(plan).containsIgnoringCase("IX_USERS_MOD_SEQ");
+    }
+
+    @Test
+    @DisplayName("deve reservar as sequências da sequência do banco, compartilhada entre instâncias")
+    void sharesDatabaseSequence() {
+        ModificationSequence other = instance(0L, System::currentTimeMillis);
+        try {
+            long first = modificationSequence.next();
+            long second = other.next();
+            long third = modificationSequence.next();
+
+            assertThat(second).isGreaterThan(first);
+            assertThat(third).isGreaterThan(second);
+        } finally {
+            other.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("com carência, deve ler apenas até a sequência amostrada há pelo menos a carência")
+    void commitGraceHidesRecentSequences() {
+        AtomicLong clock = new AtomicLong(1_000_000L);
+        ModificationSequence graced = instance(1_000L, clock::get);
+        try {
+            assertThat(graced.visibleBound()).isLessThanOrEqualTo(modificationSequence.visibleBound());
+
+            clock.addAndGet(1_000L);
+            graced.sample();
+            // reservada por outra instância depois da amostra ainda dentro da carência
+            long seq = modificationSequence.next();
+            clock.addAndGet(1_000L);
+            graced.sample();
+            assertThat(graced.visibleBound()).isLessThanOrEqualTo(seq);
+
+            clock.addAndGet(1_000L);
+            graced.sample();
+            assertThat(graced.visibleBound()).isGreaterThan(seq);
+        } finally {
+            graced.destroy();
+        }
+    }
+
+    @Test
+    @DisplayName("deve expurgar apenas os registros de exclusão fora da retenção")
+    void purgesOldTombstones() {
+        Long old = save("antigo").getId();
+        Long recent = save("recente").getId();
+        userService.deleteUser(old);
+        userService.deleteUser(recent);
+        jdbc.update("UPDATE user_tombstones SET deleted_at = DATEADD('DAY', -31, CURRENT_TIMESTAMP) WHERE user_id = ?", old);
+
+        userSyncService.purgeTombstones();
+
+        assertThat(jdbc.queryForList("SELECT user_id FROM user_tombstones WHERE user_id IN (?, ?)", Long.class, old, recent))
+                .containsExactly(recent);
+    }
+
+    private ModificationSequence instance(long commitGraceMillis, LongSupplier clock) {
+        return new ModificationSequence(userRepositoryProvider, tombstoneRepositoryProvider,
+                transactionManagerProvider, dataSourceProvider, commitGraceMillis, clock);
+    }
+
+    private String currentWatermark() {
+        String watermark = null;
+        UserDeltaResponse page;
+        do {
+            page = userSyncService.findChangesSince(watermark, 1000);
+            watermark = page.getWatermark();
+        } while (page.isHasMore());
+        return watermark;
+    }
+
+    private UserEntity save(String username) {
+        return userRepository.save(UserEntity.builder()
+                .username(username)
+                .email(username + DOMAIN)
+                .password("hash")
+                .enabled(true)
+                .build());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package vmtecnologia.com.br.UserService.timing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import vmtecnologia.com.br.UserService.entity.UserEntity;
+import vmtecnologia.com.br.UserService.repository.UserRepository;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.server-timing.enabled=true")
+@AutoConfigureMockMvc
+class ServerTimingTest {
+
+    private static final String EMAIL = "timing@ex.com";
+    private static final String PASSWORD = "Senha@123";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(UserEntity.builder()
+                .username("timing")
+                .email(EMAIL)
+                .password(passwordEncoder.encode(PASSWORD))
+                .enabled(true)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+    }
+
+    @Test
+    @DisplayName("deve detalhar repositório, hash e emissão do JWT no login")
+    void login() throws Exception {
+        MvcResult result = login(PASSWORD);
+
+        assertThat(result.getResponse().getHeader(ServerTimingFilter.SERVER_TIMING))
+                .contains("svc;dur=", "repo.findByEmailAndEnabled;dur=", "hash;dur=",
+                        "jwt;dur=", "ser;dur=", "total;dur=");
+    }
+
+    @Test
+    @DisplayName("deve detalhar a validação do JWT e a leitura em uma requisição autenticada")
+    void authenticatedRead() throws Exception {
+        String token = objectMapper.readTree(login(PASSWORD).getResponse().getContentAsString()).get("token").asText();
+
+        MvcResult result = mvc.perform(get("/user/api/v1/findById").param("id", user.getId().toString())
+                        .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String header = result.getResponse().getHeader(ServerTimingFilter.SERVER_TIMING);
+        assertThat(header).startsWith("jwt;dur=").contains("userdetails;dur=", "svc;dur=", "ser;dur=", "total;dur=");
+        assertThat(header).doesNotContain("hash;");
+        // o filtro JWT roda uma única vez: o usuário é carregado uma vez e o token lido e validado uma vez cada
+        assertThat(header).doesNotContainPattern("userdetails;dur=[0-9.]+;desc").contains("jwt;dur=")
+                .doesNotContainPattern("jwt;dur=[0-9.]+;desc=\"[3-9]x\"");
+    }
+
+    @Test
+    @DisplayName("deve publicar o cabeçalho também em respostas de erro")
+    void errorResponse() throws Exception {
+        MvcResult result = login("Errada@123");
+
+        assertThat(result.getResponse().getStatus()).isGreaterThanOrEqualTo(400);
+        assertThat(result.getResponse().getHeader(ServerTimingFilter.SERVER_TIMING)).contains("hash;dur=", "total;dur=");
+    }
+
+    @Test
+    @DisplayName("deve somar chamadas repetidas e contar uma vez as aninhadas")
+    void aggregatesAndIgnoresNestedCalls() {
+        ServerTiming timing = new ServerTiming();
+
+        assertThat(timing.start("svc")).isTrue();
+        assertThat(timing.start("svc")).isFalse();
+        timing.leave("svc");
+        timing.stop("svc", System.nanoTime());
+        timing.record("repo.findById", 1_500_000);
+        timing.record("repo.findById", 500_000);
+
+        assertThat(timing.count("svc")).isEqualTo(1);
+        assertThat(timing.toHeaderValue()).matches("svc;dur=\\d+\\.\\d{2}, repo\\.findById;dur=2\\.00;desc=\"2x\"");
+    }
+
+    private MvcResult login(String password) throws Exception {
+        return mvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("email", EMAIL, "password", password))))
+                .andReturn();
+    }
+}